@@ -11,7 +11,10 @@ from datetime import datetime
 def getArguments ():
     parser = argparse.ArgumentParser()
     parser.add_argument("--offline", help="Perform concolic testing offline.  An intermediate trace file is generated during the execution of the program. offilne mode results in 2X slowdown that non-offline mode", action="store_true")
+    parser.add_argument("--pipelined", help="With --offline, interpret the trace while the program under test is still running.", action="store_true")
     parser.add_argument("-v", "--verbose", help="Print commands that are executed.", action="store_true")
+    parser.add_argument("--warm", help="Run all the iterations in a single JVM.  The program under test is reloaded in each iteration, and the state between iterations is kept in memory.", action="store_true")
+    parser.add_argument("-j", "--workers", help="Explore paths in parallel with this many worker JVMs.", type=int, default=1)
     parser.add_argument("-c", "--coverage", help="Compute detailed coverage by rerunning tests.", action="store_true")
     parser.add_argument("-D", help="JVM options", action="append")
     parser.add_argument("maxIterations", help="Maximum number of times the program under test can be executed.", type=int)
@@ -64,13 +67,25 @@ def concolic ():
 
         print "[Input {} at ({}, {}, {}, {}, {})]".format(i, dt.day, dt.hour, dt.minute, dt.second, dt.microsecond)
         sys.stdout.flush()
-        subprocess.call(cmd1List, shell=windows)
         if isOffline:
-            print "..."
-            cmd2 = "java -Xmx4096M -Xms2048M -Djanala.conf="+catg_home+"catg.conf -Djanala.mainClass="+yourpgm+" -Djanala.iteration="+str(i)+" -cp "+classpath+" -ea janala.interpreters.LoadAndExecuteInstructions"
+            cmd2 = "java -Xmx4096M -Xms2048M -Djanala.conf="+catg_home+"catg.conf "+pipelinedOpt+"-Djanala.mainClass="+yourpgm+" -Djanala.iteration="+str(i)+" -cp "+classpath+" -ea janala.interpreters.LoadAndExecuteInstructions"
             if verbose:
                 print cmd2
             cmd2List = shlex.split(cmd2)
+        if isOffline and isPipelined:
+            # The interpreter follows the trace until the program writes trace.aux.
+            remove("trace")
+            remove("trace.aux")
+            interpreter = subprocess.Popen(cmd2List, shell=windows)
+            subprocess.call(cmd1List, shell=windows)
+            if not os.path.isfile("trace.aux"):
+                # The program died before its shutdown hook; let the interpreter stop.
+                open("trace.aux", "a").close()
+            interpreter.wait()
+        else:
+            subprocess.call(cmd1List, shell=windows)
+        if isOffline and not isPipelined:
+            print "..."
             subprocess.call(cmd2List, shell=windows)
         i = i + 1
         if os.path.isfile("history") or os.path.isfile("backtrackFlag"):
@@ -86,6 +101,34 @@ def concolic ():
     with open("../test.log", 'a') as f:
         f.write("****************** {} ({}) failed!!!\n".format(yourpgm, iters))
 
+def concolicWarm ():
+    if workers > 1:
+        driver = "janala.parallel.ParallelExplorer "+str(workers)+" "
+    else:
+        driver = "janala.utils.CampaignRunner "
+    cmd1 = ("java -Xmx4096M -Xms2048M -Djanala.conf=" + catg_home + "catg.conf "
+            + jvmOpts + " -javaagent:\""
+            + catg_home + "lib/catg-dev.jar\" -cp "
+            + classpath+" -ea "+driver+str(iters)+" "+yourpgm+" "+arguments)
+
+    cmd1List = shlex.split(cmd1)
+    if verbose:
+        print cmd1
+    try:
+        shutil.rmtree(catg_tmp_dir)
+    except: pass
+    os.mkdir(catg_tmp_dir)
+    os.chdir(catg_tmp_dir)
+
+    print "Now testing "+yourpgm
+    sys.stdout.flush()
+    ret = subprocess.call(cmd1List, shell=windows)
+    with open("../test.log", 'a') as f:
+        if ret == 0:
+            f.write("{} ({}) passed\n".format(yourpgm, iters))
+        else:
+            f.write("****************** {} ({}) failed!!!\n".format(yourpgm, iters))
+
 def remove(file):
     try:
         os.remove(file)
@@ -133,20 +176,30 @@ args = getArguments()
 iters = args.maxIterations
 yourpgm = args.className
 isOffline = args.offline
+isPipelined = args.pipelined
 verbose = args.verbose
+workers = args.workers
 print args.D
 if not args.D == None:
     jvmOpts = "-D"+(" -D".join(args.D))
 else:
     jvmOpts = ""
 print jvmOpts
+if isPipelined:
+    pipelinedOpt = "-Dcatg.pipelinedTrace=true "
+    jvmOpts = jvmOpts + " " + pipelinedOpt
+else:
+    pipelinedOpt = ""
 if isOffline:
     loggerClass = "janala.logger.FileLogger"
 else:
     loggerClass = "janala.logger.DirectConcolicExecution"
 arguments = ' '.join(args.arguments)
 
-concolic()
+if args.warm or workers > 1:
+    concolicWarm()
+else:
+    concolic()
 if args.coverage:
     rerunTests()
     print "\n\n*********************************************************************************************"
@@ -0,0 +1,96 @@
+package janala.instrument;
+
+import janala.logger.ClassNames;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time to instrument one class of a corpus: the integration tests (tests), the QuixBugs
+ * programs (correct_java_programs) or janala itself. Each operation takes the next class of the
+ * corpus. The baseline, copy, reads and writes the class with ASM and no adapter.
+ *
+ * The probe modes come from catg.conf and the system properties, e.g.,
+ * gradle jmh -PjmhArgs='InstrumentBenchmark -jvmArgs -Dcatg.blockProbes=true'.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InstrumentBenchmark {
+  @Param({"tests", "correct_java_programs", "janala"})
+  public String corpus;
+
+  private final List<String> names = new ArrayList<String>();
+  private final List<byte[]> classes = new ArrayList<byte[]>();
+  private Coverage coverage;
+  private ClassNames classNames;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    // The corpora are compiled to the directories of the classpath, not to jars.
+    for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      File dir = new File(path);
+      if (!dir.isDirectory()) {
+        continue;
+      }
+      OfflineInstrumenter.Input input = OfflineInstrumenter.read(dir);
+      for (String entry : input.entries) {
+        if (entry.startsWith(corpus + "/") && entry.endsWith(".class")) {
+          names.add(entry.substring(0, entry.length() - ".class".length()));
+          classes.add(input.get(entry));
+        }
+      }
+    }
+    if (classes.isEmpty()) {
+      throw new IllegalStateException("No classes in " + corpus);
+    }
+    // The classes keep their ids from one operation to the next, so the coverage does not grow.
+    coverage = new Coverage();
+    classNames = new ClassNames();
+  }
+
+  private int nextClass() {
+    int ret = next;
+    next = (ret + 1) % classes.size();
+    return ret;
+  }
+
+  @Benchmark
+  public byte[] instrument() {
+    int i = nextClass();
+    String name = names.get(i);
+    return SnoopInstructionTransformer.instrumentClass(
+            name, classes.get(i), coverage.forClass(name), classNames)
+        .bytes;
+  }
+
+  @Benchmark
+  public byte[] copy() {
+    ClassReader cr = new ClassReader(classes.get(nextClass()));
+    // Without the reader, the writer does not copy the methods as they are.
+    ClassWriter cw = new ClassWriter(0);
+    cr.accept(cw, 0);
+    return cw.toByteArray();
+  }
+}
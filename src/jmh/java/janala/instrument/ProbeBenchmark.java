@@ -0,0 +1,190 @@
+package janala.instrument;
+
+import janala.config.Config;
+import janala.logger.AbstractLogger;
+import janala.logger.ClassNames;
+import janala.logger.DJVM;
+import janala.logger.inst.Instruction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of the probes per opcode family. A kernel runs a loop over one family of
+ * instructions, uninstrumented (none), with the probes of the concolic runs (full) or with those
+ * of catg.coverageOnly. The score is the time of one iteration of the loop.
+ *
+ * The probes log to a logger that drops the instructions, so the scores are the cost of the
+ * probes and of building the instructions, not of the interpreter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProbeBenchmark {
+  static final int N = 1000;
+
+  public interface Kernel {
+    int run(int n);
+  }
+
+  /** ILOAD, ISTORE, ALOAD and ASTORE. */
+  public static class LoadsStores implements Kernel {
+    public int run(int n) {
+      int a = 1;
+      int b = 2;
+      Object o = this;
+      Object p = null;
+      for (int i = 0; i < n; i++) {
+        int t = a;
+        a = b;
+        b = t;
+        Object q = o;
+        o = p;
+        p = q;
+      }
+      return a + (o == null ? 0 : 1);
+    }
+  }
+
+  /** int and long arithmetic. */
+  public static class Arithmetic implements Kernel {
+    public int run(int n) {
+      int x = 1;
+      long y = 1;
+      for (int i = 0; i < n; i++) {
+        x = x * 31 + i;
+        x ^= x >>> 7;
+        y = y * 17 + x;
+      }
+      return x + (int) y;
+    }
+  }
+
+  /** Conditional jumps, taken both ways. */
+  public static class Branches implements Kernel {
+    public int run(int n) {
+      int x = 0;
+      for (int i = 0; i < n; i++) {
+        if ((i & 1) == 0) {
+          x++;
+        } else {
+          x--;
+        }
+        if (x > i) {
+          x = 0;
+        }
+      }
+      return x;
+    }
+  }
+
+  /** INVOKESTATIC and INVOKEVIRTUAL. */
+  public static class Invokes implements Kernel {
+    private static int add(int a, int b) {
+      return a + b;
+    }
+
+    int mix(int a) {
+      return a ^ (a >>> 3);
+    }
+
+    public int run(int n) {
+      int x = 0;
+      for (int i = 0; i < n; i++) {
+        x = add(x, i);
+        x = mix(x);
+      }
+      return x;
+    }
+  }
+
+  /** Static and instance fields, and an int array. */
+  public static class Fields implements Kernel {
+    static int count;
+    int value;
+    final int[] array = new int[16];
+
+    public int run(int n) {
+      for (int i = 0; i < n; i++) {
+        value += i;
+        count = value;
+        array[i & 15] = count;
+      }
+      return value + array[3];
+    }
+  }
+
+  /** Drops the instructions, but keeps the last one so that the JIT does not drop them. */
+  static class NullLogger extends AbstractLogger {
+    static volatile Instruction last;
+
+    @Override
+    protected void log(Instruction insn) {
+      last = insn;
+    }
+  }
+
+  static class Loader extends ClassLoader {
+    Loader() {
+      super(ProbeBenchmark.class.getClassLoader());
+    }
+
+    Class<?> define(String name, byte[] b) {
+      return defineClass(name, b, 0, b.length);
+    }
+  }
+
+  @Param({"LoadsStores", "Arithmetic", "Branches", "Invokes", "Fields"})
+  public String family;
+
+  @Param({"none", "full", "coverageOnly"})
+  public String probes;
+
+  private Kernel kernel;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    DJVM.setInterpreter(new NullLogger());
+    String name = ProbeBenchmark.class.getName() + "$" + family;
+    Class<?> c = Class.forName(name);
+    if (!probes.equals("none")) {
+      String cname = name.replace('.', '/');
+      byte[] b = OfflineInstrumenter.readAll(
+          ProbeBenchmark.class.getResourceAsStream("/" + cname + ".class"));
+      Config.instance.coverageOnly = probes.equals("coverageOnly");
+      SnoopInstructionTransformer.Instrumented result;
+      try {
+        result = SnoopInstructionTransformer.instrumentClass(
+            cname, b, new Coverage().forClass(cname), ClassNames.getInstance());
+      } finally {
+        Config.instance.coverageOnly = false;
+      }
+      if (result.failure != null) {
+        throw new IllegalStateException(result.failure);
+      }
+      c = new Loader().define(name, result.bytes);
+    }
+    kernel = (Kernel) c.newInstance();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public int run() {
+    return kernel.run(N);
+  }
+}
@@ -6,8 +6,10 @@ import dk.brics.automaton.State;
 import janala.config.Config;
 import janala.instrument.Coverage;
 import janala.interpreters.OrValue;
+import janala.utils.FileUtil;
 import janala.utils.MyLogger;
 import janala.utils.Inputs;
+import janala.utils.RunTerminated;
 
 import java.io.*;
 import java.util.HashSet;
@@ -25,6 +27,8 @@ public class Main {
   private static Inputs inputs;
   private static int scopeDepth;
   private static int inputDepth;
+  private static FileUtil fileUtil = new FileUtil();
+  private static boolean inProcess = false;
 
   static {
     scopeDepth = 0;
@@ -37,6 +41,39 @@ public class Main {
     inputs = inputsOverride;
   }
 
+  /** Set the file system used for the state files, i.e., isRealInput and oldStates. */
+  public static void setFileUtil(FileUtil fileUtilOverride) {
+    fileUtil = fileUtilOverride;
+  }
+
+  /**
+   * Reset the state of a run so that the program under test can be run again in the same JVM.
+   * After the reset, a failed assumption or a pruned path throws RunTerminated instead of
+   * exiting the JVM.
+   */
+  public static void reset(Inputs inputsOverride) {
+    inputs = inputsOverride;
+    scopeDepth = 0;
+    inputDepth = 0;
+    isInPrefix = true;
+    skipPath = false;
+    isRealInput = true;
+    pathsState = null;
+    pathRegex = null;
+    eventPrefix = "";
+    oldStates = null;
+    oldStatesChanged = false;
+    inProcess = true;
+  }
+
+  /** End the current run. */
+  private static void exit() {
+    if (inProcess) {
+      throw new RunTerminated();
+    }
+    System.exit(0);
+  }
+
   private static boolean isInputAvailable() {
     if (inputs.isInputAvailable() && scopeDepth >= inputDepth) {
       return !inputs.isBeginScope() && !inputs.isEndScope();
@@ -54,7 +91,7 @@ public class Main {
   public static void assume(int value) {
     if (value == 0) {
       System.out.println("Assumption failed!");
-      System.exit(0);
+      exit();
     }
   }
 
@@ -113,7 +150,7 @@ public class Main {
   public static void assumeOrEnd(OrValue b) {
     if (!b.boolValue()) {
       System.out.println("Assumption (OR) failed!");
-      System.exit(0);
+      exit();
     }
   }
 
@@ -234,7 +271,7 @@ public class Main {
       if (isRealInput) {
         writer =
             new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream("isRealInput"), "utf-8"));
+                new OutputStreamWriter(fileUtil.openOutput("isRealInput"), "utf-8"));
         writer.write("" + isReal);
         isRealInput = isReal;
       }
@@ -262,7 +299,7 @@ public class Main {
                 + pathRegex
                 + "'");
         Main.setRealInput(false);
-        System.exit(0);
+        exit();
       }
     }
   }
@@ -282,7 +319,7 @@ public class Main {
       ObjectInputStream inputStream = null;
 
       try {
-        inputStream = new ObjectInputStream(new FileInputStream(Config.instance.oldStates));
+        inputStream = new ObjectInputStream(fileUtil.openInput(Config.instance.oldStates));
         Object tmp = inputStream.readObject();
         if (tmp instanceof TreeMap<?,?>) {
           oldStates = (TreeMap<String, HashSet<Serializable>>) tmp;
@@ -307,7 +344,7 @@ public class Main {
     if (oldStatesChanged) {
       ObjectOutputStream outputStream;
       try {
-        outputStream = new ObjectOutputStream(new FileOutputStream(Config.instance.oldStates));
+        outputStream = new ObjectOutputStream(fileUtil.openOutput(Config.instance.oldStates));
         outputStream.writeObject(oldStates);
         outputStream.close();
       } catch (IOException e) {
@@ -333,7 +370,7 @@ public class Main {
         } else {
           System.out.println("Pruning path as equivalent state found");
           Main.setRealInput(false);
-          System.exit(0);
+          exit();
         }
       }
     }
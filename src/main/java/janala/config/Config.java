@@ -46,6 +46,19 @@ public class Config {
   
   public String oldStates;
   public boolean printHistory;
+  public String instrumentationCache;
+  public boolean recycleInstructions = true;
+  public boolean pipelinedTrace;
+  public boolean blockProbes;
+  public boolean indyProbes;
+  public boolean pruneProbes;
+  public boolean computeFrames;
+  public boolean coverageOnly;
+  public int coldIterations;
+  public String methodProfile;
+  public String idsFile;
+  public int preinstrumentThreads;
+  public String coordinatorAddress = "127.0.0.1";
 
   public Config() {
     try {
@@ -82,6 +95,49 @@ public class Config {
       scopeEndMarker = properties.getProperty("catg.scopeEndMarker", "end$$$$");
 
       oldStates = properties.getProperty("catg.oldStatesFile", "oldStates");
+      instrumentationCache =
+          properties.getProperty("catg.instrumentationCacheDir", "instrumentedCache");
+      recycleInstructions =
+          properties.getProperty("catg.recycleInstructions", "true").equals("true");
+      pipelinedTrace =
+          System.getProperty(
+                  "catg.pipelinedTrace", properties.getProperty("catg.pipelinedTrace", "false"))
+              .equals("true");
+      blockProbes =
+          System.getProperty(
+                  "catg.blockProbes", properties.getProperty("catg.blockProbes", "false"))
+              .equals("true");
+      indyProbes =
+          System.getProperty(
+                  "catg.indyProbes", properties.getProperty("catg.indyProbes", "false"))
+              .equals("true");
+      pruneProbes =
+          System.getProperty(
+                  "catg.pruneProbes", properties.getProperty("catg.pruneProbes", "false"))
+              .equals("true");
+      computeFrames =
+          System.getProperty(
+                  "catg.computeFrames", properties.getProperty("catg.computeFrames", "false"))
+              .equals("true");
+      coverageOnly =
+          System.getProperty(
+                  "catg.coverageOnly", properties.getProperty("catg.coverageOnly", "false"))
+              .equals("true");
+      coldIterations =
+          Integer.parseInt(
+              System.getProperty(
+                  "catg.coldIterations", properties.getProperty("catg.coldIterations", "0")));
+      methodProfile = properties.getProperty("catg.methodProfileFile", "methods.catg");
+      preinstrumentThreads =
+          Integer.parseInt(
+              System.getProperty(
+                  "catg.preinstrumentThreads",
+                  properties.getProperty("catg.preinstrumentThreads", "0")));
+      idsFile = System.getProperty("catg.idsFile", properties.getProperty("catg.idsFile", ""));
+      coordinatorAddress =
+          System.getProperty(
+              "catg.coordinatorAddress",
+              properties.getProperty("catg.coordinatorAddress", "127.0.0.1"));
       test = System.getProperty("catg.test", properties.getProperty("catg.test", "test"));
     } catch (IOException ex) {
       //ex.printStackTrace();
@@ -0,0 +1,358 @@
+package janala.instrument;
+
+import janala.logger.AbstractLogger;
+import janala.logger.BlockTable;
+import janala.logger.Logger;
+import janala.logger.inst.Instruction;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the probes emitted by SnoopInstructionMethodAdapter into block probes. A run of probes
+ * that only pass constants is replaced by one BLOCK(id) call at its start, and the instructions
+ * they would log are kept in the BlockTable. The probes of runtime values (GETVALUE_*, SPECIAL
+ * and LDC of references) are left in place and get a slot in the block.
+ *
+ * A block ends at a label, so that a jump never lands in its middle, and after a jump, switch,
+ * return or throw. It also ends after the probes of instructions that can run other
+ * instrumented code (invokes, and NEW, GETSTATIC and PUTSTATIC that can initialize a class),
+ * since that code enters its own blocks.
+ */
+public class BlockProbeAdapter extends MethodVisitor implements Opcodes {
+  // Kind of the probes that end the current block and are emitted as they are.
+  private static final byte UNFOLDED = -1;
+
+  private final GlobalStateForInstrumentation instrumentationState;
+  private final String analysisClass;
+  private final Recorder recorder = new Recorder();
+
+  // Constants pushed since the last instruction passed on: the arguments of the next probe,
+  // possibly preceded by constants of the program.
+  private final List<Object> pushes = new ArrayList<Object>();
+
+  // The block being built, or null.
+  private List<Instruction> insns;
+  private List<Byte> kinds;
+  private int blockId;
+
+  public BlockProbeAdapter(
+      MethodVisitor mv, GlobalStateForInstrumentation instrumentationState, String analysisClass) {
+    super(ASM5, mv);
+    this.instrumentationState = instrumentationState;
+    this.analysisClass = analysisClass;
+  }
+
+  private void flushPushes() {
+    for (Object cst : pushes) {
+      if (cst instanceof Integer && (Integer) cst >= -1 && (Integer) cst <= 5) {
+        mv.visitInsn(ICONST_0 + (Integer) cst);
+      } else {
+        mv.visitLdcInsn(cst);
+      }
+    }
+    pushes.clear();
+  }
+
+  /** Start a block whose id is the iid of its first instruction, which no other block has. */
+  private void startBlock(int iid) {
+    blockId = iid;
+    Utils.addBipushInsn(mv, blockId);
+    mv.visitMethodInsn(INVOKESTATIC, analysisClass, "BLOCK", "(I)V", false);
+    insns = new ArrayList<Instruction>();
+    kinds = new ArrayList<Byte>();
+  }
+
+  private void endBlock() {
+    if (insns == null) {
+      return;
+    }
+    byte[] k = new byte[kinds.size()];
+    for (int i = 0; i < k.length; i++) {
+      k[i] = kinds.get(i);
+    }
+    BlockTable.Block block = new BlockTable.Block(insns.toArray(new Instruction[0]), k);
+    BlockTable.define(blockId, block);
+    ClassMetadata metadata = instrumentationState.getMetadata();
+    if (metadata != null) {
+      metadata.addBlock(blockId, block);
+    }
+    insns = null;
+    kinds = null;
+  }
+
+  private static byte kindOf(String name, String desc) {
+    if (name.startsWith("GETVALUE_")) {
+      return BlockTable.VALUE;
+    }
+    if (name.equals("SPECIAL")) {
+      return BlockTable.SPECIAL;
+    }
+    if (name.equals("LDC")
+        && (desc.endsWith("Ljava/lang/String;)V") || desc.endsWith("Ljava/lang/Object;)V"))) {
+      return BlockTable.CONSTANT;
+    }
+    if (name.startsWith("INVOKEMETHOD_")
+        || name.endsWith("SWITCH")
+        || name.equals("MAKE_SYMBOLIC")
+        || name.equals("BLOCK")
+        || name.equals("flush")) {
+      return UNFOLDED;
+    }
+    return BlockTable.STATIC;
+  }
+
+  private static boolean endsBlock(String name) {
+    return name.startsWith("INVOKE")
+        || name.equals("NEW")
+        || name.equals("GETSTATIC")
+        || name.equals("PUTSTATIC");
+  }
+
+  /** The values of the arguments of a probe if they are all in pushes, or null. */
+  private Object[] constantArgs(Type[] args) {
+    if (args.length > pushes.size()) {
+      return null;
+    }
+    Object[] values = new Object[args.length];
+    int base = pushes.size() - args.length;
+    for (int i = 0; i < args.length; i++) {
+      Object cst = pushes.get(base + i);
+      Class<?> expected = Recorder.toClass(args[i]);
+      if (expected == null || !Recorder.box(expected).isInstance(cst)) {
+        return null;
+      }
+      values[i] = cst;
+    }
+    return values;
+  }
+
+  private void visitProbe(String name, String desc) {
+    byte kind = kindOf(name, desc);
+    if (kind == BlockTable.STATIC) {
+      Type[] args = Type.getArgumentTypes(desc);
+      Object[] values = constantArgs(args);
+      if (values != null) {
+        Instruction insn = recorder.record(name, desc, args, values);
+        pushes.subList(pushes.size() - args.length, pushes.size()).clear();
+        flushPushes();
+        if (insns == null) {
+          startBlock(insn.iid);
+        }
+        insns.add(insn);
+        kinds.add(BlockTable.STATIC);
+        if (endsBlock(name)) {
+          endBlock();
+        }
+        return;
+      }
+      kind = UNFOLDED;
+    }
+    flushPushes();
+    if (kind == UNFOLDED) {
+      endBlock();
+    }
+    mv.visitMethodInsn(INVOKESTATIC, analysisClass, name, desc, false);
+    if (kind != UNFOLDED && insns != null) {
+      insns.add(null);
+      kinds.add(kind);
+    }
+  }
+
+  @Override
+  public void visitInsn(int opcode) {
+    if (opcode >= ICONST_M1 && opcode <= ICONST_5) {
+      pushes.add(opcode - ICONST_0);
+      return;
+    }
+    flushPushes();
+    mv.visitInsn(opcode);
+    if ((opcode >= IRETURN && opcode <= RETURN) || opcode == ATHROW) {
+      endBlock();
+    }
+  }
+
+  @Override
+  public void visitLdcInsn(Object cst) {
+    if (cst instanceof Integer
+        || cst instanceof Long
+        || cst instanceof Float
+        || cst instanceof Double
+        || cst instanceof String) {
+      pushes.add(cst);
+      return;
+    }
+    flushPushes();
+    mv.visitLdcInsn(cst);
+  }
+
+  @Override
+  public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+    if (opcode == INVOKESTATIC && owner.equals(analysisClass)) {
+      visitProbe(name, desc);
+      return;
+    }
+    flushPushes();
+    mv.visitMethodInsn(opcode, owner, name, desc, itf);
+  }
+
+  @Override
+  public void visitIntInsn(int opcode, int operand) {
+    flushPushes();
+    mv.visitIntInsn(opcode, operand);
+  }
+
+  @Override
+  public void visitVarInsn(int opcode, int var) {
+    flushPushes();
+    mv.visitVarInsn(opcode, var);
+    if (opcode == RET) {
+      endBlock();
+    }
+  }
+
+  @Override
+  public void visitTypeInsn(int opcode, String type) {
+    flushPushes();
+    mv.visitTypeInsn(opcode, type);
+  }
+
+  @Override
+  public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+    flushPushes();
+    mv.visitFieldInsn(opcode, owner, name, desc);
+  }
+
+  @Override
+  public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
+    flushPushes();
+    mv.visitInvokeDynamicInsn(name, desc, bsm, bsmArgs);
+  }
+
+  @Override
+  public void visitJumpInsn(int opcode, Label label) {
+    flushPushes();
+    mv.visitJumpInsn(opcode, label);
+    endBlock();
+  }
+
+  @Override
+  public void visitLabel(Label label) {
+    flushPushes();
+    endBlock();
+    mv.visitLabel(label);
+  }
+
+  @Override
+  public void visitIincInsn(int var, int increment) {
+    flushPushes();
+    mv.visitIincInsn(var, increment);
+  }
+
+  @Override
+  public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+    flushPushes();
+    mv.visitTableSwitchInsn(min, max, dflt, labels);
+    endBlock();
+  }
+
+  @Override
+  public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+    flushPushes();
+    mv.visitLookupSwitchInsn(dflt, keys, labels);
+    endBlock();
+  }
+
+  @Override
+  public void visitMultiANewArrayInsn(String desc, int dims) {
+    flushPushes();
+    mv.visitMultiANewArrayInsn(desc, dims);
+  }
+
+  @Override
+  public void visitFrame(int type, int nLocal, Object[] local, int nStack, Object[] stack) {
+    flushPushes();
+    mv.visitFrame(type, nLocal, local, nStack, stack);
+  }
+
+  @Override
+  public void visitMaxs(int maxStack, int maxLocals) {
+    flushPushes();
+    endBlock();
+    mv.visitMaxs(maxStack, maxLocals);
+  }
+
+  /** Builds the instruction of a probe by calling it on a logger that keeps the last one. */
+  private static class Recorder extends AbstractLogger {
+    private final Map<String, Method> probes = new HashMap<String, Method>();
+    private Instruction last;
+
+    @Override
+    protected void log(Instruction insn) {
+      last = insn;
+    }
+
+    Instruction record(String name, String desc, Type[] args, Object[] values) {
+      try {
+        Method probe = probes.get(name + desc);
+        if (probe == null) {
+          Class<?>[] types = new Class<?>[args.length];
+          for (int i = 0; i < args.length; i++) {
+            types[i] = toClass(args[i]);
+          }
+          probe = Logger.class.getMethod(name, types);
+          probes.put(name + desc, probe);
+        }
+        last = null;
+        probe.invoke(this, values);
+        return last;
+      } catch (NoSuchMethodException e) {
+        throw new RuntimeException(e);
+      } catch (IllegalAccessException e) {
+        throw new RuntimeException(e);
+      } catch (InvocationTargetException e) {
+        throw new RuntimeException(e.getCause());
+      }
+    }
+
+    static Class<?> toClass(Type t) {
+      switch (t.getSort()) {
+        case Type.INT:
+          return int.class;
+        case Type.LONG:
+          return long.class;
+        case Type.FLOAT:
+          return float.class;
+        case Type.DOUBLE:
+          return double.class;
+        case Type.OBJECT:
+          return t.getInternalName().equals("java/lang/String") ? String.class : null;
+        default:
+          return null;
+      }
+    }
+
+    static Class<?> box(Class<?> c) {
+      if (c == int.class) {
+        return Integer.class;
+      } else if (c == long.class) {
+        return Long.class;
+      } else if (c == float.class) {
+        return Float.class;
+      } else if (c == double.class) {
+        return Double.class;
+      }
+      return c;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package janala.instrument;
+
+import janala.config.Config;
+import janala.logger.BlockTable;
+import janala.logger.ClassNames;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ids that the instrumentation of a class handed out and baked into the instrumented
+ * bytes: the class id, the class and field indices, the methods and branches registered in
+ * the coverage, the probed blocks and the methods registered in the MethodProfile. Replaying
+ * it brings the registries to the state they would have after instrumenting the class again.
+ * It also keeps the fields that the class declares, for the ClassDepot.
+ */
+public class ClassMetadata implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final int cid;
+  private final List<String> classRefs = new ArrayList<String>();
+  private final List<Integer> classIndices = new ArrayList<Integer>();
+  private final List<FieldRef> fieldRefs = new ArrayList<FieldRef>();
+  private final List<Integer> idBlocks = new ArrayList<Integer>();
+  private final List<Integer> methodIds = new ArrayList<Integer>();
+  private final List<String> methods = new ArrayList<String>(); // In mid order
+  private final List<Integer> branches = new ArrayList<Integer>();
+  private final List<Integer> blockIds = new ArrayList<Integer>();
+  private final List<BlockTable.Block> blocks = new ArrayList<BlockTable.Block>();
+  private final List<Integer> profiledCidmids = new ArrayList<Integer>();
+  private final List<String> profiledKeys = new ArrayList<String>();
+  private String superName;
+  private List<String> fields;
+  private List<String> staticFields;
+
+  private static class FieldRef implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final int cIdx;
+    final String name;
+    final boolean isStatic;
+    final int fIdx;
+
+    FieldRef(int cIdx, String name, boolean isStatic, int fIdx) {
+      this.cIdx = cIdx;
+      this.name = name;
+      this.isStatic = isStatic;
+      this.fIdx = fIdx;
+    }
+  }
+
+  public ClassMetadata(int cid) {
+    this.cid = cid;
+  }
+
+  public int getCid() {
+    return cid;
+  }
+
+  public void addClassRef(String className, int cIdx) {
+    classRefs.add(className);
+    classIndices.add(cIdx);
+  }
+
+  public void addFieldRef(int cIdx, String fieldName, boolean isStatic, int fIdx) {
+    fieldRefs.add(new FieldRef(cIdx, fieldName, isStatic, fIdx));
+  }
+
+  /** Record the next block of the instruction ids of the class. */
+  public void addIdBlock(int block) {
+    idBlocks.add(block);
+  }
+
+  public int getIdBlockCount() {
+    return idBlocks.size();
+  }
+
+  public void addMethod(int methodId, String name) {
+    methodIds.add(methodId);
+    methods.add(name);
+  }
+
+  public void addBranch(int iid) {
+    branches.add(iid);
+  }
+
+  public void addBlock(int id, BlockTable.Block block) {
+    blockIds.add(id);
+    blocks.add(block);
+  }
+
+  public void addProfiledMethod(int cidmid, String key) {
+    profiledCidmids.add(cidmid);
+    profiledKeys.add(key);
+  }
+
+  /** Record the fields declared by the class, see ClassDepot.addClass. */
+  public void setLayout(String superName, List<String> fields, List<String> staticFields) {
+    this.superName = superName;
+    this.fields = new ArrayList<String>(fields);
+    this.staticFields = new ArrayList<String>(staticFields);
+  }
+
+  /**
+   * Replay the registrations of the class.
+   *
+   * @return false if the registries would hand out different ids than the ones in the
+   *     instrumented bytes. The coverage is left untouched in that case.
+   */
+  public boolean replay(String cname, Coverage coverage, ClassNames classNames) {
+    // The ids must not change between the checks and the registrations.
+    synchronized (coverage) {
+      if (coverage.lookupCid(cname) != cid) {
+        return false;
+      }
+      for (int i = 0; i < idBlocks.size(); i++) {
+        if (coverage.lookupId(cid, i << IdTable.BLOCK_BITS) != idBlocks.get(i) << IdTable.BLOCK_BITS) {
+          return false;
+        }
+      }
+      for (int i = 0; i < classRefs.size(); i++) {
+        if (classNames.get(classRefs.get(i)) != classIndices.get(i)) {
+          return false;
+        }
+      }
+      for (FieldRef f : fieldRefs) {
+        if (classNames.get(f.cIdx).getIdx(f.name, f.isStatic) != f.fIdx) {
+          return false;
+        }
+      }
+
+      coverage.getCid(cname);
+      for (int i = 0; i < methods.size(); i++) {
+        coverage.setLastMethod(methods.get(i));
+        coverage.setCidmidToName(methodIds.get(i));
+      }
+      for (int iid : branches) {
+        coverage.addBranchCount(iid);
+      }
+      classNames.getClassDepot().addClass(cname.replace('/', '.'), superName, fields,
+          staticFields);
+      define();
+      return true;
+    }
+  }
+
+  /**
+   * Define the blocks and the profiled methods of the class, which the running program needs
+   * besides the coverage and the class names.
+   */
+  public void define() {
+    for (int i = 0; i < blocks.size(); i++) {
+      BlockTable.define(blockIds.get(i), blocks.get(i));
+    }
+    if (!profiledKeys.isEmpty()) {
+      MethodProfile profile = MethodProfile.load(Config.instance.methodProfile);
+      for (int i = 0; i < profiledKeys.size(); i++) {
+        profile.register(profiledCidmids.get(i), profiledKeys.get(i));
+      }
+    }
+  }
+}
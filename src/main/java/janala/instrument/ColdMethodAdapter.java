@@ -0,0 +1,122 @@
+package janala.instrument;
+
+import janala.logger.inst.SPECIAL;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.LinkedList;
+
+/**
+ * The instrumentation of a method that is cold in the MethodProfile. The code of the method is
+ * left alone, so the interpreter sees it like a library method: the instrumented caller models
+ * the call and syncs its stack with GETVALUE. Only the calls of the method are wrapped in
+ * SPECIAL(OPAQUE_CALL) and SPECIAL(OPAQUE_RETURN), so that an instrumented callee runs in a
+ * frame of its own and the frame is dropped when the call returns or throws.
+ *
+ * The method still takes its mid and its method id, and SnoopInstructionClassAdapter takes the ids
+ * of its instructions, so the ids of the other methods of the class do not change.
+ */
+public class ColdMethodAdapter extends MethodVisitor implements Opcodes {
+  private final boolean isInit;
+  private final Coverage coverage;
+  private final GlobalStateForInstrumentation instrumentationState;
+  private final LinkedList<TryCatchBlock> tryCatchBlocks = new LinkedList<TryCatchBlock>();
+  // The frames of the method, or null if the writer computes them.
+  private final FrameKeeper frames;
+
+  public ColdMethodAdapter(MethodVisitor mv, boolean isInit, Coverage coverage,
+      GlobalStateForInstrumentation instrumentationState) {
+    this(mv, isInit, coverage, instrumentationState, null);
+  }
+
+  public ColdMethodAdapter(MethodVisitor mv, boolean isInit, Coverage coverage,
+      GlobalStateForInstrumentation instrumentationState, FrameKeeper frames) {
+    super(ASM5, mv);
+    this.isInit = isInit;
+    this.coverage = coverage;
+    this.instrumentationState = instrumentationState;
+    this.frames = frames;
+  }
+
+  @Override
+  public void visitCode() {
+    instrumentationState.incMid();
+    coverage.setCidmidToName(instrumentationState.getMethodId());
+    ClassMetadata metadata = instrumentationState.getMetadata();
+    if (metadata != null) {
+      metadata.addMethod(instrumentationState.getMethodId(), coverage.getLastMethod());
+    }
+    mv.visitCode();
+  }
+
+  private Label beginCall() {
+    Utils.addSpecialInsn(mv, SPECIAL.OPAQUE_CALL);
+    Label begin = new Label();
+    mv.visitLabel(begin);
+    return begin;
+  }
+
+  private void endCall(Label begin) {
+    if (frames != null) {
+      // The handler at the end of the method needs the only new frame.
+      Label end = new Label();
+      mv.visitLabel(end);
+      tryCatchBlocks.addFirst(new TryCatchBlock(begin, end, frames.getHandler(), null));
+      Utils.addSpecialInsn(mv, SPECIAL.OPAQUE_RETURN);
+      return;
+    }
+    Label handler = new Label();
+    Label end = new Label();
+    tryCatchBlocks.addFirst(new TryCatchBlock(begin, handler, handler, null));
+    mv.visitJumpInsn(GOTO, end);
+
+    mv.visitLabel(handler);
+    Utils.addSpecialInsn(mv, SPECIAL.OPAQUE_RETURN);
+    mv.visitInsn(ATHROW);
+
+    mv.visitLabel(end);
+    Utils.addSpecialInsn(mv, SPECIAL.OPAQUE_RETURN);
+  }
+
+  @Override
+  public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+    if (isInit && opcode == INVOKESPECIAL && name.equals("<init>")) {
+      // this may not be initialized yet, so the call cannot be in a try block. As in
+      // SnoopInstructionMethodAdapter, the constructor runs in the frame of the caller.
+      mv.visitMethodInsn(opcode, owner, name, desc, itf);
+      return;
+    }
+    Label begin = beginCall();
+    mv.visitMethodInsn(opcode, owner, name, desc, itf);
+    endCall(begin);
+  }
+
+  @Override
+  public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
+    Label begin = beginCall();
+    mv.visitInvokeDynamicInsn(name, desc, bsm, bsmArgs);
+    endCall(begin);
+  }
+
+  @Override
+  public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+    tryCatchBlocks.addLast(new TryCatchBlock(start, end, handler, type));
+  }
+
+  @Override
+  public void visitMaxs(int maxStack, int maxLocals) {
+    if (frames != null) {
+      for (Label handler : frames.getHandlers()) {
+        frames.visitHandler(mv, handler);
+        Utils.addSpecialInsn(mv, SPECIAL.OPAQUE_RETURN);
+        mv.visitInsn(ATHROW);
+      }
+    }
+    for (TryCatchBlock b : tryCatchBlocks) {
+      b.visit(mv);
+    }
+    mv.visitMaxs(maxStack + 1, maxLocals);
+  }
+}
@@ -10,10 +10,11 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Coverage implements Serializable {
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
   
   private final HashMap<String, Integer> classNameToCid;
-  private final TreeMap<Integer, String> cidmidToName;
+  private final TreeMap<Integer, String> cidmidToName; // By method id
+  private final IdTable ids;
   private int nBranches;
   private int nCovered;
   private final TreeMap<Integer, Integer> covered;
@@ -52,8 +53,26 @@ public class Coverage implements Serializable {
   private String lastClassName;
    
   public static Coverage instance = null;
+  private static String loadedFrom = null; // The file the instance was loaded from
   
   private static final Logger logger = MyLogger.getLogger(Coverage.class.getName());
+
+  // Records of the journal, which is appended to fileName.log
+  private static final byte CLASS = 1;
+  private static final byte METHOD = 2;
+  private static final byte BRANCH = 3;
+  private static final byte COVERED = 4;
+  private static final byte BLOCK = 5;
+
+  /** The journal is compacted into the coverage file when it grows beyond this size. */
+  private static final long MAX_JOURNAL_BYTES = 1 << 20;
+
+  // Changes since the coverage was loaded, not written yet
+  private transient ByteArrayOutputStream deltaBytes;
+  private transient DataOutputStream delta;
+  private transient boolean replaying;
+  // The coverage that a coverage returned by forClass takes its ids from
+  private transient Coverage parent;
   
   
   public Coverage() {
@@ -63,6 +82,7 @@ public class Coverage implements Serializable {
     covered = new TreeMap<Integer, Integer>();
     tmpCovered = new TreeMap<Integer, Integer>();
     cidmidToName = new TreeMap<Integer, String>();
+    ids = new IdTable();
   }
 
   public static Coverage get() {
@@ -102,8 +122,158 @@ public class Coverage implements Serializable {
       instance = new Coverage();
     }
   }
+
+  /**
+   * Read the coverage file and its journal, once per JVM. Later calls with the same file
+   * return the same instance, which keeps the ids handed out since.
+   */
+  public static synchronized Coverage load(String fileName) {
+    if (fileName == null) {
+      return get();
+    }
+    if (instance != null && fileName.equals(loadedFrom)) {
+      return instance;
+    }
+    read(fileName);
+    instance.replayJournal(new File(fileName + ".log"));
+    loadedFrom = fileName;
+    return instance;
+  }
+
+  private void replayJournal(File journal) {
+    if (!journal.exists()) {
+      return;
+    }
+    replaying = true;
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)));
+      while (true) {
+        byte tag = in.readByte();
+        switch (tag) {
+          case CLASS:
+            String cname = in.readUTF();
+            classNameToCid.put(cname, in.readInt());
+            break;
+          case METHOD:
+            int cidmid = in.readInt();
+            cidmidToName.put(cidmid, in.readUTF());
+            ids.addMethod(cidmid);
+            break;
+          case BRANCH:
+            int iid = in.readInt();
+            if (!covered.containsKey(iid)) {
+              nBranches += 2;
+              covered.put(iid, 0);
+            }
+            break;
+          case COVERED:
+            int key = in.readInt();
+            tmpCovered.clear();
+            tmpCovered.put(key, in.readInt());
+            commitBranches(false);
+            break;
+          case BLOCK:
+            int blockCid = in.readInt();
+            ids.add(blockCid, in.readInt());
+            break;
+          default:
+            throw new IOException("Bad coverage journal record " + tag);
+        }
+      }
+    } catch (EOFException e) {
+      // End of the journal, or a record cut by a crash
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "", e);
+    } finally {
+      replaying = false;
+      tmpCovered.clear();
+      if (in != null) {
+        try {
+          in.close();
+        } catch (IOException unused) {
+        }
+      }
+    }
+  }
+
+  private DataOutputStream delta() {
+    if (delta == null) {
+      deltaBytes = new ByteArrayOutputStream();
+      delta = new DataOutputStream(deltaBytes);
+    }
+    return delta;
+  }
+
+  private void record(byte tag, int value, String name, int value2) {
+    if (replaying) {
+      return;
+    }
+    try {
+      DataOutputStream out = delta();
+      out.writeByte(tag);
+      switch (tag) {
+        case CLASS:
+          out.writeUTF(name);
+          out.writeInt(value);
+          break;
+        case METHOD:
+          out.writeInt(value);
+          out.writeUTF(name);
+          break;
+        case BRANCH:
+          out.writeInt(value);
+          break;
+        default:
+          out.writeInt(value);
+          out.writeInt(value2);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Append the changes since the coverage was loaded to the journal of the coverage file,
+   * and compact the journal into the file when it is large. A coverage that was not loaded
+   * from the file is written as a whole.
+   */
+  public synchronized void writeDelta(String fileName) {
+    if (fileName == null) {
+      return;
+    }
+    File journal = new File(fileName + ".log");
+    if (this != instance || !fileName.equals(loadedFrom) || !new File(fileName).exists()) {
+      compact(fileName);
+      return;
+    }
+    this.tmpCovered.clear();
+    try {
+      if (deltaBytes != null && deltaBytes.size() > 0) {
+        FileOutputStream out = new FileOutputStream(journal, true);
+        deltaBytes.writeTo(out);
+        out.close();
+        deltaBytes.reset();
+      }
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "", e);
+      throw new RuntimeException("Error happened while writing coverage");
+    }
+    if (journal.length() > MAX_JOURNAL_BYTES) {
+      compact(fileName);
+    }
+  }
+
+  /** Write the whole coverage to the file and drop its journal. */
+  public synchronized void compact(String fileName) {
+    write(fileName);
+    new File(fileName + ".log").delete();
+    if (deltaBytes != null) {
+      deltaBytes.reset();
+    }
+  }
   
-  public void write(OutputStream os) throws IOException {
+  public synchronized void write(OutputStream os) throws IOException {
     ObjectOutputStream outputStream = new ObjectOutputStream(os);
     this.tmpCovered.clear();
     outputStream.writeObject(this);
@@ -122,7 +292,7 @@ public class Coverage implements Serializable {
      
   }
 
-  public int getCid(String cname) {
+  public synchronized int getCid(String cname) {
     int ret = -1; // invalid
     lastClassName = cname;
     if (classNameToCid.containsKey(cname)) {
@@ -130,6 +300,7 @@ public class Coverage implements Serializable {
       return classNameToCid.get(cname);
     } else {
       classNameToCid.put(cname, ret = classNameToCid.size());
+      record(CLASS, ret, cname, 0);
       if (cname.equals("catg/CATG")) {
         isNewClass = false;
       } else {
@@ -139,16 +310,109 @@ public class Coverage implements Serializable {
     }
   }
 
-  public void setCidmidToName(int mid) {
-    int cid = classNameToCid.get(lastClassName);
-    int cidmid = GlobalStateForInstrumentation.getCidMid(cid, mid);
-    cidmidToName.put(cidmid, lastClassName + "." + lastMethod);
+  /**
+   * Register a class and get a coverage of its own for instrumenting it, e.g., on another
+   * thread. The methods and branches it registers are added back with merge; the instruction
+   * ids come from this coverage.
+   */
+  public synchronized Coverage forClass(String cname) {
+    Coverage part = new Coverage();
+    part.parent = this;
+    part.classNameToCid.put(cname, getCid(cname));
+    part.lastClassName = cname;
+    part.isNewClass = isNewClass;
+    return part;
+  }
+
+  /** Add the methods and branches registered in a coverage returned by forClass. */
+  public synchronized void merge(Coverage part) {
+    for (Map.Entry<Integer, String> e : part.cidmidToName.entrySet()) {
+      if (!e.getValue().equals(cidmidToName.put(e.getKey(), e.getValue()))) {
+        record(METHOD, e.getKey(), e.getValue(), 0);
+      }
+      ids.addMethod(e.getKey());
+    }
+    for (int iid : part.covered.keySet()) {
+      if (!covered.containsKey(iid)) {
+        nBranches += 2;
+        covered.put(iid, 0);
+        record(BRANCH, iid, null, 0);
+      }
+    }
+  }
+
+  /** The cid that getCid would return, without registering the class. */
+  public int lookupCid(String cname) {
+    Integer cid = classNameToCid.get(cname);
+    if (cid == null) {
+      return classNameToCid.size();
+    }
+    return cid;
+  }
+
+  /** Name the method of a method id after the last class and the last method. */
+  public void setCidmidToName(int cidmid) {
+    String name = lastClassName + "." + lastMethod;
+    if (!name.equals(cidmidToName.put(cidmid, name))) {
+      record(METHOD, cidmid, name, 0);
+    }
+    if (parent == null) {
+      synchronized (this) {
+        ids.addMethod(cidmid);
+      }
+    }
+  }
+
+  /** The global id of a local instruction id of a class, allocating its block if needed. */
+  public int getId(int cid, int local) {
+    if (parent != null) {
+      return parent.getId(cid, local);
+    }
+    synchronized (this) {
+      int id = ids.lookup(cid, local);
+      while (id < 0) {
+        record(BLOCK, cid, null, ids.allocate(cid));
+        id = ids.lookup(cid, local);
+      }
+      return id;
+    }
+  }
+
+  /**
+   * Allocate the blocks of the local ids 1 to n of a class now, so that the classes instrumented
+   * in parallel get the same ids whatever the order in which they ask for them.
+   */
+  public void reserveIds(int cid, int n) {
+    if (n > 0) {
+      getId(cid, n);
+    }
+  }
+
+  /** The global id of a local instruction id of a class, or -1 if it has none yet. */
+  public int lookupId(int cid, int local) {
+    if (parent != null) {
+      return parent.lookupId(cid, local);
+    }
+    synchronized (this) {
+      return ids.lookup(cid, local);
+    }
+  }
+
+  /** The method id of the method of an instruction id, or -1 if unknown. */
+  public int getMethod(int iid) {
+    if (parent != null) {
+      return parent.getMethod(iid);
+    }
+    synchronized (this) {
+      return ids.getMethod(iid);
+    }
   }
 
   public void addBranchCount(int iid) {
     if (isNewClass) {
       nBranches += 2;
       covered.put(iid, 0);
+      record(BRANCH, iid, null, 0);
     }
   }
 
@@ -159,12 +423,20 @@ public class Coverage implements Serializable {
     tmpCovered.put(iid, tmpCovered.get(iid) | (side ? 1 : 2));
   }
 
-  public void commitBranches(boolean print) {
+  /** The branches visited since the last commit, as iid to sides (1 for true, 2 for false). */
+  public TreeMap<Integer, Integer> getRunCoverage() {
+    return new TreeMap<Integer, Integer>(tmpCovered);
+  }
+
+  public synchronized void commitBranches(boolean print) {
     for (int key : tmpCovered.keySet()) {
       int value = tmpCovered.get(key);
       if (covered.containsKey(key)) {
         int oldValue = covered.get(key);
         covered.put(key, oldValue | value);
+        if ((oldValue | value) != oldValue) {
+          record(COVERED, key, null, oldValue | value);
+        }
         if ((value & 2) > (oldValue & 2)) {
           nCovered++;
         }
@@ -183,7 +455,7 @@ public class Coverage implements Serializable {
     Map<Integer, Integer> methodToCoveredBranches = new TreeMap<Integer, Integer>();
     Map<Integer, Boolean> mcovered = new TreeMap<Integer, Boolean>();
     for (int key : covered.keySet()) {
-      int cidmid = GlobalStateForInstrumentation.extractCidMid(key);
+      int cidmid = getMethod(key);
       if (!methodToTotalBranches.containsKey(cidmid)) {
         methodToTotalBranches.put(cidmid, 0);
         methodToCoveredBranches.put(cidmid, 0);
@@ -0,0 +1,134 @@
+package janala.instrument;
+
+import janala.config.Config;
+import janala.logger.ClassNames;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.util.Printer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The instrumentation of catg.coverageOnly: each conditional jump and switch gets a call to
+ * CoverageLogger with a copy of its operands, and the rest of the code is left alone.
+ *
+ * The method is buffered and first replayed to a SnoopInstructionMethodAdapter that writes
+ * nothing, which takes the ids and registers the method and its branches as the full
+ * instrumentation does. The probes take the ids of the branches in the order it registers them,
+ * so the coverage of the two modes can be merged.
+ */
+public class CoverageProbeAdapter extends MethodNode implements Opcodes {
+  public static final String LOGGER = "janala/logger/CoverageLogger";
+
+  private final MethodVisitor next;
+  private final MethodVisitor ids;
+  private final List<Integer> branches = new ArrayList<Integer>();
+
+  public CoverageProbeAdapter(int access, String name, String desc, String signature,
+      String[] exceptions, String owner, MethodVisitor next, Coverage coverage,
+      GlobalStateForInstrumentation state, ClassNames classNames) {
+    super(ASM5, access, name, desc, signature, exceptions);
+    this.next = next;
+    MethodVisitor none = new MethodVisitor(ASM5) {};
+    MethodVisitor snoop =
+        new SnoopInstructionMethodAdapter(none, name.equals("<init>"), coverage, state,
+            classNames) {
+          @Override
+          protected void addBranchCount(int iid) {
+            super.addBranchCount(iid);
+            branches.add(iid);
+          }
+        };
+    if (Config.instance.pruneProbes) {
+      // The pruned instructions take no ids.
+      snoop = new ProbePruningAdapter(access, name, desc, signature, exceptions, owner, snoop,
+          none);
+    }
+    this.ids = snoop;
+  }
+
+  @Override
+  public void visitEnd() {
+    accept(ids);
+    int k = 0;
+    for (AbstractInsnNode insn = instructions.getFirst(); insn != null; insn = insn.getNext()) {
+      MethodNode probe = new MethodNode();
+      int opcode = insn.getOpcode();
+      switch (insn.getType()) {
+        case AbstractInsnNode.JUMP_INSN:
+          if (opcode == GOTO || opcode == JSR) {
+            continue;
+          }
+          addJumpProbe(probe, opcode, branches.get(k++));
+          break;
+        case AbstractInsnNode.TABLESWITCH_INSN:
+          TableSwitchInsnNode table = (TableSwitchInsnNode) insn;
+          probe.visitInsn(DUP);
+          Utils.addBipushInsn(probe, branches.get(k));
+          Utils.addBipushInsn(probe, table.min);
+          Utils.addBipushInsn(probe, table.max);
+          probe.visitMethodInsn(INVOKESTATIC, LOGGER, "TABLESWITCH", "(IIII)V", false);
+          k += table.labels.size();
+          break;
+        case AbstractInsnNode.LOOKUPSWITCH_INSN:
+          LookupSwitchInsnNode lookup = (LookupSwitchInsnNode) insn;
+          if (lookup.keys.isEmpty()) {
+            continue;
+          }
+          probe.visitInsn(DUP);
+          Utils.addBipushInsn(probe, branches.get(k));
+          Utils.addBipushInsn(probe, lookup.keys.size());
+          probe.visitIntInsn(NEWARRAY, T_INT);
+          for (int i = 0; i < lookup.keys.size(); i++) {
+            probe.visitInsn(DUP);
+            Utils.addBipushInsn(probe, i);
+            Utils.addBipushInsn(probe, (Integer) lookup.keys.get(i));
+            probe.visitInsn(IASTORE);
+          }
+          probe.visitMethodInsn(INVOKESTATIC, LOGGER, "LOOKUPSWITCH", "(II[I)V", false);
+          k += lookup.labels.size();
+          break;
+        default:
+          continue;
+      }
+      instructions.insertBefore(insn, probe.instructions);
+    }
+    maxStack += 6;
+    accept(next);
+  }
+
+  private static void addJumpProbe(MethodVisitor mv, int opcode, int iid) {
+    String desc;
+    switch (opcode) {
+      case IF_ICMPEQ:
+      case IF_ICMPNE:
+      case IF_ICMPLT:
+      case IF_ICMPGE:
+      case IF_ICMPGT:
+      case IF_ICMPLE:
+        mv.visitInsn(DUP2);
+        desc = "(III)V";
+        break;
+      case IF_ACMPEQ:
+      case IF_ACMPNE:
+        mv.visitInsn(DUP2);
+        desc = "(Ljava/lang/Object;Ljava/lang/Object;I)V";
+        break;
+      case IFNULL:
+      case IFNONNULL:
+        mv.visitInsn(DUP);
+        desc = "(Ljava/lang/Object;I)V";
+        break;
+      default:
+        mv.visitInsn(DUP);
+        desc = "(II)V";
+    }
+    Utils.addBipushInsn(mv, iid);
+    mv.visitMethodInsn(INVOKESTATIC, LOGGER, Printer.OPCODES[opcode], desc, false);
+  }
+}
@@ -0,0 +1,182 @@
+package janala.instrument;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the stack map frames of a method valid through the instrumentation, so that the class
+ * can be written without ClassWriter.COMPUTE_FRAMES, which loads classes to merge types. The
+ * class must be read with ClassReader.EXPAND_FRAMES.
+ *
+ * The probes leave the locals alone and the stack as they found it, so the frames of the class
+ * still hold. The calls that the instrumentation wraps in try blocks share a handler at the end
+ * of the method, which needs the only new frame. It uses no local, but the frame must still say
+ * whether this is initialized, so there is a handler for the calls before the call to super in
+ * a constructor.
+ *
+ * The probe of a NEW moves the instruction away from the label of its offset, which the frames
+ * use for the uninitialized value. The relabeler, the last visitor before the writer, puts a
+ * label right before each NEW and fixes the frames.
+ */
+public class FrameKeeper {
+  private static final Object[] NONE = {};
+  private static final Object[] THIS = {Opcodes.UNINITIALIZED_THIS};
+  private static final Object[] THROWABLE = {"java/lang/Throwable"};
+
+  private final boolean isInit;
+  // The NEWs that are not initialized yet, and whether this is, in a constructor.
+  private int uninitialized = 0;
+  private boolean thisInitialized;
+
+  // The labels visited since the last NEW, and the index of the NEW that each label of an
+  // uninitialized value stands for.
+  private final List<Label> sinceNew = new ArrayList<Label>();
+  private final Map<Label, Integer> news = new HashMap<Label, Integer>();
+  private int nNews = 0;
+  // The labels right before the NEWs in the instrumented code, by index.
+  private final List<Label> newLabels = new ArrayList<Label>();
+
+  private Label handler;
+  private Label initHandler;
+
+  public FrameKeeper(boolean isInit) {
+    this.isInit = isInit;
+    this.thisInitialized = !isInit;
+  }
+
+  /** Whether the frames of a class of the given version can be kept. */
+  public static boolean canUse(int version) {
+    // From Java 7 on, every method with branches has frames.
+    return (version & 0xFFFF) >= Opcodes.V1_7;
+  }
+
+  /** The handler for a call from the current instruction. */
+  public Label getHandler() {
+    if (thisInitialized) {
+      if (handler == null) {
+        handler = new Label();
+      }
+      return handler;
+    }
+    if (initHandler == null) {
+      initHandler = new Label();
+    }
+    return initHandler;
+  }
+
+  /** The handlers that getHandler returned. */
+  public List<Label> getHandlers() {
+    List<Label> ret = new ArrayList<Label>(2);
+    if (handler != null) {
+      ret.add(handler);
+    }
+    if (initHandler != null) {
+      ret.add(initHandler);
+    }
+    return ret;
+  }
+
+  /** Visit a label of getHandlers with its frame. */
+  public void visitHandler(MethodVisitor mv, Label label) {
+    mv.visitLabel(label);
+    Object[] local = label == initHandler ? THIS : NONE;
+    mv.visitFrame(Opcodes.F_NEW, local.length, local, 1, THROWABLE);
+  }
+
+  private Label getNewLabel(int index) {
+    while (newLabels.size() <= index) {
+      newLabels.add(new Label());
+    }
+    return newLabels.get(index);
+  }
+
+  /** A visitor that passes the code to mv, then follows it. */
+  public MethodVisitor observe(MethodVisitor mv) {
+    return new Observer(mv);
+  }
+
+  /** The visitor to put right before the writer. */
+  public MethodVisitor relabel(MethodVisitor mv) {
+    return new Relabeler(mv);
+  }
+
+  private class Observer extends MethodVisitor {
+    Observer(MethodVisitor mv) {
+      super(Opcodes.ASM5, mv);
+    }
+
+    @Override
+    public void visitLabel(Label label) {
+      mv.visitLabel(label);
+      sinceNew.add(label);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+      mv.visitTypeInsn(opcode, type);
+      if (opcode == Opcodes.NEW) {
+        // The label of the offset of the NEW is among the labels since the last one.
+        for (Label l : sinceNew) {
+          news.put(l, nNews);
+        }
+        sinceNew.clear();
+        nNews++;
+        uninitialized++;
+      }
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+      mv.visitMethodInsn(opcode, owner, name, desc, itf);
+      if (opcode == Opcodes.INVOKESPECIAL && name.equals("<init>")) {
+        // The values are initialized in the reverse order of their NEWs, then this.
+        if (uninitialized > 0) {
+          uninitialized--;
+        } else if (isInit) {
+          thisInitialized = true;
+        }
+      }
+    }
+  }
+
+  private class Relabeler extends MethodVisitor {
+    private int nWritten = 0;
+
+    Relabeler(MethodVisitor mv) {
+      super(Opcodes.ASM5, mv);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+      if (opcode == Opcodes.NEW) {
+        mv.visitLabel(getNewLabel(nWritten++));
+      }
+      mv.visitTypeInsn(opcode, type);
+    }
+
+    @Override
+    public void visitFrame(int type, int nLocal, Object[] local, int nStack, Object[] stack) {
+      mv.visitFrame(type, nLocal, relabel(nLocal, local), nStack, relabel(nStack, stack));
+    }
+
+    private Object[] relabel(int n, Object[] types) {
+      Object[] ret = types;
+      for (int i = 0; i < n; i++) {
+        Integer index = types[i] instanceof Label ? news.get(types[i]) : null;
+        if (index != null) {
+          if (ret == types) {
+            ret = types.clone();
+          }
+          ret[i] = getNewLabel(index);
+        }
+      }
+      return ret;
+    }
+  }
+}
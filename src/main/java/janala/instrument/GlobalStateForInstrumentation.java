@@ -1,18 +1,19 @@
 package janala.instrument;
 
 /** An object to keep track of (classId, methodId, instructionId) tuples during
- instrumentation. */
+ instrumentation. An object is used for one class at a time; the agent gives each class its own,
+ so classes can be instrumented on several threads.
+
+ The instruction ids of a class are local ids mapped to global ones by the IdTable of the
+ coverage, and each method takes one when it starts, which is its method id. */
 public class GlobalStateForInstrumentation {
   public static GlobalStateForInstrumentation instance = new GlobalStateForInstrumentation();
-  private int iid = 0;
+  private int iid = 0; // The last local id of the class
   private int mid = 0;
   private int cid = 0;
-
-  // When one gets the id, she gets the result of mergind all three ids.
-  // NOTE
-  // Beaware of truncation errors.
-  private final static int CBITS = 14; // CID occupies the upper 14 bits
-  private final static int MBITS = 8;  // MID occupies the next 8 bits
+  private int methodId = 0;
+  private ClassMetadata metadata = null;
+  private Coverage coverage = null; // Where the ids come from
 
   /** Increment iid and get the complete id */
   public int incAndGetId() {
@@ -20,8 +21,42 @@ public class GlobalStateForInstrumentation {
     return getId();
   }
 
+  /**
+   * Take n ids in a row, at least one, and get the first. The ids are consecutive if n is at most
+   * IdTable.BLOCK_SIZE.
+   */
+  public int incAndGetIds(int n) {
+    if (n > 1 && n <= IdTable.BLOCK_SIZE
+        && (iid + 1) >>> IdTable.BLOCK_BITS != (iid + n) >>> IdTable.BLOCK_BITS) {
+      // Start in the next block, whose global ids do not follow the ones of this block.
+      iid = ((iid + n) >>> IdTable.BLOCK_BITS << IdTable.BLOCK_BITS) - 1;
+    }
+    int ret = incAndGetId();
+    for (int i = 1; i < n; i++) {
+      incAndGetId();
+    }
+    return ret;
+  }
+
   public int getId() {
-    return (cid << (32 - CBITS)) + (mid << (32 - CBITS - MBITS)) + iid;
+    int id = ids().getId(cid, iid);
+    // The metadata keeps the blocks of ids, which the instrumented bytes depend on.
+    if (metadata != null && iid >>> IdTable.BLOCK_BITS == metadata.getIdBlockCount()) {
+      metadata.addIdBlock(id >>> IdTable.BLOCK_BITS);
+    }
+    return id;
+  }
+
+  private Coverage ids() {
+    if (coverage == null) {
+      coverage = new Coverage();
+    }
+    return coverage;
+  }
+
+  /** Take the ids from a coverage, which keeps them for the next runs. */
+  public void setCoverage(Coverage coverage) {
+    this.coverage = coverage;
   }
 
   // Used for testing
@@ -29,32 +64,45 @@ public class GlobalStateForInstrumentation {
     iid = 0;
     mid = 0;
     cid = 0;
+    methodId = 0;
   }
 
-  public static int getCidMid(int cid, int mid) {
-    return cid << MBITS + mid;
+  public int getMid() {
+    return mid;
   }
 
-  public static int extractCidMid(int id) {
-    return (id >> 32 - MBITS - CBITS);
+  /** The id of the current method, which names it in the coverage and the MethodProfile. */
+  public int getMethodId() {
+    return methodId;
   }
 
-  public int getMid() {
-    return mid;
+  /** The id that the next method will get from incMid. */
+  public int nextMethodId() {
+    return ids().getId(cid, iid + 1);
   }
 
   public void incMid() {
     this.mid++;
-    this.iid = 0;
+    this.methodId = incAndGetId();
   }
 
   public int getCid() {
     return cid;
   }
 
+  /** The record of the ids handed out for the class being instrumented, or null. */
+  public ClassMetadata getMetadata() {
+    return metadata;
+  }
+
+  public void setMetadata(ClassMetadata metadata) {
+    this.metadata = metadata;
+  }
+
   public void setCid(int cid) {
     this.iid = 0;
     this.mid = 0;
     this.cid = cid;
+    this.methodId = 0;
   }
 }
@@ -0,0 +1,133 @@
+package janala.instrument;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The instruction ids of the classes. A class hands out local ids 0, 1, 2, ... and takes the
+ * global ids in blocks of BLOCK_SIZE, so the ids stay dense with any number of classes, methods
+ * and instructions. Each method takes a local id of its own when it starts; its global id is the
+ * method id, and the starts give the method of an id.
+ *
+ * The blocks of a class are kept in the coverage file, so that a class gets the same ids in each
+ * run. Not thread-safe; Coverage synchronizes the accesses.
+ */
+public class IdTable implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  public static final int BLOCK_BITS = 10;
+  public static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+  private static class ClassIds implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    int[] blocks = new int[1];
+    int nBlocks = 0;
+    // The local ids of the starts of the methods, in order
+    int[] starts = new int[4];
+    int nStarts = 0;
+  }
+
+  // By block: the class, and the index of the block in the class
+  private int[] owners = new int[64];
+  private int[] indices = new int[64];
+  private int nBlocks = 0;
+  private final HashMap<Integer, ClassIds> classes = new HashMap<Integer, ClassIds>();
+
+  private ClassIds forClass(int cid) {
+    ClassIds ret = classes.get(cid);
+    if (ret == null) {
+      ret = new ClassIds();
+      classes.put(cid, ret);
+    }
+    return ret;
+  }
+
+  /**
+   * The global id of a local id of a class, or -1 if its block is not allocated yet.
+   */
+  public int lookup(int cid, int local) {
+    ClassIds c = classes.get(cid);
+    int index = local >>> BLOCK_BITS;
+    if (c == null || index >= c.nBlocks) {
+      return -1;
+    }
+    return (c.blocks[index] << BLOCK_BITS) | (local & BLOCK_MASK);
+  }
+
+  /** The number of blocks of a class. */
+  public int getBlockCount(int cid) {
+    ClassIds c = classes.get(cid);
+    return c == null ? 0 : c.nBlocks;
+  }
+
+  /** The index-th block of a class, which must exist. */
+  public int getBlock(int cid, int index) {
+    return classes.get(cid).blocks[index];
+  }
+
+  /** Allocate the next block of a class, and return it. */
+  public int allocate(int cid) {
+    int block = nBlocks;
+    add(cid, block);
+    return block;
+  }
+
+  /** Give the next block of a class, as read from the coverage file. */
+  public void add(int cid, int block) {
+    if (block >= owners.length) {
+      owners = Arrays.copyOf(owners, Math.max(block + 1, 2 * owners.length));
+      indices = Arrays.copyOf(indices, owners.length);
+    }
+    ClassIds c = forClass(cid);
+    if (c.nBlocks == c.blocks.length) {
+      c.blocks = Arrays.copyOf(c.blocks, 2 * c.nBlocks);
+    }
+    owners[block] = cid;
+    indices[block] = c.nBlocks;
+    c.blocks[c.nBlocks++] = block;
+    nBlocks = Math.max(nBlocks, block + 1);
+  }
+
+  /** Record the start of a method, given by its method id. Unknown blocks are ignored. */
+  public void addMethod(int methodId) {
+    int block = methodId >>> BLOCK_BITS;
+    if (methodId < 0 || block >= nBlocks) {
+      return;
+    }
+    ClassIds c = classes.get(owners[block]);
+    int local = (indices[block] << BLOCK_BITS) | (methodId & BLOCK_MASK);
+    int pos = Arrays.binarySearch(c.starts, 0, c.nStarts, local);
+    if (pos >= 0) {
+      return;
+    }
+    pos = -pos - 1;
+    if (c.nStarts == c.starts.length) {
+      c.starts = Arrays.copyOf(c.starts, 2 * c.nStarts);
+    }
+    System.arraycopy(c.starts, pos, c.starts, pos + 1, c.nStarts - pos);
+    c.starts[pos] = local;
+    c.nStarts++;
+  }
+
+  /** The method id of the method of an id, or -1 if unknown. */
+  public int getMethod(int id) {
+    int block = id >>> BLOCK_BITS;
+    if (id < 0 || block >= nBlocks) {
+      return -1;
+    }
+    ClassIds c = classes.get(owners[block]);
+    int local = (indices[block] << BLOCK_BITS) | (id & BLOCK_MASK);
+    int pos = Arrays.binarySearch(c.starts, 0, c.nStarts, local);
+    if (pos < 0) {
+      pos = -pos - 2;
+      if (pos < 0) {
+        return -1;
+      }
+    }
+    int start = c.starts[pos];
+    return (c.blocks[start >>> BLOCK_BITS] << BLOCK_BITS) | (start & BLOCK_MASK);
+  }
+}
@@ -0,0 +1,43 @@
+package janala.instrument;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Turns the INVOKESTATIC calls of the probes into invokedynamic calls bootstrapped by
+ * ProbeSites, which binds them to the current logger. Only for class files of version 51
+ * (Java 7) and up; older classes cannot contain invokedynamic.
+ */
+public class IndyProbeAdapter extends MethodVisitor implements Opcodes {
+  public static final String DJVM = "janala/logger/DJVM";
+
+  public static final Handle BOOTSTRAP =
+      new Handle(
+          H_INVOKESTATIC,
+          "janala/logger/ProbeSites",
+          "bootstrap",
+          "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;)"
+              + "Ljava/lang/invoke/CallSite;");
+
+  public IndyProbeAdapter(MethodVisitor mv) {
+    super(ASM5, mv);
+  }
+
+  /**
+   * Whether the probes of a class of the given version can be invokedynamic calls. ProbeSites
+   * only dispatches to the logger of DJVM.
+   */
+  public static boolean canUse(int version, String analysisClass) {
+    return (version & 0xFFFF) >= V1_7 && analysisClass.equals(DJVM);
+  }
+
+  @Override
+  public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+    if (opcode == INVOKESTATIC && owner.equals(DJVM)) {
+      mv.visitInvokeDynamicInsn(name, desc, BOOTSTRAP);
+    } else {
+      mv.visitMethodInsn(opcode, owner, name, desc, itf);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package janala.instrument;
+
+import janala.config.Config;
+import janala.logger.ClassNames;
+import janala.utils.MyLogger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A directory of instrumented classes, keyed by a hash of the original bytes, the version of
+ * the instrumentation, the analysis class, the probe mode and the cold methods. Each entry has
+ * the instrumented bytes (key.class) and the ClassMetadata of the instrumentation (key.meta).
+ */
+public class InstrumentationCache {
+  /** Bump when the instrumentation changes, so that old entries are not used. */
+  public static final int VERSION = 7;
+
+  private static final Logger logger = MyLogger.getLogger(InstrumentationCache.class.getName());
+
+  private final File dir;
+  private final Config config;
+
+  public InstrumentationCache(File dir, Config config) {
+    this.dir = dir;
+    this.config = config;
+  }
+
+  /** The cache of the configuration, or null if it is disabled. */
+  public static InstrumentationCache create(Config config) {
+    if (config.instrumentationCache == null || config.instrumentationCache.isEmpty()) {
+      return null;
+    }
+    return new InstrumentationCache(new File(config.instrumentationCache), config);
+  }
+
+  public String key(String cname, byte[] cbuf) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-1");
+      md.update(
+          (VERSION + ":" + config.analysisClass + ":" + config.blockProbes + ":"
+                  + config.indyProbes + ":" + config.pruneProbes + ":" + config.computeFrames + ":"
+                  + config.coverageOnly + ":" + cname + ":")
+              .getBytes("UTF-8"));
+      if (config.coldIterations > 0) {
+        // The cold methods are not instrumented.
+        md.update(
+            MethodProfile.load(config.methodProfile)
+                .coldMethods(cname, config.coldIterations)
+                .getBytes("UTF-8"));
+      }
+      md.update(cbuf);
+      StringBuilder sb = new StringBuilder();
+      for (byte b : md.digest()) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException ex) {
+      throw new RuntimeException(ex);
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /** Whether the cache has an entry, which get may still find stale. */
+  public boolean contains(String key) {
+    return new File(dir, key + ".class").exists() && new File(dir, key + ".meta").exists();
+  }
+
+  /**
+   * Get the instrumented bytes of a class and replay its registrations.
+   *
+   * @return null if the class is not in the cache or its ids do not match the registries.
+   */
+  public byte[] get(String key, String cname, Coverage coverage, ClassNames classNames) {
+    File classFile = new File(dir, key + ".class");
+    File metaFile = new File(dir, key + ".meta");
+    if (!classFile.exists() || !metaFile.exists()) {
+      return null;
+    }
+    try {
+      ClassMetadata metadata = readMetadata(metaFile);
+      byte[] ret = readBytes(classFile);
+      if (!metadata.replay(cname, coverage, classNames)) {
+        logger.log(Level.INFO, "Ids of cached class {0} are stale", cname);
+        return null;
+      }
+      return ret;
+    } catch (Exception ex) {
+      logger.log(Level.WARNING, "Cannot read cached class " + cname, ex);
+      return null;
+    }
+  }
+
+  public void put(String key, byte[] instrumented, ClassMetadata metadata) {
+    try {
+      dir.mkdirs();
+      // Write to temporary files first, so that a reader never sees a partial entry.
+      File tmpClass = File.createTempFile(key, ".tmp", dir);
+      FileOutputStream out = new FileOutputStream(tmpClass);
+      out.write(instrumented);
+      out.close();
+      File tmpMeta = File.createTempFile(key, ".tmp", dir);
+      ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(tmpMeta));
+      oos.writeObject(metadata);
+      oos.close();
+      tmpClass.renameTo(new File(dir, key + ".class"));
+      tmpMeta.renameTo(new File(dir, key + ".meta"));
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "Cannot cache an instrumented class", ex);
+    }
+  }
+
+  private static ClassMetadata readMetadata(File file) throws Exception {
+    ObjectInputStream in = new ObjectInputStream(new FileInputStream(file));
+    try {
+      return (ClassMetadata) in.readObject();
+    } finally {
+      in.close();
+    }
+  }
+
+  private static byte[] readBytes(File file) throws IOException {
+    RandomAccessFile in = new RandomAccessFile(file, "r");
+    try {
+      byte[] ret = new byte[(int) in.length()];
+      in.readFully(ret);
+      return ret;
+    } finally {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package janala.instrument;
+
+import janala.utils.MyLogger;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Counts, for each instrumented method, the runs in a row in which the method ran without ever
+ * having a symbolic value on its operand stack. Once a method has been cold for
+ * catg.coldIterations runs, the instrumentation leaves its code alone, except for markers
+ * around its calls (see ColdMethodAdapter). The method is instrumented again after a run that
+ * passed a symbolic value to it.
+ *
+ * The interpreter that runs in the JVM of the program updates the profile, and writes it to
+ * catg.methodProfileFile at the end of each run.
+ */
+public class MethodProfile implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private static final Logger logger = MyLogger.getLogger(MethodProfile.class.getName());
+
+  private static MethodProfile instance = null;
+  private static String loadedFrom = null;
+
+  private final Map<Integer, String> methods = new HashMap<Integer, String>(); // By cidmid
+  private final Map<String, Integer> coldRuns = new HashMap<String, Integer>();
+
+  // The current run. Only used by the interpreter, which visits one instruction at a time.
+  private transient BitSet executed;
+  private transient BitSet symbolic;
+  private transient Set<String> reached;
+
+  public static String key(String cname, String name, String desc) {
+    return cname + "." + name + desc;
+  }
+
+  /** Read the profile file once per JVM. */
+  public static synchronized MethodProfile load(String fileName) {
+    if (instance != null && fileName.equals(loadedFrom)) {
+      return instance;
+    }
+    instance = null;
+    try {
+      ObjectInputStream in = new ObjectInputStream(new FileInputStream(fileName));
+      try {
+        instance = (MethodProfile) in.readObject();
+      } finally {
+        in.close();
+      }
+    } catch (Exception e) {
+      // No profile yet
+    }
+    if (instance == null) {
+      instance = new MethodProfile();
+    }
+    loadedFrom = fileName;
+    return instance;
+  }
+
+  private void startRun() {
+    if (executed == null) {
+      executed = new BitSet();
+      symbolic = new BitSet();
+      reached = new HashSet<String>();
+    }
+  }
+
+  public synchronized void register(int cidmid, String key) {
+    methods.put(cidmid, key);
+  }
+
+  public synchronized boolean isCold(String key, int threshold) {
+    Integer n = coldRuns.get(key);
+    return n != null && n >= threshold;
+  }
+
+  /** The cold methods of a class, for the key of the instrumentation cache. */
+  public synchronized String coldMethods(String cname, int threshold) {
+    List<String> ret = new ArrayList<String>();
+    for (Map.Entry<String, Integer> e : coldRuns.entrySet()) {
+      if (e.getValue() >= threshold && e.getKey().startsWith(cname + ".")) {
+        ret.add(e.getKey());
+      }
+    }
+    Collections.sort(ret);
+    return ret.toString();
+  }
+
+  public void executed(int cidmid) {
+    startRun();
+    executed.set(cidmid);
+  }
+
+  public void symbolic(int cidmid) {
+    startRun();
+    symbolic.set(cidmid);
+  }
+
+  /** A symbolic value was passed to a method that is not instrumented. */
+  public void reached(String name, String desc) {
+    startRun();
+    reached.add(name + desc);
+  }
+
+  /** Count the run for the methods that ran in it. */
+  public synchronized void endRun() {
+    startRun();
+    for (int cidmid = executed.nextSetBit(0); cidmid >= 0;
+        cidmid = executed.nextSetBit(cidmid + 1)) {
+      String key = methods.get(cidmid);
+      if (key == null) {
+        continue;
+      }
+      if (symbolic.get(cidmid)) {
+        coldRuns.remove(key);
+      } else {
+        Integer n = coldRuns.get(key);
+        coldRuns.put(key, n == null ? 1 : n + 1);
+      }
+    }
+    if (!reached.isEmpty()) {
+      Iterator<String> it = coldRuns.keySet().iterator();
+      while (it.hasNext()) {
+        String key = it.next();
+        String nameAndDesc = key.substring(key.lastIndexOf('.', key.indexOf('(')) + 1);
+        if (reached.contains(nameAndDesc)) {
+          it.remove();
+        }
+      }
+    }
+    executed = null;
+  }
+
+  public synchronized void write(String fileName) {
+    try {
+      ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(fileName));
+      try {
+        out.writeObject(this);
+      } finally {
+        out.close();
+      }
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Cannot write the method profile", e);
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package janala.instrument;
+
+import janala.config.Config;
+import janala.logger.ClassNames;
+import janala.utils.MyLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instruments jars and class directories ahead of time, so that the program can run without
+ * the agent. Each input is written as a jar of the same name in the output directory. The ids
+ * of the classes go to the coverage file of the configuration and to an OfflineMetadata file,
+ * which the program installs with catg.idsFile.
+ *
+ * The classes get their cids and the blocks of their ids in the order of their names, then are
+ * instrumented in parallel on a fork/join pool, each with its own GlobalStateForInstrumentation
+ * and its own part of the coverage.
+ *
+ * Usage: java -Djanala.conf=catg.conf janala.instrument.OfflineInstrumenter [-j nThreads]
+ * [-ids idsFile] outDir (jar|directory)...
+ */
+public class OfflineInstrumenter {
+  private static final Logger logger = MyLogger.getLogger(OfflineInstrumenter.class.getName());
+
+  private final Coverage coverage;
+  private final ClassNames classNames;
+  private final int nThreads;
+
+  /** The files of a jar or a directory, in order. */
+  static class Input {
+    final String name;
+    final List<String> entries = new ArrayList<String>();
+    final Map<String, byte[]> contents = new HashMap<String, byte[]>();
+
+    Input(String name) {
+      this.name = name;
+    }
+
+    void add(String entry, byte[] content) {
+      entries.add(entry);
+      contents.put(entry, content);
+    }
+
+    byte[] get(String entry) {
+      return contents.get(entry);
+    }
+  }
+
+  public OfflineInstrumenter(Coverage coverage, ClassNames classNames, int nThreads) {
+    this.coverage = coverage;
+    this.classNames = classNames;
+    this.nThreads = nThreads;
+  }
+
+  static Input read(File path) throws IOException {
+    String name = path.getName();
+    if (path.isDirectory()) {
+      Input input = new Input(name + ".jar");
+      readDirectory(input, path, "");
+      return input;
+    }
+    Input input = new Input(name);
+    JarFile jar = new JarFile(path);
+    try {
+      Enumeration<JarEntry> entries = jar.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry entry = entries.nextElement();
+        if (!entry.isDirectory()) {
+          input.add(entry.getName(), readAll(jar.getInputStream(entry)));
+        }
+      }
+    } finally {
+      jar.close();
+    }
+    return input;
+  }
+
+  private static void readDirectory(Input input, File dir, String prefix) throws IOException {
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(files);
+    for (File f : files) {
+      if (f.isDirectory()) {
+        readDirectory(input, f, prefix + f.getName() + "/");
+      } else {
+        input.add(prefix + f.getName(), readAll(new FileInputStream(f)));
+      }
+    }
+  }
+
+  static byte[] readAll(InputStream in) throws IOException {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buf = new byte[8192];
+      int n;
+      while ((n = in.read(buf)) > 0) {
+        out.write(buf, 0, n);
+      }
+      return out.toByteArray();
+    } finally {
+      in.close();
+    }
+  }
+
+  private static boolean isSignature(String entry) {
+    return entry.startsWith("META-INF/")
+        && (entry.endsWith(".SF") || entry.endsWith(".RSA") || entry.endsWith(".DSA")
+            || entry.endsWith(".EC"));
+  }
+
+  /**
+   * Instrument the classes of the inputs in place.
+   *
+   * @return the metadata of the instrumented classes, in cid order
+   */
+  List<ClassMetadata> instrument(List<Input> inputs)
+      throws InterruptedException, ExecutionException {
+    // The first class of a name on the classpath hides the others.
+    final Map<String, Input> owners = new HashMap<String, Input>();
+    List<String> cnames = new ArrayList<String>();
+    for (Input input : inputs) {
+      for (String entry : input.entries) {
+        if (!entry.endsWith(".class") || entry.endsWith("module-info.class")) {
+          continue;
+        }
+        String cname = entry.substring(0, entry.length() - ".class".length());
+        if (!owners.containsKey(cname) && !SnoopInstructionTransformer.shouldExclude(cname)) {
+          owners.put(cname, input);
+          cnames.add(cname);
+        }
+      }
+    }
+    Collections.sort(cnames);
+
+    // The inputs are only read until all the classes are instrumented.
+    final Coverage[] parts = new Coverage[cnames.size()];
+    final ClassMetadata[] metadata = new ClassMetadata[cnames.size()];
+    final byte[][] instrumented = new byte[cnames.size()][];
+    List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < cnames.size(); i++) {
+      final int index = i;
+      final String cname = cnames.get(i);
+      parts[i] = coverage.forClass(cname);
+      coverage.reserveIds(parts[i].lookupCid(cname),
+          SnoopInstructionTransformer.idBound(owners.get(cname).get(cname + ".class")));
+      tasks.add(
+          new Callable<Void>() {
+            @Override
+            public Void call() {
+              ClassMetadata m = new ClassMetadata(parts[index].lookupCid(cname));
+              byte[] cbuf = owners.get(cname).contents.get(cname + ".class");
+              instrumented[index] = instrument(cname, cbuf, parts[index], m);
+              metadata[index] = m;
+              return null;
+            }
+          });
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(nThreads);
+    try {
+      for (Future<Void> result : pool.invokeAll(tasks)) {
+        result.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    List<ClassMetadata> ret = new ArrayList<ClassMetadata>();
+    for (int i = 0; i < cnames.size(); i++) {
+      if (instrumented[i] != null) {
+        owners.get(cnames.get(i)).contents.put(cnames.get(i) + ".class", instrumented[i]);
+        coverage.merge(parts[i]);
+        ret.add(metadata[i]);
+      }
+    }
+    return ret;
+  }
+
+  /** The instrumented class, or null if it cannot be instrumented. */
+  private byte[] instrument(String cname, byte[] cbuf, Coverage part, ClassMetadata metadata) {
+    GlobalStateForInstrumentation state = new GlobalStateForInstrumentation();
+    state.setCid(metadata.getCid());
+    state.setMetadata(metadata);
+    try {
+      return SnoopInstructionTransformer.instrument(cbuf, part, state, classNames);
+    } catch (SnoopInstructionTransformer.InstrumentationException e) {
+      logger.log(
+          Level.WARNING, "Cannot instrument " + cname + ", it is left as it is", e.getCause());
+      return null;
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Cannot read " + cname + ", it is left as it is", e);
+      return null;
+    }
+  }
+
+  static void write(Input input, File outDir) throws IOException {
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(new File(outDir, input.name)));
+    try {
+      for (String entry : input.entries) {
+        // The signatures do not match the instrumented classes.
+        if (isSignature(entry)) {
+          continue;
+        }
+        out.putNextEntry(new JarEntry(entry));
+        out.write(input.contents.get(entry));
+        out.closeEntry();
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int nThreads = Runtime.getRuntime().availableProcessors();
+    String idsFile = null;
+    int i = 0;
+    for (; i < args.length && args[i].startsWith("-"); i += 2) {
+      if (args[i].equals("-j") && i + 1 < args.length) {
+        nThreads = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("-ids") && i + 1 < args.length) {
+        idsFile = args[i + 1];
+      } else {
+        break;
+      }
+    }
+    if (args.length - i < 2) {
+      System.err.println(
+          "Usage: OfflineInstrumenter [-j nThreads] [-ids idsFile] outDir (jar|directory)...");
+      System.exit(1);
+    }
+    File outDir = new File(args[i]);
+    outDir.mkdirs();
+    if (idsFile == null) {
+      idsFile = new File(outDir, "ids.catg").getPath();
+    }
+
+    List<Input> inputs = new ArrayList<Input>();
+    for (int k = i + 1; k < args.length; k++) {
+      inputs.add(read(new File(args[k])));
+    }
+
+    Config config = Config.instance;
+    Coverage coverage = Coverage.load(config.coverage);
+    ClassNames classNames = ClassNames.getInstance();
+    OfflineInstrumenter instrumenter = new OfflineInstrumenter(coverage, classNames, nThreads);
+    List<ClassMetadata> metadata = instrumenter.instrument(inputs);
+
+    for (Input input : inputs) {
+      write(input, outDir);
+    }
+    coverage.writeDelta(config.coverage);
+    new OfflineMetadata(classNames, metadata).write(idsFile);
+    logger.log(
+        Level.INFO,
+        "Instrumented {0} classes; run with -Dcatg.idsFile={1}",
+        new Object[] {metadata.size(), idsFile});
+  }
+}
@@ -0,0 +1,79 @@
+package janala.instrument;
+
+import janala.logger.ClassNames;
+import janala.utils.MyLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ids of a classpath instrumented by OfflineInstrumenter that are not in the coverage file:
+ * the class and field indices, and the ClassMetadata of each class for its blocks and profiled
+ * methods. A program that runs the instrumented classpath without the agent installs it with
+ * catg.idsFile.
+ */
+public class OfflineMetadata implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private static final Logger logger = MyLogger.getLogger(OfflineMetadata.class.getName());
+
+  private final ClassNames classNames;
+  private final List<ClassMetadata> classes;
+
+  public OfflineMetadata(ClassNames classNames, List<ClassMetadata> classes) {
+    this.classNames = classNames;
+    this.classes = classes;
+  }
+
+  public ClassNames getClassNames() {
+    return classNames;
+  }
+
+  public List<ClassMetadata> getClasses() {
+    return classes;
+  }
+
+  public void write(String fileName) throws IOException {
+    ObjectOutputStream out =
+        new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+    try {
+      out.writeObject(this);
+    } finally {
+      out.close();
+    }
+  }
+
+  public static OfflineMetadata read(String fileName) throws IOException {
+    ObjectInputStream in =
+        new ObjectInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+    try {
+      return (OfflineMetadata) in.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException(e);
+    } finally {
+      in.close();
+    }
+  }
+
+  /** Make the ids of the file the ones of this JVM, as if the agent had handed them out. */
+  public static void install(String fileName) {
+    try {
+      OfflineMetadata metadata = read(fileName);
+      ClassNames.setInstance(metadata.classNames);
+      for (ClassMetadata c : metadata.classes) {
+        c.define();
+      }
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Cannot read the ids of the instrumented classpath", e);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package janala.instrument;
+
+import janala.config.Config;
+import janala.logger.ClassNames;
+import janala.utils.MyLogger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Instruments the classes of the classpath on a pool of background threads while the program
+ * starts (catg.preinstrumentThreads), so that transform mostly finds the bytes of a class ready
+ * when it loads.
+ *
+ * The classes that are not excluded get their cids in the order of their names when the agent
+ * starts, before any class loads. They also get the blocks of their ids then, as many as the size
+ * of the class file, which bounds the number of its instructions; so the ids do not depend on the
+ * threads. Each class is instrumented with a coverage of its own, which transform merges when
+ * the class loads; the classes that never load do not add methods or branches to the coverage.
+ */
+public class Preinstrumenter {
+  private static final Logger logger = MyLogger.getLogger(Preinstrumenter.class.getName());
+
+  private static final int NEW = 0;
+  private static final int RUNNING = 1;
+  private static final int DONE = 2;
+
+  private final Coverage coverage;
+  private final ClassNames classNames;
+  private final InstrumentationCache cache;
+  private final Map<String, Task> tasks = new ConcurrentHashMap<String, Task>();
+  private final List<Task> order = new ArrayList<Task>();
+
+  /** A class to instrument; it runs once, on a worker or on the thread that loads the class. */
+  private class Task implements Runnable {
+    final String cname;
+    final JarFile jar; // null for a class of a directory
+    final File file;
+    final Coverage part;
+    final AtomicInteger state = new AtomicInteger(NEW);
+    volatile SnoopInstructionTransformer.Instrumented result;
+
+    Task(String cname, JarFile jar, File file, Coverage part) {
+      this.cname = cname;
+      this.jar = jar;
+      this.file = file;
+      this.part = part;
+    }
+
+    @Override
+    public void run() {
+      if (state.compareAndSet(NEW, RUNNING)) {
+        result = instrument(this);
+        state.set(DONE);
+      }
+    }
+  }
+
+  public Preinstrumenter(Coverage coverage, ClassNames classNames, InstrumentationCache cache) {
+    this.coverage = coverage;
+    this.classNames = classNames;
+    this.cache = cache;
+  }
+
+  /** Scan the classpath and start instrumenting it in the background. */
+  public static Preinstrumenter start(Config config, InstrumentationCache cache) {
+    Preinstrumenter ret =
+        new Preinstrumenter(Coverage.load(config.coverage), ClassNames.getInstance(), cache);
+    List<File> paths = new ArrayList<File>();
+    for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+      if (!path.isEmpty()) {
+        paths.add(new File(path));
+      }
+    }
+    int n = ret.scan(paths);
+    ret.start(config.preinstrumentThreads);
+    logger.log(Level.INFO, "Pre-instrumenting " + n + " classes");
+    return ret;
+  }
+
+  /**
+   * List the classes of the jars and directories and give them their cids. The first class of a
+   * name hides the others, as on a classpath.
+   *
+   * @return the number of classes to instrument
+   */
+  int scan(List<File> paths) {
+    Map<String, Task> found = new HashMap<String, Task>();
+    Map<String, Long> sizes = new HashMap<String, Long>();
+    List<String> cnames = new ArrayList<String>();
+    for (File path : paths) {
+      try {
+        if (path.isDirectory()) {
+          scanDirectory(path, "", found, sizes, cnames);
+        } else if (path.isFile()) {
+          JarFile jar = new JarFile(path);
+          Enumeration<JarEntry> entries = jar.entries();
+          while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (isClass(entry.getName())) {
+              add(cname(entry.getName()), jar, null, entry.getSize(), found, sizes, cnames);
+            }
+          }
+        }
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Cannot scan " + path, e);
+      }
+    }
+
+    Collections.sort(cnames);
+    for (String cname : cnames) {
+      Task t = found.get(cname);
+      Task task = new Task(cname, t.jar, t.file, coverage.forClass(cname));
+      // The size is -1 if the jar does not tell; the ids are then allocated as they are taken.
+      coverage.reserveIds(task.part.lookupCid(cname), (int) (long) sizes.get(cname));
+      tasks.put(cname, task);
+      order.add(task);
+    }
+    return cnames.size();
+  }
+
+  private void scanDirectory(File dir, String prefix, Map<String, Task> found,
+      Map<String, Long> sizes, List<String> cnames) {
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File f : files) {
+      String name = prefix + f.getName();
+      if (f.isDirectory()) {
+        scanDirectory(f, name + "/", found, sizes, cnames);
+      } else if (isClass(name)) {
+        add(cname(name), null, f, f.length(), found, sizes, cnames);
+      }
+    }
+  }
+
+  private static boolean isClass(String name) {
+    return name.endsWith(".class") && !name.endsWith("module-info.class");
+  }
+
+  private static String cname(String name) {
+    return name.substring(0, name.length() - ".class".length());
+  }
+
+  private void add(String cname, JarFile jar, File file, long size, Map<String, Task> found,
+      Map<String, Long> sizes, List<String> cnames) {
+    if (!found.containsKey(cname) && !SnoopInstructionTransformer.shouldExclude(cname)) {
+      found.put(cname, new Task(cname, jar, file, null));
+      sizes.put(cname, size);
+      cnames.add(cname);
+    }
+  }
+
+  /** Queue the classes on nThreads daemon threads, in cid order. */
+  void start(int nThreads) {
+    ExecutorService pool =
+        Executors.newFixedThreadPool(
+            nThreads,
+            new ThreadFactory() {
+              private final ThreadFactory factory = Executors.defaultThreadFactory();
+
+              @Override
+              public Thread newThread(Runnable r) {
+                Thread t = factory.newThread(r);
+                t.setDaemon(true);
+                t.setName("catg-preinstrument-" + t.getName());
+                return t;
+              }
+            });
+    for (Task task : order) {
+      pool.execute(task);
+    }
+    pool.shutdown();
+    order.clear();
+  }
+
+  private SnoopInstructionTransformer.Instrumented instrument(Task task) {
+    try {
+      byte[] cbuf;
+      if (task.jar != null) {
+        cbuf = OfflineInstrumenter.readAll(
+            task.jar.getInputStream(task.jar.getEntry(task.cname + ".class")));
+      } else {
+        cbuf = OfflineInstrumenter.readAll(new FileInputStream(task.file));
+      }
+      if (cache != null && cache.contains(cache.key(task.cname, cbuf))) {
+        // transform takes it from the cache.
+        return null;
+      }
+      return SnoopInstructionTransformer.instrumentClass(task.cname, cbuf, task.part, classNames);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Cannot read " + task.cname, e);
+      return null;
+    } catch (RuntimeException e) {
+      // E.g., a class ASM cannot read; transform runs into it again.
+      return null;
+    }
+  }
+
+  /**
+   * The instrumentation of a class, or null if the class was not scanned, was scanned with other
+   * bytes, or is being instrumented on a worker. In the last case the caller instruments the
+   * class again rather than wait for the worker, which may be loading a class whose lock the
+   * caller holds.
+   */
+  public SnoopInstructionTransformer.Instrumented take(String cname, byte[] cbuf) {
+    Task task = tasks.remove(cname);
+    if (task == null) {
+      return null;
+    }
+    task.run();
+    if (task.state.get() != DONE) {
+      return null;
+    }
+    SnoopInstructionTransformer.Instrumented ret = task.result;
+    if (ret == null || !Arrays.equals(ret.original, cbuf)) {
+      return null;
+    }
+    return ret;
+  }
+
+  /** Do not instrument a class, e.g., because transform found it in the cache. */
+  public void drop(String cname) {
+    Task task = tasks.remove(cname);
+    if (task != null) {
+      task.state.compareAndSet(NEW, DONE);
+    }
+  }
+}
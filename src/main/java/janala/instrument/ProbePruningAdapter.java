@@ -0,0 +1,276 @@
+package janala.instrument;
+
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Skips the probes of the int locals that can never hold a symbolic value (catg.pruneProbes).
+ * A local is concrete if it is not a parameter, none of its loads is passed to a method (such as
+ * Main.MakeSymbolic, which makes the value of the local symbolic in place), and every store to it
+ * is an IINC or an ISTORE of an expression made of constants, loads of concrete locals and int
+ * arithmetic, such as loop counters. The stores, the IINCs and the instructions of those expressions go to the next
+ * visitor without probes; the interpreter does not see them.
+ *
+ * The interpreter then never writes a concrete local, so it holds a PlaceHolder. The loads of
+ * the local that are still probed are followed by GETVALUE_int, which replaces the PlaceHolder
+ * with the concrete value.
+ *
+ * The method is buffered, analyzed with a SourceInterpreter in visitEnd and then replayed to the
+ * SnoopInstructionMethodAdapter. If the analysis fails, nothing is pruned.
+ */
+public class ProbePruningAdapter extends MethodNode implements Opcodes {
+  private final String owner;
+  private final MethodVisitor snoop;
+  private final MethodVisitor next;
+
+  /**
+   * @param snoop the instrumentation of the method
+   * @param next the visitor that snoop writes to, for the instructions without probes
+   */
+  public ProbePruningAdapter(int access, String name, String desc, String signature,
+      String[] exceptions, String owner, MethodVisitor snoop, MethodVisitor next) {
+    super(ASM5, access, name, desc, signature, exceptions);
+    this.owner = owner;
+    this.snoop = snoop;
+    this.next = next;
+  }
+
+  @Override
+  public void visitEnd() {
+    BitSet pruned = prune(owner, this);
+    AbstractInsnNode[] insns = instructions.toArray();
+    for (int i = pruned.nextSetBit(0); i >= 0; i = pruned.nextSetBit(i + 1)) {
+      instructions.set(insns[i], new Unprobed(insns[i], next));
+    }
+    accept(snoop);
+  }
+
+  /** The indices of the instructions of mn that need no probe. */
+  public static BitSet prune(String owner, MethodNode mn) {
+    BitSet pruned = new BitSet();
+    Frame[] frames;
+    try {
+      frames = new Analyzer(new SourceInterpreter()).analyze(owner, mn);
+    } catch (AnalyzerException e) {
+      return pruned;
+    }
+    InsnList insns = mn.instructions;
+    int firstLocal = (Type.getArgumentsAndReturnSizes(mn.desc) >> 2)
+        - ((mn.access & ACC_STATIC) != 0 ? 1 : 0);
+
+    // The candidates: the locals that are only written by ISTORE and IINC.
+    BitSet concrete = new BitSet();
+    BitSet other = new BitSet();
+    for (int i = 0; i < insns.size(); i++) {
+      AbstractInsnNode insn = insns.get(i);
+      if (insn instanceof IincInsnNode) {
+        concrete.set(((IincInsnNode) insn).var);
+      } else if (insn.getOpcode() == ISTORE) {
+        concrete.set(((VarInsnNode) insn).var);
+      } else if (insn.getOpcode() >= LSTORE && insn.getOpcode() <= ASTORE) {
+        int var = ((VarInsnNode) insn).var;
+        other.set(var);
+        if (insn.getOpcode() == LSTORE || insn.getOpcode() == DSTORE) {
+          other.set(var + 1);
+        }
+      }
+    }
+    concrete.andNot(other);
+    concrete.clear(0, firstLocal);
+
+    // Drop the candidates whose value reaches an argument of a call.
+    for (int i = 0; i < insns.size(); i++) {
+      AbstractInsnNode insn = insns.get(i);
+      String desc;
+      if (insn instanceof MethodInsnNode) {
+        desc = ((MethodInsnNode) insn).desc;
+      } else if (insn instanceof InvokeDynamicInsnNode) {
+        desc = ((InvokeDynamicInsnNode) insn).desc;
+      } else {
+        continue;
+      }
+      Frame frame = frames[i];
+      if (frame == null) {
+        continue;
+      }
+      int args = Type.getArgumentTypes(desc).length;
+      for (int k = 1; k <= args; k++) {
+        clearLoads(insns, frames, (SourceValue) frame.getStack(frame.getStackSize() - k),
+            concrete, new BitSet());
+      }
+    }
+
+    // Drop the candidates with a store of a value that may not be concrete, until none is left.
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int i = 0; i < insns.size(); i++) {
+        AbstractInsnNode insn = insns.get(i);
+        if (insn.getOpcode() == ISTORE
+            && concrete.get(((VarInsnNode) insn).var)
+            && frames[i] != null
+            && expression(insns, frames, i, concrete) < 0) {
+          concrete.clear(((VarInsnNode) insn).var);
+          changed = true;
+        }
+      }
+    }
+
+    for (int i = 0; i < insns.size(); i++) {
+      AbstractInsnNode insn = insns.get(i);
+      if (insn instanceof IincInsnNode && concrete.get(((IincInsnNode) insn).var)) {
+        pruned.set(i);
+      } else if (insn.getOpcode() == ISTORE
+          && concrete.get(((VarInsnNode) insn).var)
+          && frames[i] != null) {
+        pruned.set(expression(insns, frames, i, concrete), i + 1);
+      }
+    }
+    return pruned;
+  }
+
+  /**
+   * Clears the locals loaded by the sources of value. The stack copies (DUP, SWAP, ...) are
+   * followed to all the values that they may copy.
+   */
+  private static void clearLoads(
+      InsnList insns, Frame[] frames, SourceValue value, BitSet concrete, BitSet seen) {
+    for (Object o : value.insns) {
+      AbstractInsnNode source = (AbstractInsnNode) o;
+      int i = insns.indexOf(source);
+      if (seen.get(i)) {
+        continue;
+      }
+      seen.set(i);
+      if (source.getOpcode() == ILOAD) {
+        concrete.clear(((VarInsnNode) source).var);
+      } else if (source.getOpcode() >= DUP && source.getOpcode() <= SWAP && frames[i] != null) {
+        Frame frame = frames[i];
+        for (int k = Math.max(0, frame.getStackSize() - 4); k < frame.getStackSize(); k++) {
+          clearLoads(insns, frames, (SourceValue) frame.getStack(k), concrete, seen);
+        }
+      }
+    }
+  }
+
+  /**
+   * The index of the first instruction of the expression stored by the ISTORE at index store,
+   * or -1 if it is not concrete. The expression must be the straight-line code right before the
+   * store, so that its values are not used elsewhere.
+   */
+  private static int expression(
+      InsnList insns, Frame[] frames, int store, BitSet concrete) {
+    ArrayList<Integer> todo = new ArrayList<Integer>();
+    BitSet tree = new BitSet();
+    todo.add(store);
+    while (!todo.isEmpty()) {
+      int i = todo.remove(todo.size() - 1);
+      tree.set(i);
+      int operands = operands(insns.get(i), concrete);
+      if (operands < 0) {
+        return -1;
+      }
+      Frame frame = frames[i];
+      for (int k = 1; k <= operands; k++) {
+        SourceValue value = (SourceValue) frame.getStack(frame.getStackSize() - k);
+        if (value.insns.size() != 1) {
+          return -1;
+        }
+        todo.add(insns.indexOf((AbstractInsnNode) value.insns.iterator().next()));
+      }
+    }
+    int first = tree.nextSetBit(0);
+    for (int i = first; i < store; i++) {
+      AbstractInsnNode insn = insns.get(i);
+      if (!tree.get(i) && (insn.getOpcode() >= 0 || insn instanceof LabelNode)) {
+        return -1;
+      }
+    }
+    return first;
+  }
+
+  /** The number of stack operands of an instruction of a concrete expression, or -1. */
+  private static int operands(AbstractInsnNode insn, BitSet concrete) {
+    switch (insn.getOpcode()) {
+      case ICONST_M1:
+      case ICONST_0:
+      case ICONST_1:
+      case ICONST_2:
+      case ICONST_3:
+      case ICONST_4:
+      case ICONST_5:
+      case BIPUSH:
+      case SIPUSH:
+        return 0;
+      case LDC:
+        return ((LdcInsnNode) insn).cst instanceof Integer ? 0 : -1;
+      case ILOAD:
+        return concrete.get(((VarInsnNode) insn).var) ? 0 : -1;
+      case INEG:
+      case I2B:
+      case I2C:
+      case I2S:
+      case ISTORE:
+        return 1;
+      case IADD:
+      case ISUB:
+      case IMUL:
+      case IAND:
+      case IOR:
+      case IXOR:
+      case ISHL:
+      case ISHR:
+      case IUSHR:
+        return 2;
+      default:
+        return -1;
+    }
+  }
+
+  /** An instruction that is replayed to the next visitor instead of the instrumentation. */
+  private static class Unprobed extends AbstractInsnNode {
+    private final AbstractInsnNode insn;
+    private final MethodVisitor target;
+
+    Unprobed(AbstractInsnNode insn, MethodVisitor target) {
+      super(insn.getOpcode());
+      this.insn = insn;
+      this.target = target;
+    }
+
+    @Override
+    public int getType() {
+      return insn.getType();
+    }
+
+    @Override
+    public void accept(MethodVisitor mv) {
+      insn.accept(target);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public AbstractInsnNode clone(Map labels) {
+      return new Unprobed(insn.clone(labels), target);
+    }
+  }
+}
@@ -1,26 +1,182 @@
 
 package janala.instrument;
 
+import janala.config.Config;
 import janala.logger.ClassNames;
 import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class SnoopInstructionClassAdapter extends ClassVisitor {
+  private final Coverage coverage;
+  private final GlobalStateForInstrumentation state;
+  private final ClassNames classNames;
+  private boolean indyProbes;
+  private boolean keepFrames;
+  private String cname;
+  private String superName;
+  // The fields declared by the class, for the ClassDepot
+  private final List<String> fields = new ArrayList<String>();
+  private final List<String> staticFields = new ArrayList<String>();
+
   public SnoopInstructionClassAdapter(ClassVisitor cv) {
+    this(cv, Coverage.get(), GlobalStateForInstrumentation.instance, ClassNames.getInstance());
+  }
+
+  /** Instrument with the given registries, e.g., to instrument classes in parallel. */
+  public SnoopInstructionClassAdapter(ClassVisitor cv, Coverage coverage,
+      GlobalStateForInstrumentation state, ClassNames classNames) {
     super(Opcodes.ASM5, cv);
+    this.coverage = coverage;
+    this.state = state;
+    this.classNames = classNames;
+    state.setCoverage(coverage);
+  }
+
+  /**
+   * Keep the frames of the class instead of leaving them to the writer. The class must be read
+   * with ClassReader.EXPAND_FRAMES, and FrameKeeper must be able to use its version.
+   */
+  public void setKeepFrames(boolean keepFrames) {
+    this.keepFrames = keepFrames;
+  }
+
+  @Override
+  public void visit(int version, int access, String name, String signature, String superName,
+      String[] interfaces) {
+    indyProbes =
+        Config.instance.indyProbes
+            && IndyProbeAdapter.canUse(version, Config.instance.analysisClass);
+    cname = name;
+    this.superName = superName;
+    fields.clear();
+    staticFields.clear();
+    super.visit(version, access, name, signature, superName, interfaces);
+  }
+
+  @Override
+  public FieldVisitor visitField(int access, String name, String desc, String signature,
+      Object value) {
+    if ((access & Opcodes.ACC_STATIC) != 0) {
+      staticFields.add(name);
+    } else {
+      fields.add(name);
+    }
+    return super.visitField(access, name, desc, signature, value);
+  }
+
+  /** Give the layout of the class to the ClassDepot, so that it need not load the class. */
+  @Override
+  public void visitEnd() {
+    String superClass = superName == null ? null : superName.replace('/', '.');
+    classNames.getClassDepot().addClass(cname.replace('/', '.'), superClass, fields,
+        staticFields);
+    if (state.getMetadata() != null) {
+      state.getMetadata().setLayout(superClass, fields, staticFields);
+    }
+    super.visitEnd();
   }
 
   @Override
   public MethodVisitor visitMethod(int access, String name, String desc, 
       String signature, String[] exceptions) {
-    Coverage.instance.setLastMethod(name + ":" + signature);
+    coverage.setLastMethod(name + ":" + signature);
     MethodVisitor mv = cv.visitMethod(access, name, desc, signature, exceptions);
+    if (mv != null && Config.instance.coverageOnly) {
+      // The probes only read the operands of the branches, so the frames stay valid.
+      return new CoverageProbeAdapter(access, name, desc, signature, exceptions, cname, mv,
+          coverage, state, classNames);
+    }
     if (mv != null) {
-      return new SnoopInstructionMethodAdapter(mv, name.equals("<init>"), 
-          Coverage.get(), GlobalStateForInstrumentation.instance, ClassNames.getInstance());
+      FrameKeeper frames = null;
+      if (keepFrames) {
+        frames = new FrameKeeper(name.equals("<init>"));
+        mv = frames.relabel(mv);
+      }
+      if (indyProbes) {
+        mv = new IndyProbeAdapter(mv);
+      }
+      if (Config.instance.coldIterations > 0
+          && (access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) == 0) {
+        MethodProfile profile = MethodProfile.load(Config.instance.methodProfile);
+        String key = MethodProfile.key(cname, name, desc);
+        int cidmid = state.nextMethodId();
+        profile.register(cidmid, key);
+        if (state.getMetadata() != null) {
+          state.getMetadata().addProfiledMethod(cidmid, key);
+        }
+        if (profile.isCold(key, Config.instance.coldIterations)) {
+          MethodVisitor cold = observe(
+              frames, new ColdMethodAdapter(mv, name.equals("<init>"), coverage, state, frames));
+          return new ColdMethod(access, name, desc, signature, exceptions, cold,
+              takeIds(access, name, desc, signature, exceptions));
+        }
+      }
+      if (Config.instance.blockProbes) {
+        mv = new BlockProbeAdapter(mv, state, Config.instance.analysisClass);
+      }
+      MethodVisitor snoop = new SnoopInstructionMethodAdapter(mv, name.equals("<init>"), 
+          coverage, state, classNames, frames);
+      if (Config.instance.pruneProbes) {
+        return new ProbePruningAdapter(access, name, desc, signature, exceptions, cname,
+            observe(frames, snoop), observe(frames, mv));
+      }
+      return observe(frames, snoop);
     }
     return null;
   }
+
+  /**
+   * A visitor that takes the ids that the instrumentation of a method would take, after the
+   * method id, and writes nothing.
+   */
+  private MethodVisitor takeIds(int access, String name, String desc, String signature,
+      String[] exceptions) {
+    MethodVisitor none = new MethodVisitor(Opcodes.ASM5) {};
+    MethodVisitor snoop =
+        new SnoopInstructionMethodAdapter(none, name.equals("<init>"), coverage, state, classNames);
+    if (Config.instance.pruneProbes) {
+      snoop = new ProbePruningAdapter(
+          access, name, desc, signature, exceptions, cname, snoop, none);
+    }
+    return new MethodVisitor(Opcodes.ASM5, snoop) {
+      @Override
+      public void visitCode() {
+        // The cold method took the method id.
+      }
+    };
+  }
+
+  /**
+   * A cold method, which takes the ids of its instructions as if it were instrumented, so that
+   * the ids of the next methods of the class do not depend on the profile.
+   */
+  private static class ColdMethod extends MethodNode {
+    private final MethodVisitor cold;
+    private final MethodVisitor ids;
+
+    ColdMethod(int access, String name, String desc, String signature, String[] exceptions,
+        MethodVisitor cold, MethodVisitor ids) {
+      super(Opcodes.ASM5, access, name, desc, signature, exceptions);
+      this.cold = cold;
+      this.ids = ids;
+    }
+
+    @Override
+    public void visitEnd() {
+      accept(cold);
+      accept(ids);
+    }
+  }
+
+  // The keeper must see the code that the adapters get, after the pruning.
+  private static MethodVisitor observe(FrameKeeper frames, MethodVisitor mv) {
+    return frames == null ? mv : frames.observe(mv);
+  }
 }
@@ -2,11 +2,12 @@ package janala.instrument;
 
 import janala.config.Config;
 import janala.logger.ClassNames;
-import janala.logger.ObjectInfo;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Label;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 
 public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opcodes {
   boolean isInit;
@@ -17,10 +18,20 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
   private final Coverage coverage;
   private final GlobalStateForInstrumentation instrumentationState;
   private final ClassNames classNames;
+  // The frames of the method, or null if the writer computes them.
+  private final FrameKeeper frames;
+  // The labels of the jumps and switches, numbered in the order they are seen
+  private final Map<Label, Integer> labelIds = new HashMap<Label, Integer>();
 
   public SnoopInstructionMethodAdapter(MethodVisitor mv, boolean isInit, 
       Coverage coverage, GlobalStateForInstrumentation instrumentationState,
       ClassNames classNames) {
+    this(mv, isInit, coverage, instrumentationState, classNames, null);
+  }
+
+  public SnoopInstructionMethodAdapter(MethodVisitor mv, boolean isInit, 
+      Coverage coverage, GlobalStateForInstrumentation instrumentationState,
+      ClassNames classNames, FrameKeeper frames) {
     super(ASM5, mv);
     this.isInit = isInit;
     this.isSuperInitCalled = false;
@@ -29,15 +40,59 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
     this.coverage = coverage;
     this.instrumentationState = instrumentationState;
     this.classNames = classNames;
+    this.frames = frames;
   }
 
   @Override
   public void visitCode() {
     instrumentationState.incMid();
-    coverage.setCidmidToName(instrumentationState.getMid());
+    coverage.setCidmidToName(instrumentationState.getMethodId());
+    ClassMetadata metadata = instrumentationState.getMetadata();
+    if (metadata != null) {
+      metadata.addMethod(instrumentationState.getMethodId(), coverage.getLastMethod());
+    }
     mv.visitCode();
   }
 
+  /**
+   * The number of a label in the method, which the probes pass for it, so that the same class
+   * is always instrumented into the same bytes.
+   */
+  int labelId(Label label) {
+    Integer ret = labelIds.get(label);
+    if (ret == null) {
+      ret = labelIds.size();
+      labelIds.put(label, ret);
+    }
+    return ret;
+  }
+
+  protected void addBranchCount(int iid) {
+    coverage.addBranchCount(iid);
+    ClassMetadata metadata = instrumentationState.getMetadata();
+    if (metadata != null) {
+      metadata.addBranch(iid);
+    }
+  }
+
+  private int getClassIndex(String className) {
+    int ret = classNames.get(className);
+    ClassMetadata metadata = instrumentationState.getMetadata();
+    if (metadata != null) {
+      metadata.addClassRef(className, ret);
+    }
+    return ret;
+  }
+
+  private int getFieldIndex(int cIdx, String fieldName, boolean isStatic) {
+    int ret = classNames.get(cIdx).getIdx(fieldName, isStatic);
+    ClassMetadata metadata = instrumentationState.getMetadata();
+    if (metadata != null) {
+      metadata.addFieldRef(cIdx, fieldName, isStatic, ret);
+    }
+    return ret;
+  }
+
   /** Push a value onto the stack. */
   private static void addBipushInsn(MethodVisitor mv, int val) {
     Utils.addBipushInsn(mv, val);
@@ -525,7 +580,7 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
         addBipushInsn(mv, instrumentationState.incAndGetId());
         addBipushInsn(mv, instrumentationState.getMid());
         mv.visitLdcInsn(type);
-        int cIdx = classNames.get(type);
+        int cIdx = getClassIndex(type);
         addBipushInsn(mv, cIdx);
         mv.visitMethodInsn(
             INVOKESTATIC, Config.instance.analysisClass, "NEW", "(IILjava/lang/String;I)V", false);
@@ -556,12 +611,11 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
   public void visitFieldInsn(int opcode, String owner, String name, String desc) {
     addBipushInsn(mv, instrumentationState.incAndGetId());
     addBipushInsn(mv, instrumentationState.getMid());
-    int cIdx = classNames.get(owner);
+    int cIdx = getClassIndex(owner);
     addBipushInsn(mv, cIdx);
-    ObjectInfo tmp = classNames.get(cIdx);
     switch (opcode) {
       case GETSTATIC:
-        int fIdx = tmp.getIdx(name, true);
+        int fIdx = getFieldIndex(cIdx, name, true);
         addBipushInsn(mv, fIdx);
         mv.visitLdcInsn(desc);
 
@@ -573,7 +627,7 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
         addValueReadInsn(mv, desc, "GETVALUE_");
         break;
       case PUTSTATIC:
-        fIdx = tmp.getIdx(name, true);
+        fIdx = getFieldIndex(cIdx, name, true);
         addBipushInsn(mv, fIdx);
         mv.visitLdcInsn(desc);
 
@@ -583,7 +637,7 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
         addSpecialInsn(mv, 0); // for non-exceptional path
         break;
       case GETFIELD:
-        fIdx = tmp.getIdx(name, false);
+        fIdx = getFieldIndex(cIdx, name, false);
         addBipushInsn(mv, fIdx);
         mv.visitLdcInsn(desc);
 
@@ -594,7 +648,7 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
         addValueReadInsn(mv, desc, "GETVALUE_");
         break;
       case PUTFIELD:
-        fIdx = tmp.getIdx(name, false);
+        fIdx = getFieldIndex(cIdx, name, false);
         addBipushInsn(mv, fIdx);
         mv.visitLdcInsn(desc);
 
@@ -640,6 +694,18 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
     Label handler = new Label();
     Label end = new Label();
 
+    if (frames != null) {
+      // The handler at the end of the method needs the only new frame.
+      tryCatchBlocks.addFirst(new TryCatchBlock(begin, end, frames.getHandler(), null));
+      mv.visitLabel(begin);
+      mv.visitMethodInsn(opcode, owner, name, desc, itf);
+      mv.visitLabel(end);
+      mv.visitMethodInsn(
+          INVOKESTATIC, Config.instance.analysisClass, "INVOKEMETHOD_END", "()V", false);
+      addValueReadInsn(mv, desc, "GETVALUE_");
+      return;
+    }
+
     tryCatchBlocks.addFirst(new TryCatchBlock(begin, handler, handler, null));
 
     mv.visitLabel(begin);
@@ -688,88 +754,88 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
     int iid3;
     addBipushInsn(mv, iid3 = instrumentationState.incAndGetId());
     addBipushInsn(mv, instrumentationState.getMid());
-    addBipushInsn(mv, System.identityHashCode(label)); // label.getOffset()
+    addBipushInsn(mv, labelId(label));
     switch (opcode) {
       case IFEQ:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFEQ", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IFNE:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFNE", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IFLT:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFLT", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IFGE:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFGE", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IFGT:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFGT", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IFLE:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFLE", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ICMPEQ:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ICMPEQ", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ICMPNE:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ICMPNE", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ICMPLT:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ICMPLT", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ICMPGE:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ICMPGE", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ICMPGT:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ICMPGT", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ICMPLE:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ICMPLE", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ACMPEQ:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ACMPEQ", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IF_ACMPNE:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IF_ACMPNE", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
@@ -783,13 +849,13 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
         mv.visitJumpInsn(opcode, label);
         break;
       case IFNULL:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFNULL", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
         break;
       case IFNONNULL:
-        coverage.addBranchCount(iid3);
+        addBranchCount(iid3);
         mv.visitMethodInsn(INVOKESTATIC, Config.instance.analysisClass, "IFNONNULL", "(III)V", false);
         mv.visitJumpInsn(opcode, label);
         addSpecialInsn(mv, 1); // for true path
@@ -834,23 +900,21 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
 
   @Override
   public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+    // The interpreter takes the ids of the labels to follow the id of the switch.
     int iid3;
-    addBipushInsn(mv, iid3 = instrumentationState.incAndGetId());
+    addBipushInsn(mv, iid3 = instrumentationState.incAndGetIds(labels.length));
     addBipushInsn(mv, instrumentationState.getMid());
     addBipushInsn(mv, min);
     addBipushInsn(mv, max);
-    addBipushInsn(mv, System.identityHashCode(dflt)); // label.getOffset()
+    addBipushInsn(mv, labelId(dflt));
 
     addBipushInsn(mv, labels.length);
     mv.visitIntInsn(NEWARRAY, T_INT);
     for (int i = 0; i < labels.length; i++) {
-      if (i != 0) {
-        iid3 = instrumentationState.incAndGetId();
-      }
-      coverage.addBranchCount(iid3);
+      addBranchCount(iid3 + i);
       mv.visitInsn(DUP);
       addBipushInsn(mv, i);
-      addBipushInsn(mv, System.identityHashCode(labels[i])); // label.getOffset()
+      addBipushInsn(mv, labelId(labels[i]));
       mv.visitInsn(IASTORE);
     }
 
@@ -861,9 +925,9 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
   @Override
   public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
     int iid3;
-    addBipushInsn(mv, iid3 = instrumentationState.incAndGetId());
+    addBipushInsn(mv, iid3 = instrumentationState.incAndGetIds(labels.length));
     addBipushInsn(mv, instrumentationState.getMid());
-    addBipushInsn(mv, System.identityHashCode(dflt)); // label.getOffset()
+    addBipushInsn(mv, labelId(dflt));
 
     addBipushInsn(mv, keys.length);
     mv.visitIntInsn(NEWARRAY, T_INT);
@@ -877,13 +941,10 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
     addBipushInsn(mv, labels.length);
     mv.visitIntInsn(NEWARRAY, T_INT);
     for (int i = 0; i < labels.length; i++) {
-      if (i != 0) {
-        iid3 = instrumentationState.incAndGetId();
-      }
-      coverage.addBranchCount(iid3);
+      addBranchCount(iid3 + i);
       mv.visitInsn(DUP);
       addBipushInsn(mv, i);
-      addBipushInsn(mv, System.identityHashCode(labels[i])); // label.getOffset()
+      addBipushInsn(mv, labelId(labels[i]));
       mv.visitInsn(IASTORE);
     }
 
@@ -905,6 +966,14 @@ public class SnoopInstructionMethodAdapter extends MethodVisitor implements Opco
 
   @Override
   public void visitMaxs(int maxStack, int maxLocals) {
+    if (frames != null) {
+      for (Label handler : frames.getHandlers()) {
+        frames.visitHandler(mv, handler);
+        mv.visitMethodInsn(
+            INVOKESTATIC, Config.instance.analysisClass, "INVOKEMETHOD_EXCEPTION", "()V", false);
+        mv.visitInsn(ATHROW);
+      }
+    }
     for (TryCatchBlock b : tryCatchBlocks) {
       b.visit(mv);
     }
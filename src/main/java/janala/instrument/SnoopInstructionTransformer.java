@@ -1,9 +1,15 @@
 package janala.instrument;
 
 import janala.config.Config;
+import janala.logger.ClassNames;
+import janala.logger.CoverageLogger;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -15,17 +21,27 @@ import java.security.ProtectionDomain;
 public class SnoopInstructionTransformer implements ClassFileTransformer {
   private boolean writeInstrumentedClasses = true;
   private String instDir = "instrumented";
+  private final InstrumentationCache cache;
+  private Preinstrumenter preinstrumenter = null;
   public SnoopInstructionTransformer() {
     writeInstrumentedClasses = true;
     instDir = "instrumented";
+    cache = InstrumentationCache.create(Config.instance);
   }
   
   public static void premain(String agentArgs, Instrumentation inst) {
-    inst.addTransformer(new SnoopInstructionTransformer());
+    SnoopInstructionTransformer transformer = new SnoopInstructionTransformer();
+    if (Config.instance.preinstrumentThreads > 0) {
+      transformer.preinstrumenter = Preinstrumenter.start(Config.instance, transformer.cache);
+    }
+    if (Config.instance.coverageOnly) {
+      CoverageLogger.writeOnExit(Config.instance.coverage);
+    }
+    inst.addTransformer(transformer);
   }
 
   /** packages that should be exluded from the instrumentation */
-  private static boolean shouldExclude(String cname) {
+  static boolean shouldExclude(String cname) {
     for (String e : Config.instance.excludeList) {
       if (cname.startsWith(e)) {
         return true;
@@ -34,6 +50,179 @@ public class SnoopInstructionTransformer implements ClassFileTransformer {
     return false;
   }
 
+  /** Thrown by instrument when ASM fails. */
+  static class InstrumentationException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    // What the writer had when the instrumentation failed.
+    final byte[] partial;
+
+    InstrumentationException(Throwable cause, byte[] partial) {
+      super(cause);
+      this.partial = partial;
+    }
+  }
+
+  /**
+   * Instrument a class. The cid and the metadata of state must be set, and the class must be
+   * registered in coverage. The ClassReader throws an IllegalArgumentException if it cannot read
+   * the class, e.g., for a class file version that ASM does not know.
+   */
+  static byte[] instrument(byte[] cbuf, Coverage coverage, GlobalStateForInstrumentation state,
+      ClassNames classNames) throws InstrumentationException {
+    ClassReader cr = new ClassReader(cbuf);
+    // The major version follows the magic number and the minor version.
+    boolean keepFrames =
+        !Config.instance.computeFrames && FrameKeeper.canUse(cr.readUnsignedShort(6));
+    ClassWriter cw =
+        new ClassWriter(cr, keepFrames ? ClassWriter.COMPUTE_MAXS : ClassWriter.COMPUTE_FRAMES);
+    SnoopInstructionClassAdapter cv =
+        new SnoopInstructionClassAdapter(cw, coverage, state, classNames);
+    cv.setKeepFrames(keepFrames);
+    try {
+      cr.accept(cv, keepFrames ? ClassReader.EXPAND_FRAMES : 0);
+    } catch (Exception e) {
+      throw new InstrumentationException(e, cw.toByteArray());
+    }
+    return cw.toByteArray();
+  }
+
+  /**
+   * An upper bound on the local ids that the instrumentation of a class takes: one per method
+   * and per instruction, and two per label of a switch, whose ids may skip to the next block of
+   * ids. 0 if the class cannot be read.
+   */
+  static int idBound(byte[] cbuf) {
+    final int[] n = new int[1];
+    final MethodVisitor counter =
+        new MethodVisitor(Opcodes.ASM5) {
+          @Override
+          public void visitCode() {
+            n[0]++;
+          }
+
+          @Override
+          public void visitInsn(int opcode) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitIntInsn(int opcode, int operand) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitVarInsn(int opcode, int var) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitTypeInsn(int opcode, String type) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitMethodInsn(
+              int opcode, String owner, String name, String desc, boolean itf) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitInvokeDynamicInsn(
+              String name, String desc, Handle bsm, Object... bsmArgs) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitJumpInsn(int opcode, Label label) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitLdcInsn(Object cst) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitIincInsn(int var, int increment) {
+            n[0]++;
+          }
+
+          @Override
+          public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            n[0] += 1 + 2 * labels.length;
+          }
+
+          @Override
+          public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            n[0] += 1 + 2 * labels.length;
+          }
+
+          @Override
+          public void visitMultiANewArrayInsn(String desc, int dims) {
+            n[0]++;
+          }
+        };
+    try {
+      new ClassReader(cbuf).accept(
+          new ClassVisitor(Opcodes.ASM5) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc,
+                String signature, String[] exceptions) {
+              return counter;
+            }
+          },
+          ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    } catch (RuntimeException e) {
+      return 0;
+    }
+    return n[0];
+  }
+
+  /** A class instrumented with a coverage of its own, which is merged when the class loads. */
+  static class Instrumented {
+    public final byte[] original;
+    public final byte[] bytes;
+    public final Coverage part;
+    public final ClassMetadata metadata;
+    // The error of ASM, if bytes are only what the writer had then.
+    public final Throwable failure;
+
+    Instrumented(byte[] original, byte[] bytes, Coverage part, ClassMetadata metadata,
+        Throwable failure) {
+      this.original = original;
+      this.bytes = bytes;
+      this.part = part;
+      this.metadata = metadata;
+      this.failure = failure;
+    }
+  }
+
+  /**
+   * Instrument a class with a GlobalStateForInstrumentation of its own, so that classes can be
+   * instrumented in parallel.
+   *
+   * @param part the coverage returned by forClass for the class
+   */
+  static Instrumented instrumentClass(
+      String cname, byte[] cbuf, Coverage part, ClassNames classNames) {
+    ClassMetadata metadata = new ClassMetadata(part.lookupCid(cname));
+    GlobalStateForInstrumentation state = new GlobalStateForInstrumentation();
+    state.setCid(metadata.getCid());
+    state.setMetadata(metadata);
+    try {
+      return new Instrumented(
+          cbuf, instrument(cbuf, part, state, classNames), part, metadata, null);
+    } catch (InstrumentationException e) {
+      return new Instrumented(cbuf, e.partial, part, metadata, e.getCause());
+    }
+  }
+
   @Override
   public byte[] transform(ClassLoader loader, String cname, Class<?> classBeingRedefined,
       ProtectionDomain d, byte[] cbuf)
@@ -46,19 +235,34 @@ public class SnoopInstructionTransformer implements ClassFileTransformer {
     boolean toInstrument = !shouldExclude(cname);
 
     if (toInstrument) {
-      Coverage.read(Config.instance.coverage);
-      GlobalStateForInstrumentation.instance.setCid(Coverage.instance.getCid(cname));
-      ClassReader cr = new ClassReader(cbuf);
-      ClassWriter cw = new ClassWriter(cr, ClassWriter.COMPUTE_FRAMES);
-      ClassVisitor cv = new SnoopInstructionClassAdapter(cw);
-
-      try {
-        cr.accept(cv, 0);
-      } catch (Exception e) {
-        e.printStackTrace();
+      Coverage coverage = Coverage.load(Config.instance.coverage);
+      String key = null;
+      if (cache != null) {
+        key = cache.key(cname, cbuf);
+        byte[] cached = cache.get(key, cname, coverage, ClassNames.getInstance());
+        if (cached != null) {
+          if (preinstrumenter != null) {
+            preinstrumenter.drop(cname);
+          }
+          return cached;
+        }
       }
 
-      byte[] ret = cw.toByteArray();
+      Instrumented result = null;
+      if (preinstrumenter != null) {
+        result = preinstrumenter.take(cname, cbuf);
+      }
+      if (result == null) {
+        result = instrumentClass(cname, cbuf, coverage.forClass(cname), ClassNames.getInstance());
+      }
+      coverage.merge(result.part);
+      byte[] ret = result.bytes;
+
+      if (result.failure != null) {
+        result.failure.printStackTrace();
+      } else if (cache != null) {
+        cache.put(key, ret, result.metadata);
+      }
       if (writeInstrumentedClasses) {
         try {
           File file = new File(instDir + "/" + cname + ".class");
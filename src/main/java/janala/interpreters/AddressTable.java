@@ -0,0 +1,89 @@
+package janala.interpreters;
+
+/**
+ * The values of the objects by address, see janala.logger.ObjectIds. The keys are ints, so the
+ * lookups do not box them, and the table uses open addressing with linear probing. Removing an
+ * entry shifts the following ones back, so the table has no tombstones.
+ */
+public class AddressTable {
+  private int[] keys;
+  private Value[] values;
+  private int size;
+
+  public AddressTable() {
+    this(1 << 10);
+  }
+
+  // capacity must be a power of 2.
+  AddressTable(int capacity) {
+    keys = new int[capacity];
+    values = new Value[capacity];
+  }
+
+  private static int slot(int key, int mask) {
+    return (key * 0x9E3779B9) & mask;
+  }
+
+  // The slot of a key, or the empty slot where it goes.
+  private int find(int key) {
+    int mask = keys.length - 1;
+    int i = slot(key, mask);
+    while (values[i] != null && keys[i] != key) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  public Value get(int address) {
+    return values[find(address)];
+  }
+
+  public void put(int address, Value value) {
+    int i = find(address);
+    if (values[i] == null) {
+      if (size + 1 > keys.length >>> 1) {
+        resize();
+        i = find(address);
+      }
+      size++;
+      keys[i] = address;
+    }
+    values[i] = value;
+  }
+
+  public void remove(int address) {
+    int hole = find(address);
+    if (values[hole] == null) {
+      return;
+    }
+    size--;
+    int mask = keys.length - 1;
+    for (int i = (hole + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+      int home = slot(keys[i], mask);
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        keys[hole] = keys[i];
+        values[hole] = values[i];
+        hole = i;
+      }
+    }
+    values[hole] = null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void resize() {
+    int[] oldKeys = keys;
+    Value[] oldValues = values;
+    keys = new int[2 * oldKeys.length];
+    values = new Value[keys.length];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != null) {
+        int j = find(oldKeys[i]);
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+}
@@ -3,16 +3,25 @@ package janala.interpreters;
 import janala.utils.MyLogger;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-
+/**
+ * The field layouts of the classes. The instrumentation gives the fields that a class declares,
+ * from its classfile, so the layouts of the instrumented classes need no reflection; the other
+ * classes are loaded to get theirs. A layout is computed once, with those of the superclasses.
+ */
 public class ClassDepot implements Serializable {
-  private static final long serialVersionUID = 1;
+  private static final long serialVersionUID = 2;
 
+  // The layouts, with the fields of the superclasses
   private final Map<String, ClassTemplate> templates;
+  // The fields declared in the classfiles, by class
+  private final Map<String, ClassTemplate> declared;
+  private final Map<String, String> superNames;
 
   public static ClassDepot instance = new ClassDepot();
   
@@ -28,29 +37,74 @@ public class ClassDepot implements Serializable {
 
   // VisibleForTesting
   public ClassDepot() {
-    templates = new TreeMap<String, ClassTemplate>();
+    templates = new HashMap<String, ClassTemplate>();
+    declared = new HashMap<String, ClassTemplate>();
+    superNames = new HashMap<String, String>();
+  }
+
+  /**
+   * Give the fields declared by a class, as read from its classfile. The names are in the
+   * form of Class.getName, and superName is null for java.lang.Object.
+   */
+  public synchronized void addClass(String className, String superName, List<String> fields,
+      List<String> staticFields) {
+    if (!templates.containsKey(className)) {
+      declared.put(className, new ClassTemplate(fields, staticFields));
+      superNames.put(className, superName);
+    }
   }
 
-  private ClassTemplate getOrCreateTemplate(String className, Class<?> clazz) {
-    ClassTemplate ct = templates.get(className);
-    if (ct != null) {
-      return ct;
+  // The classes are loaded without the lock, as their initializers may run instrumented code.
+  private ClassTemplate getTemplate(String className) throws ClassNotFoundException {
+    ClassTemplate fields;
+    String superName;
+    synchronized (this) {
+      ClassTemplate ct = templates.get(className);
+      if (ct != null) {
+        return ct;
+      }
+      fields = declared.get(className);
+      superName = superNames.get(className);
     }
-    ct = new ClassTemplate(clazz);
-    templates.put(className, ct);
-    Class<?> parent = clazz.getSuperclass();
-    if (parent != null) {
-      ClassTemplate pt = getOrCreateTemplate(parent.getName(), parent);
-      ct.addFields(pt);
+    ClassTemplate ct;
+    if (fields != null) {
+      ct = new ClassTemplate(fields);
+      if (superName != null) {
+        ct.addFields(getTemplate(superName));
+      }
+    } else {
+      Class<?> clazz = loadClass(className);
+      ct = new ClassTemplate(clazz);
+      Class<?> parent = clazz.getSuperclass();
+      if (parent != null) {
+        ct.addFields(getTemplate(parent.getName()));
+      }
+    }
+    synchronized (this) {
+      ClassTemplate other = templates.get(className);
+      if (other != null) {
+        return other;
+      }
+      templates.put(className, ct);
     }
     return ct;
   }
 
+  /**
+   * Load the class with the context class loader, so that a class of the program under test
+   * is found even if it is not loaded by the system class loader.
+   */
+  private static Class<?> loadClass(String className) throws ClassNotFoundException {
+    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    if (loader == null) {
+      return Class.forName(className);
+    }
+    return Class.forName(className, true, loader);
+  }
+
   public int getFieldIndex(String className, String field) {
     try {
-      Class<?> clazz = Class.forName(className);
-      ClassTemplate ct = getOrCreateTemplate(className, clazz);
-      return ct.getFieldIndex(field);
+      return getTemplate(className).getFieldIndex(field);
     } catch (ClassNotFoundException e) {
       logger.log(Level.SEVERE, "", e);
       return -1;
@@ -59,9 +113,7 @@ public class ClassDepot implements Serializable {
 
   public int getStaticFieldIndex(String className, String field) {
     try {
-      Class<?> clazz = Class.forName(className);
-      ClassTemplate ct = getOrCreateTemplate(className, clazz);
-      return ct.getStaticFieldIndex(field);
+      return getTemplate(className).getStaticFieldIndex(field);
     } catch (ClassNotFoundException e) {
       logger.log(Level.SEVERE, "", e);
       return -1;
@@ -70,9 +122,7 @@ public class ClassDepot implements Serializable {
 
   public int numFields(String className) {
     try {
-      Class<?> clazz = Class.forName(className);
-      ClassTemplate ct = getOrCreateTemplate(className, clazz);
-      return ct.nFields();
+      return getTemplate(className).nFields();
     } catch (ClassNotFoundException e) {
       logger.log(Level.SEVERE, "Class not found", e);
       return -1;
@@ -81,9 +131,7 @@ public class ClassDepot implements Serializable {
 
   public int numStaticFields(String className) {
     try {
-      Class<?> clazz = Class.forName(className);
-      ClassTemplate ct = getOrCreateTemplate(className, clazz);
-      return ct.nStaticFields();
+      return getTemplate(className).nStaticFields();
     } catch (ClassNotFoundException e) {
       logger.log(Level.SEVERE, "", e);
       return -1;
@@ -1,12 +1,14 @@
 package janala.interpreters;
 
+import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.Iterator;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ClassTemplate {
+public class ClassTemplate implements Serializable {
+  private static final long serialVersionUID = 1L;
+
   private final ArrayList<String> fields;
   private final ArrayList<String> staticFields;
 
@@ -26,6 +28,17 @@ public class ClassTemplate {
     populateAllFields(c);
   }
 
+  /** The template of the fields read from a classfile. */
+  public ClassTemplate(List<String> fields, List<String> staticFields) {
+    this.fields = new ArrayList<String>(fields);
+    this.staticFields = new ArrayList<String>(staticFields);
+  }
+
+  /** A copy of a template, to add the fields of the superclass to. */
+  public ClassTemplate(ClassTemplate ct) {
+    this(ct.fields, ct.staticFields);
+  }
+
   public String toString() {
     return fields.toString();
   }
@@ -5,24 +5,23 @@ import static janala.interpreters.ObjectValue.ADDRESS_UNKNOWN;
 import janala.Main;
 import janala.config.Config;
 import janala.instrument.Coverage;
+import janala.instrument.MethodProfile;
 import janala.logger.ClassNames;
 import janala.logger.FieldInfo;
+import janala.logger.ObjectIds;
 import janala.logger.ObjectInfo;
 import janala.logger.inst.*;
 import janala.solvers.History;
 import janala.utils.MyLogger;
 import org.objectweb.asm.Type;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Stack;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ConcolicInterpreter implements IVisitor {
-  private Stack<Frame> stack;
+  private FrameStack stack;
 
-  public Stack<Frame> getStack() { return stack; }
+  public FrameStack getStack() { return stack; }
 
   public void printCurrentStack() {
     System.out.println("Frame:");
@@ -34,8 +33,27 @@ public class ConcolicInterpreter implements IVisitor {
     return currentFrame;
   }
 
+  // The thread whose frames are in stack and currentFrame.
+  private ThreadFrames currentThread;
+
+  public ThreadFrames getCurrentThread() {
+    return currentThread;
+  }
+
+  /** Save the frames of the current thread and continue with the frames of thread. */
+  public void switchThread(ThreadFrames thread) {
+    if (thread == currentThread) {
+      return;
+    }
+    currentThread.stack = stack;
+    currentThread.currentFrame = currentFrame;
+    stack = thread.stack;
+    currentFrame = thread.currentFrame;
+    currentThread = thread;
+  }
+
   private ClassNames cnames;
-  private Map<Integer, Value> objects;
+  private AddressTable objects;
   private History history;
   public History getHistory() {
     return history;
@@ -45,30 +63,36 @@ public class ConcolicInterpreter implements IVisitor {
   private final Coverage coverage;
   private final StaticInvocation staticInv;
   private final Config config;
+  // Null unless catg.coldIterations is set.
+  private final MethodProfile methodProfile;
 
   private final static Logger logger = MyLogger.getLogger(ConcolicInterpreter.class.getName());
 
   public ConcolicInterpreter(ClassNames cnames, Config config) {
-    stack = new Stack<Frame>();
-    stack.add(currentFrame = new Frame(0));
+    stack = new FrameStack();
+    currentFrame = stack.push(0, 0);
+    currentThread = new ThreadFrames(stack, currentFrame);
     this.cnames = cnames;
-    objects = new HashMap<Integer, Value>();
+    objects = new AddressTable();
     history = History.readHistory(config.getSolver());
-    coverage = Coverage.get();
+    coverage = Coverage.load(config.coverage);
     staticInv = new StaticInvocation(config);
     this.config = config;
+    methodProfile = config.coldIterations > 0 ? MethodProfile.load(config.methodProfile) : null;
   }
 
   // Used for testing with dependencies.
   public ConcolicInterpreter(ClassNames cnames, History history, Coverage coverage, Config config) {
-    stack = new Stack<Frame>();
-    stack.add(currentFrame = new Frame(0));
+    stack = new FrameStack();
+    currentFrame = stack.push(0, 0);
+    currentThread = new ThreadFrames(stack, currentFrame);
     this.cnames = cnames;
-    objects = new HashMap<Integer, Value>();
+    objects = new AddressTable();
     this.history = history; //
     this.coverage = coverage;
     staticInv = new StaticInvocation(config);
     this.config = config;
+    methodProfile = config.coldIterations > 0 ? MethodProfile.load(config.methodProfile) : null;
   }
 
   private void checkAndSetException() {
@@ -90,6 +114,13 @@ public class ConcolicInterpreter implements IVisitor {
     }
   }
 
+  // A branch on concrete values, which adds no constraint.
+  private void concreteBranch(int iid) {
+    boolean result = next instanceof SPECIAL && ((SPECIAL) next).i == 1;
+    history.checkAndSetBranch(result, null, iid);
+    coverage.visitBranch(iid, result);
+  }
+
   private static SymbolicObject getSymbolicObject(final ObjectValue ref) {
     SymbolicObject sref;
 
@@ -112,7 +143,7 @@ public class ConcolicInterpreter implements IVisitor {
       for (Pair<Constraint, ObjectValue> pair : sref.guards) {
         ObjectValue reference = pair.snd;
         for (int i = 0; i < reference.getFields().length; i++) {
-          IntValue int1 = i1.IF_ICMPEQ(new IntValue(i));
+          IntValue int1 = i1.IF_ICMPEQ(IntValue.valueOf(i));
           Constraint c = int1.symbolic;
           if (int1.concrete == 0) {
             c = int1.symbolic.not();
@@ -145,7 +176,7 @@ public class ConcolicInterpreter implements IVisitor {
         ObjectValue reference = pair.snd;
         for (int i = 0; i < reference.getFields().length; i++) {
           // Check index
-          IntValue int1 = i1.IF_ICMPEQ(new IntValue(i));
+          IntValue int1 = i1.IF_ICMPEQ(IntValue.valueOf(i));
           Constraint c = int1.symbolic;
           if (int1.concrete == 0) {
             c = int1.symbolic.not();
@@ -186,7 +217,7 @@ public class ConcolicInterpreter implements IVisitor {
       for (Pair<Constraint, ObjectValue> pair : sref.guards) {
         ref = pair.snd;
         for (int i = 0; i < ref.getFields().length; i++) {
-          IntValue int1 = i1.IF_ICMPEQ(new IntValue(i));
+          IntValue int1 = i1.IF_ICMPEQ(IntValue.valueOf(i));
           Constraint c = int1.symbolic;
           if (int1.concrete == 0) {
             c = int1.symbolic.not();
@@ -222,7 +253,29 @@ public class ConcolicInterpreter implements IVisitor {
       history.solveAndSave();
     }
     Main.writeOldStates();
-    coverage.write(config.coverage);
+    coverage.writeDelta(config.coverage);
+    if (methodProfile != null) {
+      methodProfile.endRun();
+      methodProfile.write(config.methodProfile);
+    }
+  }
+
+  /** Record in the method profile that the method of insn ran, and whether it saw an input. */
+  public void profile(Instruction insn) {
+    if (methodProfile == null || insn.iid == -1) {
+      return;
+    }
+    int cidmid = coverage.getMethod(insn.iid);
+    if (cidmid < 0) {
+      return;
+    }
+    methodProfile.executed(cidmid);
+    if (currentFrame.getStackSize() > 0) {
+      Value top = currentFrame.peek();
+      if (top != null && top.hasSymbolic()) {
+        methodProfile.symbolic(cidmid);
+      }
+    }
   }
 
   public void visitAALOAD(AALOAD inst) {
@@ -279,7 +332,7 @@ public class ConcolicInterpreter implements IVisitor {
       if (ref.getFields() == null) {
         currentFrame.push(PlaceHolder.instance);
       } else {
-        currentFrame.push(new IntValue(ref.getFields().length));
+        currentFrame.push(IntValue.valueOf(ref.getFields().length));
       }
     } catch (Exception e) {
       e.printStackTrace();
@@ -322,7 +375,7 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitBIPUSH(BIPUSH inst) {
-    currentFrame.push(new IntValue(inst.value));
+    currentFrame.pushInt(inst.value);
   }
 
   public void visitCALOAD(CALOAD inst) {
@@ -354,21 +407,38 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitD2F(D2F inst) {
+    if (currentFrame.isDouble(2)) {
+      currentFrame.pushFloat((float) currentFrame.popDouble());
+      return;
+    }
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push(d1.D2F());
   }
 
   public void visitD2I(D2I inst) {
+    if (currentFrame.isDouble(2)) {
+      currentFrame.pushInt((int) currentFrame.popDouble());
+      return;
+    }
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push(d1.D2I());
   }
 
   public void visitD2L(D2L inst) {
+    if (currentFrame.isDouble(2)) {
+      currentFrame.pushLong((long) currentFrame.popDouble());
+      return;
+    }
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push2(d1.D2L());
   }
 
   public void visitDADD(DADD inst) {
+    if (currentFrame.isDouble(2) && currentFrame.isDouble(4)) {
+      double d2 = currentFrame.popDouble();
+      currentFrame.pushDouble(currentFrame.popDouble() + d2);
+      return;
+    }
     DoubleValue d2 = (DoubleValue) currentFrame.pop2();
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push2(d1.DADD(d2));
@@ -410,14 +480,19 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitDCONST_0(DCONST_0 inst) {
-    currentFrame.push2(new DoubleValue(0.0));
+    currentFrame.pushDouble(0.0);
   }
 
   public void visitDCONST_1(DCONST_1 inst) {
-    currentFrame.push2(new DoubleValue(1.0));
+    currentFrame.pushDouble(1.0);
   }
 
   public void visitDDIV(DDIV inst) {
+    if (currentFrame.isDouble(2) && currentFrame.isDouble(4)) {
+      double d2 = currentFrame.popDouble();
+      currentFrame.pushDouble(currentFrame.popDouble() / d2);
+      return;
+    }
     DoubleValue d2 = (DoubleValue) currentFrame.pop2();
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push2(d1.DDIV(d2));
@@ -428,17 +503,31 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitDMUL(DMUL inst) {
+    if (currentFrame.isDouble(2) && currentFrame.isDouble(4)) {
+      double d2 = currentFrame.popDouble();
+      currentFrame.pushDouble(currentFrame.popDouble() * d2);
+      return;
+    }
     DoubleValue d2 = (DoubleValue) currentFrame.pop2();
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push2(d1.DMUL(d2));
   }
 
   public void visitDNEG(DNEG inst) {
+    if (currentFrame.isDouble(2)) {
+      currentFrame.pushDouble(-currentFrame.popDouble());
+      return;
+    }
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push2(d1.DNEG());
   }
 
   public void visitDREM(DREM inst) {
+    if (currentFrame.isDouble(2) && currentFrame.isDouble(4)) {
+      double d2 = currentFrame.popDouble();
+      currentFrame.pushDouble(currentFrame.popDouble() % d2);
+      return;
+    }
     DoubleValue d2 = (DoubleValue) currentFrame.pop2();
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push2(d1.DREM(d2));
@@ -453,6 +542,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitDSUB(DSUB inst) {
+    if (currentFrame.isDouble(2) && currentFrame.isDouble(4)) {
+      double d2 = currentFrame.popDouble();
+      currentFrame.pushDouble(currentFrame.popDouble() - d2);
+      return;
+    }
     DoubleValue d2 = (DoubleValue) currentFrame.pop2();
     DoubleValue d1 = (DoubleValue) currentFrame.pop2();
     currentFrame.push2(d1.DSUB(d2));
@@ -510,21 +604,38 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitF2D(F2D inst) {
+    if (currentFrame.isFloat(1)) {
+      currentFrame.pushDouble(currentFrame.popFloat());
+      return;
+    }
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push2(f1.F2D());
   }
 
   public void visitF2I(F2I inst) {
+    if (currentFrame.isFloat(1)) {
+      currentFrame.pushInt((int) currentFrame.popFloat());
+      return;
+    }
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push(f1.F2I());
   }
 
   public void visitF2L(F2L inst) {
+    if (currentFrame.isFloat(1)) {
+      currentFrame.pushLong((long) currentFrame.popFloat());
+      return;
+    }
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push2(f1.F2L());
   }
 
   public void visitFADD(FADD inst) {
+    if (currentFrame.isFloat(1) && currentFrame.isFloat(2)) {
+      float f2 = currentFrame.popFloat();
+      currentFrame.pushFloat(currentFrame.popFloat() + f2);
+      return;
+    }
     FloatValue f2 = (FloatValue) currentFrame.pop();
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push(f1.FADD(f2));
@@ -566,18 +677,23 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitFCONST_0(FCONST_0 inst) {
-    currentFrame.push(new FloatValue(0.0f));
+    currentFrame.pushFloat(0.0f);
   }
 
   public void visitFCONST_1(FCONST_1 inst) {
-    currentFrame.push(new FloatValue(1.0f));
+    currentFrame.pushFloat(1.0f);
   }
 
   public void visitFCONST_2(FCONST_2 inst) {
-    currentFrame.push(new FloatValue(2.0f));
+    currentFrame.pushFloat(2.0f);
   }
 
   public void visitFDIV(FDIV inst) {
+    if (currentFrame.isFloat(1) && currentFrame.isFloat(2)) {
+      float f2 = currentFrame.popFloat();
+      currentFrame.pushFloat(currentFrame.popFloat() / f2);
+      return;
+    }
     FloatValue f2 = (FloatValue) currentFrame.pop();
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push(f1.FDIV(f2));
@@ -588,17 +704,31 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitFMUL(FMUL inst) {
+    if (currentFrame.isFloat(1) && currentFrame.isFloat(2)) {
+      float f2 = currentFrame.popFloat();
+      currentFrame.pushFloat(currentFrame.popFloat() * f2);
+      return;
+    }
     FloatValue f2 = (FloatValue) currentFrame.pop();
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push(f1.FMUL(f2));
   }
 
   public void visitFNEG(FNEG inst) {
+    if (currentFrame.isFloat(1)) {
+      currentFrame.pushFloat(-currentFrame.popFloat());
+      return;
+    }
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push(f1.FNEG());
   }
 
   public void visitFREM(FREM inst) {
+    if (currentFrame.isFloat(1) && currentFrame.isFloat(2)) {
+      float f2 = currentFrame.popFloat();
+      currentFrame.pushFloat(currentFrame.popFloat() % f2);
+      return;
+    }
     FloatValue f2 = (FloatValue) currentFrame.pop();
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push(f1.FREM(f2));
@@ -613,6 +743,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitFSUB(FSUB inst) {
+    if (currentFrame.isFloat(1) && currentFrame.isFloat(2)) {
+      float f2 = currentFrame.popFloat();
+      currentFrame.pushFloat(currentFrame.popFloat() - f2);
+      return;
+    }
     FloatValue f2 = (FloatValue) currentFrame.pop();
     FloatValue f1 = (FloatValue) currentFrame.pop();
     currentFrame.push(f1.FSUB(f2));
@@ -650,6 +785,20 @@ public class ConcolicInterpreter implements IVisitor {
     checkAndSetException();
   }
 
+  // Remove the values of the objects that the program no longer has.
+  private void forgetFreedObjects() {
+    if (ObjectIds.instance.hasFreed()) {
+      forgetObjects(ObjectIds.instance.takeFreed());
+    }
+  }
+
+  /** Remove the values of the objects with the given addresses, which were collected. */
+  public void forgetObjects(int[] addresses) {
+    for (int address : addresses) {
+      objects.remove(address);
+    }
+  }
+
   public void visitGETVALUE_Object(GETVALUE_Object inst) {
     Value peek = currentFrame.peek();
     Value tmp;
@@ -658,6 +807,7 @@ public class ConcolicInterpreter implements IVisitor {
             ((ObjectValue) peek).address != inst.v)) {
       logger.log(Level.FINE, "** Failed to match " + currentFrame.peek() + " and " + inst.v);
       currentFrame.pop();
+      forgetFreedObjects();
       tmp = objects.get(inst.v);
       if (tmp != null) {
         currentFrame.push(tmp);
@@ -680,6 +830,7 @@ public class ConcolicInterpreter implements IVisitor {
       } else {
         // Need to obtain the Object address
         ((ObjectValue) peek).setAddress(inst.v);
+        forgetFreedObjects();
         objects.put(inst.v, peek);
       }
     }
@@ -691,7 +842,7 @@ public class ConcolicInterpreter implements IVisitor {
       logger.log(Level.FINE, "** Failed to match {0} and " + inst.v, currentFrame.peek());
       currentFrame.pop();
 
-      currentFrame.push(new IntValue(inst.v ? 1 : 0));
+      currentFrame.push(IntValue.valueOf(inst.v ? 1 : 0));
     }
   }
 
@@ -700,7 +851,7 @@ public class ConcolicInterpreter implements IVisitor {
         || ((IntValue) currentFrame.peek()).concrete != inst.v) {
       logger.log(Level.FINE, "** Failed to match {0} and " + inst.v, currentFrame.peek());
       currentFrame.pop();
-      currentFrame.push(new IntValue(inst.v));
+      currentFrame.push(IntValue.valueOf(inst.v));
     }
   }
 
@@ -709,7 +860,7 @@ public class ConcolicInterpreter implements IVisitor {
         || ((IntValue) currentFrame.peek()).concrete != inst.v) {
       logger.log(Level.FINE, "** Failed to match {0} and " + inst.v, currentFrame.peek());
       currentFrame.pop();
-      currentFrame.push(new IntValue(inst.v));
+      currentFrame.push(IntValue.valueOf(inst.v));
     }
   }
 
@@ -736,7 +887,7 @@ public class ConcolicInterpreter implements IVisitor {
         || ((IntValue) currentFrame.peek()).concrete != inst.v) {
       logger.log(Level.FINE, "** Failed to match {0} and " + inst.v, currentFrame.peek());
       currentFrame.pop();
-      currentFrame.push(new IntValue(inst.v));
+      currentFrame.push(IntValue.valueOf(inst.v));
     }
   }
 
@@ -754,7 +905,7 @@ public class ConcolicInterpreter implements IVisitor {
         || ((IntValue) currentFrame.peek()).concrete != inst.v) {
       logger.log(Level.FINE, "** Failed to match {0} and " + inst.v, currentFrame.peek());
       currentFrame.pop();
-      currentFrame.push(new IntValue(inst.v));
+      currentFrame.push(IntValue.valueOf(inst.v));
     }
   }
 
@@ -763,36 +914,65 @@ public class ConcolicInterpreter implements IVisitor {
   public void visitGOTO(GOTO inst) {}
 
   public void visitI2B(I2B inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.pushInt((byte) currentFrame.popInt());
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.I2B());
   }
 
   public void visitI2C(I2C inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.pushInt((char) currentFrame.popInt());
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.I2C());
   }
 
   public void visitI2D(I2D inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.pushDouble(currentFrame.popInt());
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push2(i1.I2D());
   }
 
   public void visitI2F(I2F inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.pushFloat(currentFrame.popInt());
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.I2F());
   }
 
   public void visitI2L(I2L inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.pushLong(currentFrame.popInt());
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push2(i1.I2L());
   }
 
   public void visitI2S(I2S inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.pushInt((short) currentFrame.popInt());
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.I2S());
   }
 
   public void visitIADD(IADD inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() + i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.IADD(i2));
@@ -811,6 +991,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIAND(IAND inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() & i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.IAND(i2));
@@ -829,34 +1014,44 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitICONST_0(ICONST_0 inst) {
-    currentFrame.push(new IntValue(0));
+    currentFrame.pushInt(0);
   }
 
   public void visitICONST_1(ICONST_1 inst) {
-    currentFrame.push(new IntValue(1));
+    currentFrame.pushInt(1);
   }
 
   public void visitICONST_2(ICONST_2 inst) {
-    currentFrame.push(new IntValue(2));
+    currentFrame.pushInt(2);
   }
 
   public void visitICONST_3(ICONST_3 inst) {
-    currentFrame.push(new IntValue(3));
+    currentFrame.pushInt(3);
   }
 
   public void visitICONST_4(ICONST_4 inst) {
-    currentFrame.push(new IntValue(4));
+    currentFrame.pushInt(4);
   }
 
   public void visitICONST_5(ICONST_5 inst) {
-    currentFrame.push(new IntValue(5));
+    currentFrame.pushInt(5);
   }
 
   public void visitICONST_M1(ICONST_M1 inst) {
-    currentFrame.push(new IntValue(-1));
+    currentFrame.pushInt(-1);
   }
 
   public void visitIDIV(IDIV inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      int i1 = currentFrame.popInt();
+      // The program throws on a division by zero.
+      if (i2 != 0) {
+        currentFrame.pushInt(i1 / i2);
+      }
+      checkAndSetException();
+      return;
+    }
     try {
       IntValue i2 = (IntValue) currentFrame.pop();
       IntValue i1 = (IntValue) currentFrame.pop();
@@ -868,6 +1063,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIFEQ(IFEQ inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.discard(1);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IFEQ();
     checkAndSetBranch(result);
@@ -876,6 +1076,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIFGE(IFGE inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.discard(1);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IFGE();
     checkAndSetBranch(result);
@@ -884,6 +1089,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIFGT(IFGT inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.discard(1);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IFGT();
     checkAndSetBranch(result);
@@ -892,6 +1102,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIFLE(IFLE inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.discard(1);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IFLE();
     checkAndSetBranch(result);
@@ -900,6 +1115,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIFLT(IFLT inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.discard(1);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IFLT();
     checkAndSetBranch(result);
@@ -908,6 +1128,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIFNE(IFNE inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.discard(1);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IFNE();
     checkAndSetBranch(result);
@@ -950,6 +1175,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIF_ICMPEQ(IF_ICMPEQ inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      currentFrame.discard(2);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IF_ICMPEQ(i2);
@@ -959,6 +1189,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIF_ICMPGE(IF_ICMPGE inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      currentFrame.discard(2);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IF_ICMPGE(i2);
@@ -968,6 +1203,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIF_ICMPGT(IF_ICMPGT inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      currentFrame.discard(2);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IF_ICMPGT(i2);
@@ -977,6 +1217,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIF_ICMPLE(IF_ICMPLE inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      currentFrame.discard(2);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IF_ICMPLE(i2);
@@ -986,6 +1231,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIF_ICMPLT(IF_ICMPLT inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      currentFrame.discard(2);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IF_ICMPLT(i2);
@@ -995,6 +1245,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIF_ICMPNE(IF_ICMPNE inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      currentFrame.discard(2);
+      concreteBranch(inst.iid);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     IntValue result = i1.IF_ICMPNE(i2);
@@ -1013,12 +1268,21 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIMUL(IMUL inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() * i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.IMUL(i2));
   }
 
   public void visitINEG(INEG inst) {
+    if (currentFrame.isConcreteInt(1)) {
+      currentFrame.pushInt(-currentFrame.popInt());
+      return;
+    }
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.INEG());
   }
@@ -1026,7 +1290,7 @@ public class ConcolicInterpreter implements IVisitor {
   public void visitINSTANCEOF(INSTANCEOF inst) {
     try {
       currentFrame.pop();
-      currentFrame.push(new IntValue(1)); // could be wrong boolean value
+      currentFrame.push(IntValue.valueOf(1)); // could be wrong boolean value
     } catch (Exception e) {
       e.printStackTrace();
     }
@@ -1045,9 +1309,12 @@ public class ConcolicInterpreter implements IVisitor {
     } else {
       nReturnWords = 1;
     }
-    Frame tmp  = new Frame(nReturnWords);
-    stack.push(tmp);
     int len = types.length;
+    int nLocals = isInstance ? 1 : 0;
+    for (int i = 0; i < len; i++) {
+      nLocals += types[i].getSize();
+    }
+    Frame tmp = stack.push(nReturnWords, nLocals);
     Value[] tmpValues = new Value[len];
     for (int i = len - 1; i >= 0; i--) {
       if (types[i] == Type.DOUBLE_TYPE || types[i] == Type.LONG_TYPE) {
@@ -1070,9 +1337,20 @@ public class ConcolicInterpreter implements IVisitor {
     }
     currentFrame = tmp;
 
-    if (next instanceof INVOKEMETHOD_END
+    boolean modelled = next instanceof INVOKEMETHOD_END
         || next instanceof INVOKEMETHOD_EXCEPTION
-        || next == null) {
+        || next == null;
+    if (methodProfile != null) {
+      stack.get(stack.size() - 2).invoked = name + desc;
+      // The callee is not instrumented, but calls instrumented code.
+      if (next instanceof SPECIAL && ((SPECIAL) next).i == SPECIAL.OPAQUE_CALL) {
+        modelled = true;
+      }
+      if (modelled && (anySymbolic(tmpValues) || (instance != null && instance.hasSymbolic()))) {
+        methodProfile.reached(name, desc);
+      }
+    }
+    if (modelled) {
       if (isInstance) {
         currentFrame.setRet(instance.invokeMethod(name, tmpValues, history));
       } else {
@@ -1098,12 +1376,27 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitIOR(IOR inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() | i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.IOR(i2));
   }
 
   public void visitIREM(IREM inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      int i1 = currentFrame.popInt();
+      // The program throws on a division by zero.
+      if (i2 != 0) {
+        currentFrame.pushInt(i1 % i2);
+      }
+      checkAndSetException();
+      return;
+    }
     try {
       IntValue i2 = (IntValue) currentFrame.pop();
       IntValue i1 = (IntValue) currentFrame.pop();
@@ -1119,12 +1412,22 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitISHL(ISHL inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() << i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.ISHL(i2));
   }
 
   public void visitISHR(ISHR inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() >> i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.ISHR(i2));
@@ -1135,18 +1438,33 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitISUB(ISUB inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() - i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.ISUB(i2));
   }
 
   public void visitIUSHR(IUSHR inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() >>> i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.IUSHR(i2));
   }
 
   public void visitIXOR(IXOR inst) {
+    if (currentFrame.isConcreteInt(1) && currentFrame.isConcreteInt(2)) {
+      int i2 = currentFrame.popInt();
+      currentFrame.pushInt(currentFrame.popInt() ^ i2);
+      return;
+    }
     IntValue i2 = (IntValue) currentFrame.pop();
     IntValue i1 = (IntValue) currentFrame.pop();
     currentFrame.push(i1.IXOR(i2));
@@ -1155,21 +1473,38 @@ public class ConcolicInterpreter implements IVisitor {
   public void visitJSR(JSR inst) {}
 
   public void visitL2D(L2D inst) {
+    if (currentFrame.isConcreteLong(2)) {
+      currentFrame.pushDouble(currentFrame.popLong());
+      return;
+    }
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.L2D());
   }
 
   public void visitL2F(L2F inst) {
+    if (currentFrame.isConcreteLong(2)) {
+      currentFrame.pushFloat(currentFrame.popLong());
+      return;
+    }
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push(i1.L2F());
   }
 
   public void visitL2I(L2I inst) {
+    if (currentFrame.isConcreteLong(2)) {
+      currentFrame.pushInt((int) currentFrame.popLong());
+      return;
+    }
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push(i1.L2I());
   }
 
   public void visitLADD(LADD inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      currentFrame.pushLong(currentFrame.popLong() + i2);
+      return;
+    }
     LongValue i2 = (LongValue) currentFrame.pop2();
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.LADD(i2));
@@ -1188,6 +1523,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitLAND(LAND inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      currentFrame.pushLong(currentFrame.popLong() & i2);
+      return;
+    }
     LongValue i2 = (LongValue) currentFrame.pop2();
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.LAND(i2));
@@ -1206,17 +1546,23 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitLCMP(LCMP inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      long i1 = currentFrame.popLong();
+      currentFrame.pushInt(i1 == i2 ? 0 : (i1 > i2 ? 1 : -1));
+      return;
+    }
     LongValue i2 = (LongValue) currentFrame.pop2();
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push(i1.LCMP(i2));
   }
 
   public void visitLCONST_0(LCONST_0 inst) {
-    currentFrame.push2(new LongValue(0));
+    currentFrame.pushLong(0);
   }
 
   public void visitLCONST_1(LCONST_1 inst) {
-    currentFrame.push2(new LongValue(1));
+    currentFrame.pushLong(1);
   }
 
   public void visitLDC_String(LDC_String inst) {
@@ -1224,6 +1570,7 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitLDC_Object(LDC_Object inst) {
+    forgetFreedObjects();
     Value tmp = objects.get(inst.c);
     if (tmp != null) {
       currentFrame.push(tmp);
@@ -1236,22 +1583,32 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitLDC_double(LDC_double inst) {
-    currentFrame.push2(new DoubleValue(inst.c));
+    currentFrame.pushDouble(inst.c);
   }
 
   public void visitLDC_float(LDC_float inst) {
-    currentFrame.push(new FloatValue(inst.c));
+    currentFrame.pushFloat(inst.c);
   }
 
   public void visitLDC_int(LDC_int inst) {
-    currentFrame.push(new IntValue(inst.c));
+    currentFrame.pushInt(inst.c);
   }
 
   public void visitLDC_long(LDC_long inst) {
-    currentFrame.push2(new LongValue(inst.c));
+    currentFrame.pushLong(inst.c);
   }
 
   public void visitLDIV(LDIV inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      long i1 = currentFrame.popLong();
+      // The program throws on a division by zero.
+      if (i2 != 0) {
+        currentFrame.pushLong(i1 / i2);
+      }
+      checkAndSetException();
+      return;
+    }
     try {
       LongValue i2 = (LongValue) currentFrame.pop2();
       LongValue i1 = (LongValue) currentFrame.pop2();
@@ -1267,23 +1624,47 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitLMUL(LMUL inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      currentFrame.pushLong(currentFrame.popLong() * i2);
+      return;
+    }
     LongValue i2 = (LongValue) currentFrame.pop2();
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.LMUL(i2));
   }
 
   public void visitLNEG(LNEG inst) {
+    if (currentFrame.isConcreteLong(2)) {
+      currentFrame.pushLong(-currentFrame.popLong());
+      return;
+    }
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.LNEG());
   }
 
   public void visitLOR(LOR inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      currentFrame.pushLong(currentFrame.popLong() | i2);
+      return;
+    }
     LongValue i2 = (LongValue) currentFrame.pop2();
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.LOR(i2));
   }
 
   public void visitLREM(LREM inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      long i1 = currentFrame.popLong();
+      // The program throws on a division by zero.
+      if (i2 != 0) {
+        currentFrame.pushLong(i1 % i2);
+      }
+      checkAndSetException();
+      return;
+    }
     try {
       LongValue i2 = (LongValue) currentFrame.pop2();
       LongValue i1 = (LongValue) currentFrame.pop2();
@@ -1315,6 +1696,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitLSUB(LSUB inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      currentFrame.pushLong(currentFrame.popLong() - i2);
+      return;
+    }
     LongValue i2 = (LongValue) currentFrame.pop2();
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.LSUB(i2));
@@ -1327,6 +1713,11 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitLXOR(LXOR inst) {
+    if (currentFrame.isConcreteLong(2) && currentFrame.isConcreteLong(4)) {
+      long i2 = currentFrame.popLong();
+      currentFrame.pushLong(currentFrame.popLong() ^ i2);
+      return;
+    }
     LongValue i2 = (LongValue) currentFrame.pop2();
     LongValue i1 = (LongValue) currentFrame.pop2();
     currentFrame.push2(i1.LXOR(i2));
@@ -1363,11 +1754,11 @@ public class ConcolicInterpreter implements IVisitor {
   public void visitNOP(NOP inst) {}
 
   public void visitPOP(POP inst) {
-    currentFrame.pop();
+    currentFrame.discard(1);
   }
 
   public void visitPOP2(POP2 inst) {
-    currentFrame.pop2();
+    currentFrame.discard(2);
   }
 
   public void visitPUTFIELD(PUTFIELD inst) {
@@ -1449,7 +1840,7 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitSIPUSH(SIPUSH inst) {
-    currentFrame.push(new IntValue(inst.value));
+    currentFrame.pushInt(inst.value);
   }
 
   public void visitSWAP(SWAP inst) {
@@ -1480,6 +1871,35 @@ public class ConcolicInterpreter implements IVisitor {
   }
 
   public void visitSPECIAL(SPECIAL inst) {
+    if (inst.i == SPECIAL.OPAQUE_CALL) {
+      // The values of the callee come from GETVALUE, as for a call to a library.
+      Frame tmp = stack.push(0, 0);
+      tmp.opaque = true;
+      currentFrame = tmp;
+    } else if (inst.i == SPECIAL.OPAQUE_RETURN) {
+      Frame old;
+      do {
+        old = stack.pop();
+      } while (!old.opaque && stack.size() > 1);
+      currentFrame = stack.peek();
+      if (methodProfile != null && old.getRet().hasSymbolic() && stack.size() > 1) {
+        // An input came back to a method that is not instrumented, in the frame of its call.
+        String invoked = stack.get(stack.size() - 2).invoked;
+        if (invoked != null) {
+          int i = invoked.indexOf('(');
+          methodProfile.reached(invoked.substring(0, i), invoked.substring(i));
+        }
+      }
+    }
+  }
+
+  private static boolean anySymbolic(Value[] values) {
+    for (Value v : values) {
+      if (v != null && v.hasSymbolic()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   public void setNext(Instruction next) {
@@ -1515,7 +1935,7 @@ public class ConcolicInterpreter implements IVisitor {
     IntValue i1 = (IntValue) currentFrame.pop();
     int i = 0;
     for (int key : keys) {
-      IntValue result = i1.IF_ICMPEQ(new IntValue(key));
+      IntValue result = i1.IF_ICMPEQ(IntValue.valueOf(key));
       history.checkAndSetBranch(result.concrete == 1, result.symbolic, inst.iid);
       coverage.visitBranch(inst.iid + i, result.concrete == 1);
       if (result.concrete == 1) return;
@@ -1527,7 +1947,7 @@ public class ConcolicInterpreter implements IVisitor {
     IntValue i1 = (IntValue) currentFrame.pop();
     int j = 0;
     for (int i = inst.min; i <= inst.max; i++) {
-      IntValue result = i1.IF_ICMPEQ(new IntValue(i));
+      IntValue result = i1.IF_ICMPEQ(IntValue.valueOf(i));
       history.checkAndSetBranch(result.concrete == 1, result.symbolic, inst.iid);
       coverage.visitBranch(inst.iid + j, result.concrete == 1);
       if (result.concrete == 1) return;
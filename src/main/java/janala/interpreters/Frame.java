@@ -1,109 +1,305 @@
 package janala.interpreters;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
-/** Stack frame that stores Value objects */
+/**
+ * Stack frame that stores Value objects. The values are a slice of the array of a FrameStack,
+ * from base: the locals, with room for maxLocals words, then the operand stack up to top. Only
+ * the last frame of the stack grows, so a frame that outgrows its locals moves its operand stack
+ * up.
+ *
+ * The instructions on concrete values push their results unboxed: the slot has a tag, INT, LONG,
+ * FLOAT or DOUBLE, and the value is in the bits of the FrameStack. The second word of a long or
+ * a double is PlaceHolder.instance as when boxed. A value is boxed when it is read as a Value, so
+ * the tags stay in the operand stack.
+ */
 public class Frame {
-  private ArrayList<Value> locals = new ArrayList<Value>(8);
-  private ArrayList<Value> stack = new ArrayList<Value>(8);
+  private static final class Unboxed extends Value {
+    private final String name;
 
-  public int getStackSize() {
-    return stack.size();
+    Unboxed(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
   }
 
-  public final int nReturnWords;
+  static final Value INT = new Unboxed("int");
+  static final Value LONG = new Unboxed("long");
+  static final Value FLOAT = new Unboxed("float");
+  static final Value DOUBLE = new Unboxed("double");
+
+  final FrameStack owner;
+  private int base;
+  private int nLocals;
+  private int maxLocals;
+  private int top;
+
+  public int getStackSize() {
+    return top - base - maxLocals;
+  }
 
+  public int nReturnWords;
 
   private Value ret;
   public void setRet(Value v) { ret = v; }
   public Value getRet() { return ret; }
 
+  // Frame pushed by SPECIAL(OPAQUE_CALL) for a call made by a method that is not instrumented.
+  boolean opaque;
+  // Name and descriptor of the method called from this frame, if profiled.
+  String invoked;
+
   public Frame(int nReturnWords) {
+    this(new FrameStack());
+    reset(0, nReturnWords, 0);
+  }
+
+  Frame(FrameStack owner) {
+    this.owner = owner;
+  }
+
+  /** Start the frame of a new call at base, with room for at least nLocals locals. */
+  void reset(int base, int nReturnWords, int nLocals) {
+    this.base = base;
     this.nReturnWords = nReturnWords;
+    this.nLocals = 0;
+    maxLocals = Math.max(maxLocals, nLocals);
+    top = base + maxLocals;
+    owner.grow(top);
     ret = PlaceHolder.instance;
+    opaque = false;
+    invoked = null;
+  }
+
+  /** The first value past the frame. */
+  int end() {
+    return top;
+  }
+
+  // Make locals [nLocals, n) placeholders, with n > nLocals.
+  private void extendLocals(int n) {
+    if (n > maxLocals) {
+      int newMax = Math.max(n, 2 * maxLocals);
+      int shift = newMax - maxLocals;
+      Value[] values = owner.grow(top + shift);
+      int stackBase = base + maxLocals;
+      System.arraycopy(values, stackBase, values, stackBase + shift, top - stackBase);
+      System.arraycopy(owner.bits, stackBase, owner.bits, stackBase + shift, top - stackBase);
+      top += shift;
+      maxLocals = newMax;
+    }
+    Arrays.fill(owner.values, base + nLocals, base + n, PlaceHolder.instance);
+    nLocals = n;
   }
 
   public void addLocal(Value o) {
-    locals.add(o);
+    setLocal(nLocals, o);
   }
 
   public void addLocal2(Value o) {
-    locals.add(o);
-    locals.add(PlaceHolder.instance);
+    setLocal2(nLocals, o);
   }
 
   public void setLocal(int index, Value o) {
-    int diff = index - locals.size();
-    while (diff >= 0) {
-      locals.add(PlaceHolder.instance);
-      diff--;
+    if (index >= nLocals) {
+      extendLocals(index + 1);
     }
-    locals.set(index, o);
+    owner.values[base + index] = o.unshared();
   }
 
   public Value getLocal(int index) {
-    if (index < locals.size()) {
-      return locals.get(index);
+    if (index < nLocals) {
+      return owner.values[base + index];
     }
     return PlaceHolder.instance;
   }
 
   public void setLocal2(int index, Value o) {
-    int diff = index - locals.size();
-    while (diff >= -1) {
-      locals.add(PlaceHolder.instance);
-      diff--;
+    if (index + 1 >= nLocals) {
+      extendLocals(index + 2);
     }
-    locals.set(index, o);
+    owner.values[base + index] = o.unshared();
   }
 
   public Value getLocal2(int index) {
-    if (index < locals.size()) {
-      return locals.get(index);
-    }
-    return PlaceHolder.instance;
+    return getLocal(index);
   }
 
   public void push(Value o) {
-    stack.add(o);
+    Value[] values = owner.values;
+    if (top == values.length) {
+      values = owner.grow(top + 1);
+    }
+    values[top++] = o;
   }
 
   public void push2(Value o) {
-    stack.add(o);
-    stack.add(PlaceHolder.instance);
+    push(o);
+    push(PlaceHolder.instance);
   }
 
   public Value pop() {
-    return stack.remove(stack.size() - 1);
+    Value v = peek();
+    top--;
+    return v;
+  }
+
+  /** Pop n words without boxing them. */
+  public void discard(int n) {
+    if (top - n < base + maxLocals) {
+      throw new ArrayIndexOutOfBoundsException(getStackSize() - n);
+    }
+    top -= n;
   }
 
   public Value pop2() {
-    stack.remove(stack.size() - 1);
-    return stack.remove(stack.size() - 1);
+    pop();
+    return pop();
+  }
+
+  // The k-th value from the top of the operand stack, boxed in place if it is unboxed.
+  private Value peek(int k) {
+    int i = top - k;
+    if (i < base + maxLocals) {
+      throw new ArrayIndexOutOfBoundsException(getStackSize() - k);
+    }
+    Value v = owner.values[i];
+    if (v instanceof Unboxed) {
+      v = box(v, owner.bits[i]);
+      owner.values[i] = v;
+    }
+    return v;
+  }
+
+  private static Value box(Value tag, long bits) {
+    if (tag == INT) {
+      return IntValue.valueOf((int) bits);
+    } else if (tag == LONG) {
+      return new LongValue(bits);
+    } else if (tag == FLOAT) {
+      return new FloatValue(Float.intBitsToFloat((int) bits));
+    } else {
+      return new DoubleValue(Double.longBitsToDouble(bits));
+    }
+  }
+
+  // The tag or value of the k-th word from the top, or null if there is none.
+  private Value slot(int k) {
+    int i = top - k;
+    return i < base + maxLocals ? null : owner.values[i];
+  }
+
+  /** Whether the k-th word from the top is an int without symbolic part, boxed or not. */
+  public boolean isConcreteInt(int k) {
+    Value v = slot(k);
+    return v == INT || (v instanceof IntValue && !v.hasSymbolic());
+  }
+
+  /** Whether the long that starts k words from the top has no symbolic part. */
+  public boolean isConcreteLong(int k) {
+    Value v = slot(k);
+    return v == LONG || (v instanceof LongValue && !v.hasSymbolic());
+  }
+
+  /** Whether the k-th word from the top is a float, boxed or not. */
+  public boolean isFloat(int k) {
+    Value v = slot(k);
+    return v == FLOAT || v instanceof FloatValue;
+  }
+
+  /** Whether the double that starts k words from the top is there, boxed or not. */
+  public boolean isDouble(int k) {
+    Value v = slot(k);
+    return v == DOUBLE || v instanceof DoubleValue;
+  }
+
+  // Make room for a word, and return the slot.
+  private int pushSlot(Value tag, long bits) {
+    Value[] values = owner.values;
+    if (top == values.length) {
+      values = owner.grow(top + 1);
+    }
+    values[top] = tag;
+    owner.bits[top] = bits;
+    return top++;
+  }
+
+  public void pushInt(int i) {
+    pushSlot(INT, i);
+  }
+
+  public void pushLong(long l) {
+    pushSlot(LONG, l);
+    push(PlaceHolder.instance);
+  }
+
+  public void pushFloat(float f) {
+    pushSlot(FLOAT, Float.floatToRawIntBits(f));
+  }
+
+  public void pushDouble(double d) {
+    pushSlot(DOUBLE, Double.doubleToRawLongBits(d));
+    push(PlaceHolder.instance);
+  }
+
+  /** Pop an int that isConcreteInt. */
+  public int popInt() {
+    Value v = owner.values[--top];
+    return v == INT ? (int) owner.bits[top] : ((IntValue) v).concrete;
+  }
+
+  /** Pop a long that isConcreteLong. */
+  public long popLong() {
+    top -= 2;
+    Value v = owner.values[top];
+    return v == LONG ? owner.bits[top] : ((LongValue) v).getConcreteLong();
+  }
+
+  /** Pop a float that isFloat. */
+  public float popFloat() {
+    Value v = owner.values[--top];
+    return v == FLOAT ? Float.intBitsToFloat((int) owner.bits[top]) : ((FloatValue) v).concrete;
+  }
+
+  /** Pop a double that isDouble. */
+  public double popDouble() {
+    top -= 2;
+    Value v = owner.values[top];
+    return v == DOUBLE ? Double.longBitsToDouble(owner.bits[top]) : ((DoubleValue) v).concrete;
   }
 
   public Value peek() {
-    return stack.get(stack.size() - 1);
+    return peek(1);
   }
 
   public Value peek2() {
-    return stack.get(stack.size() - 2);
+    return peek(2);
   }
 
   public Value peek3() {
-    return stack.get(stack.size() - 3);
+    return peek(3);
   }
 
   public Value peek4() {
-    return stack.get(stack.size() - 4);
+    return peek(4);
   }
 
   public void clear() {
-    stack.clear();
+    top = base + maxLocals;
   }
 
   @Override
   public String toString() {
-    return "Stack: " + stack.toString();
+    Value[] stack = Arrays.copyOfRange(owner.values, base + maxLocals, top);
+    for (int i = 0; i < stack.length; i++) {
+      if (stack[i] instanceof Unboxed) {
+        stack[i] = box(stack[i], owner.bits[base + maxLocals + i]);
+      }
+    }
+    return "Stack: " + Arrays.asList(stack);
   }
 }
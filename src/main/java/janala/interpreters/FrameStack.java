@@ -0,0 +1,90 @@
+package janala.interpreters;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * The frames of a thread. The values of all the frames are in one array: each frame takes a
+ * slice from the end of the one of its caller, with its locals then its operand stack. A frame
+ * that returns is kept and reset by the next call at its depth, so that a call allocates nothing
+ * once the stack was that deep.
+ *
+ * Not synchronized, as each thread has its own, see ThreadFrames.
+ */
+public class FrameStack {
+  Value[] values = new Value[256];
+  // The concrete values of the slots tagged as unboxed, see Frame
+  long[] bits = new long[256];
+  private Frame[] frames = new Frame[16];
+  private int size;
+
+  /** Make room for minLength values, and return the new array. */
+  Value[] grow(int minLength) {
+    if (minLength > values.length) {
+      values = Arrays.copyOf(values, Math.max(minLength, 2 * values.length));
+      bits = Arrays.copyOf(bits, values.length);
+    }
+    return values;
+  }
+
+  /**
+   * Push the frame of a call with room for nLocals words of locals. A frame that was at the same
+   * depth keeps its room, which fits again in a recursion.
+   */
+  public Frame push(int nReturnWords, int nLocals) {
+    if (size == frames.length) {
+      frames = Arrays.copyOf(frames, 2 * size);
+    }
+    Frame frame = frames[size];
+    if (frame == null || frame.owner != this) {
+      frame = new Frame(this);
+      frames[size] = frame;
+    }
+    frame.reset(end(), nReturnWords, nLocals);
+    size++;
+    return frame;
+  }
+
+  /** Push a frame made elsewhere, which keeps its own values. Used in tests. */
+  void push(Frame frame) {
+    if (size == frames.length) {
+      frames = Arrays.copyOf(frames, 2 * size);
+    }
+    frames[size++] = frame;
+  }
+
+  // The first free value, past the last frame that has its values here.
+  private int end() {
+    for (int i = size - 1; i >= 0; i--) {
+      if (frames[i].owner == this) {
+        return frames[i].end();
+      }
+    }
+    return 0;
+  }
+
+  public Frame pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return frames[--size];
+  }
+
+  public Frame peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return frames[size - 1];
+  }
+
+  public Frame get(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return frames[index];
+  }
+
+  public int size() {
+    return size;
+  }
+}
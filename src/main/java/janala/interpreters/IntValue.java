@@ -17,19 +17,50 @@ public class IntValue extends Value {
   final public static IntValue TRUE = new IntValue(1);
   final public static IntValue FALSE = new IntValue(0);
 
+  // The concrete values of CACHE_LOW to CACHE_HIGH, shared by the concrete-only instructions.
+  private static final int CACHE_LOW = -128;
+  private static final int CACHE_HIGH = 1023;
+  private static final IntValue[] cache = new IntValue[CACHE_HIGH - CACHE_LOW + 1];
+
+  static {
+    for (int i = 0; i < cache.length; i++) {
+      cache[i] = new IntValue(CACHE_LOW + i, true);
+    }
+  }
+
+  // Whether the value is in the cache, and must not be changed.
+  private final boolean shared;
+
+  /**
+   * A concrete value, shared if it is small, so that most of the instructions on concrete values
+   * do not allocate. A shared value is copied when it is stored, see unshared.
+   */
+  public static IntValue valueOf(int i) {
+    if (i >= CACHE_LOW && i <= CACHE_HIGH) {
+      return cache[i - CACHE_LOW];
+    }
+    return new IntValue(i);
+  }
+
   @Override
   public Object getConcrete() {
     return concrete;
   }
 
   public IntValue(int i) {
+    this(i, false);
+  }
+
+  private IntValue(int i, boolean shared) {
     concrete = i;
     symbolic = null;
     nonIntConstraint = null;
+    this.shared = shared;
   }
 
   public IntValue(int concrete, Constraint nonIntConstraint) {
     this.concrete = concrete;
+    this.shared = false;
     if (nonIntConstraint instanceof SymbolicInt) {
       this.symbolic = (SymbolicInt) nonIntConstraint;
     } else {
@@ -64,8 +95,16 @@ public class IntValue extends Value {
     return result[0];
   }
 
+  @Override
+  public IntValue unshared() {
+    return shared ? new IntValue(concrete) : this;
+  }
+
   @Override
   public int MAKE_SYMBOLIC(History history) {
+    if (shared) {
+      throw new IllegalStateException("Cannot make the shared " + this + " symbolic");
+    }
     symbol = symbol + inc;
     symbolic = new SymbolicInt(symbol - inc);
     return symbol - inc;
@@ -91,10 +130,11 @@ public class IntValue extends Value {
   }
 
   public IntValue IINC(int increment) {
-    IntValue ret = new IntValue(concrete + increment);
-    if (symbolic != null) {
-      ret.symbolic = symbolic.add(increment);
+    if (symbolic == null) {
+      return valueOf(concrete + increment);
     }
+    IntValue ret = new IntValue(concrete + increment);
+    ret.symbolic = symbolic.add(increment);
     return ret;
   }
 
@@ -300,7 +340,7 @@ public class IntValue extends Value {
 
   public IntValue IADD(IntValue i) {
     if (symbolic == null && i.symbolic == null) {
-      return new IntValue(concrete + i.concrete);
+      return valueOf(concrete + i.concrete);
     } else if (symbolic != null && i.symbolic != null) {
       return new IntValue(concrete + i.concrete, symbolic.add(i.symbolic));
     } else if (symbolic != null) {
@@ -312,7 +352,7 @@ public class IntValue extends Value {
 
   public IntValue ISUB(IntValue i) {
     if (symbolic == null && i.symbolic == null) {
-      return new IntValue(concrete - i.concrete);
+      return valueOf(concrete - i.concrete);
     } else if (symbolic != null && i.symbolic != null) {
       return new IntValue(concrete - i.concrete, symbolic.subtract(i.symbolic));
     } else if (symbolic != null) {
@@ -324,7 +364,7 @@ public class IntValue extends Value {
 
   public IntValue IMUL(IntValue i) {
     if (symbolic == null && i.symbolic == null) {
-      return new IntValue(concrete * i.concrete);
+      return valueOf(concrete * i.concrete);
     } else if (symbolic != null && i.symbolic != null) {
       return new IntValue(concrete * i.concrete, symbolic.multiply(i.concrete));
     } else if (symbolic != null) {
@@ -336,15 +376,15 @@ public class IntValue extends Value {
 
   // TODO: this does not look like properly supported.
   public IntValue IDIV(IntValue i) {
-    return new IntValue(concrete / i.concrete);
+    return valueOf(concrete / i.concrete);
   }
 
   public IntValue IREM(IntValue i) {
-    return new IntValue(concrete % i.concrete);
+    return valueOf(concrete % i.concrete);
   }
 
   public IntValue INEG() {
-    if (symbolic == null) return new IntValue(-concrete);
+    if (symbolic == null) return valueOf(-concrete);
     else {
       IntValue ret = new IntValue(-concrete);
       ret.symbolic = symbolic.subtractFrom(0);
@@ -353,27 +393,27 @@ public class IntValue extends Value {
   }
 
   public IntValue ISHL(IntValue i) {
-    return new IntValue(concrete << i.concrete);
+    return valueOf(concrete << i.concrete);
   }
 
   public IntValue ISHR(IntValue i) {
-    return new IntValue(concrete >> i.concrete);
+    return valueOf(concrete >> i.concrete);
   }
 
   public IntValue IUSHR(IntValue i) {
-    return new IntValue(concrete >>> i.concrete);
+    return valueOf(concrete >>> i.concrete);
   }
 
   public IntValue IAND(IntValue i) {
-    return new IntValue(concrete & i.concrete);
+    return valueOf(concrete & i.concrete);
   }
 
   public IntValue IOR(IntValue i) {
-    return new IntValue(concrete | i.concrete);
+    return valueOf(concrete | i.concrete);
   }
 
   public IntValue IXOR(IntValue i) {
-    return new IntValue(concrete ^ i.concrete);
+    return valueOf(concrete ^ i.concrete);
   }
 
   public LongValue I2L() {
@@ -414,4 +454,9 @@ public class IntValue extends Value {
   public SymbolicInt getSymbolicInt() {
     return symbolic;
   }
+
+  @Override
+  public boolean hasSymbolic() {
+    return symbolic != null || nonIntConstraint != null;
+  }
 }
@@ -57,7 +57,7 @@ public final class IntegerObjectValue extends ObjectValue {
     } else if (name.equals("equals")) {
       if (args[0] instanceof IntegerObjectValue) {
         IntegerObjectValue i2 = (IntegerObjectValue) args[0];
-        IntValue ret = intValue.ISUB(i2.intValue);
+        IntValue ret = intValue.ISUB(i2.intValue).unshared();
         ret.concrete = ret.concrete == 0 ? 1 : 0;
         if (ret.symbolic != null) {
           ret.symbolic = ret.symbolic.setop(COMPARISON_OPS.EQ);
@@ -67,7 +67,7 @@ public final class IntegerObjectValue extends ObjectValue {
     } else if (name.equals("compareTo")) {
       if (args[0] instanceof IntegerObjectValue) {
         IntegerObjectValue i2 = (IntegerObjectValue) args[0];
-        IntValue ret = intValue.ISUB(i2.intValue);
+        IntValue ret = intValue.ISUB(i2.intValue).unshared();
         if (ret.concrete > 0) {
           ret.concrete = 1;
         } else if (ret.concrete == 0) {
@@ -80,4 +80,9 @@ public final class IntegerObjectValue extends ObjectValue {
     }
     return PlaceHolder.instance;
   }
+
+  @Override
+  public boolean hasSymbolic() {
+    return intValue != null && intValue.hasSymbolic();
+  }
 }
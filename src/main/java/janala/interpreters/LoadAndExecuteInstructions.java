@@ -2,11 +2,12 @@ package janala.interpreters;
 
 import janala.config.Config;
 import janala.logger.ClassNames;
-import janala.logger.inst.IVisitor;
 import janala.logger.inst.Instruction;
+import janala.logger.inst.TraceReader;
 import janala.utils.MyLogger;
+import janala.utils.TailingInputStream;
 
-import java.io.EOFException;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -18,49 +19,98 @@ public class LoadAndExecuteInstructions {
   private final static Logger logger =
       MyLogger.getLogger(LoadAndExecuteInstructions.class.getName());
 
-  private static Instruction readInst(ObjectInputStream inputStream)
-      throws ClassNotFoundException, IOException {
-    Instruction inst;
+  /**
+   * Follows the thread switches and the collected objects of the trace, and rebuilds ClassNames
+   * from its definitions when cnames is not null.
+   */
+  private static class TraceRecords implements TraceReader.RecordListener {
+    private final ThreadDispatcher dispatcher;
+    private final ConcolicInterpreter intp;
+    private final ClassNames cnames;
+    private ThreadFrames current;
 
-    try {
-      inst = (Instruction) inputStream.readObject();
-    } catch (EOFException e) {
-      inst = null;
+    TraceRecords(ThreadDispatcher dispatcher, ConcolicInterpreter intp, ClassNames cnames) {
+      this.dispatcher = dispatcher;
+      this.intp = intp;
+      this.cnames = cnames;
+    }
+
+    /** The frames of the thread of the last instruction read. */
+    ThreadFrames getThread() {
+      if (current == null) {
+        // A trace without THREAD records comes from a single thread.
+        current = dispatcher.getThread(0);
+      }
+      return current;
+    }
+
+    @Override
+    public void switchThread(long threadId) {
+      current = dispatcher.getThread(threadId);
+    }
+
+    @Override
+    public void freeObjects(int[] ids) {
+      intp.forgetObjects(ids);
+    }
+
+    @Override
+    public void defineClass(String className) {
+      if (cnames != null) {
+        cnames.get(className);
+      }
+    }
+
+    @Override
+    public void defineField(int cIdx, String fieldName, boolean isStatic) {
+      if (cnames != null) {
+        cnames.get(cIdx).getIdx(fieldName, isStatic);
+      }
     }
-    return inst;
   }
 
   public static void main(String[] args) {
     ObjectInputStream inputStream = null;
-    IVisitor intp = null;
+    TraceReader traceReader = null;
+    ConcolicInterpreter intp = null;
 
     Logger tester = MyLogger.getTestLogger(Config.mainClass + "." + Config.iteration);
 
     try {
-      inputStream = new ObjectInputStream(new FileInputStream(Config.instance.traceAuxFileName));
-      ClassNames cnames = (ClassNames) inputStream.readObject();
-      inputStream.close();
-      //cnames.init();
+      ClassNames cnames;
+      if (Config.instance.pipelinedTrace) {
+        // Follow the trace while the program runs. The aux file is written when the program
+        // exits, so the classes and fields come from the definitions in the trace instead.
+        cnames = new ClassNames();
+        traceReader =
+            new TraceReader(
+                new TailingInputStream(
+                    new File(Config.instance.traceFileName),
+                    new File(Config.instance.traceAuxFileName)));
+      } else {
+        inputStream =
+            new ObjectInputStream(new FileInputStream(Config.instance.traceAuxFileName));
+        cnames = (ClassNames) inputStream.readObject();
+        inputStream.close();
+        //cnames.init();
+        traceReader = new TraceReader(new FileInputStream(Config.instance.traceFileName));
+      }
 
       intp = new ConcolicInterpreter(cnames, Config.instance);
-      inputStream = new ObjectInputStream(new FileInputStream(Config.instance.traceFileName));
+      ThreadDispatcher dispatcher = new ThreadDispatcher(intp);
+      TraceRecords records =
+          new TraceRecords(dispatcher, intp, Config.instance.pipelinedTrace ? cnames : null);
+      traceReader.setRecordListener(records);
 
-      Instruction inst, next;
-      inst = readInst(inputStream);
-      next = readInst(inputStream);
-      int i = 0;
-      while (inst != null) {
-        intp.setNext(next);
+      Instruction inst;
+      while ((inst = traceReader.read()) != null) {
         logger.log(Level.FINE, "{0}", inst);
         System.out.println("Visiting " + inst);
-        inst.visit(intp);
-
-        inst = next;
-        next = readInst(inputStream);
-        i++;
+        dispatcher.dispatch(records.getThread(), inst);
       }
-      ((ConcolicInterpreter) intp).endExecution();
-      inputStream.close();
+      dispatcher.finish();
+      intp.endExecution();
+      traceReader.close();
       MyLogger.checkLog(tester);
     } catch (IOException e) {
       e.printStackTrace();
@@ -73,6 +123,9 @@ public class LoadAndExecuteInstructions {
         if (inputStream != null) {
           inputStream.close();
         }
+        if (traceReader != null) {
+          traceReader.close();
+        }
       } catch (IOException ex) {
         ex.printStackTrace();
       }
@@ -81,4 +81,9 @@ public final class LongObjectValue extends ObjectValue {
     }
     return PlaceHolder.instance;
   }
+
+  @Override
+  public boolean hasSymbolic() {
+    return longValue != null && longValue.hasSymbolic();
+  }
 }
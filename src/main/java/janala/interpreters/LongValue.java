@@ -174,4 +174,9 @@ public class LongValue extends Value {
   public String toString() {
     return "LongValue{" + "symbolic=" + symbolic + ", concrete=" + concrete + '}';
   }
+
+  @Override
+  public boolean hasSymbolic() {
+    return symbolic != null;
+  }
 }
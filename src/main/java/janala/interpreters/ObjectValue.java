@@ -101,7 +101,7 @@ public class ObjectValue extends Value {
       throw new NullPointerException("User NullPointerException");
     }
     if (fields != null) {
-      fields[fieldId] = value;
+      fields[fieldId] = value.unshared();
     }
   }
 
@@ -117,4 +117,9 @@ public class ObjectValue extends Value {
     String s =  "ObjectValue @" + Integer.toHexString(address);
     return s;
   }
+
+  @Override
+  public boolean hasSymbolic() {
+    return symbolic != null;
+  }
 }
@@ -61,6 +61,8 @@ public final class StaticInvocation {
       history.setLastForceTruth();
       return PlaceHolder.instance;
     } else if (owner.equals("janala/Main") && name.equals("MakeSymbolic") && args.length == 1) {
+      // A value passed straight from a constant is shared.
+      args[0] = args[0].unshared();
       int symbol = args[0].MAKE_SYMBOLIC(history);
       history.addInput(symbol, args[0]);
       return PlaceHolder.instance;
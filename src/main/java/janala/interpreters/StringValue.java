@@ -236,4 +236,9 @@ public final class StringValue extends ObjectValue {
 
     return ret;
   }
+
+  @Override
+  public boolean hasSymbolic() {
+    return symbolicExp != null || super.hasSymbolic();
+  }
 }
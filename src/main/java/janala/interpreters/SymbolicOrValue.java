@@ -10,4 +10,9 @@ public class SymbolicOrValue extends ObjectValue {
     this.concrete = concrete;
     this.symbolic = symbolic;
   }
+
+  @Override
+  public boolean hasSymbolic() {
+    return true;
+  }
 }
@@ -0,0 +1,109 @@
+package janala.interpreters;
+
+import janala.logger.inst.ARETURN;
+import janala.logger.inst.DRETURN;
+import janala.logger.inst.FRETURN;
+import janala.logger.inst.IRETURN;
+import janala.logger.inst.Instruction;
+import janala.logger.inst.LRETURN;
+import janala.logger.inst.RETURN;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds the instructions of several application threads to one ConcolicInterpreter. Each thread
+ * has its own frame stack and its own one-instruction lookahead: an instruction is visited when
+ * the next instruction of the same thread arrives. The visits are serialized, so the symbolic
+ * heap and the path constraint see one interleaving of the threads.
+ *
+ * A thread is dropped when its outermost frame returns, as it may never log again. It comes back
+ * with its next instruction, if any.
+ */
+public class ThreadDispatcher {
+  private final ConcolicInterpreter intp;
+  // The threads of a trace, by id
+  private final Map<Long, ThreadFrames> byId = new HashMap<Long, ThreadFrames>();
+  // The threads with a pending instruction
+  private final Set<ThreadFrames> threads = new LinkedHashSet<ThreadFrames>();
+  private boolean started;
+  private boolean finished;
+
+  public ThreadDispatcher(ConcolicInterpreter intp) {
+    this.intp = intp;
+  }
+
+  /** The frames of a new thread. The first thread runs in the initial frames. */
+  public synchronized ThreadFrames newThread() {
+    if (started) {
+      return new ThreadFrames();
+    }
+    started = true;
+    return intp.getCurrentThread();
+  }
+
+  /** The frames of the thread with the given id in a trace. */
+  public synchronized ThreadFrames getThread(long id) {
+    ThreadFrames thread = byId.get(id);
+    if (thread == null) {
+      thread = newThread();
+      thread.id = id;
+      byId.put(id, thread);
+    }
+    return thread;
+  }
+
+  /** Visit the pending instruction of thread, with insn as its lookahead. */
+  public synchronized void dispatch(ThreadFrames thread, Instruction insn) {
+    if (finished) {
+      return;
+    }
+    if (thread.pending != null) {
+      visitPending(thread, insn);
+    } else if (insn != null) {
+      threads.add(thread);
+      if (thread.id != null) {
+        byId.put(thread.id, thread);
+      }
+    }
+    thread.pending = insn;
+    if (insn != null && thread.stack.size() == 1 && isReturn(insn)) {
+      // The return does not look at its lookahead.
+      visitPending(thread, null);
+      thread.pending = null;
+      threads.remove(thread);
+      if (thread.id != null) {
+        byId.remove(thread.id);
+      }
+    }
+  }
+
+  private void visitPending(ThreadFrames thread, Instruction next) {
+    intp.switchThread(thread);
+    intp.setNext(next);
+    thread.pending.visit(intp);
+    intp.profile(thread.pending);
+  }
+
+  private static boolean isReturn(Instruction insn) {
+    return insn instanceof RETURN
+        || insn instanceof IRETURN
+        || insn instanceof ARETURN
+        || insn instanceof LRETURN
+        || insn instanceof DRETURN
+        || insn instanceof FRETURN;
+  }
+
+  /** Visit the last instruction of every thread. Later instructions are ignored. */
+  public synchronized void finish() {
+    for (ThreadFrames thread : threads) {
+      if (thread.pending != null) {
+        visitPending(thread, null);
+      }
+    }
+    threads.clear();
+    finished = true;
+  }
+}
@@ -0,0 +1,22 @@
+package janala.interpreters;
+
+import janala.logger.inst.Instruction;
+
+/** The frame stack of an application thread, and its instruction waiting for a lookahead. */
+public class ThreadFrames {
+  FrameStack stack;
+  Frame currentFrame;
+  Instruction pending;
+  // The id of the thread in a trace, null in a direct execution
+  Long id;
+
+  ThreadFrames(FrameStack stack, Frame currentFrame) {
+    this.stack = stack;
+    this.currentFrame = currentFrame;
+  }
+
+  ThreadFrames() {
+    stack = new FrameStack();
+    currentFrame = stack.push(0, 0);
+  }
+}
@@ -18,4 +18,18 @@ public abstract class Value {
   public Object getConcrete() {
     return null;
   }
+
+  /**
+   * The value to store in a local, a field or an array. Values that are shared between the
+   * instructions, see IntValue.valueOf, are copied, as MAKE_SYMBOLIC changes a stored value in
+   * place.
+   */
+  public Value unshared() {
+    return this;
+  }
+
+  /** Whether the value depends on an input. */
+  public boolean hasSymbolic() {
+    return false;
+  }
 }
@@ -0,0 +1,87 @@
+package janala.logger;
+
+import janala.logger.inst.Instruction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The static instructions of the blocks probed with BLOCK(id). The instrumentation defines a
+ * block for each run of probes that only pass constants (iids, var indices, owners, labels, ...);
+ * the program then calls BLOCK(id) once instead of one probe per bytecode. The probes that see
+ * runtime values (GETVALUE_*, SPECIAL, LDC of references) are still called by the program and
+ * take their place in the block.
+ *
+ * A block id is the global iid of the first instruction of the block, so the ids are unique, the
+ * same in each run and with any number of classes, and the blocks take no ids of their own.
+ */
+public final class BlockTable {
+  private static final int CHUNK_BITS = 10;
+  private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+  /** Kinds of the entries of a block. */
+  public static final byte STATIC = 0;
+  public static final byte VALUE = 1;
+  public static final byte SPECIAL = 2;
+  public static final byte CONSTANT = 3;
+
+  /**
+   * The entries of a block in program order. A STATIC entry is logged as is; the other kinds
+   * stand for a probe called by the program, and have no instruction.
+   */
+  public static class Block implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final Instruction[] insns;
+    final byte[] kinds;
+
+    public Block(Instruction[] insns, byte[] kinds) {
+      this.insns = insns;
+      this.kinds = kinds;
+    }
+
+    public int size() {
+      return insns.length;
+    }
+
+    public Instruction get(int i) {
+      return insns[i];
+    }
+
+    public byte getKind(int i) {
+      return kinds[i];
+    }
+  }
+
+  // Indexed by chunk of 1 << CHUNK_BITS ids, then by the id in the chunk; the chunks without
+  // blocks stay null. The blocks of a class are defined before the class is loaded, so the
+  // arrays only have to be published again when they grow.
+  private static volatile Block[][] blocks = new Block[0][];
+
+  private BlockTable() {}
+
+  public static synchronized void define(int id, Block block) {
+    if (id < 0) {
+      throw new RuntimeException("Invalid block id " + id);
+    }
+    int chunk = id >>> CHUNK_BITS;
+    Block[][] table = blocks;
+    if (chunk >= table.length) {
+      table = Arrays.copyOf(table, Math.max(chunk + 1, 2 * table.length));
+    }
+    if (table[chunk] == null) {
+      table[chunk] = new Block[1 << CHUNK_BITS];
+    }
+    table[chunk][id & CHUNK_MASK] = block;
+    blocks = table;
+  }
+
+  public static Block get(int id) {
+    Block[][] table = blocks;
+    int chunk = id >>> CHUNK_BITS;
+    if (chunk < table.length && table[chunk] != null) {
+      return table[chunk][id & CHUNK_MASK];
+    }
+    return null;
+  }
+}
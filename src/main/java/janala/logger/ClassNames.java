@@ -30,12 +30,16 @@ public class ClassNames implements Serializable {
     this.classDepot = ClassDepot.getInstance();
   }
 
+  public ClassDepot getClassDepot() {
+    return classDepot;
+  }
+
   //VisibleForTesting
   public static void setInstance(ClassNames classNames) {
     instance = classNames;
   }
 
-  public int get(String className) {
+  public synchronized int get(String className) {
     if (nameToIndex == null) {
       nameToIndex = new TreeMap<String, Integer>();
     }
@@ -55,6 +59,19 @@ public class ClassNames implements Serializable {
     return classList.get(index);
   }
 
+  public int size() {
+    return classList == null ? 0 : classList.size();
+  }
+
+  /** Forget the values of the static fields of all the classes. */
+  public void clearStatics() {
+    if (classList != null) {
+      for (ObjectInfo oi : classList) {
+        oi.clearStatics();
+      }
+    }
+  }
+
   @Override
   public String toString() {
     return "ClassNames{\n" + "nameToIndex=" + nameToIndex + "\n, classList=" + classList + "\n}";
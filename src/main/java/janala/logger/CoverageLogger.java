@@ -0,0 +1,155 @@
+package janala.logger;
+
+import janala.instrument.Coverage;
+
+import java.util.Arrays;
+
+/**
+ * The probes of the classes instrumented with catg.coverageOnly. Each probe gets the operands of
+ * a conditional jump or a switch and the iid of the branch, and sets a bit for the side that is
+ * taken: bit 2 * iid for the true side and bit 2 * iid + 1 for the false one. There is no value
+ * tracking, no history and no solver, so rerunning inputs costs little more than running the
+ * program.
+ *
+ * The iids are those of the full instrumentation, so flush adds the bits to the coverage of the
+ * concolic runs.
+ */
+public final class CoverageLogger {
+  private static long[] bits = new long[1024];
+
+  private CoverageLogger() {}
+
+  private static void hit(int iid, boolean side) {
+    int bit = 2 * iid + (side ? 0 : 1);
+    int word = bit >>> 6;
+    long mask = 1L << bit;
+    long[] b = bits;
+    // Once a side is covered the probe only reads, so the threads do not fight over the words.
+    if (word < b.length && (b[word] & mask) != 0) {
+      return;
+    }
+    set(word, mask);
+  }
+
+  private static synchronized void set(int word, long mask) {
+    if (word >= bits.length) {
+      bits = Arrays.copyOf(bits, Math.max(word + 1, 2 * bits.length));
+    }
+    bits[word] |= mask;
+  }
+
+  /** Visit the branches covered since the last flush in a coverage, and clear them. */
+  public static synchronized void flush(Coverage coverage) {
+    for (int word = 0; word < bits.length; word++) {
+      long w = bits[word];
+      while (w != 0) {
+        int bit = (word << 6) + Long.numberOfTrailingZeros(w);
+        coverage.visitBranch(bit >>> 1, (bit & 1) == 0);
+        w &= w - 1;
+      }
+      bits[word] = 0;
+    }
+  }
+
+  /** At exit, add the branches covered in the JVM to a coverage file. */
+  public static void writeOnExit(final String fileName) {
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      @Override
+      public void run() {
+        Coverage coverage = Coverage.load(fileName);
+        flush(coverage);
+        coverage.commitBranches(false);
+        coverage.writeDelta(fileName);
+      }
+    });
+  }
+
+  public static void IFEQ(int a, int iid) {
+    hit(iid, a == 0);
+  }
+
+  public static void IFNE(int a, int iid) {
+    hit(iid, a != 0);
+  }
+
+  public static void IFLT(int a, int iid) {
+    hit(iid, a < 0);
+  }
+
+  public static void IFGE(int a, int iid) {
+    hit(iid, a >= 0);
+  }
+
+  public static void IFGT(int a, int iid) {
+    hit(iid, a > 0);
+  }
+
+  public static void IFLE(int a, int iid) {
+    hit(iid, a <= 0);
+  }
+
+  public static void IF_ICMPEQ(int a, int b, int iid) {
+    hit(iid, a == b);
+  }
+
+  public static void IF_ICMPNE(int a, int b, int iid) {
+    hit(iid, a != b);
+  }
+
+  public static void IF_ICMPLT(int a, int b, int iid) {
+    hit(iid, a < b);
+  }
+
+  public static void IF_ICMPGE(int a, int b, int iid) {
+    hit(iid, a >= b);
+  }
+
+  public static void IF_ICMPGT(int a, int b, int iid) {
+    hit(iid, a > b);
+  }
+
+  public static void IF_ICMPLE(int a, int b, int iid) {
+    hit(iid, a <= b);
+  }
+
+  public static void IF_ACMPEQ(Object a, Object b, int iid) {
+    hit(iid, a == b);
+  }
+
+  public static void IF_ACMPNE(Object a, Object b, int iid) {
+    hit(iid, a != b);
+  }
+
+  public static void IFNULL(Object a, int iid) {
+    hit(iid, a == null);
+  }
+
+  public static void IFNONNULL(Object a, int iid) {
+    hit(iid, a != null);
+  }
+
+  /**
+   * As the interpreter, compare the value with min, min + 1, ... up to the first match; the i-th
+   * comparison is the branch iid + i.
+   */
+  public static void TABLESWITCH(int value, int iid, int min, int max) {
+    int n = value >= min && value <= max ? value - min : max - min + 1;
+    for (int i = 0; i < n; i++) {
+      hit(iid + i, false);
+    }
+    if (n <= max - min) {
+      hit(iid + n, true);
+    }
+  }
+
+  /** As TABLESWITCH, with the keys of the switch. */
+  public static void LOOKUPSWITCH(int value, int iid, int[] keys) {
+    for (int i = 0; i < keys.length; i++) {
+      boolean match = value == keys[i];
+      hit(iid + i, match);
+      if (match) {
+        return;
+      }
+    }
+  }
+}
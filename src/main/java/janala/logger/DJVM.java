@@ -1,15 +1,30 @@
 package janala.logger;
 
 import janala.config.Config;
+import janala.instrument.OfflineMetadata;
 
 public final class DJVM {
-  private static Logger intp = Config.instance.getLogger();
+  private static Logger intp = createLogger();
 
   private DJVM() {} 
 
-  // For testing purposes
+  private static Logger createLogger() {
+    String idsFile = Config.instance.idsFile;
+    if (idsFile != null && !idsFile.isEmpty()) {
+      // The classes were instrumented by OfflineInstrumenter, not by the agent.
+      OfflineMetadata.install(idsFile);
+    }
+    return Config.instance.getLogger();
+  }
+
+  /** Switch the logger of the probes. The invokedynamic probes are relinked to it. */
   public static void setInterpreter(Logger logger) {
     intp = logger;
+    ProbeSites.retarget(logger);
+  }
+
+  static Logger getInterpreter() {
+    return intp;
   }
 
   public static void LDC(int iid, int mid, int c) {
@@ -708,6 +723,10 @@ public final class DJVM {
     intp.SPECIAL(i);
   }
 
+  public static void BLOCK(int id) {
+    intp.BLOCK(id);
+  }
+
   public static void MAKE_SYMBOLIC() {
     intp.MAKE_SYMBOLIC();
   }
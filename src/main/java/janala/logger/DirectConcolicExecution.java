@@ -2,11 +2,30 @@ package janala.logger;
 
 import janala.config.Config;
 import janala.interpreters.ConcolicInterpreter;
+import janala.interpreters.ThreadDispatcher;
+import janala.interpreters.ThreadFrames;
 import janala.logger.inst.*;
 import janala.utils.MyLogger;
 
 public class DirectConcolicExecution extends AbstractLogger {
-  private Instruction inst, next;
+  /** The instruction factory, the block cursor and the frames of an application thread. */
+  private static class ThreadContext {
+    final Thread thread;
+    final InstructionFactory factory;
+    final BlockCursor cursor = new BlockCursor();
+    final ThreadFrames frames;
+
+    ThreadContext(Thread thread, InstructionFactory factory, ThreadFrames frames) {
+      this.thread = thread;
+      this.factory = factory;
+      this.frames = frames;
+    }
+  }
+
+  private final ThreadDispatcher dispatcher;
+  private final ThreadLocal<ThreadContext> contexts = new ThreadLocal<ThreadContext>();
+  // The context of the thread that logged last, to skip the ThreadLocal lookup.
+  private ThreadContext last;
 
   java.util.logging.Logger tester =
   MyLogger.getTestLogger(Config.mainClass + "." + Config.iteration);
@@ -24,6 +43,9 @@ public class DirectConcolicExecution extends AbstractLogger {
   //VisibleForTesting
   public DirectConcolicExecution(ConcolicInterpreter interpreter, boolean needToEnd) {
     intp = interpreter;
+    dispatcher = new ThreadDispatcher(intp);
+    // The interpreter takes the freed ids as it runs.
+    ObjectIds.instance.keepFreed();
     if (needToEnd) {
       Runtime.getRuntime().addShutdownHook(new Finisher(this));
     }
@@ -42,21 +64,47 @@ public class DirectConcolicExecution extends AbstractLogger {
     }
   }
 
+  private ThreadContext context() {
+    Thread thread = Thread.currentThread();
+    ThreadContext context = last;
+    if (context != null && context.thread == thread) {
+      return context;
+    }
+    context = contexts.get();
+    if (context == null) {
+      // The interpreter only sees the current and the next instruction of a thread, so the
+      // instructions of each thread can be reused.
+      context =
+          new ThreadContext(
+              thread,
+              Config.instance.recycleInstructions
+                  ? new RecyclingInstructionFactory()
+                  : new InstructionFactory(),
+              dispatcher.newThread());
+      contexts.set(context);
+    }
+    last = context;
+    return context;
+  }
+
+  @Override
+  protected InstructionFactory factory() {
+    return context().factory;
+  }
+
+  @Override
+  BlockCursor blockCursor() {
+    return context().cursor;
+  }
+
   public void finish() {
-    log(null);
+    dispatcher.finish();
     intp.endExecution();
     MyLogger.checkLog(tester);
   }
 
   @Override
   protected void log(Instruction insn) {
-    if (inst == null) {
-      inst = insn;
-    } else {
-      next = insn;
-      intp.setNext(next);
-      inst.visit(intp);
-      inst = next;
-    }
+    dispatcher.dispatch(context().frames, insn);
   }
 }
@@ -37,6 +37,10 @@ public class FieldInfo implements Serializable {
         + '}';
   }
 
+  public String getFieldName() {
+    return fieldName;
+  }
+
   public int getFieldId() {
     if (fieldId == -1) {
       if (isStatic) {
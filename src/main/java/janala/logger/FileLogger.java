@@ -3,20 +3,36 @@ package janala.logger;
 import janala.logger.inst.*;
 import janala.config.Config;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 public class FileLogger extends AbstractLogger {
 
-  private ObjectOutputStream outputStream;
+  // Guarded by this: the threads of the program log into one trace.
+  private TraceWriter traceWriter;
+  private Thread lastThread;
+  private boolean closed;
+
+  // The entries of ClassNames already defined in the trace, and for each class the number of
+  // its fields and static fields.
+  private int definedClasses;
+  private final List<int[]> definedFields = new ArrayList<int[]>();
 
   private class LoggerThread extends Thread {
     @Override
     public void run() {
       try {
-        outputStream.close();
-        outputStream = new ObjectOutputStream(new FileOutputStream(Config.instance.traceAuxFileName));
+        synchronized (FileLogger.this) {
+          // Threads that still run during shutdown are not logged any more.
+          closed = true;
+          traceWriter.close();
+        }
+        ObjectOutputStream outputStream =
+            new ObjectOutputStream(new FileOutputStream(Config.instance.traceAuxFileName));
         outputStream.writeObject(ClassNames.getInstance());
         outputStream.close();
       } catch (IOException e) {
@@ -27,7 +43,15 @@ public class FileLogger extends AbstractLogger {
 
   public FileLogger() {
     try {
-      outputStream = new ObjectOutputStream(new FileOutputStream(Config.instance.traceFileName));
+      File trace = new File(Config.instance.traceFileName);
+      // A pipelined trace is read while it grows, so it cannot hold mapped but unwritten bytes.
+      traceWriter =
+          new TraceWriter(
+              Config.instance.pipelinedTrace
+                  ? new FileOutputStream(trace)
+                  : new MappedTraceOutputStream(trace));
+      // The interpreter of the trace forgets the objects of the FREED records.
+      ObjectIds.instance.keepFreed();
       Runtime.getRuntime().addShutdownHook(new LoggerThread());
     } catch (IOException e) {
       e.printStackTrace();
@@ -35,12 +59,74 @@ public class FileLogger extends AbstractLogger {
     }
   }
 
+  /** Write the classes of ClassNames up to cIdx, if not yet written. */
+  private synchronized void define(int cIdx) {
+    ClassNames cnames = ClassNames.getInstance();
+    while (definedClasses <= cIdx) {
+      traceWriter.writeClass(cnames.get(definedClasses).getClassName());
+      definedFields.add(new int[2]);
+      definedClasses++;
+    }
+  }
+
+  /** Write the entries of ClassNames that a field instruction needs, if not yet written. */
+  private synchronized void define(int cIdx, int fIdx, boolean isStatic) {
+    define(cIdx);
+    int[] counts = definedFields.get(cIdx);
+    int kind = isStatic ? 1 : 0;
+    ObjectInfo oi = ClassNames.getInstance().get(cIdx);
+    while (counts[kind] <= fIdx) {
+      traceWriter.writeField(cIdx, oi.get(counts[kind], isStatic).getFieldName(), isStatic);
+      counts[kind]++;
+    }
+  }
+
+  @Override
+  public void NEW(int iid, int mid, String type, int cIdx) {
+    define(cIdx);
+    super.NEW(iid, mid, type, cIdx);
+  }
+
+  @Override
+  public void GETSTATIC(int iid, int mid, int cIdx, int fIdx, String desc) {
+    define(cIdx, fIdx, true);
+    super.GETSTATIC(iid, mid, cIdx, fIdx, desc);
+  }
 
   @Override
-  protected void log(Instruction insn) {
+  public void PUTSTATIC(int iid, int mid, int cIdx, int fIdx, String desc) {
+    define(cIdx, fIdx, true);
+    super.PUTSTATIC(iid, mid, cIdx, fIdx, desc);
+  }
+
+  @Override
+  public void GETFIELD(int iid, int mid, int cIdx, int fIdx, String desc) {
+    define(cIdx, fIdx, false);
+    super.GETFIELD(iid, mid, cIdx, fIdx, desc);
+  }
+
+  @Override
+  public void PUTFIELD(int iid, int mid, int cIdx, int fIdx, String desc) {
+    define(cIdx, fIdx, false);
+    super.PUTFIELD(iid, mid, cIdx, fIdx, desc);
+  }
+
+  @Override
+  protected synchronized void log(Instruction insn) {
+    if (closed) {
+      return;
+    }
     if (Config.instance.printTrace) System.out.println(insn);
     try {
-      outputStream.writeObject(insn);
+      Thread thread = Thread.currentThread();
+      if (thread != lastThread) {
+        traceWriter.writeThread(thread.getId());
+        lastThread = thread;
+      }
+      if (ObjectIds.instance.hasFreed()) {
+        traceWriter.writeFreed(ObjectIds.instance.takeFreed());
+      }
+      traceWriter.write(insn);
     } catch (IOException e) {
       e.printStackTrace();
       System.exit(1);
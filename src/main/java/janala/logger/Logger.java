@@ -351,5 +351,7 @@ public interface Logger {
 
   public void SPECIAL(int i);
 
+  public void BLOCK(int id);
+
   public void flush();
 }
@@ -0,0 +1,189 @@
+package janala.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An output stream for the trace file that does not write on the thread of the program under
+ * test. write() copies the bytes into a ring buffer and returns; a background thread copies them
+ * from the ring into the file, which is mapped in memory one segment at a time. When the ring is
+ * full, write() waits for the flusher to catch up.
+ *
+ * close() drains the ring and truncates the file to the bytes written, so a shutdown hook that
+ * closes the stream leaves a complete trace.
+ */
+public class MappedTraceOutputStream extends OutputStream {
+  public static final int DEFAULT_RING_SIZE = 1 << 22;
+  public static final int DEFAULT_SEGMENT_SIZE = 1 << 24;
+
+  private final byte[] ring;
+  private final int segmentSize;
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final Thread flusher;
+
+  // Guarded by this. head and tail count the bytes written to and taken from the ring.
+  private long head;
+  private long tail;
+  private boolean closed;
+  private IOException failure;
+
+  // Only used by the flusher thread.
+  private MappedByteBuffer segment;
+  private long segmentStart;
+
+  public MappedTraceOutputStream(File file) throws IOException {
+    this(file, DEFAULT_RING_SIZE, DEFAULT_SEGMENT_SIZE);
+  }
+
+  public MappedTraceOutputStream(File file, int ringSize, int segmentSize) throws IOException {
+    this.ring = new byte[ringSize];
+    this.segmentSize = segmentSize;
+    this.file = new RandomAccessFile(file, "rw");
+    this.file.setLength(0);
+    this.channel = this.file.getChannel();
+    flusher = new Thread(new Flusher(), "janala-trace-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public synchronized void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      checkOpen();
+      while (head - tail == ring.length) {
+        await();
+        checkOpen();
+      }
+      int start = (int) (head % ring.length);
+      int n = (int) Math.min(len, Math.min(ring.length - (head - tail), ring.length - start));
+      System.arraycopy(b, off, ring, start, n);
+      head += n;
+      off += n;
+      len -= n;
+      notifyAll();
+    }
+  }
+
+  /** Wait until the flusher has copied everything written so far into the file. */
+  @Override
+  public synchronized void flush() throws IOException {
+    checkOpen();
+    while (tail != head) {
+      await();
+      checkOpen();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      notifyAll();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+    try {
+      if (failure != null) {
+        throw failure;
+      }
+      segment = null;
+      channel.truncate(tail);
+    } finally {
+      file.close();
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (failure != null) {
+      throw failure;
+    }
+    if (closed) {
+      throw new IOException("Trace stream is closed");
+    }
+  }
+
+  private void await() throws IOException {
+    try {
+      wait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+
+  /** Copy ring[start, start + n) to the file at the given position. */
+  private void copyToFile(long position, int start, int n) throws IOException {
+    while (n > 0) {
+      if (segment == null || position >= segmentStart + segmentSize) {
+        segmentStart = position - position % segmentSize;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentStart, segmentSize);
+      }
+      int offset = (int) (position - segmentStart);
+      int k = Math.min(n, segmentSize - offset);
+      segment.position(offset);
+      segment.put(ring, start, k);
+      position += k;
+      start += k;
+      n -= k;
+    }
+  }
+
+  private class Flusher implements Runnable {
+    @Override
+    public void run() {
+      MappedTraceOutputStream out = MappedTraceOutputStream.this;
+      while (true) {
+        long position;
+        int start;
+        int n;
+        synchronized (out) {
+          while (head == tail && !closed) {
+            try {
+              out.wait();
+            } catch (InterruptedException e) {
+              // Keep draining; close() ends the loop.
+            }
+          }
+          if (head == tail) {
+            return;
+          }
+          position = tail;
+          start = (int) (tail % ring.length);
+          n = (int) Math.min(head - tail, ring.length - start);
+        }
+        // The writer does not touch ring[start, start + n) until tail moves past it.
+        try {
+          copyToFile(position, start, n);
+        } catch (IOException e) {
+          synchronized (out) {
+            failure = e;
+            out.notifyAll();
+          }
+          return;
+        }
+        synchronized (out) {
+          tail += n;
+          out.notifyAll();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package janala.logger;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * The addresses of the objects in the trace. An object gets a new id the first time it is
+ * logged, so two live objects never share an address as they could with
+ * System.identityHashCode. The objects are held weakly: the entry of a collected object is
+ * removed and, once a consumer called keepFreed, its id is kept for takeFreed, so that the
+ * interpreter forgets its value. The ids are not reused.
+ *
+ * The table uses open addressing with linear probing on the identity hash codes, and removes
+ * entries by shifting the following ones back, so it has no tombstones.
+ */
+public final class ObjectIds {
+  public static final ObjectIds instance = new ObjectIds();
+
+  private static final class Entry extends WeakReference<Object> {
+    final int hash;
+    final int id;
+
+    Entry(Object referent, int hash, int id, ReferenceQueue<Object> queue) {
+      super(referent, queue);
+      this.hash = hash;
+      this.id = id;
+    }
+  }
+
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+  private Entry[] table;
+  private int size;
+  private int nextId = 1;
+  private boolean keepFreed;
+  private int[] freed = new int[64];
+  private volatile int nFreed;
+
+  public ObjectIds() {
+    this(1 << 12);
+  }
+
+  // capacity must be a power of 2.
+  ObjectIds(int capacity) {
+    table = new Entry[capacity];
+  }
+
+  private static int slot(int hash, int mask) {
+    return (hash * 0x9E3779B9) & mask;
+  }
+
+  /** The id of an object, 0 for null. */
+  public synchronized int idOf(Object o) {
+    if (o == null) {
+      return 0;
+    }
+    expunge();
+    int hash = System.identityHashCode(o);
+    int mask = table.length - 1;
+    int i = slot(hash, mask);
+    for (Entry e = table[i]; e != null; e = table[i]) {
+      if (e.hash == hash && e.get() == o) {
+        return e.id;
+      }
+      i = (i + 1) & mask;
+    }
+    int id = nextId++;
+    table[i] = new Entry(o, hash, id, queue);
+    if (++size > table.length >>> 1) {
+      resize();
+    }
+    return id;
+  }
+
+  /** The number of objects in the table, including the collected ones not yet removed. */
+  public synchronized int size() {
+    return size;
+  }
+
+  /** Keep the ids of the collected objects until takeFreed, which must then be called. */
+  public synchronized void keepFreed() {
+    keepFreed = true;
+  }
+
+  /** Whether takeFreed has ids. */
+  public boolean hasFreed() {
+    return nFreed > 0;
+  }
+
+  /** The ids of the objects collected since the last call. */
+  public synchronized int[] takeFreed() {
+    expunge();
+    int[] ret = Arrays.copyOf(freed, nFreed);
+    nFreed = 0;
+    return ret;
+  }
+
+  private void expunge() {
+    for (Object ref = queue.poll(); ref != null; ref = queue.poll()) {
+      Entry e = (Entry) ref;
+      remove(e);
+      if (!keepFreed) {
+        continue;
+      }
+      if (nFreed == freed.length) {
+        freed = Arrays.copyOf(freed, 2 * nFreed);
+      }
+      freed[nFreed++] = e.id;
+    }
+  }
+
+  // Remove an entry if it is still in the table, which it is not after a resize.
+  private void remove(Entry e) {
+    int mask = table.length - 1;
+    int i = slot(e.hash, mask);
+    while (table[i] != e) {
+      if (table[i] == null) {
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    size--;
+    // Shift back the entries that cannot be found past the hole.
+    int hole = i;
+    for (i = (i + 1) & mask; table[i] != null; i = (i + 1) & mask) {
+      int home = slot(table[i].hash, mask);
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        table[hole] = table[i];
+        hole = i;
+      }
+    }
+    table[hole] = null;
+  }
+
+  // Double the table, and drop the collected entries; their ids come from the queue.
+  private void resize() {
+    Entry[] old = table;
+    table = new Entry[2 * old.length];
+    int mask = table.length - 1;
+    size = 0;
+    for (Entry e : old) {
+      if (e != null && e.get() != null) {
+        int i = slot(e.hash, mask);
+        while (table[i] != null) {
+          i = (i + 1) & mask;
+        }
+        table[i] = e;
+        size++;
+      }
+    }
+  }
+}
@@ -66,7 +66,7 @@ public class ObjectInfo implements Serializable {
     return f;
   }
 
-  public int getIdx(String fieldName, boolean isStatic) {
+  public synchronized int getIdx(String fieldName, boolean isStatic) {
     if (isStatic) {
       staticFieldNameToIndex = createMap(staticFieldNameToIndex);
       staticFieldList = createList(staticFieldList);
@@ -95,7 +95,14 @@ public class ObjectInfo implements Serializable {
 
   public void setStaticField(int fieldId, Value value) {
     initialize();
-    statics[fieldId] = value;
+    statics[fieldId] = value.unshared();
+  }
+
+  /** Forget the values of the static fields, e.g., when the class is loaded again. */
+  public void clearStatics() {
+    if (statics != null) {
+      Arrays.fill(statics, null);
+    }
   }
 
   @Override
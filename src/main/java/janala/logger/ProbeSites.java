@@ -0,0 +1,77 @@
+package janala.logger;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bootstrap of the invokedynamic probes (catg.indyProbes). Each probe name and type has
+ * one MutableCallSite whose target is the probe method of the current logger of DJVM, with the
+ * logger bound as a constant, so that the JIT can inline the logger into the instrumented code.
+ * DJVM.setInterpreter retargets the sites; with a null logger the probes do nothing.
+ */
+public final class ProbeSites {
+  private static final MethodHandle NOOP;
+
+  static {
+    try {
+      NOOP =
+          MethodHandles.lookup()
+              .findStatic(ProbeSites.class, "noop", MethodType.methodType(void.class));
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static final Map<String, MutableCallSite> sites = new HashMap<String, MutableCallSite>();
+
+  private ProbeSites() {}
+
+  private static void noop() {}
+
+  public static synchronized CallSite bootstrap(
+      MethodHandles.Lookup caller, String name, MethodType type) {
+    String key = name + type.toMethodDescriptorString();
+    MutableCallSite site = sites.get(key);
+    if (site == null) {
+      site = new MutableCallSite(type);
+      site.setTarget(target(DJVM.getInterpreter(), name, type));
+      sites.put(key, site);
+    }
+    return site;
+  }
+
+  /** Point all the probes to the given logger. */
+  static synchronized void retarget(Logger logger) {
+    if (sites.isEmpty()) {
+      return;
+    }
+    List<MutableCallSite> changed = new ArrayList<MutableCallSite>();
+    for (Map.Entry<String, MutableCallSite> e : sites.entrySet()) {
+      String key = e.getKey();
+      MutableCallSite site = e.getValue();
+      site.setTarget(target(logger, key.substring(0, key.indexOf('(')), site.type()));
+      changed.add(site);
+    }
+    MutableCallSite.syncAll(changed.toArray(new MutableCallSite[changed.size()]));
+  }
+
+  private static MethodHandle target(Logger logger, String name, MethodType type) {
+    if (logger == null) {
+      return MethodHandles.dropArguments(NOOP, 0, type.parameterList());
+    }
+    try {
+      return MethodHandles.publicLookup()
+          .findVirtual(Logger.class, name, type)
+          .bindTo(logger);
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException("No probe " + name + type, e);
+    }
+  }
+}
@@ -0,0 +1,707 @@
+package janala.logger.inst;
+
+/**
+ * Creates the instructions logged by the probes of janala.logger.AbstractLogger. This
+ * implementation allocates a new instruction for every probe.
+ */
+public class InstructionFactory {
+  public LDC_int LDC_int(int iid, int mid, int c) {
+    return new LDC_int(iid, mid, c);
+  }
+
+  public LDC_long LDC_long(int iid, int mid, long c) {
+    return new LDC_long(iid, mid, c);
+  }
+
+  public LDC_float LDC_float(int iid, int mid, float c) {
+    return new LDC_float(iid, mid, c);
+  }
+
+  public LDC_double LDC_double(int iid, int mid, double c) {
+    return new LDC_double(iid, mid, c);
+  }
+
+  public LDC_String LDC_String(int iid, int mid, String c, int address) {
+    return new LDC_String(iid, mid, c, address);
+  }
+
+  public LDC_Object LDC_Object(int iid, int mid, int c) {
+    return new LDC_Object(iid, mid, c);
+  }
+
+  public IINC IINC(int iid, int mid, int var, int increment) {
+    return new IINC(iid, mid, var, increment);
+  }
+
+  public MULTIANEWARRAY MULTIANEWARRAY(int iid, int mid, String desc, int dims) {
+    return new MULTIANEWARRAY(iid, mid, desc, dims);
+  }
+
+  public LOOKUPSWITCH LOOKUPSWITCH(int iid, int mid, int dflt, int[] keys, int[] labels) {
+    return new LOOKUPSWITCH(iid, mid, dflt, keys, labels);
+  }
+
+  public TABLESWITCH TABLESWITCH(int iid, int mid, int min, int max, int dflt, int[] labels) {
+    return new TABLESWITCH(iid, mid, min, max, dflt, labels);
+  }
+
+  public IFEQ IFEQ(int iid, int mid, int label) {
+    return new IFEQ(iid, mid, label);
+  }
+
+  public IFNE IFNE(int iid, int mid, int label) {
+    return new IFNE(iid, mid, label);
+  }
+
+  public IFLT IFLT(int iid, int mid, int label) {
+    return new IFLT(iid, mid, label);
+  }
+
+  public IFGE IFGE(int iid, int mid, int label) {
+    return new IFGE(iid, mid, label);
+  }
+
+  public IFGT IFGT(int iid, int mid, int label) {
+    return new IFGT(iid, mid, label);
+  }
+
+  public IFLE IFLE(int iid, int mid, int label) {
+    return new IFLE(iid, mid, label);
+  }
+
+  public IF_ICMPEQ IF_ICMPEQ(int iid, int mid, int label) {
+    return new IF_ICMPEQ(iid, mid, label);
+  }
+
+  public IF_ICMPNE IF_ICMPNE(int iid, int mid, int label) {
+    return new IF_ICMPNE(iid, mid, label);
+  }
+
+  public IF_ICMPLT IF_ICMPLT(int iid, int mid, int label) {
+    return new IF_ICMPLT(iid, mid, label);
+  }
+
+  public IF_ICMPGE IF_ICMPGE(int iid, int mid, int label) {
+    return new IF_ICMPGE(iid, mid, label);
+  }
+
+  public IF_ICMPGT IF_ICMPGT(int iid, int mid, int label) {
+    return new IF_ICMPGT(iid, mid, label);
+  }
+
+  public IF_ICMPLE IF_ICMPLE(int iid, int mid, int label) {
+    return new IF_ICMPLE(iid, mid, label);
+  }
+
+  public IF_ACMPEQ IF_ACMPEQ(int iid, int mid, int label) {
+    return new IF_ACMPEQ(iid, mid, label);
+  }
+
+  public IF_ACMPNE IF_ACMPNE(int iid, int mid, int label) {
+    return new IF_ACMPNE(iid, mid, label);
+  }
+
+  public GOTO GOTO(int iid, int mid, int label) {
+    return new GOTO(iid, mid, label);
+  }
+
+  public JSR JSR(int iid, int mid, int label) {
+    return new JSR(iid, mid, label);
+  }
+
+  public IFNULL IFNULL(int iid, int mid, int label) {
+    return new IFNULL(iid, mid, label);
+  }
+
+  public IFNONNULL IFNONNULL(int iid, int mid, int label) {
+    return new IFNONNULL(iid, mid, label);
+  }
+
+  public INVOKEVIRTUAL INVOKEVIRTUAL(int iid, int mid, String owner, String name, String desc) {
+    return new INVOKEVIRTUAL(iid, mid, owner, name, desc);
+  }
+
+  public INVOKESPECIAL INVOKESPECIAL(int iid, int mid, String owner, String name, String desc) {
+    return new INVOKESPECIAL(iid, mid, owner, name, desc);
+  }
+
+  public INVOKESTATIC INVOKESTATIC(int iid, int mid, String owner, String name, String desc) {
+    return new INVOKESTATIC(iid, mid, owner, name, desc);
+  }
+
+  public INVOKEINTERFACE INVOKEINTERFACE(int iid, int mid, String owner, String name, String desc) {
+    return new INVOKEINTERFACE(iid, mid, owner, name, desc);
+  }
+
+  public GETSTATIC GETSTATIC(int iid, int mid, int cIdx, int fIdx, String desc) {
+    return new GETSTATIC(iid, mid, cIdx, fIdx, desc);
+  }
+
+  public PUTSTATIC PUTSTATIC(int iid, int mid, int cIdx, int fIdx, String desc) {
+    return new PUTSTATIC(iid, mid, cIdx, fIdx, desc);
+  }
+
+  public GETFIELD GETFIELD(int iid, int mid, int cIdx, int fIdx, String desc) {
+    return new GETFIELD(iid, mid, cIdx, fIdx, desc);
+  }
+
+  public PUTFIELD PUTFIELD(int iid, int mid, int cIdx, int fIdx, String desc) {
+    return new PUTFIELD(iid, mid, cIdx, fIdx, desc);
+  }
+
+  public NEW NEW(int iid, int mid, String type, int cIdx) {
+    return new NEW(iid, mid, type, cIdx);
+  }
+
+  public ANEWARRAY ANEWARRAY(int iid, int mid, String type) {
+    return new ANEWARRAY(iid, mid, type);
+  }
+
+  public CHECKCAST CHECKCAST(int iid, int mid, String type) {
+    return new CHECKCAST(iid, mid, type);
+  }
+
+  public INSTANCEOF INSTANCEOF(int iid, int mid, String type) {
+    return new INSTANCEOF(iid, mid, type);
+  }
+
+  public BIPUSH BIPUSH(int iid, int mid, int value) {
+    return new BIPUSH(iid, mid, value);
+  }
+
+  public SIPUSH SIPUSH(int iid, int mid, int value) {
+    return new SIPUSH(iid, mid, value);
+  }
+
+  public NEWARRAY NEWARRAY(int iid, int mid) {
+    return new NEWARRAY(iid, mid);
+  }
+
+  public ILOAD ILOAD(int iid, int mid, int var) {
+    return new ILOAD(iid, mid, var);
+  }
+
+  public LLOAD LLOAD(int iid, int mid, int var) {
+    return new LLOAD(iid, mid, var);
+  }
+
+  public FLOAD FLOAD(int iid, int mid, int var) {
+    return new FLOAD(iid, mid, var);
+  }
+
+  public DLOAD DLOAD(int iid, int mid, int var) {
+    return new DLOAD(iid, mid, var);
+  }
+
+  public ALOAD ALOAD(int iid, int mid, int var) {
+    return new ALOAD(iid, mid, var);
+  }
+
+  public ISTORE ISTORE(int iid, int mid, int var) {
+    return new ISTORE(iid, mid, var);
+  }
+
+  public LSTORE LSTORE(int iid, int mid, int var) {
+    return new LSTORE(iid, mid, var);
+  }
+
+  public FSTORE FSTORE(int iid, int mid, int var) {
+    return new FSTORE(iid, mid, var);
+  }
+
+  public DSTORE DSTORE(int iid, int mid, int var) {
+    return new DSTORE(iid, mid, var);
+  }
+
+  public ASTORE ASTORE(int iid, int mid, int var) {
+    return new ASTORE(iid, mid, var);
+  }
+
+  public RET RET(int iid, int mid, int var) {
+    return new RET(iid, mid, var);
+  }
+
+  public NOP NOP(int iid, int mid) {
+    return new NOP(iid, mid);
+  }
+
+  public ACONST_NULL ACONST_NULL(int iid, int mid) {
+    return new ACONST_NULL(iid, mid);
+  }
+
+  public ICONST_M1 ICONST_M1(int iid, int mid) {
+    return new ICONST_M1(iid, mid);
+  }
+
+  public ICONST_0 ICONST_0(int iid, int mid) {
+    return new ICONST_0(iid, mid);
+  }
+
+  public ICONST_1 ICONST_1(int iid, int mid) {
+    return new ICONST_1(iid, mid);
+  }
+
+  public ICONST_2 ICONST_2(int iid, int mid) {
+    return new ICONST_2(iid, mid);
+  }
+
+  public ICONST_3 ICONST_3(int iid, int mid) {
+    return new ICONST_3(iid, mid);
+  }
+
+  public ICONST_4 ICONST_4(int iid, int mid) {
+    return new ICONST_4(iid, mid);
+  }
+
+  public ICONST_5 ICONST_5(int iid, int mid) {
+    return new ICONST_5(iid, mid);
+  }
+
+  public LCONST_0 LCONST_0(int iid, int mid) {
+    return new LCONST_0(iid, mid);
+  }
+
+  public LCONST_1 LCONST_1(int iid, int mid) {
+    return new LCONST_1(iid, mid);
+  }
+
+  public FCONST_0 FCONST_0(int iid, int mid) {
+    return new FCONST_0(iid, mid);
+  }
+
+  public FCONST_1 FCONST_1(int iid, int mid) {
+    return new FCONST_1(iid, mid);
+  }
+
+  public FCONST_2 FCONST_2(int iid, int mid) {
+    return new FCONST_2(iid, mid);
+  }
+
+  public DCONST_0 DCONST_0(int iid, int mid) {
+    return new DCONST_0(iid, mid);
+  }
+
+  public DCONST_1 DCONST_1(int iid, int mid) {
+    return new DCONST_1(iid, mid);
+  }
+
+  public IALOAD IALOAD(int iid, int mid) {
+    return new IALOAD(iid, mid);
+  }
+
+  public LALOAD LALOAD(int iid, int mid) {
+    return new LALOAD(iid, mid);
+  }
+
+  public FALOAD FALOAD(int iid, int mid) {
+    return new FALOAD(iid, mid);
+  }
+
+  public DALOAD DALOAD(int iid, int mid) {
+    return new DALOAD(iid, mid);
+  }
+
+  public AALOAD AALOAD(int iid, int mid) {
+    return new AALOAD(iid, mid);
+  }
+
+  public BALOAD BALOAD(int iid, int mid) {
+    return new BALOAD(iid, mid);
+  }
+
+  public CALOAD CALOAD(int iid, int mid) {
+    return new CALOAD(iid, mid);
+  }
+
+  public SALOAD SALOAD(int iid, int mid) {
+    return new SALOAD(iid, mid);
+  }
+
+  public IASTORE IASTORE(int iid, int mid) {
+    return new IASTORE(iid, mid);
+  }
+
+  public LASTORE LASTORE(int iid, int mid) {
+    return new LASTORE(iid, mid);
+  }
+
+  public FASTORE FASTORE(int iid, int mid) {
+    return new FASTORE(iid, mid);
+  }
+
+  public DASTORE DASTORE(int iid, int mid) {
+    return new DASTORE(iid, mid);
+  }
+
+  public AASTORE AASTORE(int iid, int mid) {
+    return new AASTORE(iid, mid);
+  }
+
+  public BASTORE BASTORE(int iid, int mid) {
+    return new BASTORE(iid, mid);
+  }
+
+  public CASTORE CASTORE(int iid, int mid) {
+    return new CASTORE(iid, mid);
+  }
+
+  public SASTORE SASTORE(int iid, int mid) {
+    return new SASTORE(iid, mid);
+  }
+
+  public POP POP(int iid, int mid) {
+    return new POP(iid, mid);
+  }
+
+  public POP2 POP2(int iid, int mid) {
+    return new POP2(iid, mid);
+  }
+
+  public DUP DUP(int iid, int mid) {
+    return new DUP(iid, mid);
+  }
+
+  public DUP_X1 DUP_X1(int iid, int mid) {
+    return new DUP_X1(iid, mid);
+  }
+
+  public DUP_X2 DUP_X2(int iid, int mid) {
+    return new DUP_X2(iid, mid);
+  }
+
+  public DUP2 DUP2(int iid, int mid) {
+    return new DUP2(iid, mid);
+  }
+
+  public DUP2_X1 DUP2_X1(int iid, int mid) {
+    return new DUP2_X1(iid, mid);
+  }
+
+  public DUP2_X2 DUP2_X2(int iid, int mid) {
+    return new DUP2_X2(iid, mid);
+  }
+
+  public SWAP SWAP(int iid, int mid) {
+    return new SWAP(iid, mid);
+  }
+
+  public IADD IADD(int iid, int mid) {
+    return new IADD(iid, mid);
+  }
+
+  public LADD LADD(int iid, int mid) {
+    return new LADD(iid, mid);
+  }
+
+  public FADD FADD(int iid, int mid) {
+    return new FADD(iid, mid);
+  }
+
+  public DADD DADD(int iid, int mid) {
+    return new DADD(iid, mid);
+  }
+
+  public ISUB ISUB(int iid, int mid) {
+    return new ISUB(iid, mid);
+  }
+
+  public LSUB LSUB(int iid, int mid) {
+    return new LSUB(iid, mid);
+  }
+
+  public FSUB FSUB(int iid, int mid) {
+    return new FSUB(iid, mid);
+  }
+
+  public DSUB DSUB(int iid, int mid) {
+    return new DSUB(iid, mid);
+  }
+
+  public IMUL IMUL(int iid, int mid) {
+    return new IMUL(iid, mid);
+  }
+
+  public LMUL LMUL(int iid, int mid) {
+    return new LMUL(iid, mid);
+  }
+
+  public FMUL FMUL(int iid, int mid) {
+    return new FMUL(iid, mid);
+  }
+
+  public DMUL DMUL(int iid, int mid) {
+    return new DMUL(iid, mid);
+  }
+
+  public IDIV IDIV(int iid, int mid) {
+    return new IDIV(iid, mid);
+  }
+
+  public LDIV LDIV(int iid, int mid) {
+    return new LDIV(iid, mid);
+  }
+
+  public FDIV FDIV(int iid, int mid) {
+    return new FDIV(iid, mid);
+  }
+
+  public DDIV DDIV(int iid, int mid) {
+    return new DDIV(iid, mid);
+  }
+
+  public IREM IREM(int iid, int mid) {
+    return new IREM(iid, mid);
+  }
+
+  public LREM LREM(int iid, int mid) {
+    return new LREM(iid, mid);
+  }
+
+  public FREM FREM(int iid, int mid) {
+    return new FREM(iid, mid);
+  }
+
+  public DREM DREM(int iid, int mid) {
+    return new DREM(iid, mid);
+  }
+
+  public INEG INEG(int iid, int mid) {
+    return new INEG(iid, mid);
+  }
+
+  public LNEG LNEG(int iid, int mid) {
+    return new LNEG(iid, mid);
+  }
+
+  public FNEG FNEG(int iid, int mid) {
+    return new FNEG(iid, mid);
+  }
+
+  public DNEG DNEG(int iid, int mid) {
+    return new DNEG(iid, mid);
+  }
+
+  public ISHL ISHL(int iid, int mid) {
+    return new ISHL(iid, mid);
+  }
+
+  public LSHL LSHL(int iid, int mid) {
+    return new LSHL(iid, mid);
+  }
+
+  public ISHR ISHR(int iid, int mid) {
+    return new ISHR(iid, mid);
+  }
+
+  public LSHR LSHR(int iid, int mid) {
+    return new LSHR(iid, mid);
+  }
+
+  public IUSHR IUSHR(int iid, int mid) {
+    return new IUSHR(iid, mid);
+  }
+
+  public LUSHR LUSHR(int iid, int mid) {
+    return new LUSHR(iid, mid);
+  }
+
+  public IAND IAND(int iid, int mid) {
+    return new IAND(iid, mid);
+  }
+
+  public LAND LAND(int iid, int mid) {
+    return new LAND(iid, mid);
+  }
+
+  public IOR IOR(int iid, int mid) {
+    return new IOR(iid, mid);
+  }
+
+  public LOR LOR(int iid, int mid) {
+    return new LOR(iid, mid);
+  }
+
+  public IXOR IXOR(int iid, int mid) {
+    return new IXOR(iid, mid);
+  }
+
+  public LXOR LXOR(int iid, int mid) {
+    return new LXOR(iid, mid);
+  }
+
+  public I2L I2L(int iid, int mid) {
+    return new I2L(iid, mid);
+  }
+
+  public I2F I2F(int iid, int mid) {
+    return new I2F(iid, mid);
+  }
+
+  public I2D I2D(int iid, int mid) {
+    return new I2D(iid, mid);
+  }
+
+  public L2I L2I(int iid, int mid) {
+    return new L2I(iid, mid);
+  }
+
+  public L2F L2F(int iid, int mid) {
+    return new L2F(iid, mid);
+  }
+
+  public L2D L2D(int iid, int mid) {
+    return new L2D(iid, mid);
+  }
+
+  public F2I F2I(int iid, int mid) {
+    return new F2I(iid, mid);
+  }
+
+  public F2L F2L(int iid, int mid) {
+    return new F2L(iid, mid);
+  }
+
+  public F2D F2D(int iid, int mid) {
+    return new F2D(iid, mid);
+  }
+
+  public D2I D2I(int iid, int mid) {
+    return new D2I(iid, mid);
+  }
+
+  public D2L D2L(int iid, int mid) {
+    return new D2L(iid, mid);
+  }
+
+  public D2F D2F(int iid, int mid) {
+    return new D2F(iid, mid);
+  }
+
+  public I2B I2B(int iid, int mid) {
+    return new I2B(iid, mid);
+  }
+
+  public I2C I2C(int iid, int mid) {
+    return new I2C(iid, mid);
+  }
+
+  public I2S I2S(int iid, int mid) {
+    return new I2S(iid, mid);
+  }
+
+  public LCMP LCMP(int iid, int mid) {
+    return new LCMP(iid, mid);
+  }
+
+  public FCMPL FCMPL(int iid, int mid) {
+    return new FCMPL(iid, mid);
+  }
+
+  public FCMPG FCMPG(int iid, int mid) {
+    return new FCMPG(iid, mid);
+  }
+
+  public DCMPL DCMPL(int iid, int mid) {
+    return new DCMPL(iid, mid);
+  }
+
+  public DCMPG DCMPG(int iid, int mid) {
+    return new DCMPG(iid, mid);
+  }
+
+  public IRETURN IRETURN(int iid, int mid) {
+    return new IRETURN(iid, mid);
+  }
+
+  public LRETURN LRETURN(int iid, int mid) {
+    return new LRETURN(iid, mid);
+  }
+
+  public FRETURN FRETURN(int iid, int mid) {
+    return new FRETURN(iid, mid);
+  }
+
+  public DRETURN DRETURN(int iid, int mid) {
+    return new DRETURN(iid, mid);
+  }
+
+  public ARETURN ARETURN(int iid, int mid) {
+    return new ARETURN(iid, mid);
+  }
+
+  public RETURN RETURN(int iid, int mid) {
+    return new RETURN(iid, mid);
+  }
+
+  public ARRAYLENGTH ARRAYLENGTH(int iid, int mid) {
+    return new ARRAYLENGTH(iid, mid);
+  }
+
+  public ATHROW ATHROW(int iid, int mid) {
+    return new ATHROW(iid, mid);
+  }
+
+  public MONITORENTER MONITORENTER(int iid, int mid) {
+    return new MONITORENTER(iid, mid);
+  }
+
+  public MONITOREXIT MONITOREXIT(int iid, int mid) {
+    return new MONITOREXIT(iid, mid);
+  }
+
+  public GETVALUE_double GETVALUE_double(double v) {
+    return new GETVALUE_double(v);
+  }
+
+  public GETVALUE_long GETVALUE_long(long v) {
+    return new GETVALUE_long(v);
+  }
+
+  public GETVALUE_Object GETVALUE_Object(int v, String string, boolean isString) {
+    return new GETVALUE_Object(v, string, isString);
+  }
+
+  public GETVALUE_boolean GETVALUE_boolean(boolean v) {
+    return new GETVALUE_boolean(v);
+  }
+
+  public GETVALUE_byte GETVALUE_byte(byte v) {
+    return new GETVALUE_byte(v);
+  }
+
+  public GETVALUE_char GETVALUE_char(char v) {
+    return new GETVALUE_char(v);
+  }
+
+  public GETVALUE_float GETVALUE_float(float v) {
+    return new GETVALUE_float(v);
+  }
+
+  public GETVALUE_int GETVALUE_int(int v) {
+    return new GETVALUE_int(v);
+  }
+
+  public GETVALUE_short GETVALUE_short(short v) {
+    return new GETVALUE_short(v);
+  }
+
+  public GETVALUE_void GETVALUE_void() {
+    return new GETVALUE_void();
+  }
+
+  public INVOKEMETHOD_EXCEPTION INVOKEMETHOD_EXCEPTION() {
+    return new INVOKEMETHOD_EXCEPTION();
+  }
+
+  public INVOKEMETHOD_END INVOKEMETHOD_END() {
+    return new INVOKEMETHOD_END();
+  }
+
+  public MAKE_SYMBOLIC MAKE_SYMBOLIC() {
+    return new MAKE_SYMBOLIC();
+  }
+
+  public SPECIAL SPECIAL(int i) {
+    return new SPECIAL(i);
+  }
+}
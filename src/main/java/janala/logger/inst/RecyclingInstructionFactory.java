@@ -0,0 +1,2530 @@
+package janala.logger.inst;
+
+/**
+ * An instruction factory that reuses two instructions of each type instead of allocating one
+ * per probe. A consumer may only hold the last two instructions it got from the factory, as
+ * DirectConcolicExecution does with its one-instruction lookahead: the third instruction of a
+ * type overwrites the first one. The instructions must not be serialized or kept in a list.
+ */
+public class RecyclingInstructionFactory extends InstructionFactory {
+  // The index of each instruction type in turn, and of its two slots in slots.
+  private static final int LDC_INT_TYPE = 0;
+  private static final int LDC_LONG_TYPE = 1;
+  private static final int LDC_FLOAT_TYPE = 2;
+  private static final int LDC_DOUBLE_TYPE = 3;
+  private static final int LDC_STRING_TYPE = 4;
+  private static final int LDC_OBJECT_TYPE = 5;
+  private static final int IINC_TYPE = 6;
+  private static final int MULTIANEWARRAY_TYPE = 7;
+  private static final int LOOKUPSWITCH_TYPE = 8;
+  private static final int TABLESWITCH_TYPE = 9;
+  private static final int IFEQ_TYPE = 10;
+  private static final int IFNE_TYPE = 11;
+  private static final int IFLT_TYPE = 12;
+  private static final int IFGE_TYPE = 13;
+  private static final int IFGT_TYPE = 14;
+  private static final int IFLE_TYPE = 15;
+  private static final int IF_ICMPEQ_TYPE = 16;
+  private static final int IF_ICMPNE_TYPE = 17;
+  private static final int IF_ICMPLT_TYPE = 18;
+  private static final int IF_ICMPGE_TYPE = 19;
+  private static final int IF_ICMPGT_TYPE = 20;
+  private static final int IF_ICMPLE_TYPE = 21;
+  private static final int IF_ACMPEQ_TYPE = 22;
+  private static final int IF_ACMPNE_TYPE = 23;
+  private static final int GOTO_TYPE = 24;
+  private static final int JSR_TYPE = 25;
+  private static final int IFNULL_TYPE = 26;
+  private static final int IFNONNULL_TYPE = 27;
+  private static final int INVOKEVIRTUAL_TYPE = 28;
+  private static final int INVOKESPECIAL_TYPE = 29;
+  private static final int INVOKESTATIC_TYPE = 30;
+  private static final int INVOKEINTERFACE_TYPE = 31;
+  private static final int GETSTATIC_TYPE = 32;
+  private static final int PUTSTATIC_TYPE = 33;
+  private static final int GETFIELD_TYPE = 34;
+  private static final int PUTFIELD_TYPE = 35;
+  private static final int NEW_TYPE = 36;
+  private static final int ANEWARRAY_TYPE = 37;
+  private static final int CHECKCAST_TYPE = 38;
+  private static final int INSTANCEOF_TYPE = 39;
+  private static final int BIPUSH_TYPE = 40;
+  private static final int SIPUSH_TYPE = 41;
+  private static final int NEWARRAY_TYPE = 42;
+  private static final int ILOAD_TYPE = 43;
+  private static final int LLOAD_TYPE = 44;
+  private static final int FLOAD_TYPE = 45;
+  private static final int DLOAD_TYPE = 46;
+  private static final int ALOAD_TYPE = 47;
+  private static final int ISTORE_TYPE = 48;
+  private static final int LSTORE_TYPE = 49;
+  private static final int FSTORE_TYPE = 50;
+  private static final int DSTORE_TYPE = 51;
+  private static final int ASTORE_TYPE = 52;
+  private static final int RET_TYPE = 53;
+  private static final int NOP_TYPE = 54;
+  private static final int ACONST_NULL_TYPE = 55;
+  private static final int ICONST_M1_TYPE = 56;
+  private static final int ICONST_0_TYPE = 57;
+  private static final int ICONST_1_TYPE = 58;
+  private static final int ICONST_2_TYPE = 59;
+  private static final int ICONST_3_TYPE = 60;
+  private static final int ICONST_4_TYPE = 61;
+  private static final int ICONST_5_TYPE = 62;
+  private static final int LCONST_0_TYPE = 63;
+  private static final int LCONST_1_TYPE = 64;
+  private static final int FCONST_0_TYPE = 65;
+  private static final int FCONST_1_TYPE = 66;
+  private static final int FCONST_2_TYPE = 67;
+  private static final int DCONST_0_TYPE = 68;
+  private static final int DCONST_1_TYPE = 69;
+  private static final int IALOAD_TYPE = 70;
+  private static final int LALOAD_TYPE = 71;
+  private static final int FALOAD_TYPE = 72;
+  private static final int DALOAD_TYPE = 73;
+  private static final int AALOAD_TYPE = 74;
+  private static final int BALOAD_TYPE = 75;
+  private static final int CALOAD_TYPE = 76;
+  private static final int SALOAD_TYPE = 77;
+  private static final int IASTORE_TYPE = 78;
+  private static final int LASTORE_TYPE = 79;
+  private static final int FASTORE_TYPE = 80;
+  private static final int DASTORE_TYPE = 81;
+  private static final int AASTORE_TYPE = 82;
+  private static final int BASTORE_TYPE = 83;
+  private static final int CASTORE_TYPE = 84;
+  private static final int SASTORE_TYPE = 85;
+  private static final int POP_TYPE = 86;
+  private static final int POP2_TYPE = 87;
+  private static final int DUP_TYPE = 88;
+  private static final int DUP_X1_TYPE = 89;
+  private static final int DUP_X2_TYPE = 90;
+  private static final int DUP2_TYPE = 91;
+  private static final int DUP2_X1_TYPE = 92;
+  private static final int DUP2_X2_TYPE = 93;
+  private static final int SWAP_TYPE = 94;
+  private static final int IADD_TYPE = 95;
+  private static final int LADD_TYPE = 96;
+  private static final int FADD_TYPE = 97;
+  private static final int DADD_TYPE = 98;
+  private static final int ISUB_TYPE = 99;
+  private static final int LSUB_TYPE = 100;
+  private static final int FSUB_TYPE = 101;
+  private static final int DSUB_TYPE = 102;
+  private static final int IMUL_TYPE = 103;
+  private static final int LMUL_TYPE = 104;
+  private static final int FMUL_TYPE = 105;
+  private static final int DMUL_TYPE = 106;
+  private static final int IDIV_TYPE = 107;
+  private static final int LDIV_TYPE = 108;
+  private static final int FDIV_TYPE = 109;
+  private static final int DDIV_TYPE = 110;
+  private static final int IREM_TYPE = 111;
+  private static final int LREM_TYPE = 112;
+  private static final int FREM_TYPE = 113;
+  private static final int DREM_TYPE = 114;
+  private static final int INEG_TYPE = 115;
+  private static final int LNEG_TYPE = 116;
+  private static final int FNEG_TYPE = 117;
+  private static final int DNEG_TYPE = 118;
+  private static final int ISHL_TYPE = 119;
+  private static final int LSHL_TYPE = 120;
+  private static final int ISHR_TYPE = 121;
+  private static final int LSHR_TYPE = 122;
+  private static final int IUSHR_TYPE = 123;
+  private static final int LUSHR_TYPE = 124;
+  private static final int IAND_TYPE = 125;
+  private static final int LAND_TYPE = 126;
+  private static final int IOR_TYPE = 127;
+  private static final int LOR_TYPE = 128;
+  private static final int IXOR_TYPE = 129;
+  private static final int LXOR_TYPE = 130;
+  private static final int I2L_TYPE = 131;
+  private static final int I2F_TYPE = 132;
+  private static final int I2D_TYPE = 133;
+  private static final int L2I_TYPE = 134;
+  private static final int L2F_TYPE = 135;
+  private static final int L2D_TYPE = 136;
+  private static final int F2I_TYPE = 137;
+  private static final int F2L_TYPE = 138;
+  private static final int F2D_TYPE = 139;
+  private static final int D2I_TYPE = 140;
+  private static final int D2L_TYPE = 141;
+  private static final int D2F_TYPE = 142;
+  private static final int I2B_TYPE = 143;
+  private static final int I2C_TYPE = 144;
+  private static final int I2S_TYPE = 145;
+  private static final int LCMP_TYPE = 146;
+  private static final int FCMPL_TYPE = 147;
+  private static final int FCMPG_TYPE = 148;
+  private static final int DCMPL_TYPE = 149;
+  private static final int DCMPG_TYPE = 150;
+  private static final int IRETURN_TYPE = 151;
+  private static final int LRETURN_TYPE = 152;
+  private static final int FRETURN_TYPE = 153;
+  private static final int DRETURN_TYPE = 154;
+  private static final int ARETURN_TYPE = 155;
+  private static final int RETURN_TYPE = 156;
+  private static final int ARRAYLENGTH_TYPE = 157;
+  private static final int ATHROW_TYPE = 158;
+  private static final int MONITORENTER_TYPE = 159;
+  private static final int MONITOREXIT_TYPE = 160;
+  private static final int GETVALUE_DOUBLE_TYPE = 161;
+  private static final int GETVALUE_LONG_TYPE = 162;
+  private static final int GETVALUE_OBJECT_TYPE = 163;
+  private static final int GETVALUE_BOOLEAN_TYPE = 164;
+  private static final int GETVALUE_BYTE_TYPE = 165;
+  private static final int GETVALUE_CHAR_TYPE = 166;
+  private static final int GETVALUE_FLOAT_TYPE = 167;
+  private static final int GETVALUE_INT_TYPE = 168;
+  private static final int GETVALUE_SHORT_TYPE = 169;
+  private static final int GETVALUE_VOID_TYPE = 170;
+  private static final int INVOKEMETHOD_EXCEPTION_TYPE = 171;
+  private static final int INVOKEMETHOD_END_TYPE = 172;
+  private static final int MAKE_SYMBOLIC_TYPE = 173;
+  private static final int SPECIAL_TYPE = 174;
+  private static final int N_TYPES = 175;
+
+  private final Instruction[] slots = new Instruction[2 * N_TYPES];
+  private final boolean[] turn = new boolean[N_TYPES];
+
+  /** Returns the slot that was not handed out last for the type with the given *_TYPE index. */
+  private int slot(int type) {
+    boolean t = turn[type];
+    turn[type] = !t;
+    return t ? 2 * type + 1 : 2 * type;
+  }
+
+  @Override
+  public LDC_int LDC_int(int iid, int mid, int c) {
+    int s = slot(LDC_INT_TYPE);
+    LDC_int insn = (LDC_int) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LDC_int(iid, mid, c);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.c = c;
+    }
+    return insn;
+  }
+
+  @Override
+  public LDC_long LDC_long(int iid, int mid, long c) {
+    int s = slot(LDC_LONG_TYPE);
+    LDC_long insn = (LDC_long) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LDC_long(iid, mid, c);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.c = c;
+    }
+    return insn;
+  }
+
+  @Override
+  public LDC_float LDC_float(int iid, int mid, float c) {
+    int s = slot(LDC_FLOAT_TYPE);
+    LDC_float insn = (LDC_float) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LDC_float(iid, mid, c);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.c = c;
+    }
+    return insn;
+  }
+
+  @Override
+  public LDC_double LDC_double(int iid, int mid, double c) {
+    int s = slot(LDC_DOUBLE_TYPE);
+    LDC_double insn = (LDC_double) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LDC_double(iid, mid, c);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.c = c;
+    }
+    return insn;
+  }
+
+  @Override
+  public LDC_String LDC_String(int iid, int mid, String c, int address) {
+    int s = slot(LDC_STRING_TYPE);
+    LDC_String insn = (LDC_String) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LDC_String(iid, mid, c, address);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.c = c;
+      insn.address = address;
+    }
+    return insn;
+  }
+
+  @Override
+  public LDC_Object LDC_Object(int iid, int mid, int c) {
+    int s = slot(LDC_OBJECT_TYPE);
+    LDC_Object insn = (LDC_Object) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LDC_Object(iid, mid, c);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.c = c;
+    }
+    return insn;
+  }
+
+  @Override
+  public IINC IINC(int iid, int mid, int var, int increment) {
+    int s = slot(IINC_TYPE);
+    IINC insn = (IINC) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IINC(iid, mid, var, increment);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+      insn.increment = increment;
+    }
+    return insn;
+  }
+
+  @Override
+  public MULTIANEWARRAY MULTIANEWARRAY(int iid, int mid, String desc, int dims) {
+    int s = slot(MULTIANEWARRAY_TYPE);
+    MULTIANEWARRAY insn = (MULTIANEWARRAY) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new MULTIANEWARRAY(iid, mid, desc, dims);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.desc = desc;
+      insn.dims = dims;
+    }
+    return insn;
+  }
+
+  @Override
+  public LOOKUPSWITCH LOOKUPSWITCH(int iid, int mid, int dflt, int[] keys, int[] labels) {
+    int s = slot(LOOKUPSWITCH_TYPE);
+    LOOKUPSWITCH insn = (LOOKUPSWITCH) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LOOKUPSWITCH(iid, mid, dflt, keys, labels);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.dflt = dflt;
+      insn.keys = keys;
+      insn.labels = labels;
+    }
+    return insn;
+  }
+
+  @Override
+  public TABLESWITCH TABLESWITCH(int iid, int mid, int min, int max, int dflt, int[] labels) {
+    int s = slot(TABLESWITCH_TYPE);
+    TABLESWITCH insn = (TABLESWITCH) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new TABLESWITCH(iid, mid, min, max, dflt, labels);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.min = min;
+      insn.max = max;
+      insn.dflt = dflt;
+      insn.labels = labels;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFEQ IFEQ(int iid, int mid, int label) {
+    int s = slot(IFEQ_TYPE);
+    IFEQ insn = (IFEQ) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFEQ(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFNE IFNE(int iid, int mid, int label) {
+    int s = slot(IFNE_TYPE);
+    IFNE insn = (IFNE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFNE(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFLT IFLT(int iid, int mid, int label) {
+    int s = slot(IFLT_TYPE);
+    IFLT insn = (IFLT) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFLT(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFGE IFGE(int iid, int mid, int label) {
+    int s = slot(IFGE_TYPE);
+    IFGE insn = (IFGE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFGE(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFGT IFGT(int iid, int mid, int label) {
+    int s = slot(IFGT_TYPE);
+    IFGT insn = (IFGT) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFGT(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFLE IFLE(int iid, int mid, int label) {
+    int s = slot(IFLE_TYPE);
+    IFLE insn = (IFLE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFLE(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ICMPEQ IF_ICMPEQ(int iid, int mid, int label) {
+    int s = slot(IF_ICMPEQ_TYPE);
+    IF_ICMPEQ insn = (IF_ICMPEQ) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ICMPEQ(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ICMPNE IF_ICMPNE(int iid, int mid, int label) {
+    int s = slot(IF_ICMPNE_TYPE);
+    IF_ICMPNE insn = (IF_ICMPNE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ICMPNE(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ICMPLT IF_ICMPLT(int iid, int mid, int label) {
+    int s = slot(IF_ICMPLT_TYPE);
+    IF_ICMPLT insn = (IF_ICMPLT) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ICMPLT(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ICMPGE IF_ICMPGE(int iid, int mid, int label) {
+    int s = slot(IF_ICMPGE_TYPE);
+    IF_ICMPGE insn = (IF_ICMPGE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ICMPGE(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ICMPGT IF_ICMPGT(int iid, int mid, int label) {
+    int s = slot(IF_ICMPGT_TYPE);
+    IF_ICMPGT insn = (IF_ICMPGT) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ICMPGT(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ICMPLE IF_ICMPLE(int iid, int mid, int label) {
+    int s = slot(IF_ICMPLE_TYPE);
+    IF_ICMPLE insn = (IF_ICMPLE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ICMPLE(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ACMPEQ IF_ACMPEQ(int iid, int mid, int label) {
+    int s = slot(IF_ACMPEQ_TYPE);
+    IF_ACMPEQ insn = (IF_ACMPEQ) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ACMPEQ(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IF_ACMPNE IF_ACMPNE(int iid, int mid, int label) {
+    int s = slot(IF_ACMPNE_TYPE);
+    IF_ACMPNE insn = (IF_ACMPNE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IF_ACMPNE(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public GOTO GOTO(int iid, int mid, int label) {
+    int s = slot(GOTO_TYPE);
+    GOTO insn = (GOTO) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GOTO(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public JSR JSR(int iid, int mid, int label) {
+    int s = slot(JSR_TYPE);
+    JSR insn = (JSR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new JSR(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFNULL IFNULL(int iid, int mid, int label) {
+    int s = slot(IFNULL_TYPE);
+    IFNULL insn = (IFNULL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFNULL(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public IFNONNULL IFNONNULL(int iid, int mid, int label) {
+    int s = slot(IFNONNULL_TYPE);
+    IFNONNULL insn = (IFNONNULL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IFNONNULL(iid, mid, label);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.label = label;
+    }
+    return insn;
+  }
+
+  @Override
+  public INVOKEVIRTUAL INVOKEVIRTUAL(int iid, int mid, String owner, String name, String desc) {
+    int s = slot(INVOKEVIRTUAL_TYPE);
+    INVOKEVIRTUAL insn = (INVOKEVIRTUAL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INVOKEVIRTUAL(iid, mid, owner, name, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.owner = owner;
+      insn.name = name;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public INVOKESPECIAL INVOKESPECIAL(int iid, int mid, String owner, String name, String desc) {
+    int s = slot(INVOKESPECIAL_TYPE);
+    INVOKESPECIAL insn = (INVOKESPECIAL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INVOKESPECIAL(iid, mid, owner, name, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.owner = owner;
+      insn.name = name;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public INVOKESTATIC INVOKESTATIC(int iid, int mid, String owner, String name, String desc) {
+    int s = slot(INVOKESTATIC_TYPE);
+    INVOKESTATIC insn = (INVOKESTATIC) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INVOKESTATIC(iid, mid, owner, name, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.owner = owner;
+      insn.name = name;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public INVOKEINTERFACE INVOKEINTERFACE(int iid, int mid, String owner, String name, String desc) {
+    int s = slot(INVOKEINTERFACE_TYPE);
+    INVOKEINTERFACE insn = (INVOKEINTERFACE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INVOKEINTERFACE(iid, mid, owner, name, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.owner = owner;
+      insn.name = name;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETSTATIC GETSTATIC(int iid, int mid, int cIdx, int fIdx, String desc) {
+    int s = slot(GETSTATIC_TYPE);
+    GETSTATIC insn = (GETSTATIC) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETSTATIC(iid, mid, cIdx, fIdx, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.cIdx = cIdx;
+      insn.fIdx = fIdx;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public PUTSTATIC PUTSTATIC(int iid, int mid, int cIdx, int fIdx, String desc) {
+    int s = slot(PUTSTATIC_TYPE);
+    PUTSTATIC insn = (PUTSTATIC) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new PUTSTATIC(iid, mid, cIdx, fIdx, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.cIdx = cIdx;
+      insn.fIdx = fIdx;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETFIELD GETFIELD(int iid, int mid, int cIdx, int fIdx, String desc) {
+    int s = slot(GETFIELD_TYPE);
+    GETFIELD insn = (GETFIELD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETFIELD(iid, mid, cIdx, fIdx, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.cIdx = cIdx;
+      insn.fIdx = fIdx;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public PUTFIELD PUTFIELD(int iid, int mid, int cIdx, int fIdx, String desc) {
+    int s = slot(PUTFIELD_TYPE);
+    PUTFIELD insn = (PUTFIELD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new PUTFIELD(iid, mid, cIdx, fIdx, desc);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.cIdx = cIdx;
+      insn.fIdx = fIdx;
+      insn.desc = desc;
+    }
+    return insn;
+  }
+
+  @Override
+  public NEW NEW(int iid, int mid, String type, int cIdx) {
+    int s = slot(NEW_TYPE);
+    NEW insn = (NEW) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new NEW(iid, mid, type, cIdx);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.type = type;
+      insn.cIdx = cIdx;
+    }
+    return insn;
+  }
+
+  @Override
+  public ANEWARRAY ANEWARRAY(int iid, int mid, String type) {
+    int s = slot(ANEWARRAY_TYPE);
+    ANEWARRAY insn = (ANEWARRAY) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ANEWARRAY(iid, mid, type);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.type = type;
+    }
+    return insn;
+  }
+
+  @Override
+  public CHECKCAST CHECKCAST(int iid, int mid, String type) {
+    int s = slot(CHECKCAST_TYPE);
+    CHECKCAST insn = (CHECKCAST) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new CHECKCAST(iid, mid, type);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.type = type;
+    }
+    return insn;
+  }
+
+  @Override
+  public INSTANCEOF INSTANCEOF(int iid, int mid, String type) {
+    int s = slot(INSTANCEOF_TYPE);
+    INSTANCEOF insn = (INSTANCEOF) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INSTANCEOF(iid, mid, type);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.type = type;
+    }
+    return insn;
+  }
+
+  @Override
+  public BIPUSH BIPUSH(int iid, int mid, int value) {
+    int s = slot(BIPUSH_TYPE);
+    BIPUSH insn = (BIPUSH) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new BIPUSH(iid, mid, value);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.value = value;
+    }
+    return insn;
+  }
+
+  @Override
+  public SIPUSH SIPUSH(int iid, int mid, int value) {
+    int s = slot(SIPUSH_TYPE);
+    SIPUSH insn = (SIPUSH) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new SIPUSH(iid, mid, value);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.value = value;
+    }
+    return insn;
+  }
+
+  @Override
+  public NEWARRAY NEWARRAY(int iid, int mid) {
+    int s = slot(NEWARRAY_TYPE);
+    NEWARRAY insn = (NEWARRAY) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new NEWARRAY(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ILOAD ILOAD(int iid, int mid, int var) {
+    int s = slot(ILOAD_TYPE);
+    ILOAD insn = (ILOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ILOAD(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public LLOAD LLOAD(int iid, int mid, int var) {
+    int s = slot(LLOAD_TYPE);
+    LLOAD insn = (LLOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LLOAD(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public FLOAD FLOAD(int iid, int mid, int var) {
+    int s = slot(FLOAD_TYPE);
+    FLOAD insn = (FLOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FLOAD(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public DLOAD DLOAD(int iid, int mid, int var) {
+    int s = slot(DLOAD_TYPE);
+    DLOAD insn = (DLOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DLOAD(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public ALOAD ALOAD(int iid, int mid, int var) {
+    int s = slot(ALOAD_TYPE);
+    ALOAD insn = (ALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ALOAD(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public ISTORE ISTORE(int iid, int mid, int var) {
+    int s = slot(ISTORE_TYPE);
+    ISTORE insn = (ISTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ISTORE(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public LSTORE LSTORE(int iid, int mid, int var) {
+    int s = slot(LSTORE_TYPE);
+    LSTORE insn = (LSTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LSTORE(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public FSTORE FSTORE(int iid, int mid, int var) {
+    int s = slot(FSTORE_TYPE);
+    FSTORE insn = (FSTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FSTORE(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public DSTORE DSTORE(int iid, int mid, int var) {
+    int s = slot(DSTORE_TYPE);
+    DSTORE insn = (DSTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DSTORE(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public ASTORE ASTORE(int iid, int mid, int var) {
+    int s = slot(ASTORE_TYPE);
+    ASTORE insn = (ASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ASTORE(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public RET RET(int iid, int mid, int var) {
+    int s = slot(RET_TYPE);
+    RET insn = (RET) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new RET(iid, mid, var);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+      insn.var = var;
+    }
+    return insn;
+  }
+
+  @Override
+  public NOP NOP(int iid, int mid) {
+    int s = slot(NOP_TYPE);
+    NOP insn = (NOP) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new NOP(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ACONST_NULL ACONST_NULL(int iid, int mid) {
+    int s = slot(ACONST_NULL_TYPE);
+    ACONST_NULL insn = (ACONST_NULL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ACONST_NULL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ICONST_M1 ICONST_M1(int iid, int mid) {
+    int s = slot(ICONST_M1_TYPE);
+    ICONST_M1 insn = (ICONST_M1) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ICONST_M1(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ICONST_0 ICONST_0(int iid, int mid) {
+    int s = slot(ICONST_0_TYPE);
+    ICONST_0 insn = (ICONST_0) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ICONST_0(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ICONST_1 ICONST_1(int iid, int mid) {
+    int s = slot(ICONST_1_TYPE);
+    ICONST_1 insn = (ICONST_1) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ICONST_1(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ICONST_2 ICONST_2(int iid, int mid) {
+    int s = slot(ICONST_2_TYPE);
+    ICONST_2 insn = (ICONST_2) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ICONST_2(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ICONST_3 ICONST_3(int iid, int mid) {
+    int s = slot(ICONST_3_TYPE);
+    ICONST_3 insn = (ICONST_3) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ICONST_3(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ICONST_4 ICONST_4(int iid, int mid) {
+    int s = slot(ICONST_4_TYPE);
+    ICONST_4 insn = (ICONST_4) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ICONST_4(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ICONST_5 ICONST_5(int iid, int mid) {
+    int s = slot(ICONST_5_TYPE);
+    ICONST_5 insn = (ICONST_5) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ICONST_5(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LCONST_0 LCONST_0(int iid, int mid) {
+    int s = slot(LCONST_0_TYPE);
+    LCONST_0 insn = (LCONST_0) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LCONST_0(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LCONST_1 LCONST_1(int iid, int mid) {
+    int s = slot(LCONST_1_TYPE);
+    LCONST_1 insn = (LCONST_1) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LCONST_1(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FCONST_0 FCONST_0(int iid, int mid) {
+    int s = slot(FCONST_0_TYPE);
+    FCONST_0 insn = (FCONST_0) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FCONST_0(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FCONST_1 FCONST_1(int iid, int mid) {
+    int s = slot(FCONST_1_TYPE);
+    FCONST_1 insn = (FCONST_1) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FCONST_1(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FCONST_2 FCONST_2(int iid, int mid) {
+    int s = slot(FCONST_2_TYPE);
+    FCONST_2 insn = (FCONST_2) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FCONST_2(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DCONST_0 DCONST_0(int iid, int mid) {
+    int s = slot(DCONST_0_TYPE);
+    DCONST_0 insn = (DCONST_0) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DCONST_0(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DCONST_1 DCONST_1(int iid, int mid) {
+    int s = slot(DCONST_1_TYPE);
+    DCONST_1 insn = (DCONST_1) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DCONST_1(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IALOAD IALOAD(int iid, int mid) {
+    int s = slot(IALOAD_TYPE);
+    IALOAD insn = (IALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LALOAD LALOAD(int iid, int mid) {
+    int s = slot(LALOAD_TYPE);
+    LALOAD insn = (LALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FALOAD FALOAD(int iid, int mid) {
+    int s = slot(FALOAD_TYPE);
+    FALOAD insn = (FALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DALOAD DALOAD(int iid, int mid) {
+    int s = slot(DALOAD_TYPE);
+    DALOAD insn = (DALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public AALOAD AALOAD(int iid, int mid) {
+    int s = slot(AALOAD_TYPE);
+    AALOAD insn = (AALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new AALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public BALOAD BALOAD(int iid, int mid) {
+    int s = slot(BALOAD_TYPE);
+    BALOAD insn = (BALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new BALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public CALOAD CALOAD(int iid, int mid) {
+    int s = slot(CALOAD_TYPE);
+    CALOAD insn = (CALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new CALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public SALOAD SALOAD(int iid, int mid) {
+    int s = slot(SALOAD_TYPE);
+    SALOAD insn = (SALOAD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new SALOAD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IASTORE IASTORE(int iid, int mid) {
+    int s = slot(IASTORE_TYPE);
+    IASTORE insn = (IASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LASTORE LASTORE(int iid, int mid) {
+    int s = slot(LASTORE_TYPE);
+    LASTORE insn = (LASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FASTORE FASTORE(int iid, int mid) {
+    int s = slot(FASTORE_TYPE);
+    FASTORE insn = (FASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DASTORE DASTORE(int iid, int mid) {
+    int s = slot(DASTORE_TYPE);
+    DASTORE insn = (DASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public AASTORE AASTORE(int iid, int mid) {
+    int s = slot(AASTORE_TYPE);
+    AASTORE insn = (AASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new AASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public BASTORE BASTORE(int iid, int mid) {
+    int s = slot(BASTORE_TYPE);
+    BASTORE insn = (BASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new BASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public CASTORE CASTORE(int iid, int mid) {
+    int s = slot(CASTORE_TYPE);
+    CASTORE insn = (CASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new CASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public SASTORE SASTORE(int iid, int mid) {
+    int s = slot(SASTORE_TYPE);
+    SASTORE insn = (SASTORE) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new SASTORE(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public POP POP(int iid, int mid) {
+    int s = slot(POP_TYPE);
+    POP insn = (POP) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new POP(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public POP2 POP2(int iid, int mid) {
+    int s = slot(POP2_TYPE);
+    POP2 insn = (POP2) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new POP2(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DUP DUP(int iid, int mid) {
+    int s = slot(DUP_TYPE);
+    DUP insn = (DUP) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DUP(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DUP_X1 DUP_X1(int iid, int mid) {
+    int s = slot(DUP_X1_TYPE);
+    DUP_X1 insn = (DUP_X1) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DUP_X1(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DUP_X2 DUP_X2(int iid, int mid) {
+    int s = slot(DUP_X2_TYPE);
+    DUP_X2 insn = (DUP_X2) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DUP_X2(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DUP2 DUP2(int iid, int mid) {
+    int s = slot(DUP2_TYPE);
+    DUP2 insn = (DUP2) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DUP2(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DUP2_X1 DUP2_X1(int iid, int mid) {
+    int s = slot(DUP2_X1_TYPE);
+    DUP2_X1 insn = (DUP2_X1) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DUP2_X1(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DUP2_X2 DUP2_X2(int iid, int mid) {
+    int s = slot(DUP2_X2_TYPE);
+    DUP2_X2 insn = (DUP2_X2) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DUP2_X2(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public SWAP SWAP(int iid, int mid) {
+    int s = slot(SWAP_TYPE);
+    SWAP insn = (SWAP) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new SWAP(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IADD IADD(int iid, int mid) {
+    int s = slot(IADD_TYPE);
+    IADD insn = (IADD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IADD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LADD LADD(int iid, int mid) {
+    int s = slot(LADD_TYPE);
+    LADD insn = (LADD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LADD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FADD FADD(int iid, int mid) {
+    int s = slot(FADD_TYPE);
+    FADD insn = (FADD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FADD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DADD DADD(int iid, int mid) {
+    int s = slot(DADD_TYPE);
+    DADD insn = (DADD) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DADD(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ISUB ISUB(int iid, int mid) {
+    int s = slot(ISUB_TYPE);
+    ISUB insn = (ISUB) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ISUB(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LSUB LSUB(int iid, int mid) {
+    int s = slot(LSUB_TYPE);
+    LSUB insn = (LSUB) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LSUB(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FSUB FSUB(int iid, int mid) {
+    int s = slot(FSUB_TYPE);
+    FSUB insn = (FSUB) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FSUB(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DSUB DSUB(int iid, int mid) {
+    int s = slot(DSUB_TYPE);
+    DSUB insn = (DSUB) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DSUB(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IMUL IMUL(int iid, int mid) {
+    int s = slot(IMUL_TYPE);
+    IMUL insn = (IMUL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IMUL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LMUL LMUL(int iid, int mid) {
+    int s = slot(LMUL_TYPE);
+    LMUL insn = (LMUL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LMUL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FMUL FMUL(int iid, int mid) {
+    int s = slot(FMUL_TYPE);
+    FMUL insn = (FMUL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FMUL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DMUL DMUL(int iid, int mid) {
+    int s = slot(DMUL_TYPE);
+    DMUL insn = (DMUL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DMUL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IDIV IDIV(int iid, int mid) {
+    int s = slot(IDIV_TYPE);
+    IDIV insn = (IDIV) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IDIV(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LDIV LDIV(int iid, int mid) {
+    int s = slot(LDIV_TYPE);
+    LDIV insn = (LDIV) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LDIV(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FDIV FDIV(int iid, int mid) {
+    int s = slot(FDIV_TYPE);
+    FDIV insn = (FDIV) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FDIV(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DDIV DDIV(int iid, int mid) {
+    int s = slot(DDIV_TYPE);
+    DDIV insn = (DDIV) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DDIV(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IREM IREM(int iid, int mid) {
+    int s = slot(IREM_TYPE);
+    IREM insn = (IREM) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IREM(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LREM LREM(int iid, int mid) {
+    int s = slot(LREM_TYPE);
+    LREM insn = (LREM) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LREM(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FREM FREM(int iid, int mid) {
+    int s = slot(FREM_TYPE);
+    FREM insn = (FREM) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FREM(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DREM DREM(int iid, int mid) {
+    int s = slot(DREM_TYPE);
+    DREM insn = (DREM) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DREM(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public INEG INEG(int iid, int mid) {
+    int s = slot(INEG_TYPE);
+    INEG insn = (INEG) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INEG(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LNEG LNEG(int iid, int mid) {
+    int s = slot(LNEG_TYPE);
+    LNEG insn = (LNEG) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LNEG(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FNEG FNEG(int iid, int mid) {
+    int s = slot(FNEG_TYPE);
+    FNEG insn = (FNEG) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FNEG(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DNEG DNEG(int iid, int mid) {
+    int s = slot(DNEG_TYPE);
+    DNEG insn = (DNEG) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DNEG(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ISHL ISHL(int iid, int mid) {
+    int s = slot(ISHL_TYPE);
+    ISHL insn = (ISHL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ISHL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LSHL LSHL(int iid, int mid) {
+    int s = slot(LSHL_TYPE);
+    LSHL insn = (LSHL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LSHL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ISHR ISHR(int iid, int mid) {
+    int s = slot(ISHR_TYPE);
+    ISHR insn = (ISHR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ISHR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LSHR LSHR(int iid, int mid) {
+    int s = slot(LSHR_TYPE);
+    LSHR insn = (LSHR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LSHR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IUSHR IUSHR(int iid, int mid) {
+    int s = slot(IUSHR_TYPE);
+    IUSHR insn = (IUSHR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IUSHR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LUSHR LUSHR(int iid, int mid) {
+    int s = slot(LUSHR_TYPE);
+    LUSHR insn = (LUSHR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LUSHR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IAND IAND(int iid, int mid) {
+    int s = slot(IAND_TYPE);
+    IAND insn = (IAND) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IAND(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LAND LAND(int iid, int mid) {
+    int s = slot(LAND_TYPE);
+    LAND insn = (LAND) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LAND(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IOR IOR(int iid, int mid) {
+    int s = slot(IOR_TYPE);
+    IOR insn = (IOR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IOR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LOR LOR(int iid, int mid) {
+    int s = slot(LOR_TYPE);
+    LOR insn = (LOR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LOR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IXOR IXOR(int iid, int mid) {
+    int s = slot(IXOR_TYPE);
+    IXOR insn = (IXOR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IXOR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LXOR LXOR(int iid, int mid) {
+    int s = slot(LXOR_TYPE);
+    LXOR insn = (LXOR) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LXOR(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public I2L I2L(int iid, int mid) {
+    int s = slot(I2L_TYPE);
+    I2L insn = (I2L) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new I2L(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public I2F I2F(int iid, int mid) {
+    int s = slot(I2F_TYPE);
+    I2F insn = (I2F) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new I2F(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public I2D I2D(int iid, int mid) {
+    int s = slot(I2D_TYPE);
+    I2D insn = (I2D) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new I2D(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public L2I L2I(int iid, int mid) {
+    int s = slot(L2I_TYPE);
+    L2I insn = (L2I) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new L2I(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public L2F L2F(int iid, int mid) {
+    int s = slot(L2F_TYPE);
+    L2F insn = (L2F) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new L2F(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public L2D L2D(int iid, int mid) {
+    int s = slot(L2D_TYPE);
+    L2D insn = (L2D) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new L2D(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public F2I F2I(int iid, int mid) {
+    int s = slot(F2I_TYPE);
+    F2I insn = (F2I) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new F2I(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public F2L F2L(int iid, int mid) {
+    int s = slot(F2L_TYPE);
+    F2L insn = (F2L) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new F2L(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public F2D F2D(int iid, int mid) {
+    int s = slot(F2D_TYPE);
+    F2D insn = (F2D) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new F2D(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public D2I D2I(int iid, int mid) {
+    int s = slot(D2I_TYPE);
+    D2I insn = (D2I) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new D2I(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public D2L D2L(int iid, int mid) {
+    int s = slot(D2L_TYPE);
+    D2L insn = (D2L) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new D2L(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public D2F D2F(int iid, int mid) {
+    int s = slot(D2F_TYPE);
+    D2F insn = (D2F) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new D2F(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public I2B I2B(int iid, int mid) {
+    int s = slot(I2B_TYPE);
+    I2B insn = (I2B) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new I2B(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public I2C I2C(int iid, int mid) {
+    int s = slot(I2C_TYPE);
+    I2C insn = (I2C) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new I2C(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public I2S I2S(int iid, int mid) {
+    int s = slot(I2S_TYPE);
+    I2S insn = (I2S) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new I2S(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LCMP LCMP(int iid, int mid) {
+    int s = slot(LCMP_TYPE);
+    LCMP insn = (LCMP) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LCMP(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FCMPL FCMPL(int iid, int mid) {
+    int s = slot(FCMPL_TYPE);
+    FCMPL insn = (FCMPL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FCMPL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FCMPG FCMPG(int iid, int mid) {
+    int s = slot(FCMPG_TYPE);
+    FCMPG insn = (FCMPG) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FCMPG(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DCMPL DCMPL(int iid, int mid) {
+    int s = slot(DCMPL_TYPE);
+    DCMPL insn = (DCMPL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DCMPL(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DCMPG DCMPG(int iid, int mid) {
+    int s = slot(DCMPG_TYPE);
+    DCMPG insn = (DCMPG) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DCMPG(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public IRETURN IRETURN(int iid, int mid) {
+    int s = slot(IRETURN_TYPE);
+    IRETURN insn = (IRETURN) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new IRETURN(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public LRETURN LRETURN(int iid, int mid) {
+    int s = slot(LRETURN_TYPE);
+    LRETURN insn = (LRETURN) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new LRETURN(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public FRETURN FRETURN(int iid, int mid) {
+    int s = slot(FRETURN_TYPE);
+    FRETURN insn = (FRETURN) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new FRETURN(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public DRETURN DRETURN(int iid, int mid) {
+    int s = slot(DRETURN_TYPE);
+    DRETURN insn = (DRETURN) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new DRETURN(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ARETURN ARETURN(int iid, int mid) {
+    int s = slot(ARETURN_TYPE);
+    ARETURN insn = (ARETURN) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ARETURN(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public RETURN RETURN(int iid, int mid) {
+    int s = slot(RETURN_TYPE);
+    RETURN insn = (RETURN) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new RETURN(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ARRAYLENGTH ARRAYLENGTH(int iid, int mid) {
+    int s = slot(ARRAYLENGTH_TYPE);
+    ARRAYLENGTH insn = (ARRAYLENGTH) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ARRAYLENGTH(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public ATHROW ATHROW(int iid, int mid) {
+    int s = slot(ATHROW_TYPE);
+    ATHROW insn = (ATHROW) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new ATHROW(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public MONITORENTER MONITORENTER(int iid, int mid) {
+    int s = slot(MONITORENTER_TYPE);
+    MONITORENTER insn = (MONITORENTER) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new MONITORENTER(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public MONITOREXIT MONITOREXIT(int iid, int mid) {
+    int s = slot(MONITOREXIT_TYPE);
+    MONITOREXIT insn = (MONITOREXIT) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new MONITOREXIT(iid, mid);
+    } else {
+      insn.iid = iid;
+      insn.mid = mid;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_double GETVALUE_double(double v) {
+    int s = slot(GETVALUE_DOUBLE_TYPE);
+    GETVALUE_double insn = (GETVALUE_double) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_double(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_long GETVALUE_long(long v) {
+    int s = slot(GETVALUE_LONG_TYPE);
+    GETVALUE_long insn = (GETVALUE_long) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_long(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_Object GETVALUE_Object(int v, String string, boolean isString) {
+    int s = slot(GETVALUE_OBJECT_TYPE);
+    GETVALUE_Object insn = (GETVALUE_Object) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_Object(v, string, isString);
+    } else {
+      insn.v = v;
+      insn.string = string;
+      insn.isString = isString;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_boolean GETVALUE_boolean(boolean v) {
+    int s = slot(GETVALUE_BOOLEAN_TYPE);
+    GETVALUE_boolean insn = (GETVALUE_boolean) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_boolean(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_byte GETVALUE_byte(byte v) {
+    int s = slot(GETVALUE_BYTE_TYPE);
+    GETVALUE_byte insn = (GETVALUE_byte) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_byte(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_char GETVALUE_char(char v) {
+    int s = slot(GETVALUE_CHAR_TYPE);
+    GETVALUE_char insn = (GETVALUE_char) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_char(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_float GETVALUE_float(float v) {
+    int s = slot(GETVALUE_FLOAT_TYPE);
+    GETVALUE_float insn = (GETVALUE_float) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_float(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_int GETVALUE_int(int v) {
+    int s = slot(GETVALUE_INT_TYPE);
+    GETVALUE_int insn = (GETVALUE_int) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_int(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_short GETVALUE_short(short v) {
+    int s = slot(GETVALUE_SHORT_TYPE);
+    GETVALUE_short insn = (GETVALUE_short) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_short(v);
+    } else {
+      insn.v = v;
+    }
+    return insn;
+  }
+
+  @Override
+  public GETVALUE_void GETVALUE_void() {
+    int s = slot(GETVALUE_VOID_TYPE);
+    GETVALUE_void insn = (GETVALUE_void) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new GETVALUE_void();
+    }
+    return insn;
+  }
+
+  @Override
+  public INVOKEMETHOD_EXCEPTION INVOKEMETHOD_EXCEPTION() {
+    int s = slot(INVOKEMETHOD_EXCEPTION_TYPE);
+    INVOKEMETHOD_EXCEPTION insn = (INVOKEMETHOD_EXCEPTION) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INVOKEMETHOD_EXCEPTION();
+    }
+    return insn;
+  }
+
+  @Override
+  public INVOKEMETHOD_END INVOKEMETHOD_END() {
+    int s = slot(INVOKEMETHOD_END_TYPE);
+    INVOKEMETHOD_END insn = (INVOKEMETHOD_END) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new INVOKEMETHOD_END();
+    }
+    return insn;
+  }
+
+  @Override
+  public MAKE_SYMBOLIC MAKE_SYMBOLIC() {
+    int s = slot(MAKE_SYMBOLIC_TYPE);
+    MAKE_SYMBOLIC insn = (MAKE_SYMBOLIC) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new MAKE_SYMBOLIC();
+    }
+    return insn;
+  }
+
+  @Override
+  public SPECIAL SPECIAL(int i) {
+    int s = slot(SPECIAL_TYPE);
+    SPECIAL insn = (SPECIAL) slots[s];
+    if (insn == null) {
+      slots[s] = insn = new SPECIAL(i);
+    } else {
+      insn.i = i;
+    }
+    return insn;
+  }
+}
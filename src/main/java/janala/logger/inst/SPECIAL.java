@@ -4,6 +4,15 @@ package janala.logger.inst;
   * The int value identifies which branch does the instruction correspond to. 
   */
 public class SPECIAL extends Instruction {
+  /** After an instruction that did not throw. */
+  public static final int NORMAL_PATH = 0;
+  /** After a branch that was taken. */
+  public static final int TRUE_BRANCH = 1;
+  /** Before a call from a method that is not instrumented (see ColdMethodAdapter). */
+  public static final int OPAQUE_CALL = 2;
+  /** After that call returned or threw. */
+  public static final int OPAQUE_RETURN = 3;
+
   public int i;
 
   public SPECIAL(int i) {
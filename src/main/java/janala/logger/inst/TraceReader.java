@@ -0,0 +1,708 @@
+package janala.logger.inst;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamConstants;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the instructions of a trace one at a time. The format is detected from the first bytes:
+ * a binary trace written by TraceWriter, or a stream of serialized instructions as written by
+ * older versions of FileLogger.
+ */
+public class TraceReader implements Closeable {
+  private final DataInputStream in;
+  private final ObjectInputStream objectIn;
+  private final List<String> strings = new ArrayList<String>();
+  private RecordListener recordListener;
+  private int iid;
+  private int mid;
+
+  /** Receives the THREAD, FREED, CLASS and FIELD records of the trace. */
+  public interface RecordListener {
+    void switchThread(long threadId);
+
+    void freeObjects(int[] ids);
+
+    void defineClass(String className);
+
+    void defineField(int cIdx, String fieldName, boolean isStatic);
+  }
+
+  public TraceReader(InputStream stream) throws IOException {
+    BufferedInputStream buffered = new BufferedInputStream(stream, 1 << 16);
+    buffered.mark(4);
+    DataInputStream data = new DataInputStream(buffered);
+    int magic;
+    try {
+      magic = data.readInt();
+    } catch (EOFException e) {
+      magic = TraceFormat.MAGIC;
+    }
+    if (magic == TraceFormat.MAGIC) {
+      int version = data.read();
+      if (version > TraceFormat.VERSION) {
+        throw new IOException("Unsupported trace version " + version);
+      }
+      in = data;
+      objectIn = null;
+    } else if ((magic >>> 16) == (ObjectStreamConstants.STREAM_MAGIC & 0xFFFF)) {
+      buffered.reset();
+      in = null;
+      objectIn = new ObjectInputStream(buffered);
+    } else {
+      throw new IOException("Not a trace file");
+    }
+  }
+
+  public void setRecordListener(RecordListener recordListener) {
+    this.recordListener = recordListener;
+  }
+
+  /** Returns the next instruction, or null at the end of the trace. */
+  public Instruction read() throws IOException {
+    if (objectIn != null) {
+      try {
+        return (Instruction) objectIn.readObject();
+      } catch (EOFException e) {
+        return null;
+      } catch (ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    }
+    int tag = in.read();
+    while (tag == TraceFormat.THREAD
+        || tag == TraceFormat.FREED
+        || tag == TraceFormat.CLASS
+        || tag == TraceFormat.FIELD) {
+      readRecord(tag);
+      tag = in.read();
+    }
+    if (tag == -1) {
+      return null;
+    }
+    return readInstruction(tag);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (objectIn != null) {
+      objectIn.close();
+    } else {
+      in.close();
+    }
+  }
+
+  private int readVarInt() throws IOException {
+    int v = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.readUnsignedByte();
+      v |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return v;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  private int readInt() throws IOException {
+    int z = readVarInt();
+    return (z >>> 1) ^ -(z & 1);
+  }
+
+  private long readLong() throws IOException {
+    long z = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      int b = in.readUnsignedByte();
+      z |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (z >>> 1) ^ -(z & 1);
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  private int[] readInts() throws IOException {
+    int[] a = new int[readVarInt()];
+    for (int i = 0; i < a.length; i++) {
+      a[i] = readInt();
+    }
+    return a;
+  }
+
+  private String readString() throws IOException {
+    int idx = readVarInt();
+    if (idx == 0) {
+      return null;
+    }
+    if (idx <= strings.size()) {
+      return strings.get(idx - 1);
+    }
+    if (idx != strings.size() + 1) {
+      throw new IOException("Bad string index " + idx);
+    }
+    byte[] bytes = new byte[readVarInt()];
+    in.readFully(bytes);
+    String s = new String(bytes, StandardCharsets.UTF_8);
+    strings.add(s);
+    return s;
+  }
+
+  private void readIidMid() throws IOException {
+    iid += readInt();
+    mid += readInt();
+  }
+
+  private void readRecord(int tag) throws IOException {
+    if (tag == TraceFormat.THREAD) {
+      long threadId = readLong();
+      if (recordListener != null) {
+        recordListener.switchThread(threadId);
+      }
+    } else if (tag == TraceFormat.FREED) {
+      int[] ids = readInts();
+      if (recordListener != null) {
+        recordListener.freeObjects(ids);
+      }
+    } else if (tag == TraceFormat.CLASS) {
+      String className = readString();
+      if (recordListener != null) {
+        recordListener.defineClass(className);
+      }
+    } else {
+      int cIdx = readVarInt();
+      String fieldName = readString();
+      boolean isStatic = in.readBoolean();
+      if (recordListener != null) {
+        recordListener.defineField(cIdx, fieldName, isStatic);
+      }
+    }
+  }
+
+  private Instruction readInstruction(int tag) throws IOException {
+    switch (tag) {
+      case TraceFormat.END:
+        return null;
+      case TraceFormat.AALOAD:
+        readIidMid();
+        return new AALOAD(iid, mid);
+      case TraceFormat.AASTORE:
+        readIidMid();
+        return new AASTORE(iid, mid);
+      case TraceFormat.ACONST_NULL:
+        readIidMid();
+        return new ACONST_NULL(iid, mid);
+      case TraceFormat.ALOAD:
+        readIidMid();
+        return new ALOAD(iid, mid, readInt());
+      case TraceFormat.ANEWARRAY:
+        readIidMid();
+        return new ANEWARRAY(iid, mid, readString());
+      case TraceFormat.ARETURN:
+        readIidMid();
+        return new ARETURN(iid, mid);
+      case TraceFormat.ARRAYLENGTH:
+        readIidMid();
+        return new ARRAYLENGTH(iid, mid);
+      case TraceFormat.ASTORE:
+        readIidMid();
+        return new ASTORE(iid, mid, readInt());
+      case TraceFormat.ATHROW:
+        readIidMid();
+        return new ATHROW(iid, mid);
+      case TraceFormat.BALOAD:
+        readIidMid();
+        return new BALOAD(iid, mid);
+      case TraceFormat.BASTORE:
+        readIidMid();
+        return new BASTORE(iid, mid);
+      case TraceFormat.BIPUSH:
+        readIidMid();
+        return new BIPUSH(iid, mid, readInt());
+      case TraceFormat.CALOAD:
+        readIidMid();
+        return new CALOAD(iid, mid);
+      case TraceFormat.CASTORE:
+        readIidMid();
+        return new CASTORE(iid, mid);
+      case TraceFormat.CHECKCAST:
+        readIidMid();
+        return new CHECKCAST(iid, mid, readString());
+      case TraceFormat.D2F:
+        readIidMid();
+        return new D2F(iid, mid);
+      case TraceFormat.D2I:
+        readIidMid();
+        return new D2I(iid, mid);
+      case TraceFormat.D2L:
+        readIidMid();
+        return new D2L(iid, mid);
+      case TraceFormat.DADD:
+        readIidMid();
+        return new DADD(iid, mid);
+      case TraceFormat.DALOAD:
+        readIidMid();
+        return new DALOAD(iid, mid);
+      case TraceFormat.DASTORE:
+        readIidMid();
+        return new DASTORE(iid, mid);
+      case TraceFormat.DCMPG:
+        readIidMid();
+        return new DCMPG(iid, mid);
+      case TraceFormat.DCMPL:
+        readIidMid();
+        return new DCMPL(iid, mid);
+      case TraceFormat.DCONST_0:
+        readIidMid();
+        return new DCONST_0(iid, mid);
+      case TraceFormat.DCONST_1:
+        readIidMid();
+        return new DCONST_1(iid, mid);
+      case TraceFormat.DDIV:
+        readIidMid();
+        return new DDIV(iid, mid);
+      case TraceFormat.DLOAD:
+        readIidMid();
+        return new DLOAD(iid, mid, readInt());
+      case TraceFormat.DMUL:
+        readIidMid();
+        return new DMUL(iid, mid);
+      case TraceFormat.DNEG:
+        readIidMid();
+        return new DNEG(iid, mid);
+      case TraceFormat.DREM:
+        readIidMid();
+        return new DREM(iid, mid);
+      case TraceFormat.DRETURN:
+        readIidMid();
+        return new DRETURN(iid, mid);
+      case TraceFormat.DSTORE:
+        readIidMid();
+        return new DSTORE(iid, mid, readInt());
+      case TraceFormat.DSUB:
+        readIidMid();
+        return new DSUB(iid, mid);
+      case TraceFormat.DUP:
+        readIidMid();
+        return new DUP(iid, mid);
+      case TraceFormat.DUP2:
+        readIidMid();
+        return new DUP2(iid, mid);
+      case TraceFormat.DUP2_X1:
+        readIidMid();
+        return new DUP2_X1(iid, mid);
+      case TraceFormat.DUP2_X2:
+        readIidMid();
+        return new DUP2_X2(iid, mid);
+      case TraceFormat.DUP_X1:
+        readIidMid();
+        return new DUP_X1(iid, mid);
+      case TraceFormat.DUP_X2:
+        readIidMid();
+        return new DUP_X2(iid, mid);
+      case TraceFormat.F2D:
+        readIidMid();
+        return new F2D(iid, mid);
+      case TraceFormat.F2I:
+        readIidMid();
+        return new F2I(iid, mid);
+      case TraceFormat.F2L:
+        readIidMid();
+        return new F2L(iid, mid);
+      case TraceFormat.FADD:
+        readIidMid();
+        return new FADD(iid, mid);
+      case TraceFormat.FALOAD:
+        readIidMid();
+        return new FALOAD(iid, mid);
+      case TraceFormat.FASTORE:
+        readIidMid();
+        return new FASTORE(iid, mid);
+      case TraceFormat.FCMPG:
+        readIidMid();
+        return new FCMPG(iid, mid);
+      case TraceFormat.FCMPL:
+        readIidMid();
+        return new FCMPL(iid, mid);
+      case TraceFormat.FCONST_0:
+        readIidMid();
+        return new FCONST_0(iid, mid);
+      case TraceFormat.FCONST_1:
+        readIidMid();
+        return new FCONST_1(iid, mid);
+      case TraceFormat.FCONST_2:
+        readIidMid();
+        return new FCONST_2(iid, mid);
+      case TraceFormat.FDIV:
+        readIidMid();
+        return new FDIV(iid, mid);
+      case TraceFormat.FLOAD:
+        readIidMid();
+        return new FLOAD(iid, mid, readInt());
+      case TraceFormat.FMUL:
+        readIidMid();
+        return new FMUL(iid, mid);
+      case TraceFormat.FNEG:
+        readIidMid();
+        return new FNEG(iid, mid);
+      case TraceFormat.FREM:
+        readIidMid();
+        return new FREM(iid, mid);
+      case TraceFormat.FRETURN:
+        readIidMid();
+        return new FRETURN(iid, mid);
+      case TraceFormat.FSTORE:
+        readIidMid();
+        return new FSTORE(iid, mid, readInt());
+      case TraceFormat.FSUB:
+        readIidMid();
+        return new FSUB(iid, mid);
+      case TraceFormat.GETFIELD:
+        readIidMid();
+        return new GETFIELD(iid, mid, readInt(), readInt(), readString());
+      case TraceFormat.GETSTATIC:
+        readIidMid();
+        return new GETSTATIC(iid, mid, readInt(), readInt(), readString());
+      case TraceFormat.GETVALUE_Object:
+        return new GETVALUE_Object(readInt(), readString(), in.readBoolean());
+      case TraceFormat.GETVALUE_boolean:
+        return new GETVALUE_boolean(in.readBoolean());
+      case TraceFormat.GETVALUE_byte:
+        return new GETVALUE_byte((byte) readInt());
+      case TraceFormat.GETVALUE_char:
+        return new GETVALUE_char((char) readVarInt());
+      case TraceFormat.GETVALUE_double:
+        return new GETVALUE_double(in.readDouble());
+      case TraceFormat.GETVALUE_float:
+        return new GETVALUE_float(in.readFloat());
+      case TraceFormat.GETVALUE_int:
+        return new GETVALUE_int(readInt());
+      case TraceFormat.GETVALUE_long:
+        return new GETVALUE_long(readLong());
+      case TraceFormat.GETVALUE_short:
+        return new GETVALUE_short((short) readInt());
+      case TraceFormat.GETVALUE_void:
+        return new GETVALUE_void();
+      case TraceFormat.GOTO:
+        readIidMid();
+        return new GOTO(iid, mid, readInt());
+      case TraceFormat.I2B:
+        readIidMid();
+        return new I2B(iid, mid);
+      case TraceFormat.I2C:
+        readIidMid();
+        return new I2C(iid, mid);
+      case TraceFormat.I2D:
+        readIidMid();
+        return new I2D(iid, mid);
+      case TraceFormat.I2F:
+        readIidMid();
+        return new I2F(iid, mid);
+      case TraceFormat.I2L:
+        readIidMid();
+        return new I2L(iid, mid);
+      case TraceFormat.I2S:
+        readIidMid();
+        return new I2S(iid, mid);
+      case TraceFormat.IADD:
+        readIidMid();
+        return new IADD(iid, mid);
+      case TraceFormat.IALOAD:
+        readIidMid();
+        return new IALOAD(iid, mid);
+      case TraceFormat.IAND:
+        readIidMid();
+        return new IAND(iid, mid);
+      case TraceFormat.IASTORE:
+        readIidMid();
+        return new IASTORE(iid, mid);
+      case TraceFormat.ICONST_0:
+        readIidMid();
+        return new ICONST_0(iid, mid);
+      case TraceFormat.ICONST_1:
+        readIidMid();
+        return new ICONST_1(iid, mid);
+      case TraceFormat.ICONST_2:
+        readIidMid();
+        return new ICONST_2(iid, mid);
+      case TraceFormat.ICONST_3:
+        readIidMid();
+        return new ICONST_3(iid, mid);
+      case TraceFormat.ICONST_4:
+        readIidMid();
+        return new ICONST_4(iid, mid);
+      case TraceFormat.ICONST_5:
+        readIidMid();
+        return new ICONST_5(iid, mid);
+      case TraceFormat.ICONST_M1:
+        readIidMid();
+        return new ICONST_M1(iid, mid);
+      case TraceFormat.IDIV:
+        readIidMid();
+        return new IDIV(iid, mid);
+      case TraceFormat.IFEQ:
+        readIidMid();
+        return new IFEQ(iid, mid, readInt());
+      case TraceFormat.IFGE:
+        readIidMid();
+        return new IFGE(iid, mid, readInt());
+      case TraceFormat.IFGT:
+        readIidMid();
+        return new IFGT(iid, mid, readInt());
+      case TraceFormat.IFLE:
+        readIidMid();
+        return new IFLE(iid, mid, readInt());
+      case TraceFormat.IFLT:
+        readIidMid();
+        return new IFLT(iid, mid, readInt());
+      case TraceFormat.IFNE:
+        readIidMid();
+        return new IFNE(iid, mid, readInt());
+      case TraceFormat.IFNONNULL:
+        readIidMid();
+        return new IFNONNULL(iid, mid, readInt());
+      case TraceFormat.IFNULL:
+        readIidMid();
+        return new IFNULL(iid, mid, readInt());
+      case TraceFormat.IF_ACMPEQ:
+        readIidMid();
+        return new IF_ACMPEQ(iid, mid, readInt());
+      case TraceFormat.IF_ACMPNE:
+        readIidMid();
+        return new IF_ACMPNE(iid, mid, readInt());
+      case TraceFormat.IF_ICMPEQ:
+        readIidMid();
+        return new IF_ICMPEQ(iid, mid, readInt());
+      case TraceFormat.IF_ICMPGE:
+        readIidMid();
+        return new IF_ICMPGE(iid, mid, readInt());
+      case TraceFormat.IF_ICMPGT:
+        readIidMid();
+        return new IF_ICMPGT(iid, mid, readInt());
+      case TraceFormat.IF_ICMPLE:
+        readIidMid();
+        return new IF_ICMPLE(iid, mid, readInt());
+      case TraceFormat.IF_ICMPLT:
+        readIidMid();
+        return new IF_ICMPLT(iid, mid, readInt());
+      case TraceFormat.IF_ICMPNE:
+        readIidMid();
+        return new IF_ICMPNE(iid, mid, readInt());
+      case TraceFormat.IINC:
+        readIidMid();
+        return new IINC(iid, mid, readInt(), readInt());
+      case TraceFormat.ILOAD:
+        readIidMid();
+        return new ILOAD(iid, mid, readInt());
+      case TraceFormat.IMUL:
+        readIidMid();
+        return new IMUL(iid, mid);
+      case TraceFormat.INEG:
+        readIidMid();
+        return new INEG(iid, mid);
+      case TraceFormat.INSTANCEOF:
+        readIidMid();
+        return new INSTANCEOF(iid, mid, readString());
+      case TraceFormat.INVOKEINTERFACE:
+        readIidMid();
+        return new INVOKEINTERFACE(iid, mid, readString(), readString(), readString());
+      case TraceFormat.INVOKEMETHOD_END:
+        return new INVOKEMETHOD_END();
+      case TraceFormat.INVOKEMETHOD_EXCEPTION:
+        return new INVOKEMETHOD_EXCEPTION();
+      case TraceFormat.INVOKESPECIAL:
+        readIidMid();
+        return new INVOKESPECIAL(iid, mid, readString(), readString(), readString());
+      case TraceFormat.INVOKESTATIC:
+        readIidMid();
+        return new INVOKESTATIC(iid, mid, readString(), readString(), readString());
+      case TraceFormat.INVOKEVIRTUAL:
+        readIidMid();
+        return new INVOKEVIRTUAL(iid, mid, readString(), readString(), readString());
+      case TraceFormat.IOR:
+        readIidMid();
+        return new IOR(iid, mid);
+      case TraceFormat.IREM:
+        readIidMid();
+        return new IREM(iid, mid);
+      case TraceFormat.IRETURN:
+        readIidMid();
+        return new IRETURN(iid, mid);
+      case TraceFormat.ISHL:
+        readIidMid();
+        return new ISHL(iid, mid);
+      case TraceFormat.ISHR:
+        readIidMid();
+        return new ISHR(iid, mid);
+      case TraceFormat.ISTORE:
+        readIidMid();
+        return new ISTORE(iid, mid, readInt());
+      case TraceFormat.ISUB:
+        readIidMid();
+        return new ISUB(iid, mid);
+      case TraceFormat.IUSHR:
+        readIidMid();
+        return new IUSHR(iid, mid);
+      case TraceFormat.IXOR:
+        readIidMid();
+        return new IXOR(iid, mid);
+      case TraceFormat.JSR:
+        readIidMid();
+        return new JSR(iid, mid, readInt());
+      case TraceFormat.L2D:
+        readIidMid();
+        return new L2D(iid, mid);
+      case TraceFormat.L2F:
+        readIidMid();
+        return new L2F(iid, mid);
+      case TraceFormat.L2I:
+        readIidMid();
+        return new L2I(iid, mid);
+      case TraceFormat.LADD:
+        readIidMid();
+        return new LADD(iid, mid);
+      case TraceFormat.LALOAD:
+        readIidMid();
+        return new LALOAD(iid, mid);
+      case TraceFormat.LAND:
+        readIidMid();
+        return new LAND(iid, mid);
+      case TraceFormat.LASTORE:
+        readIidMid();
+        return new LASTORE(iid, mid);
+      case TraceFormat.LCMP:
+        readIidMid();
+        return new LCMP(iid, mid);
+      case TraceFormat.LCONST_0:
+        readIidMid();
+        return new LCONST_0(iid, mid);
+      case TraceFormat.LCONST_1:
+        readIidMid();
+        return new LCONST_1(iid, mid);
+      case TraceFormat.LDC_Object:
+        readIidMid();
+        return new LDC_Object(iid, mid, readInt());
+      case TraceFormat.LDC_String:
+        readIidMid();
+        return new LDC_String(iid, mid, readString(), readInt());
+      case TraceFormat.LDC_double:
+        readIidMid();
+        return new LDC_double(iid, mid, in.readDouble());
+      case TraceFormat.LDC_float:
+        readIidMid();
+        return new LDC_float(iid, mid, in.readFloat());
+      case TraceFormat.LDC_int:
+        readIidMid();
+        return new LDC_int(iid, mid, readInt());
+      case TraceFormat.LDC_long:
+        readIidMid();
+        return new LDC_long(iid, mid, readLong());
+      case TraceFormat.LDIV:
+        readIidMid();
+        return new LDIV(iid, mid);
+      case TraceFormat.LLOAD:
+        readIidMid();
+        return new LLOAD(iid, mid, readInt());
+      case TraceFormat.LMUL:
+        readIidMid();
+        return new LMUL(iid, mid);
+      case TraceFormat.LNEG:
+        readIidMid();
+        return new LNEG(iid, mid);
+      case TraceFormat.LOOKUPSWITCH:
+        readIidMid();
+        return new LOOKUPSWITCH(iid, mid, readInt(), readInts(), readInts());
+      case TraceFormat.LOR:
+        readIidMid();
+        return new LOR(iid, mid);
+      case TraceFormat.LREM:
+        readIidMid();
+        return new LREM(iid, mid);
+      case TraceFormat.LRETURN:
+        readIidMid();
+        return new LRETURN(iid, mid);
+      case TraceFormat.LSHL:
+        readIidMid();
+        return new LSHL(iid, mid);
+      case TraceFormat.LSHR:
+        readIidMid();
+        return new LSHR(iid, mid);
+      case TraceFormat.LSTORE:
+        readIidMid();
+        return new LSTORE(iid, mid, readInt());
+      case TraceFormat.LSUB:
+        readIidMid();
+        return new LSUB(iid, mid);
+      case TraceFormat.LUSHR:
+        readIidMid();
+        return new LUSHR(iid, mid);
+      case TraceFormat.LXOR:
+        readIidMid();
+        return new LXOR(iid, mid);
+      case TraceFormat.MAKE_SYMBOLIC:
+        return new MAKE_SYMBOLIC();
+      case TraceFormat.MONITORENTER:
+        readIidMid();
+        return new MONITORENTER(iid, mid);
+      case TraceFormat.MONITOREXIT:
+        readIidMid();
+        return new MONITOREXIT(iid, mid);
+      case TraceFormat.MULTIANEWARRAY:
+        readIidMid();
+        return new MULTIANEWARRAY(iid, mid, readString(), readInt());
+      case TraceFormat.NEW:
+        readIidMid();
+        return new NEW(iid, mid, readString(), readInt());
+      case TraceFormat.NEWARRAY:
+        readIidMid();
+        return new NEWARRAY(iid, mid);
+      case TraceFormat.NOP:
+        readIidMid();
+        return new NOP(iid, mid);
+      case TraceFormat.POP:
+        readIidMid();
+        return new POP(iid, mid);
+      case TraceFormat.POP2:
+        readIidMid();
+        return new POP2(iid, mid);
+      case TraceFormat.PUTFIELD:
+        readIidMid();
+        return new PUTFIELD(iid, mid, readInt(), readInt(), readString());
+      case TraceFormat.PUTSTATIC:
+        readIidMid();
+        return new PUTSTATIC(iid, mid, readInt(), readInt(), readString());
+      case TraceFormat.RET:
+        readIidMid();
+        return new RET(iid, mid, readInt());
+      case TraceFormat.RETURN:
+        readIidMid();
+        return new RETURN(iid, mid);
+      case TraceFormat.SALOAD:
+        readIidMid();
+        return new SALOAD(iid, mid);
+      case TraceFormat.SASTORE:
+        readIidMid();
+        return new SASTORE(iid, mid);
+      case TraceFormat.SIPUSH:
+        readIidMid();
+        return new SIPUSH(iid, mid, readInt());
+      case TraceFormat.SPECIAL:
+        return new SPECIAL(readInt());
+      case TraceFormat.SWAP:
+        readIidMid();
+        return new SWAP(iid, mid);
+      case TraceFormat.TABLESWITCH:
+        readIidMid();
+        return new TABLESWITCH(iid, mid, readInt(), readInt(), readInt(), readInts());
+      default:
+        throw new IOException("Unknown instruction tag " + tag);
+    }
+  }
+}
@@ -0,0 +1,1119 @@
+package janala.logger.inst;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes instructions in the binary format described in TraceFormat. The instructions are
+ * encoded into a buffer that is written to the stream once it holds FLUSH_SIZE bytes.
+ */
+public class TraceWriter implements IVisitor, Closeable {
+  private static final int FLUSH_SIZE = 1 << 16;
+
+  private final OutputStream out;
+  private final Map<String, Integer> strings = new HashMap<String, Integer>();
+  private byte[] buf = new byte[2 * FLUSH_SIZE];
+  private int pos;
+  private int lastIid;
+  private int lastMid;
+
+  public TraceWriter(OutputStream out) {
+    this.out = out;
+    writeFixedInt(TraceFormat.MAGIC);
+    writeByte(TraceFormat.VERSION);
+  }
+
+  /** Write an instruction. A null instruction ends the trace, as it does for readObject. */
+  public void write(Instruction insn) throws IOException {
+    if (insn == null) {
+      writeByte(TraceFormat.END);
+      flush();
+      return;
+    }
+    insn.visit(this);
+    if (pos >= FLUSH_SIZE) {
+      out.write(buf, 0, pos);
+      pos = 0;
+    }
+  }
+
+  /** The following instructions are executed by the thread with the given id. */
+  public void writeThread(long threadId) {
+    writeByte(TraceFormat.THREAD);
+    writeLong(threadId);
+  }
+
+  /** The objects with the given ids were collected. */
+  public void writeFreed(int[] ids) {
+    writeByte(TraceFormat.FREED);
+    writeInts(ids);
+  }
+
+  /** Define the next class index of ClassNames. */
+  public void writeClass(String className) {
+    writeByte(TraceFormat.CLASS);
+    writeString(className);
+  }
+
+  /** Define the next field index of the class with index cIdx. */
+  public void writeField(int cIdx, String fieldName, boolean isStatic) {
+    writeByte(TraceFormat.FIELD);
+    writeVarInt(cIdx);
+    writeString(fieldName);
+    writeByte(isStatic ? 1 : 0);
+  }
+
+  public void flush() throws IOException {
+    out.write(buf, 0, pos);
+    pos = 0;
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writeByte(TraceFormat.END);
+    flush();
+    out.close();
+  }
+
+  private void ensure(int n) {
+    if (pos + n > buf.length) {
+      byte[] tmp = new byte[Math.max(2 * buf.length, pos + n)];
+      System.arraycopy(buf, 0, tmp, 0, pos);
+      buf = tmp;
+    }
+  }
+
+  private void writeByte(int v) {
+    ensure(1);
+    buf[pos++] = (byte) v;
+  }
+
+  private void writeVarInt(int v) {
+    ensure(5);
+    while ((v & ~0x7F) != 0) {
+      buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    buf[pos++] = (byte) v;
+  }
+
+  private void writeInt(int v) {
+    writeVarInt((v << 1) ^ (v >> 31));
+  }
+
+  private void writeLong(long v) {
+    ensure(10);
+    long z = (v << 1) ^ (v >> 63);
+    while ((z & ~0x7FL) != 0) {
+      buf[pos++] = (byte) ((z & 0x7F) | 0x80);
+      z >>>= 7;
+    }
+    buf[pos++] = (byte) z;
+  }
+
+  /** Big endian, as read by DataInputStream.readInt and readFloat. */
+  private void writeFixedInt(int v) {
+    ensure(4);
+    buf[pos++] = (byte) (v >>> 24);
+    buf[pos++] = (byte) (v >>> 16);
+    buf[pos++] = (byte) (v >>> 8);
+    buf[pos++] = (byte) v;
+  }
+
+  private void writeFixedLong(long v) {
+    writeFixedInt((int) (v >>> 32));
+    writeFixedInt((int) v);
+  }
+
+  private void writeInts(int[] a) {
+    writeVarInt(a.length);
+    for (int v : a) {
+      writeInt(v);
+    }
+  }
+
+  private void writeString(String s) {
+    if (s == null) {
+      writeVarInt(0);
+      return;
+    }
+    Integer idx = strings.get(s);
+    if (idx != null) {
+      writeVarInt(idx);
+      return;
+    }
+    idx = strings.size() + 1;
+    strings.put(s, idx);
+    writeVarInt(idx);
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length);
+    ensure(bytes.length);
+    System.arraycopy(bytes, 0, buf, pos, bytes.length);
+    pos += bytes.length;
+  }
+
+  private void writeIidMid(Instruction inst) {
+    writeInt(inst.iid - lastIid);
+    writeInt(inst.mid - lastMid);
+    lastIid = inst.iid;
+    lastMid = inst.mid;
+  }
+
+  public void setNext(Instruction next) {}
+
+  public void visitAALOAD(AALOAD inst) {
+    writeByte(TraceFormat.AALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitAASTORE(AASTORE inst) {
+    writeByte(TraceFormat.AASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitACONST_NULL(ACONST_NULL inst) {
+    writeByte(TraceFormat.ACONST_NULL);
+    writeIidMid(inst);
+  }
+
+  public void visitALOAD(ALOAD inst) {
+    writeByte(TraceFormat.ALOAD);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitANEWARRAY(ANEWARRAY inst) {
+    writeByte(TraceFormat.ANEWARRAY);
+    writeIidMid(inst);
+    writeString(inst.type);
+  }
+
+  public void visitARETURN(ARETURN inst) {
+    writeByte(TraceFormat.ARETURN);
+    writeIidMid(inst);
+  }
+
+  public void visitARRAYLENGTH(ARRAYLENGTH inst) {
+    writeByte(TraceFormat.ARRAYLENGTH);
+    writeIidMid(inst);
+  }
+
+  public void visitASTORE(ASTORE inst) {
+    writeByte(TraceFormat.ASTORE);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitATHROW(ATHROW inst) {
+    writeByte(TraceFormat.ATHROW);
+    writeIidMid(inst);
+  }
+
+  public void visitBALOAD(BALOAD inst) {
+    writeByte(TraceFormat.BALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitBASTORE(BASTORE inst) {
+    writeByte(TraceFormat.BASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitBIPUSH(BIPUSH inst) {
+    writeByte(TraceFormat.BIPUSH);
+    writeIidMid(inst);
+    writeInt(inst.value);
+  }
+
+  public void visitCALOAD(CALOAD inst) {
+    writeByte(TraceFormat.CALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitCASTORE(CASTORE inst) {
+    writeByte(TraceFormat.CASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitCHECKCAST(CHECKCAST inst) {
+    writeByte(TraceFormat.CHECKCAST);
+    writeIidMid(inst);
+    writeString(inst.type);
+  }
+
+  public void visitD2F(D2F inst) {
+    writeByte(TraceFormat.D2F);
+    writeIidMid(inst);
+  }
+
+  public void visitD2I(D2I inst) {
+    writeByte(TraceFormat.D2I);
+    writeIidMid(inst);
+  }
+
+  public void visitD2L(D2L inst) {
+    writeByte(TraceFormat.D2L);
+    writeIidMid(inst);
+  }
+
+  public void visitDADD(DADD inst) {
+    writeByte(TraceFormat.DADD);
+    writeIidMid(inst);
+  }
+
+  public void visitDALOAD(DALOAD inst) {
+    writeByte(TraceFormat.DALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitDASTORE(DASTORE inst) {
+    writeByte(TraceFormat.DASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitDCMPG(DCMPG inst) {
+    writeByte(TraceFormat.DCMPG);
+    writeIidMid(inst);
+  }
+
+  public void visitDCMPL(DCMPL inst) {
+    writeByte(TraceFormat.DCMPL);
+    writeIidMid(inst);
+  }
+
+  public void visitDCONST_0(DCONST_0 inst) {
+    writeByte(TraceFormat.DCONST_0);
+    writeIidMid(inst);
+  }
+
+  public void visitDCONST_1(DCONST_1 inst) {
+    writeByte(TraceFormat.DCONST_1);
+    writeIidMid(inst);
+  }
+
+  public void visitDDIV(DDIV inst) {
+    writeByte(TraceFormat.DDIV);
+    writeIidMid(inst);
+  }
+
+  public void visitDLOAD(DLOAD inst) {
+    writeByte(TraceFormat.DLOAD);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitDMUL(DMUL inst) {
+    writeByte(TraceFormat.DMUL);
+    writeIidMid(inst);
+  }
+
+  public void visitDNEG(DNEG inst) {
+    writeByte(TraceFormat.DNEG);
+    writeIidMid(inst);
+  }
+
+  public void visitDREM(DREM inst) {
+    writeByte(TraceFormat.DREM);
+    writeIidMid(inst);
+  }
+
+  public void visitDRETURN(DRETURN inst) {
+    writeByte(TraceFormat.DRETURN);
+    writeIidMid(inst);
+  }
+
+  public void visitDSTORE(DSTORE inst) {
+    writeByte(TraceFormat.DSTORE);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitDSUB(DSUB inst) {
+    writeByte(TraceFormat.DSUB);
+    writeIidMid(inst);
+  }
+
+  public void visitDUP(DUP inst) {
+    writeByte(TraceFormat.DUP);
+    writeIidMid(inst);
+  }
+
+  public void visitDUP2(DUP2 inst) {
+    writeByte(TraceFormat.DUP2);
+    writeIidMid(inst);
+  }
+
+  public void visitDUP2_X1(DUP2_X1 inst) {
+    writeByte(TraceFormat.DUP2_X1);
+    writeIidMid(inst);
+  }
+
+  public void visitDUP2_X2(DUP2_X2 inst) {
+    writeByte(TraceFormat.DUP2_X2);
+    writeIidMid(inst);
+  }
+
+  public void visitDUP_X1(DUP_X1 inst) {
+    writeByte(TraceFormat.DUP_X1);
+    writeIidMid(inst);
+  }
+
+  public void visitDUP_X2(DUP_X2 inst) {
+    writeByte(TraceFormat.DUP_X2);
+    writeIidMid(inst);
+  }
+
+  public void visitF2D(F2D inst) {
+    writeByte(TraceFormat.F2D);
+    writeIidMid(inst);
+  }
+
+  public void visitF2I(F2I inst) {
+    writeByte(TraceFormat.F2I);
+    writeIidMid(inst);
+  }
+
+  public void visitF2L(F2L inst) {
+    writeByte(TraceFormat.F2L);
+    writeIidMid(inst);
+  }
+
+  public void visitFADD(FADD inst) {
+    writeByte(TraceFormat.FADD);
+    writeIidMid(inst);
+  }
+
+  public void visitFALOAD(FALOAD inst) {
+    writeByte(TraceFormat.FALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitFASTORE(FASTORE inst) {
+    writeByte(TraceFormat.FASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitFCMPG(FCMPG inst) {
+    writeByte(TraceFormat.FCMPG);
+    writeIidMid(inst);
+  }
+
+  public void visitFCMPL(FCMPL inst) {
+    writeByte(TraceFormat.FCMPL);
+    writeIidMid(inst);
+  }
+
+  public void visitFCONST_0(FCONST_0 inst) {
+    writeByte(TraceFormat.FCONST_0);
+    writeIidMid(inst);
+  }
+
+  public void visitFCONST_1(FCONST_1 inst) {
+    writeByte(TraceFormat.FCONST_1);
+    writeIidMid(inst);
+  }
+
+  public void visitFCONST_2(FCONST_2 inst) {
+    writeByte(TraceFormat.FCONST_2);
+    writeIidMid(inst);
+  }
+
+  public void visitFDIV(FDIV inst) {
+    writeByte(TraceFormat.FDIV);
+    writeIidMid(inst);
+  }
+
+  public void visitFLOAD(FLOAD inst) {
+    writeByte(TraceFormat.FLOAD);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitFMUL(FMUL inst) {
+    writeByte(TraceFormat.FMUL);
+    writeIidMid(inst);
+  }
+
+  public void visitFNEG(FNEG inst) {
+    writeByte(TraceFormat.FNEG);
+    writeIidMid(inst);
+  }
+
+  public void visitFREM(FREM inst) {
+    writeByte(TraceFormat.FREM);
+    writeIidMid(inst);
+  }
+
+  public void visitFRETURN(FRETURN inst) {
+    writeByte(TraceFormat.FRETURN);
+    writeIidMid(inst);
+  }
+
+  public void visitFSTORE(FSTORE inst) {
+    writeByte(TraceFormat.FSTORE);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitFSUB(FSUB inst) {
+    writeByte(TraceFormat.FSUB);
+    writeIidMid(inst);
+  }
+
+  public void visitGETFIELD(GETFIELD inst) {
+    writeByte(TraceFormat.GETFIELD);
+    writeIidMid(inst);
+    writeInt(inst.cIdx);
+    writeInt(inst.fIdx);
+    writeString(inst.desc);
+  }
+
+  public void visitGETSTATIC(GETSTATIC inst) {
+    writeByte(TraceFormat.GETSTATIC);
+    writeIidMid(inst);
+    writeInt(inst.cIdx);
+    writeInt(inst.fIdx);
+    writeString(inst.desc);
+  }
+
+  public void visitGETVALUE_Object(GETVALUE_Object inst) {
+    writeByte(TraceFormat.GETVALUE_Object);
+    writeInt(inst.v);
+    writeString(inst.string);
+    writeByte(inst.isString ? 1 : 0);
+  }
+
+  public void visitGETVALUE_boolean(GETVALUE_boolean inst) {
+    writeByte(TraceFormat.GETVALUE_boolean);
+    writeByte(inst.v ? 1 : 0);
+  }
+
+  public void visitGETVALUE_byte(GETVALUE_byte inst) {
+    writeByte(TraceFormat.GETVALUE_byte);
+    writeInt(inst.v);
+  }
+
+  public void visitGETVALUE_char(GETVALUE_char inst) {
+    writeByte(TraceFormat.GETVALUE_char);
+    writeVarInt(inst.v);
+  }
+
+  public void visitGETVALUE_double(GETVALUE_double inst) {
+    writeByte(TraceFormat.GETVALUE_double);
+    writeFixedLong(Double.doubleToRawLongBits(inst.v));
+  }
+
+  public void visitGETVALUE_float(GETVALUE_float inst) {
+    writeByte(TraceFormat.GETVALUE_float);
+    writeFixedInt(Float.floatToRawIntBits(inst.v));
+  }
+
+  public void visitGETVALUE_int(GETVALUE_int inst) {
+    writeByte(TraceFormat.GETVALUE_int);
+    writeInt(inst.v);
+  }
+
+  public void visitGETVALUE_long(GETVALUE_long inst) {
+    writeByte(TraceFormat.GETVALUE_long);
+    writeLong(inst.v);
+  }
+
+  public void visitGETVALUE_short(GETVALUE_short inst) {
+    writeByte(TraceFormat.GETVALUE_short);
+    writeInt(inst.v);
+  }
+
+  public void visitGETVALUE_void(GETVALUE_void inst) {
+    writeByte(TraceFormat.GETVALUE_void);
+  }
+
+  public void visitGOTO(GOTO inst) {
+    writeByte(TraceFormat.GOTO);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitI2B(I2B inst) {
+    writeByte(TraceFormat.I2B);
+    writeIidMid(inst);
+  }
+
+  public void visitI2C(I2C inst) {
+    writeByte(TraceFormat.I2C);
+    writeIidMid(inst);
+  }
+
+  public void visitI2D(I2D inst) {
+    writeByte(TraceFormat.I2D);
+    writeIidMid(inst);
+  }
+
+  public void visitI2F(I2F inst) {
+    writeByte(TraceFormat.I2F);
+    writeIidMid(inst);
+  }
+
+  public void visitI2L(I2L inst) {
+    writeByte(TraceFormat.I2L);
+    writeIidMid(inst);
+  }
+
+  public void visitI2S(I2S inst) {
+    writeByte(TraceFormat.I2S);
+    writeIidMid(inst);
+  }
+
+  public void visitIADD(IADD inst) {
+    writeByte(TraceFormat.IADD);
+    writeIidMid(inst);
+  }
+
+  public void visitIALOAD(IALOAD inst) {
+    writeByte(TraceFormat.IALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitIAND(IAND inst) {
+    writeByte(TraceFormat.IAND);
+    writeIidMid(inst);
+  }
+
+  public void visitIASTORE(IASTORE inst) {
+    writeByte(TraceFormat.IASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitICONST_0(ICONST_0 inst) {
+    writeByte(TraceFormat.ICONST_0);
+    writeIidMid(inst);
+  }
+
+  public void visitICONST_1(ICONST_1 inst) {
+    writeByte(TraceFormat.ICONST_1);
+    writeIidMid(inst);
+  }
+
+  public void visitICONST_2(ICONST_2 inst) {
+    writeByte(TraceFormat.ICONST_2);
+    writeIidMid(inst);
+  }
+
+  public void visitICONST_3(ICONST_3 inst) {
+    writeByte(TraceFormat.ICONST_3);
+    writeIidMid(inst);
+  }
+
+  public void visitICONST_4(ICONST_4 inst) {
+    writeByte(TraceFormat.ICONST_4);
+    writeIidMid(inst);
+  }
+
+  public void visitICONST_5(ICONST_5 inst) {
+    writeByte(TraceFormat.ICONST_5);
+    writeIidMid(inst);
+  }
+
+  public void visitICONST_M1(ICONST_M1 inst) {
+    writeByte(TraceFormat.ICONST_M1);
+    writeIidMid(inst);
+  }
+
+  public void visitIDIV(IDIV inst) {
+    writeByte(TraceFormat.IDIV);
+    writeIidMid(inst);
+  }
+
+  public void visitIFEQ(IFEQ inst) {
+    writeByte(TraceFormat.IFEQ);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIFGE(IFGE inst) {
+    writeByte(TraceFormat.IFGE);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIFGT(IFGT inst) {
+    writeByte(TraceFormat.IFGT);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIFLE(IFLE inst) {
+    writeByte(TraceFormat.IFLE);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIFLT(IFLT inst) {
+    writeByte(TraceFormat.IFLT);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIFNE(IFNE inst) {
+    writeByte(TraceFormat.IFNE);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIFNONNULL(IFNONNULL inst) {
+    writeByte(TraceFormat.IFNONNULL);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIFNULL(IFNULL inst) {
+    writeByte(TraceFormat.IFNULL);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ACMPEQ(IF_ACMPEQ inst) {
+    writeByte(TraceFormat.IF_ACMPEQ);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ACMPNE(IF_ACMPNE inst) {
+    writeByte(TraceFormat.IF_ACMPNE);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ICMPEQ(IF_ICMPEQ inst) {
+    writeByte(TraceFormat.IF_ICMPEQ);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ICMPGE(IF_ICMPGE inst) {
+    writeByte(TraceFormat.IF_ICMPGE);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ICMPGT(IF_ICMPGT inst) {
+    writeByte(TraceFormat.IF_ICMPGT);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ICMPLE(IF_ICMPLE inst) {
+    writeByte(TraceFormat.IF_ICMPLE);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ICMPLT(IF_ICMPLT inst) {
+    writeByte(TraceFormat.IF_ICMPLT);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIF_ICMPNE(IF_ICMPNE inst) {
+    writeByte(TraceFormat.IF_ICMPNE);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitIINC(IINC inst) {
+    writeByte(TraceFormat.IINC);
+    writeIidMid(inst);
+    writeInt(inst.var);
+    writeInt(inst.increment);
+  }
+
+  public void visitILOAD(ILOAD inst) {
+    writeByte(TraceFormat.ILOAD);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitIMUL(IMUL inst) {
+    writeByte(TraceFormat.IMUL);
+    writeIidMid(inst);
+  }
+
+  public void visitINEG(INEG inst) {
+    writeByte(TraceFormat.INEG);
+    writeIidMid(inst);
+  }
+
+  public void visitINSTANCEOF(INSTANCEOF inst) {
+    writeByte(TraceFormat.INSTANCEOF);
+    writeIidMid(inst);
+    writeString(inst.type);
+  }
+
+  public void visitINVOKEINTERFACE(INVOKEINTERFACE inst) {
+    writeByte(TraceFormat.INVOKEINTERFACE);
+    writeIidMid(inst);
+    writeString(inst.owner);
+    writeString(inst.name);
+    writeString(inst.desc);
+  }
+
+  public void visitINVOKEMETHOD_END(INVOKEMETHOD_END inst) {
+    writeByte(TraceFormat.INVOKEMETHOD_END);
+  }
+
+  public void visitINVOKEMETHOD_EXCEPTION(INVOKEMETHOD_EXCEPTION inst) {
+    writeByte(TraceFormat.INVOKEMETHOD_EXCEPTION);
+  }
+
+  public void visitINVOKESPECIAL(INVOKESPECIAL inst) {
+    writeByte(TraceFormat.INVOKESPECIAL);
+    writeIidMid(inst);
+    writeString(inst.owner);
+    writeString(inst.name);
+    writeString(inst.desc);
+  }
+
+  public void visitINVOKESTATIC(INVOKESTATIC inst) {
+    writeByte(TraceFormat.INVOKESTATIC);
+    writeIidMid(inst);
+    writeString(inst.owner);
+    writeString(inst.name);
+    writeString(inst.desc);
+  }
+
+  public void visitINVOKEVIRTUAL(INVOKEVIRTUAL inst) {
+    writeByte(TraceFormat.INVOKEVIRTUAL);
+    writeIidMid(inst);
+    writeString(inst.owner);
+    writeString(inst.name);
+    writeString(inst.desc);
+  }
+
+  public void visitIOR(IOR inst) {
+    writeByte(TraceFormat.IOR);
+    writeIidMid(inst);
+  }
+
+  public void visitIREM(IREM inst) {
+    writeByte(TraceFormat.IREM);
+    writeIidMid(inst);
+  }
+
+  public void visitIRETURN(IRETURN inst) {
+    writeByte(TraceFormat.IRETURN);
+    writeIidMid(inst);
+  }
+
+  public void visitISHL(ISHL inst) {
+    writeByte(TraceFormat.ISHL);
+    writeIidMid(inst);
+  }
+
+  public void visitISHR(ISHR inst) {
+    writeByte(TraceFormat.ISHR);
+    writeIidMid(inst);
+  }
+
+  public void visitISTORE(ISTORE inst) {
+    writeByte(TraceFormat.ISTORE);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitISUB(ISUB inst) {
+    writeByte(TraceFormat.ISUB);
+    writeIidMid(inst);
+  }
+
+  public void visitIUSHR(IUSHR inst) {
+    writeByte(TraceFormat.IUSHR);
+    writeIidMid(inst);
+  }
+
+  public void visitIXOR(IXOR inst) {
+    writeByte(TraceFormat.IXOR);
+    writeIidMid(inst);
+  }
+
+  public void visitJSR(JSR inst) {
+    writeByte(TraceFormat.JSR);
+    writeIidMid(inst);
+    writeInt(inst.label);
+  }
+
+  public void visitL2D(L2D inst) {
+    writeByte(TraceFormat.L2D);
+    writeIidMid(inst);
+  }
+
+  public void visitL2F(L2F inst) {
+    writeByte(TraceFormat.L2F);
+    writeIidMid(inst);
+  }
+
+  public void visitL2I(L2I inst) {
+    writeByte(TraceFormat.L2I);
+    writeIidMid(inst);
+  }
+
+  public void visitLADD(LADD inst) {
+    writeByte(TraceFormat.LADD);
+    writeIidMid(inst);
+  }
+
+  public void visitLALOAD(LALOAD inst) {
+    writeByte(TraceFormat.LALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitLAND(LAND inst) {
+    writeByte(TraceFormat.LAND);
+    writeIidMid(inst);
+  }
+
+  public void visitLASTORE(LASTORE inst) {
+    writeByte(TraceFormat.LASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitLCMP(LCMP inst) {
+    writeByte(TraceFormat.LCMP);
+    writeIidMid(inst);
+  }
+
+  public void visitLCONST_0(LCONST_0 inst) {
+    writeByte(TraceFormat.LCONST_0);
+    writeIidMid(inst);
+  }
+
+  public void visitLCONST_1(LCONST_1 inst) {
+    writeByte(TraceFormat.LCONST_1);
+    writeIidMid(inst);
+  }
+
+  public void visitLDC_Object(LDC_Object inst) {
+    writeByte(TraceFormat.LDC_Object);
+    writeIidMid(inst);
+    writeInt(inst.c);
+  }
+
+  public void visitLDC_String(LDC_String inst) {
+    writeByte(TraceFormat.LDC_String);
+    writeIidMid(inst);
+    writeString(inst.c);
+    writeInt(inst.address);
+  }
+
+  public void visitLDC_double(LDC_double inst) {
+    writeByte(TraceFormat.LDC_double);
+    writeIidMid(inst);
+    writeFixedLong(Double.doubleToRawLongBits(inst.c));
+  }
+
+  public void visitLDC_float(LDC_float inst) {
+    writeByte(TraceFormat.LDC_float);
+    writeIidMid(inst);
+    writeFixedInt(Float.floatToRawIntBits(inst.c));
+  }
+
+  public void visitLDC_int(LDC_int inst) {
+    writeByte(TraceFormat.LDC_int);
+    writeIidMid(inst);
+    writeInt(inst.c);
+  }
+
+  public void visitLDC_long(LDC_long inst) {
+    writeByte(TraceFormat.LDC_long);
+    writeIidMid(inst);
+    writeLong(inst.c);
+  }
+
+  public void visitLDIV(LDIV inst) {
+    writeByte(TraceFormat.LDIV);
+    writeIidMid(inst);
+  }
+
+  public void visitLLOAD(LLOAD inst) {
+    writeByte(TraceFormat.LLOAD);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitLMUL(LMUL inst) {
+    writeByte(TraceFormat.LMUL);
+    writeIidMid(inst);
+  }
+
+  public void visitLNEG(LNEG inst) {
+    writeByte(TraceFormat.LNEG);
+    writeIidMid(inst);
+  }
+
+  public void visitLOOKUPSWITCH(LOOKUPSWITCH inst) {
+    writeByte(TraceFormat.LOOKUPSWITCH);
+    writeIidMid(inst);
+    writeInt(inst.dflt);
+    writeInts(inst.keys);
+    writeInts(inst.labels);
+  }
+
+  public void visitLOR(LOR inst) {
+    writeByte(TraceFormat.LOR);
+    writeIidMid(inst);
+  }
+
+  public void visitLREM(LREM inst) {
+    writeByte(TraceFormat.LREM);
+    writeIidMid(inst);
+  }
+
+  public void visitLRETURN(LRETURN inst) {
+    writeByte(TraceFormat.LRETURN);
+    writeIidMid(inst);
+  }
+
+  public void visitLSHL(LSHL inst) {
+    writeByte(TraceFormat.LSHL);
+    writeIidMid(inst);
+  }
+
+  public void visitLSHR(LSHR inst) {
+    writeByte(TraceFormat.LSHR);
+    writeIidMid(inst);
+  }
+
+  public void visitLSTORE(LSTORE inst) {
+    writeByte(TraceFormat.LSTORE);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitLSUB(LSUB inst) {
+    writeByte(TraceFormat.LSUB);
+    writeIidMid(inst);
+  }
+
+  public void visitLUSHR(LUSHR inst) {
+    writeByte(TraceFormat.LUSHR);
+    writeIidMid(inst);
+  }
+
+  public void visitLXOR(LXOR inst) {
+    writeByte(TraceFormat.LXOR);
+    writeIidMid(inst);
+  }
+
+  public void visitMAKE_SYMBOLIC(MAKE_SYMBOLIC inst) {
+    writeByte(TraceFormat.MAKE_SYMBOLIC);
+  }
+
+  public void visitMONITORENTER(MONITORENTER inst) {
+    writeByte(TraceFormat.MONITORENTER);
+    writeIidMid(inst);
+  }
+
+  public void visitMONITOREXIT(MONITOREXIT inst) {
+    writeByte(TraceFormat.MONITOREXIT);
+    writeIidMid(inst);
+  }
+
+  public void visitMULTIANEWARRAY(MULTIANEWARRAY inst) {
+    writeByte(TraceFormat.MULTIANEWARRAY);
+    writeIidMid(inst);
+    writeString(inst.desc);
+    writeInt(inst.dims);
+  }
+
+  public void visitNEW(NEW inst) {
+    writeByte(TraceFormat.NEW);
+    writeIidMid(inst);
+    writeString(inst.type);
+    writeInt(inst.cIdx);
+  }
+
+  public void visitNEWARRAY(NEWARRAY inst) {
+    writeByte(TraceFormat.NEWARRAY);
+    writeIidMid(inst);
+  }
+
+  public void visitNOP(NOP inst) {
+    writeByte(TraceFormat.NOP);
+    writeIidMid(inst);
+  }
+
+  public void visitPOP(POP inst) {
+    writeByte(TraceFormat.POP);
+    writeIidMid(inst);
+  }
+
+  public void visitPOP2(POP2 inst) {
+    writeByte(TraceFormat.POP2);
+    writeIidMid(inst);
+  }
+
+  public void visitPUTFIELD(PUTFIELD inst) {
+    writeByte(TraceFormat.PUTFIELD);
+    writeIidMid(inst);
+    writeInt(inst.cIdx);
+    writeInt(inst.fIdx);
+    writeString(inst.desc);
+  }
+
+  public void visitPUTSTATIC(PUTSTATIC inst) {
+    writeByte(TraceFormat.PUTSTATIC);
+    writeIidMid(inst);
+    writeInt(inst.cIdx);
+    writeInt(inst.fIdx);
+    writeString(inst.desc);
+  }
+
+  public void visitRET(RET inst) {
+    writeByte(TraceFormat.RET);
+    writeIidMid(inst);
+    writeInt(inst.var);
+  }
+
+  public void visitRETURN(RETURN inst) {
+    writeByte(TraceFormat.RETURN);
+    writeIidMid(inst);
+  }
+
+  public void visitSALOAD(SALOAD inst) {
+    writeByte(TraceFormat.SALOAD);
+    writeIidMid(inst);
+  }
+
+  public void visitSASTORE(SASTORE inst) {
+    writeByte(TraceFormat.SASTORE);
+    writeIidMid(inst);
+  }
+
+  public void visitSIPUSH(SIPUSH inst) {
+    writeByte(TraceFormat.SIPUSH);
+    writeIidMid(inst);
+    writeInt(inst.value);
+  }
+
+  public void visitSPECIAL(SPECIAL inst) {
+    writeByte(TraceFormat.SPECIAL);
+    writeInt(inst.i);
+  }
+
+  public void visitSWAP(SWAP inst) {
+    writeByte(TraceFormat.SWAP);
+    writeIidMid(inst);
+  }
+
+  public void visitTABLESWITCH(TABLESWITCH inst) {
+    writeByte(TraceFormat.TABLESWITCH);
+    writeIidMid(inst);
+    writeInt(inst.min);
+    writeInt(inst.max);
+    writeInt(inst.dflt);
+    writeInts(inst.labels);
+  }
+}
@@ -0,0 +1,286 @@
+package janala.parallel;
+
+import janala.config.Config;
+import janala.utils.FileUtil;
+import janala.utils.MyLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves the frontier of an exploration to worker nodes over TCP. A worker leases an item,
+ * renews the lease with heartbeats while the item runs, and reports the children, the history
+ * and the covered branches of the run. The item of a lease that expires is given to another
+ * worker, and a late report for it is rejected.
+ *
+ * The requests are not authenticated, so the coordinator only listens on catg.coordinatorAddress,
+ * the loopback address by default.
+ *
+ * Usage: java janala.parallel.Coordinator port maxIterations [leaseSeconds]
+ */
+public class Coordinator {
+  private static final Logger logger = MyLogger.getLogger(Coordinator.class.getName());
+
+  private final Frontier frontier;
+  private final long leaseMillis;
+  private final Map<Long, Lease> leases = new HashMap<Long, Lease>();
+  private long nextLeaseId = 1;
+
+  private final TreeMap<Integer, Integer> covered = new TreeMap<Integer, Integer>();
+  private int nCovered = 0;
+  private int nRuns = 0;
+  private int nDiverged = 0;
+
+  private File inputsDir = null;
+  private final FileUtil fileUtil = new FileUtil();
+
+  private ServerSocket server;
+  private ExecutorService executor;
+  private ScheduledExecutorService reaper;
+
+  private static class Lease {
+    final WorkItem item;
+    long expiry;
+
+    Lease(WorkItem item, long expiry) {
+      this.item = item;
+      this.expiry = expiry;
+    }
+  }
+
+  public Coordinator(Frontier frontier, long leaseMillis) {
+    this.frontier = frontier;
+    this.leaseMillis = leaseMillis;
+  }
+
+  /** Save the inputs of every leased item in the directory, as inputs1, inputs2, ... */
+  public void setInputsDir(File inputsDir) {
+    this.inputsDir = inputsDir;
+  }
+
+  public synchronized Message handle(Message request) {
+    long now = System.currentTimeMillis();
+    expireLeases(now);
+    switch (request.getKind()) {
+      case LEASE:
+        return lease(now);
+      case RENEW:
+        return renew(request.getLeaseId(), now);
+      case REPORT:
+        return report(request);
+      default:
+        logger.log(Level.WARNING, "Unexpected request {0}", request);
+        return new Message(Message.Kind.REJECTED);
+    }
+  }
+
+  private Message lease(long now) {
+    WorkItem item = frontier.poll();
+    if (item == null) {
+      return new Message(frontier.isFinished() ? Message.Kind.DONE : Message.Kind.WAIT);
+    }
+    long id = nextLeaseId++;
+    leases.put(id, new Lease(item, now + leaseMillis));
+    saveInputs(id, item);
+    return Message.item(id, leaseMillis, item);
+  }
+
+  private Message renew(long leaseId, long now) {
+    Lease lease = leases.get(leaseId);
+    if (lease == null) {
+      return new Message(Message.Kind.REJECTED);
+    }
+    lease.expiry = now + leaseMillis;
+    return new Message(Message.Kind.ACK);
+  }
+
+  private Message report(Message request) {
+    Lease lease = leases.remove(request.getLeaseId());
+    if (lease == null) {
+      logger.log(Level.WARNING, "Report for an expired lease {0}", request.getLeaseId());
+      return new Message(Message.Kind.REJECTED);
+    }
+    nRuns++;
+    if (request.getHistory() != null) {
+      String key = WorkItem.keyOf(request.getHistory(), lease.item.getBound());
+      if (!key.equals(lease.item.getKey())) {
+        nDiverged++;
+      }
+    }
+    if (request.getCoverage() != null) {
+      mergeCoverage(request.getCoverage());
+    }
+    if (request.getChildren() != null) {
+      frontier.complete(request.getChildren());
+    } else {
+      frontier.complete(new ArrayList<WorkItem>());
+    }
+    return new Message(Message.Kind.ACK);
+  }
+
+  private void mergeCoverage(Map<Integer, Integer> delta) {
+    for (Map.Entry<Integer, Integer> e : delta.entrySet()) {
+      Integer old = covered.get(e.getKey());
+      int oldValue = old == null ? 0 : old;
+      int value = oldValue | e.getValue();
+      nCovered += Integer.bitCount(value) - Integer.bitCount(oldValue);
+      covered.put(e.getKey(), value);
+    }
+  }
+
+  private void expireLeases(long now) {
+    Iterator<Map.Entry<Long, Lease>> it = leases.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Long, Lease> e = it.next();
+      if (e.getValue().expiry < now) {
+        logger.log(Level.WARNING, "Lease {0} expired", e.getKey());
+        it.remove();
+        frontier.requeue(e.getValue().item);
+      }
+    }
+  }
+
+  private void saveInputs(long leaseId, WorkItem item) {
+    if (inputsDir == null || item.getInputs().isEmpty()) {
+      return;
+    }
+    try {
+      fileUtil.write(
+          new File(inputsDir, Config.instance.inputs + leaseId).getPath(), item.getInputs());
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "", ex);
+    }
+  }
+
+  /** The number of branch sides covered by the reported runs. */
+  public synchronized int getCovered() {
+    return nCovered;
+  }
+
+  public synchronized int getRuns() {
+    return nRuns;
+  }
+
+  /** The number of runs that did not follow the prefix of their item. */
+  public synchronized int getDiverged() {
+    return nDiverged;
+  }
+
+  /**
+   * Start serving on the port of catg.coordinatorAddress, 0 for any free port.
+   *
+   * @return the port.
+   */
+  public int start(int port) throws IOException {
+    server = new ServerSocket(port, 0, InetAddress.getByName(Config.instance.coordinatorAddress));
+    executor = Executors.newCachedThreadPool();
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            accept();
+          }
+        });
+    reaper = Executors.newSingleThreadScheduledExecutor();
+    reaper.scheduleWithFixedDelay(
+        new Runnable() {
+          @Override
+          public void run() {
+            handleExpiry();
+          }
+        },
+        leaseMillis,
+        leaseMillis / 2 + 1,
+        TimeUnit.MILLISECONDS);
+    return server.getLocalPort();
+  }
+
+  private synchronized void handleExpiry() {
+    expireLeases(System.currentTimeMillis());
+  }
+
+  private void accept() {
+    while (!server.isClosed()) {
+      try {
+        final Socket socket = server.accept();
+        executor.execute(
+            new Runnable() {
+              @Override
+              public void run() {
+                serve(socket);
+              }
+            });
+      } catch (IOException ex) {
+        if (!server.isClosed()) {
+          logger.log(Level.WARNING, "", ex);
+        }
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try {
+      Message request =
+          Message.read(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+      DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      handle(request).write(out);
+      out.flush();
+    } catch (Exception ex) {
+      logger.log(Level.WARNING, "", ex);
+    } finally {
+      try {
+        socket.close();
+      } catch (IOException ex) {
+        logger.log(Level.WARNING, "", ex);
+      }
+    }
+  }
+
+  public void stop() throws IOException {
+    server.close();
+    executor.shutdown();
+    reaper.shutdown();
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println("Usage: Coordinator port maxIterations [leaseSeconds]");
+      System.exit(1);
+    }
+    long leaseMillis = args.length > 2 ? Long.parseLong(args[2]) * 1000 : 60000;
+    Frontier frontier = new Frontier(Integer.parseInt(args[1]));
+    frontier.add(WorkItem.root());
+    Coordinator coordinator = new Coordinator(frontier, leaseMillis);
+    coordinator.setInputsDir(new File("."));
+    int port = coordinator.start(Integer.parseInt(args[0]));
+    logger.log(Level.INFO, "Coordinator listening on port {0}", port);
+    frontier.awaitFinished();
+    // Let the workers see DONE before going away.
+    Thread.sleep(leaseMillis / 2);
+    coordinator.stop();
+    System.out.println(
+        "Runs = " + coordinator.getRuns()
+            + ", diverged runs = " + coordinator.getDiverged()
+            + ", covered branches = " + coordinator.getCovered());
+    System.exit(frontier.isExhausted() ? 0 : 1);
+  }
+}
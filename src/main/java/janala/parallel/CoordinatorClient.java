@@ -0,0 +1,32 @@
+package janala.parallel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+/** Sends requests to a coordinator, one connection per request. */
+public class CoordinatorClient {
+  private final String host;
+  private final int port;
+
+  public CoordinatorClient(String host, int port) {
+    this.host = host;
+    this.port = port;
+  }
+
+  public Message send(Message request) throws IOException {
+    Socket socket = new Socket(host, port);
+    try {
+      DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      request.write(out);
+      out.flush();
+      return Message.read(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+    } finally {
+      socket.close();
+    }
+  }
+}
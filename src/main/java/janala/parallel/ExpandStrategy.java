@@ -0,0 +1,54 @@
+package janala.parallel;
+
+import janala.instrument.Coverage;
+import janala.solvers.BranchElement;
+import janala.solvers.Element;
+import janala.solvers.History;
+import janala.solvers.Strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Negates every branch after the prefix of a work item, instead of a single one, and collects
+ * a child work item for each satisfiable negation. The search does not continue from the
+ * history file, so solve always returns -1.
+ */
+public class ExpandStrategy implements Strategy {
+  private final int bound;
+  private final Coverage coverage;
+  private final List<WorkItem> children = new ArrayList<WorkItem>();
+  private TreeMap<Integer, Integer> runCoverage = new TreeMap<Integer, Integer>();
+
+  public ExpandStrategy(int bound, Coverage coverage) {
+    this.bound = bound;
+    this.coverage = coverage;
+  }
+
+  public List<WorkItem> getChildren() {
+    return children;
+  }
+
+  /** The branches covered by the run. */
+  public TreeMap<Integer, Integer> getRunCoverage() {
+    return runCoverage;
+  }
+
+  @Override
+  public int solve(List<Element> history, int historySize, History solver) {
+    runCoverage = coverage.getRunCoverage();
+    for (int i = historySize - 1; i >= bound; i--) {
+      Element tmp = history.get(i);
+      if (tmp instanceof BranchElement) {
+        BranchElement current = (BranchElement) tmp;
+        if (!current.getDone() && current.getPathConstraintIndex() != -1) {
+          if (solver.solveAt(current.getPathConstraintIndex())) {
+            children.add(new WorkItem(solver.prefixWithNegatedBranch(i), solver.getSolution()));
+          }
+        }
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,90 @@
+package janala.parallel;
+
+import janala.config.Config;
+import janala.instrument.Coverage;
+import janala.solvers.Element;
+import janala.solvers.History;
+import janala.utils.CampaignRunner;
+import janala.utils.MemoryFileUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * A worker JVM of a parallel exploration. It reads work items from stdin, runs each of them
+ * in process and writes back the list of children to stdout. The output of the program under
+ * test goes to stderr.
+ *
+ * Usage: java -javaagent:catg-dev.jar janala.parallel.ExplorationWorker className args
+ */
+public class ExplorationWorker {
+  private final CampaignRunner runner;
+  private final Config config;
+  private ArrayList<Element> lastHistory = new ArrayList<Element>();
+  private TreeMap<Integer, Integer> lastCoverage = new TreeMap<Integer, Integer>();
+
+  public ExplorationWorker(CampaignRunner runner, Config config) {
+    this.runner = runner;
+    this.config = config;
+  }
+
+  /** Run the item and return the items for the branches after its prefix. */
+  public List<WorkItem> explore(WorkItem item) throws Exception {
+    MemoryFileUtil fileUtil = runner.getFileUtil();
+    fileUtil.remove("backtrackFlag");
+    Coverage coverage = Coverage.load(config.coverage);
+    ExpandStrategy strategy = new ExpandStrategy(item.getBound(), coverage);
+    History history = new History(config.getSolver(), fileUtil, config, strategy);
+    history.setHistory(item.getPrefix());
+    runner.runIteration(item.getInputs(), history, coverage);
+    lastHistory = new ArrayList<Element>(history.getHistory());
+    lastCoverage = strategy.getRunCoverage();
+    return strategy.getChildren();
+  }
+
+  /** The history of the last run. */
+  public ArrayList<Element> getLastHistory() {
+    return lastHistory;
+  }
+
+  /** The branches covered by the last run. */
+  public TreeMap<Integer, Integer> getLastCoverage() {
+    return lastCoverage;
+  }
+
+  public static void main(String[] args) throws Exception {
+    PrintStream protocol = System.out;
+    System.setOut(System.err);
+
+    ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(protocol));
+    out.flush();
+    ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(System.in));
+
+    CampaignRunner runner =
+        new CampaignRunner(
+            args[0],
+            Arrays.copyOfRange(args, 1, args.length),
+            CampaignRunner.getClassPath(),
+            Config.instance);
+    ExplorationWorker worker = new ExplorationWorker(runner, Config.instance);
+    try {
+      WorkItem item;
+      while ((item = (WorkItem) in.readObject()) != null) {
+        out.writeObject(new ArrayList<WorkItem>(worker.explore(item)));
+        out.reset();
+        out.flush();
+      }
+    } catch (EOFException ex) {
+      // The coordinator is gone.
+    }
+    System.exit(0);
+  }
+}
@@ -0,0 +1,129 @@
+package janala.parallel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The work items that are not explored yet. Items are taken in depth-first order. An item
+ * whose prefix was already added is dropped, so that no two workers explore the same path.
+ */
+public class Frontier {
+  /** The number of times an item whose run was lost is put back. */
+  static final int MAX_RETRIES = 2;
+
+  private final LinkedList<WorkItem> items = new LinkedList<WorkItem>();
+  private final Set<String> seen = new HashSet<String>();
+  // The number of lost runs of the items, by key
+  private final Map<String, Integer> lost = new HashMap<String, Integer>();
+  private final int maxItems;
+  private int taken = 0;
+  private int inFlight = 0;
+
+  public Frontier(int maxItems) {
+    this.maxItems = maxItems;
+  }
+
+  /** Add an item unless its prefix is already in the frontier or explored. */
+  public synchronized boolean add(WorkItem item) {
+    if (!seen.add(item.getKey())) {
+      return false;
+    }
+    items.addFirst(item);
+    notifyAll();
+    return true;
+  }
+
+  /**
+   * Take the next item, waiting for the items in flight if the frontier is empty.
+   *
+   * @return null when the exploration is over or maxItems items have been taken.
+   */
+  public synchronized WorkItem take() throws InterruptedException {
+    while (items.isEmpty() && inFlight > 0 && taken < maxItems) {
+      wait();
+    }
+    if (items.isEmpty() || taken >= maxItems) {
+      notifyAll();
+      return null;
+    }
+    taken++;
+    inFlight++;
+    return items.removeFirst();
+  }
+
+  /**
+   * Take the next item without waiting.
+   *
+   * @return null if there is no item available now, see isFinished.
+   */
+  public synchronized WorkItem poll() {
+    if (items.isEmpty() || taken >= maxItems) {
+      return null;
+    }
+    taken++;
+    inFlight++;
+    return items.removeFirst();
+  }
+
+  /** Put back an item that was taken but whose run was lost. */
+  public synchronized void requeue(WorkItem item) {
+    items.addFirst(item);
+    taken--;
+    inFlight--;
+    notifyAll();
+  }
+
+  /**
+   * Put back an item that was taken but whose run was lost, unless MAX_RETRIES runs of it were
+   * already lost; then the item is completed without children.
+   *
+   * @return whether the item was put back.
+   */
+  public synchronized boolean retry(WorkItem item) {
+    String key = item.getKey();
+    Integer n = lost.get(key);
+    int nLost = n == null ? 1 : n + 1;
+    if (nLost > MAX_RETRIES) {
+      lost.remove(key);
+      complete(Collections.<WorkItem>emptyList());
+      return false;
+    }
+    lost.put(key, nLost);
+    requeue(item);
+    return true;
+  }
+
+  /** Report the end of the run of an item that was taken, with its children. */
+  public synchronized void complete(List<WorkItem> children) {
+    for (WorkItem child : children) {
+      add(child);
+    }
+    inFlight--;
+    notifyAll();
+  }
+
+  /** Whether all the paths have been explored. */
+  public synchronized boolean isExhausted() {
+    return items.isEmpty() && inFlight == 0;
+  }
+
+  /** Whether no item will be available any more, i.e., all are explored or maxItems is hit. */
+  public synchronized boolean isFinished() {
+    return inFlight == 0 && (items.isEmpty() || taken >= maxItems);
+  }
+
+  public synchronized void awaitFinished() throws InterruptedException {
+    while (!isFinished()) {
+      wait();
+    }
+  }
+
+  public synchronized int getTaken() {
+    return taken;
+  }
+}
@@ -0,0 +1,184 @@
+package janala.parallel;
+
+import janala.solvers.Element;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A request or a reply of the coordinator protocol. A worker sends LEASE, RENEW or REPORT;
+ * the coordinator replies with ITEM, WAIT, DONE, ACK or REJECTED.
+ *
+ * A message goes over the wire with write and read, as its kind and its fields in a fixed
+ * order. A list or a map is written as its size, or -1 for null, followed by its entries.
+ */
+public class Message {
+  public enum Kind {
+    LEASE, // Ask for a work item
+    RENEW, // Heartbeat: extend a lease
+    REPORT, // The result of the run of a leased item
+    ITEM, // A leased work item
+    WAIT, // No item now, ask again later
+    DONE, // The exploration is over
+    ACK,
+    REJECTED // The lease is unknown or expired
+  }
+
+  private final Kind kind;
+  private long leaseId;
+  private long leaseMillis;
+  private WorkItem item;
+  private ArrayList<WorkItem> children;
+  private ArrayList<Element> history;
+  private TreeMap<Integer, Integer> coverage;
+
+  public Message(Kind kind) {
+    this.kind = kind;
+  }
+
+  public static Message lease() {
+    return new Message(Kind.LEASE);
+  }
+
+  public static Message renew(long leaseId) {
+    Message ret = new Message(Kind.RENEW);
+    ret.leaseId = leaseId;
+    return ret;
+  }
+
+  public static Message report(long leaseId, ArrayList<WorkItem> children,
+      ArrayList<Element> history, TreeMap<Integer, Integer> coverage) {
+    Message ret = new Message(Kind.REPORT);
+    ret.leaseId = leaseId;
+    ret.children = children;
+    ret.history = history;
+    ret.coverage = coverage;
+    return ret;
+  }
+
+  public static Message item(long leaseId, long leaseMillis, WorkItem item) {
+    Message ret = new Message(Kind.ITEM);
+    ret.leaseId = leaseId;
+    ret.leaseMillis = leaseMillis;
+    ret.item = item;
+    return ret;
+  }
+
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(kind.ordinal());
+    out.writeLong(leaseId);
+    out.writeLong(leaseMillis);
+    out.writeBoolean(item != null);
+    if (item != null) {
+      item.write(out);
+    }
+    if (children == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(children.size());
+      for (WorkItem child : children) {
+        child.write(out);
+      }
+    }
+    writeElements(out, history);
+    if (coverage == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(coverage.size());
+      for (Map.Entry<Integer, Integer> e : coverage.entrySet()) {
+        out.writeInt(e.getKey());
+        out.writeInt(e.getValue());
+      }
+    }
+  }
+
+  public static Message read(DataInput in) throws IOException {
+    int kind = in.readUnsignedByte();
+    if (kind >= Kind.values().length) {
+      throw new IOException("Unknown message kind " + kind);
+    }
+    Message ret = new Message(Kind.values()[kind]);
+    ret.leaseId = in.readLong();
+    ret.leaseMillis = in.readLong();
+    if (in.readBoolean()) {
+      ret.item = WorkItem.read(in);
+    }
+    int n = in.readInt();
+    if (n >= 0) {
+      ret.children = new ArrayList<WorkItem>();
+      for (int i = 0; i < n; i++) {
+        ret.children.add(WorkItem.read(in));
+      }
+    }
+    ret.history = readElements(in);
+    n = in.readInt();
+    if (n >= 0) {
+      ret.coverage = new TreeMap<Integer, Integer>();
+      for (int i = 0; i < n; i++) {
+        ret.coverage.put(in.readInt(), in.readInt());
+      }
+    }
+    return ret;
+  }
+
+  static void writeElements(DataOutput out, List<Element> elements) throws IOException {
+    if (elements == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(elements.size());
+    for (Element e : elements) {
+      e.write(out);
+    }
+  }
+
+  static ArrayList<Element> readElements(DataInput in) throws IOException {
+    int n = in.readInt();
+    if (n < 0) {
+      return null;
+    }
+    ArrayList<Element> ret = new ArrayList<Element>();
+    for (int i = 0; i < n; i++) {
+      ret.add(Element.read(in));
+    }
+    return ret;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public long getLeaseId() {
+    return leaseId;
+  }
+
+  public long getLeaseMillis() {
+    return leaseMillis;
+  }
+
+  public WorkItem getItem() {
+    return item;
+  }
+
+  public ArrayList<WorkItem> getChildren() {
+    return children;
+  }
+
+  public ArrayList<Element> getHistory() {
+    return history;
+  }
+
+  public TreeMap<Integer, Integer> getCoverage() {
+    return coverage;
+  }
+
+  @Override
+  public String toString() {
+    return "Message{kind=" + kind + ", leaseId=" + leaseId + ", item=" + item + '}';
+  }
+}
@@ -0,0 +1,198 @@
+package janala.parallel;
+
+import janala.config.Config;
+import janala.utils.FileUtil;
+import janala.utils.MyLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Explores the paths of a program with several worker JVMs. The coordinator keeps a frontier
+ * of work items; each worker takes an item, runs it, negates all the branches after its prefix
+ * and pushes back the children. Each worker runs in its own directory (worker0, worker1, ...)
+ * so that the solver and coverage files do not clash.
+ *
+ * Usage: java -javaagent:catg-dev.jar janala.parallel.ParallelExplorer nWorkers maxIterations
+ * className args
+ */
+public class ParallelExplorer {
+  private static final Logger logger = MyLogger.getLogger(ParallelExplorer.class.getName());
+
+  private final String className;
+  private final String[] args;
+  private final int nWorkers;
+  private final Frontier frontier;
+  private final FileUtil fileUtil = new FileUtil();
+  private int nInputs = 0;
+
+  public ParallelExplorer(String className, String[] args, int nWorkers, int maxIterations) {
+    this.className = className;
+    this.args = args;
+    this.nWorkers = nWorkers;
+    this.frontier = new Frontier(maxIterations);
+  }
+
+  /**
+   * Run the exploration.
+   *
+   * @return true if all the paths have been explored.
+   */
+  public boolean run() throws Exception {
+    frontier.add(WorkItem.root());
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < nWorkers; i++) {
+      Thread t = new WorkerConnection(i, startWorker(i));
+      threads.add(t);
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    return frontier.isExhausted();
+  }
+
+  private Process startWorker(int id) throws IOException {
+    File dir = new File("worker" + id);
+    dir.mkdirs();
+
+    List<String> cmd = new ArrayList<String>();
+    cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      if (arg.startsWith("-javaagent:")) {
+        String path = arg.substring("-javaagent:".length());
+        cmd.add("-javaagent:" + new File(path).getAbsolutePath());
+      } else {
+        cmd.add(arg);
+      }
+    }
+    cmd.add("-Djanala.conf=" + new File(Config.propFile).getAbsolutePath());
+    cmd.add("-cp");
+    cmd.add(absoluteClassPath());
+    cmd.add(ExplorationWorker.class.getName());
+    cmd.add(className);
+    cmd.addAll(Arrays.asList(args));
+
+    ProcessBuilder builder = new ProcessBuilder(cmd);
+    builder.directory(dir);
+    builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+    return builder.start();
+  }
+
+  private static String absoluteClassPath() {
+    StringBuilder sb = new StringBuilder();
+    for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      if (sb.length() > 0) {
+        sb.append(File.pathSeparator);
+      }
+      sb.append(new File(entry).getAbsolutePath());
+    }
+    return sb.toString();
+  }
+
+  /** Keep the inputs of every run, as concolic.py does. */
+  private synchronized void saveInputs(WorkItem item) throws IOException {
+    nInputs++;
+    if (!item.getInputs().isEmpty()) {
+      fileUtil.write(Config.instance.inputs + nInputs, item.getInputs());
+    }
+  }
+
+  /**
+   * Feeds the items of the frontier to a worker. When the worker dies during a run, its item is
+   * put back and a new worker takes over.
+   */
+  private class WorkerConnection extends Thread {
+    private final int id;
+    private Process process;
+
+    WorkerConnection(int id, Process process) {
+      this.id = id;
+      this.process = process;
+    }
+
+    @Override
+    public void run() {
+      while (serve()) {
+        try {
+          process = startWorker(id);
+        } catch (IOException ex) {
+          logger.log(Level.SEVERE, "Cannot restart worker " + id, ex);
+          return;
+        }
+      }
+    }
+
+    /**
+     * Feed the items to the worker until there is none left.
+     *
+     * @return true if the worker died during a run.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean serve() {
+      WorkItem item = null;
+      try {
+        ObjectOutputStream out =
+            new ObjectOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        out.flush();
+        ObjectInputStream in =
+            new ObjectInputStream(new BufferedInputStream(process.getInputStream()));
+        while ((item = frontier.take()) != null) {
+          saveInputs(item);
+          out.writeObject(item);
+          out.reset();
+          out.flush();
+          List<WorkItem> children = (List<WorkItem>) in.readObject();
+          item = null;
+          frontier.complete(children);
+        }
+        out.writeObject(null);
+        out.flush();
+        process.waitFor();
+        return false;
+      } catch (Exception ex) {
+        logger.log(Level.SEVERE, "Worker " + id + " failed", ex);
+        process.destroy();
+        if (item == null) {
+          return false;
+        }
+        if (!frontier.retry(item)) {
+          logger.log(
+              Level.WARNING,
+              "Giving up {0} after {1} lost runs",
+              new Object[] {item, Frontier.MAX_RETRIES + 1});
+        }
+        return true;
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 3) {
+      System.err.println("Usage: ParallelExplorer nWorkers maxIterations className [arguments]");
+      System.exit(1);
+    }
+    ParallelExplorer explorer =
+        new ParallelExplorer(
+            args[2],
+            Arrays.copyOfRange(args, 3, args.length),
+            Integer.parseInt(args[0]),
+            Integer.parseInt(args[1]));
+    if (explorer.run()) {
+      logger.log(Level.INFO, "Search is over after {0} iterations", explorer.frontier.getTaken());
+      System.exit(0);
+    }
+    logger.log(Level.INFO, "Search is not over after {0} iterations", explorer.frontier.getTaken());
+    System.exit(1);
+  }
+}
@@ -0,0 +1,109 @@
+package janala.parallel;
+
+import janala.config.Config;
+import janala.utils.CampaignRunner;
+import janala.utils.MyLogger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A worker node that leases work items from a Coordinator over TCP, runs them in process and
+ * reports the results. The lease is renewed while an item runs.
+ *
+ * Usage: java -javaagent:catg-dev.jar janala.parallel.RemoteExplorationWorker host port
+ * className args
+ */
+public class RemoteExplorationWorker {
+  private static final Logger logger = MyLogger.getLogger(RemoteExplorationWorker.class.getName());
+  private static final long POLL_MILLIS = 100;
+
+  private final CoordinatorClient client;
+  private final ExplorationWorker worker;
+
+  public RemoteExplorationWorker(CoordinatorClient client, ExplorationWorker worker) {
+    this.client = client;
+    this.worker = worker;
+  }
+
+  /** Run items until the coordinator says the exploration is over. */
+  public void run() throws Exception {
+    while (true) {
+      Message reply = client.send(Message.lease());
+      if (reply.getKind() == Message.Kind.DONE) {
+        return;
+      }
+      if (reply.getKind() != Message.Kind.ITEM) {
+        Thread.sleep(POLL_MILLIS);
+        continue;
+      }
+      Heartbeat heartbeat = new Heartbeat(reply.getLeaseId(), reply.getLeaseMillis() / 3 + 1);
+      heartbeat.start();
+      ArrayList<WorkItem> children;
+      try {
+        children = new ArrayList<WorkItem>(worker.explore(reply.getItem()));
+      } finally {
+        heartbeat.interrupt();
+        heartbeat.join();
+      }
+      Message ack =
+          client.send(
+              Message.report(
+                  reply.getLeaseId(),
+                  children,
+                  worker.getLastHistory(),
+                  worker.getLastCoverage()));
+      if (ack.getKind() != Message.Kind.ACK) {
+        logger.log(Level.WARNING, "Report of lease {0} rejected", reply.getLeaseId());
+      }
+    }
+  }
+
+  /** Renews a lease periodically until interrupted. */
+  private class Heartbeat extends Thread {
+    private final long leaseId;
+    private final long period;
+
+    Heartbeat(long leaseId, long period) {
+      this.leaseId = leaseId;
+      this.period = period;
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!isInterrupted()) {
+          Thread.sleep(period);
+          if (client.send(Message.renew(leaseId)).getKind() != Message.Kind.ACK) {
+            logger.log(Level.WARNING, "Lease {0} lost", leaseId);
+            return;
+          }
+        }
+      } catch (InterruptedException ex) {
+        // The run is over.
+      } catch (IOException ex) {
+        logger.log(Level.WARNING, "", ex);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 3) {
+      System.err.println("Usage: RemoteExplorationWorker host port className [arguments]");
+      System.exit(1);
+    }
+    CampaignRunner runner =
+        new CampaignRunner(
+            args[2],
+            Arrays.copyOfRange(args, 3, args.length),
+            CampaignRunner.getClassPath(),
+            Config.instance);
+    CoordinatorClient client = new CoordinatorClient(args[0], Integer.parseInt(args[1]));
+    new RemoteExplorationWorker(client, new ExplorationWorker(runner, Config.instance)).run();
+    System.exit(0);
+  }
+}
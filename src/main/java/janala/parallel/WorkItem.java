@@ -0,0 +1,90 @@
+package janala.parallel;
+
+import janala.solvers.BranchElement;
+import janala.solvers.Element;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A node of the exploration tree: the inputs of a run, and the history prefix that the run
+ * must follow. The last branch of the prefix is the negated branch. A run of the item only
+ * negates branches after the prefix.
+ */
+public class WorkItem implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final ArrayList<Element> prefix;
+  private final ArrayList<String> inputs;
+
+  public WorkItem(ArrayList<Element> prefix, List<String> inputs) {
+    this.prefix = prefix;
+    this.inputs = new ArrayList<String>(inputs);
+  }
+
+  /** The item of the first run, with no prefix and no inputs. */
+  public static WorkItem root() {
+    return new WorkItem(new ArrayList<Element>(), new ArrayList<String>());
+  }
+
+  public void write(DataOutput out) throws IOException {
+    Message.writeElements(out, prefix);
+    out.writeInt(inputs.size());
+    for (String input : inputs) {
+      out.writeUTF(input);
+    }
+  }
+
+  public static WorkItem read(DataInput in) throws IOException {
+    ArrayList<Element> prefix = Message.readElements(in);
+    if (prefix == null) {
+      throw new IOException("WorkItem without a prefix");
+    }
+    int n = in.readInt();
+    ArrayList<String> inputs = new ArrayList<String>();
+    for (int i = 0; i < n; i++) {
+      inputs.add(in.readUTF());
+    }
+    return new WorkItem(prefix, inputs);
+  }
+
+  public ArrayList<Element> getPrefix() {
+    return prefix;
+  }
+
+  public List<String> getInputs() {
+    return inputs;
+  }
+
+  /** Branches of the prefix are owned by the ancestors of this item. */
+  public int getBound() {
+    return prefix.size();
+  }
+
+  /** The sequence of branch decisions of the prefix. Two items with the same key are the same path. */
+  public String getKey() {
+    return keyOf(prefix, prefix.size());
+  }
+
+  /** The sequence of branch decisions of the first n elements of a history. */
+  public static String keyOf(List<Element> history, int n) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < n && i < history.size(); i++) {
+      Element e = history.get(i);
+      if (e instanceof BranchElement) {
+        BranchElement b = (BranchElement) e;
+        sb.append(b.getIid()).append(b.getBranch() ? '+' : '-').append(',');
+      }
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return "WorkItem{prefix=" + getKey() + ", inputs=" + inputs + '}';
+  }
+}
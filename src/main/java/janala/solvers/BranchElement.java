@@ -1,5 +1,8 @@
 package janala.solvers;
 
+import java.io.DataOutput;
+import java.io.IOException;
+
 public class BranchElement extends Element {
   int iid;
   @Override
@@ -14,6 +17,8 @@ public class BranchElement extends Element {
   public boolean getDone() { return done; }
 
   int pathConstraintIndex; // -1 for no index
+  public int getPathConstraintIndex() { return pathConstraintIndex; }
+
   boolean isForceTruth;
   public void setIsForceTruth(boolean val) { isForceTruth = val; }
   public boolean getIsForceTruth() { return isForceTruth; }
@@ -26,6 +31,16 @@ public class BranchElement extends Element {
     this.isForceTruth = false;
   }
 
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(BRANCH);
+    out.writeBoolean(branch);
+    out.writeBoolean(done);
+    out.writeInt(pathConstraintIndex);
+    out.writeInt(iid);
+    out.writeBoolean(isForceTruth);
+  }
+
   @Override
   public String toString() {
     return "BranchElement{"
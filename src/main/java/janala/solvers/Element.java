@@ -1,8 +1,38 @@
 package janala.solvers;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 
 public class Element implements Serializable {
+  static final byte ELEMENT = 0;
+  static final byte BRANCH = 1;
+  static final byte METHOD = 2;
+
+  /** Write the element for read, as a tag and the fields of its class. */
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(ELEMENT);
+  }
+
+  public static Element read(DataInput in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case ELEMENT:
+        return new Element();
+      case BRANCH:
+        BranchElement b =
+            new BranchElement(in.readBoolean(), in.readBoolean(), in.readInt(), in.readInt());
+        b.setIsForceTruth(in.readBoolean());
+        return b;
+      case METHOD:
+        MethodElement m = new MethodElement(in.readBoolean(), in.readInt());
+        m.isValidExpansion = in.readBoolean();
+        return m;
+      default:
+        throw new IOException("Unknown element " + tag);
+    }
+  }
 
   public int getIid() {
     return -1;
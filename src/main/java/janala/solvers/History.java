@@ -46,6 +46,10 @@ public class History {
   private final FileUtil fileUtil;
   
   public History(Solver solver, FileUtil fileUtil, Config config) {
+    this(solver, fileUtil, config, config.getStrategy());
+  }
+
+  public History(Solver solver, FileUtil fileUtil, Config config, Strategy strategy) {
     this.config = config;
     history = new ArrayList<Element>(1024);
     pathConstraint = new ArrayList<Constraint>(1024);
@@ -54,7 +58,12 @@ public class History {
     this.solver = solver;
     this.ignore = false;
     this.fileUtil = fileUtil;
-    this.strategy = config.getStrategy();
+    this.strategy = strategy;
+  }
+
+  /** Replay the given prefix in the next execution instead of the history file. */
+  public void setHistory(List<Element> history) {
+    this.history = history;
   }
 
   public SymbolicOrValue assumeOrBegin(IntValue arg) {
@@ -136,10 +145,26 @@ public class History {
     }
   }
 
-@SuppressWarnings("unchecked")
-public static History readHistory(Solver solver, InputStream is) {
-    History ret = new History(solver, new FileUtil(), Config.instance);
-    
+  public static History readHistory(Solver solver, InputStream is) {
+    return readHistory(solver, is, new FileUtil(), Config.instance);
+  }
+
+  /** Read history from a file system, e.g., one that is kept in memory between iterations. */
+  public static History readHistory(Solver solver, FileUtil fileUtil, Config config) {
+    try {
+      return readHistory(solver, fileUtil.openInput(config.history), fileUtil, config);
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "", ex);
+      return new History(solver, fileUtil, config);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public static History readHistory(Solver solver, InputStream is, FileUtil fileUtil,
+      Config config) {
+    History ret = new History(solver, fileUtil, config);
+
+
     try {
       ObjectInputStream inputStream = new ObjectInputStream(is);
       try {
@@ -429,9 +454,35 @@ public static History readHistory(Solver solver, InputStream is) {
     return ret;
   }
 
+  /** The inputs found by the last successful solveAt. */
+  public List<String> getSolution() {
+    return solver.getSolution();
+  }
+
+  /**
+   * Copy the history up to the branch at index i, and negate that branch. All the branches of
+   * the copy are done, so that an execution of the prefix only explores branches after it.
+   */
+  public ArrayList<Element> prefixWithNegatedBranch(int i) {
+    ArrayList<Element> ret = new ArrayList<Element>(i + 1);
+    for (int j = 0; j < i; j++) {
+      Element tmp = history.get(j);
+      if (tmp instanceof BranchElement) {
+        BranchElement current = (BranchElement) tmp;
+        BranchElement copy = new BranchElement(current.getBranch(), true, -1, current.iid);
+        copy.isForceTruth = current.isForceTruth;
+        ret.add(copy);
+      } else {
+        ret.add(tmp);
+      }
+    }
+    BranchElement current = (BranchElement) history.get(i);
+    ret.add(new BranchElement(!current.getBranch(), true, -1, current.iid));
+    return ret;
+  }
+
   private void removeHistory() {
-    File f = new File(config.history);
-    f.delete();
+    fileUtil.remove(config.history);
     logger.log(Level.INFO, "Done with search.");
   }
 
@@ -453,7 +504,7 @@ public static History readHistory(Solver solver, InputStream is) {
     cleanup(i);
     fileUtil.moveFile(config.history, config.history + ".bak");
     try {
-      OutputStream ostream = new FileOutputStream(config.history);
+      OutputStream ostream = fileUtil.openOutput(config.history);
       writeHistory(ostream);
     } catch (IOException ex) {
       logger.log(Level.SEVERE, "", ex);
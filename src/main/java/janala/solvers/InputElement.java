@@ -2,6 +2,8 @@ package janala.solvers;
 
 import janala.interpreters.Value;
 
+import java.io.DataOutput;
+
 public final class InputElement extends Element {
   final int symbol;
   final Value value;
@@ -10,4 +12,9 @@ public final class InputElement extends Element {
     this.symbol = symbol;
     this.value = value;
   }
+
+  @Override
+  public void write(DataOutput out) {
+    throw new RuntimeException("Inputs are not part of a history");
+  }
 }
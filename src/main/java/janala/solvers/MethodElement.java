@@ -1,5 +1,8 @@
 package janala.solvers;
 
+import java.io.DataOutput;
+import java.io.IOException;
+
 public class MethodElement extends Element {
   final boolean isBegin;
   final boolean isAbstracted;
@@ -22,6 +25,14 @@ public class MethodElement extends Element {
     return isBegin && !isValidExpansion;
   }
 
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeByte(METHOD);
+    out.writeBoolean(isBegin);
+    out.writeInt(iid);
+    out.writeBoolean(isValidExpansion);
+  }
+
   @Override
   public String toString() {
     return "MethodElement{"
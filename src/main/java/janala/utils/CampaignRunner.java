@@ -0,0 +1,211 @@
+package janala.utils;
+
+import janala.Main;
+import janala.config.Config;
+import janala.instrument.Coverage;
+import janala.interpreters.ConcolicInterpreter;
+import janala.interpreters.Value;
+import janala.logger.ClassNames;
+import janala.logger.DJVM;
+import janala.logger.DirectConcolicExecution;
+import janala.solvers.History;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs a concolic testing campaign in a single JVM. It replaces the loop of scripts/concolic.py
+ * that starts one JVM per iteration: the instrumentation agent, the solver and the JIT stay
+ * warm, and the state files (inputs, history, backtrackFlag, ...) are kept in memory.
+ *
+ * The program under test is loaded by a fresh class loader in every iteration so that its
+ * static state is initialized again. The JVM must be started with the instrumentation agent.
+ *
+ * Usage: java -javaagent:catg-dev.jar janala.utils.CampaignRunner maxIterations className args
+ */
+public class CampaignRunner {
+  private static final Logger logger = MyLogger.getLogger(CampaignRunner.class.getName());
+
+  private final String className;
+  private final String[] args;
+  private final URL[] classPath;
+  private final Config config;
+  private final MemoryFileUtil fileUtil;
+  private final FileUtil diskFileUtil = new FileUtil();
+
+  public CampaignRunner(String className, String[] args, URL[] classPath, Config config) {
+    this(className, args, classPath, config, new MemoryFileUtil());
+  }
+
+  public CampaignRunner(String className, String[] args, URL[] classPath, Config config,
+      MemoryFileUtil fileUtil) {
+    this.className = className;
+    this.args = args;
+    this.classPath = classPath;
+    this.config = config;
+    this.fileUtil = fileUtil;
+  }
+
+  public MemoryFileUtil getFileUtil() {
+    return fileUtil;
+  }
+
+  /**
+   * Run the program until the search is over or maxIterations runs are done.
+   *
+   * @return the number of runs, or -1 if the search is not over after maxIterations runs.
+   */
+  public int run(int maxIterations) throws Exception {
+    for (int i = 1; i <= maxIterations; i++) {
+      saveInputs(i);
+      runIteration();
+      if (!fileUtil.exists(config.history) && !fileUtil.exists("backtrackFlag")) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Keep the inputs of the runs that are real tests, as concolic.py does. */
+  private void saveInputs(int iteration) throws IOException {
+    if (!fileUtil.exists(config.inputs)) {
+      return;
+    }
+    if (fileUtil.exists("isRealInput")
+        && fileUtil.readLines("isRealInput").contains("false")) {
+      return;
+    }
+    diskFileUtil.write(config.inputs + iteration, fileUtil.readLines(config.inputs));
+  }
+
+  /** Run the program once with the current inputs and compute the inputs of the next run. */
+  public void runIteration() throws Exception {
+    List<String> inputs;
+    try {
+      inputs = fileUtil.readLines(config.inputs);
+    } catch (FileNotFoundException ex) {
+      inputs = new ArrayList<String>();
+    }
+    runIteration(inputs, History.readHistory(config.getSolver(), fileUtil, config));
+  }
+
+  /** Run the program once with the given inputs, following the given history. */
+  public void runIteration(List<String> inputs, History history) throws Exception {
+    runIteration(inputs, history, Coverage.load(config.coverage));
+  }
+
+  public void runIteration(List<String> inputs, History history, Coverage coverage)
+      throws Exception {
+    Main.setFileUtil(fileUtil);
+    Main.reset(new Inputs(inputs));
+    Value.reset();
+    ClassNames.getInstance().clearStatics();
+
+    ClassLoader loader = new IterationClassLoader(classPath, getClass().getClassLoader(), config);
+    Class<?> clazz = Class.forName(className, false, loader);
+    Method main = clazz.getMethod("main", String[].class);
+
+    ConcolicInterpreter intp =
+        new ConcolicInterpreter(ClassNames.getInstance(), history, coverage, config);
+    DirectConcolicExecution dc = new DirectConcolicExecution(intp, false);
+    DJVM.setInterpreter(dc);
+    Thread thread = Thread.currentThread();
+    ClassLoader contextLoader = thread.getContextClassLoader();
+    thread.setContextClassLoader(loader);
+    try {
+      main.invoke(null, (Object) args);
+    } catch (InvocationTargetException ex) {
+      if (!(ex.getCause() instanceof RunTerminated)) {
+        ex.getCause().printStackTrace();
+      }
+    } finally {
+      thread.setContextClassLoader(contextLoader);
+    }
+    dc.finish();
+  }
+
+  /**
+   * A child-first class loader for the program under test. The classes of janala, the JDK and
+   * the excluded packages are shared with the runner.
+   */
+  static class IterationClassLoader extends URLClassLoader {
+    private final Config config;
+
+    IterationClassLoader(URL[] urls, ClassLoader parent, Config config) {
+      super(urls, parent);
+      this.config = config;
+    }
+
+    private boolean isShared(String name) {
+      String cname = name.replace('.', '/');
+      if (cname.startsWith("janala/") || cname.startsWith("java/")) {
+        return true;
+      }
+      for (String e : config.excludeList) {
+        if (!e.isEmpty() && cname.startsWith(e)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (isShared(name)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> c = findLoadedClass(name);
+        if (c == null) {
+          try {
+            c = findClass(name);
+          } catch (ClassNotFoundException ex) {
+            return super.loadClass(name, resolve);
+          }
+        }
+        if (resolve) {
+          resolveClass(c);
+        }
+        return c;
+      }
+    }
+  }
+
+  public static URL[] getClassPath() throws MalformedURLException {
+    String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+    URL[] ret = new URL[entries.length];
+    for (int i = 0; i < entries.length; i++) {
+      ret[i] = new File(entries[i]).toURI().toURL();
+    }
+    return ret;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println("Usage: CampaignRunner maxIterations className [arguments]");
+      System.exit(1);
+    }
+    int maxIterations = Integer.parseInt(args[0]);
+    CampaignRunner runner =
+        new CampaignRunner(
+            args[1], Arrays.copyOfRange(args, 2, args.length), getClassPath(), Config.instance);
+    int n = runner.run(maxIterations);
+    if (n < 0) {
+      logger.log(Level.INFO, "Search is not over after {0} iterations", maxIterations);
+      System.exit(1);
+    }
+    logger.log(Level.INFO, "Search is over after {0} iterations", n);
+    System.exit(0);
+  }
+}
@@ -0,0 +1,101 @@
+package janala.utils;
+
+import janala.Main;
+import janala.config.Config;
+import janala.instrument.Coverage;
+import janala.logger.CoverageLogger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reruns saved inputs, e.g., the inputsN files of a campaign, and adds the branches they cover to
+ * the coverage file. The JVM must be started with the instrumentation agent and
+ * catg.coverageOnly, so that the program only sets the bits of CoverageLogger: there is no
+ * interpreter, history or solver.
+ *
+ * As in CampaignRunner, the program is loaded by a fresh class loader for each input.
+ *
+ * Usage: java -Dcatg.coverageOnly=true -javaagent:catg-dev.jar janala.utils.CoverageReplay
+ * className inputsFile... [-- arguments]
+ */
+public class CoverageReplay {
+  private static final Logger logger = MyLogger.getLogger(CoverageReplay.class.getName());
+
+  private final String className;
+  private final String[] args;
+  private final URL[] classPath;
+  private final Config config;
+  private final FileUtil fileUtil = new FileUtil();
+
+  public CoverageReplay(String className, String[] args, URL[] classPath, Config config) {
+    this.className = className;
+    this.args = args;
+    this.classPath = classPath;
+    this.config = config;
+  }
+
+  /** Run the program once with the given inputs. */
+  public void replay(List<String> inputs) throws Exception {
+    // The state files that the program writes, e.g., isRealInput, are dropped.
+    Main.setFileUtil(new MemoryFileUtil());
+    Main.reset(new Inputs(inputs));
+
+    ClassLoader loader =
+        new CampaignRunner.IterationClassLoader(classPath, getClass().getClassLoader(), config);
+    Class<?> clazz = Class.forName(className, false, loader);
+    Method main = clazz.getMethod("main", String[].class);
+    Thread thread = Thread.currentThread();
+    ClassLoader contextLoader = thread.getContextClassLoader();
+    thread.setContextClassLoader(loader);
+    try {
+      main.invoke(null, (Object) args);
+    } catch (InvocationTargetException ex) {
+      if (!(ex.getCause() instanceof RunTerminated)) {
+        ex.getCause().printStackTrace();
+      }
+    } finally {
+      thread.setContextClassLoader(contextLoader);
+    }
+  }
+
+  /** Run the program with each input file, and add the covered branches to the coverage. */
+  public Coverage run(List<String> inputFiles) throws Exception {
+    for (String file : inputFiles) {
+      replay(fileUtil.readLines(file));
+    }
+    Coverage coverage = Coverage.load(config.coverage);
+    CoverageLogger.flush(coverage);
+    return coverage;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println("Usage: CoverageReplay className inputsFile... [-- arguments]");
+      System.exit(1);
+    }
+    if (!Config.instance.coverageOnly) {
+      logger.log(Level.SEVERE, "CoverageReplay needs catg.coverageOnly");
+      System.exit(1);
+    }
+    List<String> inputFiles = new ArrayList<String>();
+    int i = 1;
+    while (i < args.length && !args[i].equals("--")) {
+      inputFiles.add(args[i++]);
+    }
+    String[] programArgs =
+        i < args.length ? Arrays.copyOfRange(args, i + 1, args.length) : new String[0];
+    CoverageReplay replay =
+        new CoverageReplay(args[0], programArgs, CampaignRunner.getClassPath(), Config.instance);
+    Coverage coverage = replay.run(inputFiles);
+    coverage.commitBranches(true);
+    coverage.writeDelta(Config.instance.coverage);
+    System.exit(0);
+  }
+}
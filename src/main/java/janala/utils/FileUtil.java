@@ -1,11 +1,16 @@
 package janala.utils;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.util.ArrayList;
 import java.util.List;
 
 public class FileUtil {
@@ -56,4 +61,24 @@ public class FileUtil {
     }
     out.close();
   }
+
+  public InputStream openInput(String src) throws IOException {
+    return new FileInputStream(src);
+  }
+
+  public OutputStream openOutput(String dst) throws IOException {
+    return new FileOutputStream(dst);
+  }
+
+  public List<String> readLines(String src) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(openInput(src)));
+    List<String> ret = new ArrayList<String>();
+    String line = reader.readLine();
+    while (line != null) {
+      ret.add(line);
+      line = reader.readLine();
+    }
+    reader.close();
+    return ret;
+  }
 }
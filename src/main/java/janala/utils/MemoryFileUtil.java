@@ -0,0 +1,83 @@
+package janala.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A FileUtil that keeps the files in memory. It is used to pass the state files (inputs,
+ * history, backtrackFlag, isRealInput) from one iteration to the next without touching
+ * the disk.
+ */
+public class MemoryFileUtil extends FileUtil {
+  private final Map<String, byte[]> files = new HashMap<String, byte[]>();
+
+  @Override
+  public void moveFile(String src, String dst) {
+    byte[] content = files.remove(src);
+    files.remove(dst);
+    if (content != null) {
+      files.put(dst, content);
+    }
+  }
+
+  @Override
+  public void touch(String src) {
+    if (!files.containsKey(src)) {
+      files.put(src, new byte[0]);
+    }
+  }
+
+  @Override
+  public boolean exists(String src) {
+    return files.containsKey(src);
+  }
+
+  @Override
+  public void remove(String src) {
+    files.remove(src);
+  }
+
+  @Override
+  public void copyContent(String from, PrintStream to) throws IOException {
+    for (String line : readLines(from)) {
+      to.println(line);
+    }
+  }
+
+  @Override
+  public void write(String fileName, List<String> content) throws IOException {
+    PrintStream out = new PrintStream(openOutput(fileName));
+    for (String e : content) {
+      out.println(e);
+    }
+    out.close();
+  }
+
+  @Override
+  public InputStream openInput(String src) throws IOException {
+    byte[] content = files.get(src);
+    if (content == null) {
+      throw new FileNotFoundException(src);
+    }
+    return new ByteArrayInputStream(content);
+  }
+
+  /** The content is visible to the readers once the stream is closed. */
+  @Override
+  public OutputStream openOutput(final String dst) throws IOException {
+    return new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        files.put(dst, toByteArray());
+      }
+    };
+  }
+}
@@ -0,0 +1,14 @@
+package janala.utils;
+
+/**
+ * Thrown instead of exiting the JVM when a run ends early (failed assumption, pruned path)
+ * while several runs share the same JVM. It is an Error so that the program under test
+ * does not catch it by accident.
+ */
+public class RunTerminated extends Error {
+  private static final long serialVersionUID = 1L;
+
+  public RunTerminated() {
+    super("Run terminated");
+  }
+}
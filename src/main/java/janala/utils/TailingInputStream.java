@@ -0,0 +1,76 @@
+package janala.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Reads a file while another process is still writing it. At the end of the file, read() waits
+ * for more bytes until the done file exists, which tells that the writer has finished. If the
+ * file is a named pipe, the end of the stream is the end of the data.
+ */
+public class TailingInputStream extends InputStream {
+  private static final long POLL_MILLIS = 5;
+
+  private final File done;
+  private final FileInputStream in;
+  private final boolean isPipe;
+
+  /** Wait until file exists and open it. */
+  public TailingInputStream(File file, File done) throws IOException {
+    this.done = done;
+    while (!file.exists()) {
+      if (done.exists() && !file.exists()) {
+        throw new IOException(file + " was not written");
+      }
+      pause();
+    }
+    isPipe = !file.isFile();
+    in = new FileInputStream(file);
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (true) {
+      int n = in.read(b, off, len);
+      if (n != -1 || isPipe) {
+        return n;
+      }
+      if (done.exists()) {
+        // The writer may have appended between our read and its exit.
+        return in.read(b, off, len);
+      }
+      pause();
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    return in.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private static void pause() throws IOException {
+    try {
+      Thread.sleep(POLL_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertTrue
+import static org.mockito.Mockito.mock
+
+import java.util.regex.Matcher
+
+import org.objectweb.asm.Label
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+
+import janala.config.Config
+import janala.logger.BlockTable
+import janala.logger.ClassNames
+import janala.testing.MethodRecorder
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class BlockProbeAdapterTest {
+  private MethodRecorder recorder
+  private SnoopInstructionMethodAdapter ma
+  private GlobalStateForInstrumentation state
+
+  @Before
+  void setup() {
+    Config.instance.analysisClass = "MyAnalysisClass"
+    recorder = new MethodRecorder()
+    state = new GlobalStateForInstrumentation()
+    state.setCid(100)
+    state.incMid()
+    MethodVisitor blocks = new BlockProbeAdapter(recorder.getVisitor(), state, "MyAnalysisClass")
+    ma = new SnoopInstructionMethodAdapter(blocks, false, mock(Coverage.class), state,
+      ClassNames.getInstance())
+  }
+
+  /** The ids passed to BLOCK, in order. */
+  private List<Integer> blockIds() {
+    List<Integer> ret = []
+    Matcher m = recorder.toString() =~ /(?:PUSH |LDC |ICONST_)(\d+)\s+INVOKESTATIC MyAnalysisClass.BLOCK/
+    while (m.find()) {
+      ret.add(Integer.parseInt(m.group(1)))
+    }
+    return ret
+  }
+
+  @Test
+  void testStaticProbesAreFolded() {
+    Label label = new Label()
+    ma.visitVarInsn(Opcodes.ILOAD, 1)
+    ma.visitInsn(Opcodes.ICONST_2)
+    ma.visitInsn(Opcodes.IADD)
+    ma.visitVarInsn(Opcodes.ISTORE, 2)
+    ma.visitLabel(label)
+
+    // The block has the iid of ILOAD.
+    int id = state.getId() - 3
+    MethodRecorder expected = new MethodRecorder()
+    MethodVisitor ev = expected.getVisitor()
+    Utils.addBipushInsn(ev, id)
+    ev.visitMethodInsn(Opcodes.INVOKESTATIC, "MyAnalysisClass", "BLOCK", "(I)V", false)
+    ev.visitVarInsn(Opcodes.ILOAD, 1)
+    ev.visitInsn(Opcodes.DUP)
+    ev.visitMethodInsn(Opcodes.INVOKESTATIC, "MyAnalysisClass", "GETVALUE_int", "(I)V", false)
+    ev.visitInsn(Opcodes.ICONST_2)
+    ev.visitInsn(Opcodes.IADD)
+    ev.visitVarInsn(Opcodes.ISTORE, 2)
+    ev.visitLabel(label)
+    assertEquals(expected, recorder)
+
+    BlockTable.Block block = BlockTable.get(id)
+    assertEquals(5, block.size())
+    assertEquals(BlockTable.STATIC, block.getKind(0))
+    assertEquals(BlockTable.VALUE, block.getKind(1))
+    assertNull(block.get(1))
+    assertEquals("ILOAD iid=" + id + " mid=1 var=1", block.get(0).toString())
+    assertEquals("ICONST_2 iid=" + (state.getId() - 2) + " mid=1", block.get(2).toString())
+    assertEquals("ISTORE iid=" + state.getId() + " mid=1 var=2", block.get(4).toString())
+  }
+
+  @Test
+  void testJumpEndsBlock() {
+    Label label = new Label()
+    ma.visitVarInsn(Opcodes.ILOAD, 1)
+    ma.visitJumpInsn(Opcodes.IFEQ, label)
+    ma.visitInsn(Opcodes.ICONST_0)
+    ma.visitMaxs(0, 0)
+
+    List<Integer> ids = blockIds()
+    assertEquals(2, ids.size())
+    BlockTable.Block first = BlockTable.get(ids.get(0))
+    assertEquals(3, first.size())
+    assertEquals(BlockTable.STATIC, first.getKind(2))
+    assertTrue(first.get(2).toString().startsWith("IFEQ"))
+    // The SPECIAL probe of the taken branch is not in a block.
+    BlockTable.Block second = BlockTable.get(ids.get(1))
+    assertEquals(1, second.size())
+    assertTrue(second.get(0).toString().startsWith("ICONST_0"))
+  }
+
+  @Test
+  void testBlocksTakeNoIds() {
+    GlobalStateForInstrumentation plain = new GlobalStateForInstrumentation()
+    plain.setCid(100)
+    plain.incMid()
+    MethodVisitor snoop = new SnoopInstructionMethodAdapter(new MethodRecorder().getVisitor(),
+      false, mock(Coverage.class), plain, ClassNames.getInstance())
+    for (MethodVisitor mv : [ma, snoop]) {
+      Label label = new Label()
+      mv.visitVarInsn(Opcodes.ILOAD, 1)
+      mv.visitJumpInsn(Opcodes.IFEQ, label)
+      mv.visitInsn(Opcodes.ICONST_0)
+      mv.visitVarInsn(Opcodes.ISTORE, 2)
+      mv.visitLabel(label)
+      mv.visitInsn(Opcodes.RETURN)
+      mv.visitMaxs(0, 0)
+    }
+    assertEquals(plain.getId(), state.getId())
+    // ILOAD and IFEQ, ICONST_0 and ISTORE, RETURN
+    assertEquals(3, new HashSet<Integer>(blockIds()).size())
+  }
+}
@@ -0,0 +1,142 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertTrue
+import static org.mockito.Mockito.mock
+
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Label
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+
+import janala.config.Config
+import janala.logger.ClassNames
+import janala.logger.inst.SPECIAL
+import janala.testing.MethodRecorder
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class ColdMethodAdapterTest {
+  private MethodRecorder recorder
+  private GlobalStateForInstrumentation state
+
+  @Before
+  void setup() {
+    Config.instance.analysisClass = "MyAnalysisClass"
+    recorder = new MethodRecorder()
+    state = new GlobalStateForInstrumentation()
+    state.setCid(100)
+  }
+
+  @Test
+  void testCallsAreWrapped() {
+    MethodVisitor ma = new ColdMethodAdapter(recorder.getVisitor(), false, mock(Coverage.class), state)
+    Label start = new Label()
+    Label end = new Label()
+    Label handler = new Label()
+    ma.visitCode()
+    ma.visitTryCatchBlock(start, end, handler, "java/lang/Exception")
+    ma.visitVarInsn(Opcodes.ALOAD, 0)
+    ma.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "a/B", "m", "()V", false)
+    ma.visitInsn(Opcodes.RETURN)
+    ma.visitMaxs(1, 1)
+    assertEquals(1, state.getMid())
+
+    MethodRecorder expected = new MethodRecorder()
+    MethodVisitor ev = expected.getVisitor()
+    Label callBegin = new Label()
+    Label callHandler = new Label()
+    Label callEnd = new Label()
+    ev.visitCode()
+    ev.visitVarInsn(Opcodes.ALOAD, 0)
+    Utils.addSpecialInsn(ev, SPECIAL.OPAQUE_CALL)
+    ev.visitLabel(callBegin)
+    ev.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "a/B", "m", "()V", false)
+    ev.visitJumpInsn(Opcodes.GOTO, callEnd)
+    ev.visitLabel(callHandler)
+    Utils.addSpecialInsn(ev, SPECIAL.OPAQUE_RETURN)
+    ev.visitInsn(Opcodes.ATHROW)
+    ev.visitLabel(callEnd)
+    Utils.addSpecialInsn(ev, SPECIAL.OPAQUE_RETURN)
+    ev.visitInsn(Opcodes.RETURN)
+    ev.visitTryCatchBlock(callBegin, callHandler, callHandler, null)
+    ev.visitTryCatchBlock(start, end, handler, "java/lang/Exception")
+    ev.visitMaxs(2, 1)
+    assertEquals(expected, recorder)
+  }
+
+  @Test
+  void testSuperInitIsNotWrapped() {
+    MethodVisitor ma = new ColdMethodAdapter(recorder.getVisitor(), true, mock(Coverage.class), state)
+    ma.visitCode()
+    ma.visitVarInsn(Opcodes.ALOAD, 0)
+    ma.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false)
+    ma.visitInsn(Opcodes.RETURN)
+    ma.visitMaxs(1, 1)
+
+    MethodRecorder expected = new MethodRecorder()
+    MethodVisitor ev = expected.getVisitor()
+    ev.visitCode()
+    ev.visitVarInsn(Opcodes.ALOAD, 0)
+    ev.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false)
+    ev.visitInsn(Opcodes.RETURN)
+    ev.visitMaxs(2, 1)
+    assertEquals(expected, recorder)
+  }
+
+  // Two static methods with a branch each
+  private static byte[] makeClass() {
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS)
+    cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, "c/C", null, "java/lang/Object", null)
+    for (String name : ["a", "b"]) {
+      MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, name, "(I)I",
+          null, null)
+      Label zero = new Label()
+      mv.visitCode()
+      mv.visitVarInsn(Opcodes.ILOAD, 0)
+      mv.visitJumpInsn(Opcodes.IFEQ, zero)
+      mv.visitInsn(Opcodes.ICONST_1)
+      mv.visitInsn(Opcodes.IRETURN)
+      mv.visitLabel(zero)
+      mv.visitInsn(Opcodes.ICONST_0)
+      mv.visitInsn(Opcodes.IRETURN)
+      mv.visitMaxs(0, 0)
+      mv.visitEnd()
+    }
+    cw.visitEnd()
+    return cw.toByteArray()
+  }
+
+  @Test
+  void testColdMethodKeepsIds() {
+    File file = File.createTempFile("methods", ".catg")
+    file.delete()
+    String oldProfile = Config.instance.methodProfile
+    int oldIterations = Config.instance.coldIterations
+    Config.instance.methodProfile = file.getPath()
+    Config.instance.coldIterations = 1
+    try {
+      byte[] b = makeClass()
+      def hot = SnoopInstructionTransformer.instrumentClass(
+          "c/C", b, new Coverage().forClass("c/C"), new ClassNames())
+
+      MethodProfile profile = MethodProfile.load(file.getPath())
+      profile.register(1, MethodProfile.key("c/C", "a", "(I)I"))
+      profile.executed(1)
+      profile.endRun()
+      def cold = SnoopInstructionTransformer.instrumentClass(
+          "c/C", b, new Coverage().forClass("c/C"), new ClassNames())
+      assertTrue(hot.bytes.length > cold.bytes.length)
+
+      // The methods and the branches of b have the same ids
+      assertEquals(hot.part, cold.part)
+    } finally {
+      Config.instance.methodProfile = oldProfile
+      Config.instance.coldIterations = oldIterations
+    }
+  }
+}
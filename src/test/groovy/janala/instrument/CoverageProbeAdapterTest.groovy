@@ -0,0 +1,91 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Label
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+
+import janala.config.Config
+import janala.logger.ClassNames
+import janala.logger.CoverageLogger
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class CoverageProbeAdapterTest {
+  static class Loader extends ClassLoader {
+    Loader() {
+      super(CoverageProbeAdapterTest.class.getClassLoader())
+    }
+
+    Class<?> define(String name, byte[] b) {
+      return defineClass(name, b, 0, b.length)
+    }
+  }
+
+  // static int m(int x) { if (x == 0) return -1; switch (x) { case 1: return 10; default: return 0; } }
+  static byte[] makeClass() {
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS)
+    cw.visit(Opcodes.V1_7, Opcodes.ACC_PUBLIC, "v/V", null, "java/lang/Object", null)
+    MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "m", "(I)I",
+        null, null)
+    Label nonZero = new Label()
+    Label one = new Label()
+    Label dflt = new Label()
+    mv.visitCode()
+    mv.visitVarInsn(Opcodes.ILOAD, 0)
+    mv.visitJumpInsn(Opcodes.IFNE, nonZero)
+    mv.visitInsn(Opcodes.ICONST_M1)
+    mv.visitInsn(Opcodes.IRETURN)
+    mv.visitLabel(nonZero)
+    mv.visitVarInsn(Opcodes.ILOAD, 0)
+    mv.visitTableSwitchInsn(1, 1, dflt, one)
+    mv.visitLabel(one)
+    mv.visitIntInsn(Opcodes.BIPUSH, 10)
+    mv.visitInsn(Opcodes.IRETURN)
+    mv.visitLabel(dflt)
+    mv.visitInsn(Opcodes.ICONST_0)
+    mv.visitInsn(Opcodes.IRETURN)
+    mv.visitMaxs(0, 0)
+    mv.visitEnd()
+    cw.visitEnd()
+    return cw.toByteArray()
+  }
+
+  @Test
+  void testBranchesAreRecorded() {
+    byte[] b = makeClass()
+    def full = SnoopInstructionTransformer.instrumentClass(
+        "v/V", b, new Coverage().forClass("v/V"), new ClassNames())
+    Config.instance.coverageOnly = true
+    def result
+    try {
+      result = SnoopInstructionTransformer.instrumentClass(
+          "v/V", b, new Coverage().forClass("v/V"), new ClassNames())
+    } finally {
+      Config.instance.coverageOnly = false
+    }
+    assertNull(result.failure)
+    // Same methods and branches as the full instrumentation
+    assertEquals(full.part, result.part)
+
+    CoverageLogger.flush(new Coverage())
+    Class<?> c = new Loader().define("v.V", result.bytes)
+    assertEquals(-1, c.getMethod("m", int).invoke(null, 0))
+    assertEquals(10, c.getMethod("m", int).invoke(null, 1))
+
+    Coverage coverage = new Coverage()
+    coverage.getCid("v/V")
+    coverage.merge(result.part)
+    CoverageLogger.flush(coverage)
+    // The jump was taken both ways, the case was only compared once and matched
+    Map<Integer, Integer> run = coverage.getRunCoverage()
+    assertEquals(2, run.size())
+    assertEquals([3, 1], new ArrayList<Integer>(run.values()))
+  }
+}
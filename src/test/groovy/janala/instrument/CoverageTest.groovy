@@ -1,6 +1,7 @@
 package janala.instrument
 
 import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
 import static org.junit.Assert.assertTrue
 
 import org.junit.Test
@@ -39,11 +40,13 @@ class CoverageTest {
   @Test
   void testPrint() {
     Coverage cov = new Coverage()
-    GlobalStateForInstrumentation.instance.setCid(0)
-    cov.getCid("MyClass")
+    def state = new GlobalStateForInstrumentation()
+    state.setCoverage(cov)
+    state.setCid(cov.getCid("MyClass"))
     cov.setLastMethod("MyMethod")
-    cov.setCidmidToName(GlobalStateForInstrumentation.getCidMid(0, 0))
-    int iid = GlobalStateForInstrumentation.instance.getId()
+    state.incMid()
+    cov.setCidmidToName(state.getMethodId())
+    int iid = state.incAndGetId()
     cov.addBranchCount(0)
     cov.visitBranch(iid, true)
     cov.commitBranches(true)
@@ -53,5 +56,83 @@ class CoverageTest {
     String s = bytes.toString()
     assertTrue(s.contains("Branch coverage"))
   }
-}
 
+  @Test
+  void testLoadOnce() {
+    File file = File.createTempFile("coverage", ".catg")
+    file.delete()
+    Coverage cov = Coverage.load(file.getPath())
+    assertTrue(cov.is(Coverage.load(file.getPath())))
+    assertEquals(0, cov.getCid("A"))
+    assertEquals(1, Coverage.load(file.getPath()).getCid("B"))
+    Coverage.instance = null
+  }
+
+  @Test
+  void testJournal() {
+    File file = File.createTempFile("coverage", ".catg")
+    File journal = new File(file.getPath() + ".log")
+    file.delete()
+    file.deleteOnExit()
+    journal.deleteOnExit()
+
+    // The first write is a whole snapshot
+    Coverage cov = Coverage.load(file.getPath())
+    cov.getCid("A")
+    cov.setLastMethod("m")
+    cov.setCidmidToName(1)
+    cov.addBranchCount(1)
+    cov.writeDelta(file.getPath())
+    assertTrue(file.exists())
+    assertFalse(journal.exists())
+
+    // Later writes only append the changes
+    long length = file.length()
+    cov.getCid("B")
+    cov.addBranchCount(2)
+    cov.visitBranch(1, true)
+    cov.commitBranches(false)
+    cov.writeDelta(file.getPath())
+    assertEquals(length, file.length())
+    assertTrue(journal.length() > 0)
+
+    Coverage.instance = null
+    Coverage loaded = Coverage.load(file.getPath())
+    assertEquals(cov, loaded)
+    assertEquals(2, loaded.getCid("C"))
+
+    loaded.compact(file.getPath())
+    assertFalse(journal.exists())
+    Coverage.instance = null
+    assertEquals(loaded, Coverage.load(file.getPath()))
+    Coverage.instance = null
+  }
+
+  @Test
+  void testIdsPersist() {
+    File file = File.createTempFile("coverage", ".catg")
+    File journal = new File(file.getPath() + ".log")
+    file.delete()
+    file.deleteOnExit()
+    journal.deleteOnExit()
+
+    Coverage cov = Coverage.load(file.getPath())
+    cov.writeDelta(file.getPath())
+    def state = new GlobalStateForInstrumentation()
+    state.setCoverage(cov)
+    state.setCid(cov.getCid("A"))
+    cov.setLastMethod("m")
+    state.incMid()
+    cov.setCidmidToName(state.getMethodId())
+    int iid = state.incAndGetId()
+    cov.writeDelta(file.getPath())
+
+    // The blocks come back from the journal, so that a class keeps its ids
+    Coverage.instance = null
+    Coverage loaded = Coverage.load(file.getPath())
+    assertEquals(iid, loaded.lookupId(0, 2))
+    assertEquals(state.getMethodId(), loaded.getMethod(iid))
+    assertEquals(-1, loaded.lookupId(1, 0))
+    Coverage.instance = null
+  }
+}
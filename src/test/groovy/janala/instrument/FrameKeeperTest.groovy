@@ -0,0 +1,92 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertTrue
+
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Label
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+
+import janala.logger.ClassNames
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class FrameKeeperTest {
+  static class Loader extends ClassLoader {
+    Loader() {
+      super(FrameKeeperTest.class.getClassLoader())
+    }
+
+    Class<?> define(String name, byte[] b) {
+      return defineClass(name, b, 0, b.length)
+    }
+  }
+
+  // new StringBuilder(x > 0 ? "a" : "b"), which has a frame with uninitialized values, and a
+  // constructor with a call before the call to super.
+  static byte[] makeClass(String name) {
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS)
+    cw.visit(Opcodes.V1_7, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null)
+    MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(I)V", null, null)
+    mv.visitCode()
+    mv.visitVarInsn(Opcodes.ILOAD, 1)
+    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Integer", "valueOf",
+        "(I)Ljava/lang/Integer;", false)
+    mv.visitInsn(Opcodes.POP)
+    mv.visitVarInsn(Opcodes.ALOAD, 0)
+    mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false)
+    mv.visitInsn(Opcodes.RETURN)
+    mv.visitMaxs(0, 0)
+    mv.visitEnd()
+
+    mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "m", "(I)Ljava/lang/String;",
+        null, null)
+    Label a = new Label()
+    Label done = new Label()
+    mv.visitCode()
+    mv.visitTypeInsn(Opcodes.NEW, "java/lang/StringBuilder")
+    mv.visitInsn(Opcodes.DUP)
+    mv.visitVarInsn(Opcodes.ILOAD, 0)
+    mv.visitJumpInsn(Opcodes.IFGT, a)
+    mv.visitLdcInsn("b")
+    mv.visitJumpInsn(Opcodes.GOTO, done)
+    mv.visitLabel(a)
+    mv.visitLdcInsn("a")
+    mv.visitLabel(done)
+    mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/StringBuilder", "<init>",
+        "(Ljava/lang/String;)V", false)
+    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/StringBuilder", "toString",
+        "()Ljava/lang/String;", false)
+    mv.visitInsn(Opcodes.ARETURN)
+    mv.visitMaxs(0, 0)
+    mv.visitEnd()
+    cw.visitEnd()
+    return cw.toByteArray()
+  }
+
+  @Test
+  void testKeptFramesVerify() {
+    byte[] b = makeClass("f/F")
+    def result = SnoopInstructionTransformer.instrumentClass(
+        "f/F", b, new Coverage().forClass("f/F"), new ClassNames())
+    assertNull(result.failure)
+    assertEquals(Opcodes.V1_7, new ClassReader(result.bytes).readUnsignedShort(6))
+
+    // Loading the methods verifies the class.
+    Class<?> c = new Loader().define("f.F", result.bytes)
+    assertEquals(2, c.getDeclaredMethods().length + c.getDeclaredConstructors().length)
+  }
+
+  @Test
+  void testCanUse() {
+    assertTrue(FrameKeeper.canUse(Opcodes.V1_7))
+    assertTrue(FrameKeeper.canUse(Opcodes.V1_8))
+    assertTrue(!FrameKeeper.canUse(Opcodes.V1_6))
+  }
+}
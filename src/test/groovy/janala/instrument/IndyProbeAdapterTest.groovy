@@ -0,0 +1,38 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertTrue
+
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+
+import janala.testing.MethodRecorder
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class IndyProbeAdapterTest {
+  @Test
+  void testProbesBecomeInvokeDynamic() {
+    MethodRecorder recorder = new MethodRecorder()
+    IndyProbeAdapter adapter = new IndyProbeAdapter(recorder.getVisitor())
+    adapter.visitMethodInsn(Opcodes.INVOKESTATIC, IndyProbeAdapter.DJVM, "ILOAD", "(III)V", false)
+    adapter.visitMethodInsn(Opcodes.INVOKESTATIC, "Other", "ILOAD", "(III)V", false)
+
+    MethodRecorder expected = new MethodRecorder()
+    MethodVisitor ev = expected.getVisitor()
+    ev.visitInvokeDynamicInsn("ILOAD", "(III)V", IndyProbeAdapter.BOOTSTRAP)
+    ev.visitMethodInsn(Opcodes.INVOKESTATIC, "Other", "ILOAD", "(III)V", false)
+    assertEquals(expected, recorder)
+  }
+
+  @Test
+  void testCanUse() {
+    assertTrue(IndyProbeAdapter.canUse(Opcodes.V1_8, IndyProbeAdapter.DJVM))
+    assertFalse(IndyProbeAdapter.canUse(Opcodes.V1_6, IndyProbeAdapter.DJVM))
+    assertFalse(IndyProbeAdapter.canUse(Opcodes.V1_8, "MyAnalysisClass"))
+  }
+}
@@ -1,6 +1,7 @@
 package janala.instrument
 
 import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertTrue
 
 import org.junit.Test
 import groovy.transform.CompileStatic
@@ -11,17 +12,69 @@ class InstrumentGlobalStateTest {
   @Test
   void testIds() {
     def a = new GlobalStateForInstrumentation()
+    a.setCoverage(new Coverage())
     a.setCid(1)
     assertEquals(0, a.getMid())
     assertEquals(1, a.getCid())
 
-    assertEquals(Integer.parseInt("1000000000000000001", 2), 
-      a.incAndGetId())
-    assertEquals(Integer.parseInt("100000000", 2), 
-      GlobalStateForInstrumentation.getCidMid(a.getCid(), a.getMid()))
+    // The first class to ask takes the first block of ids
+    assertEquals(1, a.incAndGetId())
+    assertEquals(2, a.nextMethodId())
 
     a.incMid()
     assertEquals(1, a.getMid())
     assertEquals(1, a.getCid())
+    assertEquals(2, a.getMethodId())
+  }
+
+  @Test
+  void testWideIds() {
+    Coverage coverage = new Coverage()
+    def a = new GlobalStateForInstrumentation()
+    def b = new GlobalStateForInstrumentation()
+    a.setCoverage(coverage)
+    b.setCoverage(coverage)
+    a.setCid(0)
+    b.setCid(1 << 15) // Past the old 14 bits of classes
+
+    // More methods and ids than the old 8 and 10 bits, without aliasing
+    Set<Integer> seen = new HashSet<Integer>()
+    for (int m = 0; m < 300; m++) {
+      a.incMid()
+      b.incMid()
+      coverage.setCidmidToName(a.getMethodId())
+      coverage.setCidmidToName(b.getMethodId())
+      for (int i = 0; i < 10; i++) {
+        int ia = a.incAndGetId()
+        int ib = b.incAndGetId()
+        assertTrue(seen.add(ia))
+        assertTrue(seen.add(ib))
+        assertEquals(a.getMethodId(), coverage.getMethod(ia))
+        assertEquals(b.getMethodId(), coverage.getMethod(ib))
+      }
+    }
+    // The ids stay dense
+    assertTrue(Collections.max(seen) < 8 * IdTable.BLOCK_SIZE)
+  }
+
+  @Test
+  void testConsecutiveIds() {
+    Coverage coverage = new Coverage()
+    def a = new GlobalStateForInstrumentation()
+    def b = new GlobalStateForInstrumentation()
+    a.setCoverage(coverage)
+    b.setCoverage(coverage)
+    a.setCid(0)
+    b.setCid(1)
+    for (int i = 0; i < IdTable.BLOCK_SIZE - 3; i++) {
+      a.incAndGetId()
+    }
+    b.incAndGetId() // The next block goes to b
+
+    // The run does not fit in the first block of a
+    int first = a.incAndGetIds(5)
+    assertEquals(2 * IdTable.BLOCK_SIZE, first)
+    assertEquals(first + 4, a.getId())
+    assertEquals(first + 5, a.incAndGetId())
   }
 }
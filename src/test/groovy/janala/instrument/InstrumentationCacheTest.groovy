@@ -0,0 +1,88 @@
+package janala.instrument
+
+import static org.junit.Assert.assertArrayEquals
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNotEquals
+import static org.junit.Assert.assertNull
+
+import janala.config.Config
+import janala.interpreters.ClassDepot
+import janala.logger.ClassNames
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class InstrumentationCacheTest {
+  File dir
+  InstrumentationCache cache
+  byte[] original = [1, 2, 3] as byte[]
+  byte[] instrumented = [4, 5, 6, 7] as byte[]
+
+  @Before
+  void setup() {
+    dir = File.createTempDir()
+    dir.deleteOnExit()
+    cache = new InstrumentationCache(dir, new Config())
+  }
+
+  private static ClassMetadata metadata() {
+    ClassMetadata metadata = new ClassMetadata(0)
+    metadata.addClassRef("A", 0)
+    metadata.addFieldRef(0, "f", false, 0)
+    metadata.addMethod(1, "m:()V")
+    metadata.addBranch(2)
+    metadata.setLayout("java.lang.Object", ["f"], [])
+    return metadata
+  }
+
+  @Test
+  void testKey() {
+    String key = cache.key("A", original)
+    assertEquals(key, cache.key("A", original))
+    assertNotEquals(key, cache.key("B", original))
+    assertNotEquals(key, cache.key("A", instrumented))
+  }
+
+  @Test
+  void testMiss() {
+    assertNull(cache.get(cache.key("A", original), "A", new Coverage(),
+        new ClassNames(new ClassDepot())))
+  }
+
+  @Test
+  void testHitReplaysRegistrations() {
+    String key = cache.key("A", original)
+    cache.put(key, instrumented, metadata())
+
+    Coverage coverage = new Coverage()
+    ClassNames classNames = new ClassNames(new ClassDepot())
+    assertArrayEquals(instrumented, cache.get(key, "A", coverage, classNames))
+
+    Coverage expected = new Coverage()
+    expected.getCid("A")
+    expected.setLastMethod("m:()V")
+    expected.setCidmidToName(1)
+    expected.addBranchCount(2)
+    assertEquals(expected, coverage)
+    assertEquals(0, classNames.get("A"))
+    assertEquals(0, classNames.get(0).getIdx("f", false))
+  }
+
+  @Test
+  void testStaleIds() {
+    String key = cache.key("A", original)
+    cache.put(key, instrumented, metadata())
+
+    Coverage coverage = new Coverage()
+    coverage.getCid("Other") // A would get cid 1
+    assertNull(cache.get(key, "A", coverage, new ClassNames(new ClassDepot())))
+
+    ClassNames classNames = new ClassNames(new ClassDepot())
+    classNames.get("Other") // A would get index 1
+    Coverage fresh = new Coverage()
+    assertNull(cache.get(key, "A", fresh, classNames))
+    assertEquals(new Coverage(), fresh)
+  }
+}
@@ -643,7 +643,7 @@ class MethodInstrumenterTest {
     int mid = state.getMid()
     Utils.addBipushInsn(ev, iid)
     Utils.addBipushInsn(ev, mid)
-    Utils.addBipushInsn(ev, System.identityHashCode(label))
+    Utils.addBipushInsn(ev, 0)
 
     ev.visitMethodInsn(Opcodes.INVOKESTATIC,
       Config.instance.analysisClass, name, "(III)V")
@@ -665,7 +665,7 @@ class MethodInstrumenterTest {
     int mid = state.getMid()
     Utils.addBipushInsn(ev, iid)
     Utils.addBipushInsn(ev, mid)
-    Utils.addBipushInsn(ev, System.identityHashCode(label))
+    Utils.addBipushInsn(ev, 0)
 
     ev.visitMethodInsn(Opcodes.INVOKESTATIC,
       Config.instance.analysisClass, name, "(III)V")
@@ -1145,13 +1145,13 @@ class MethodInstrumenterTest {
     Utils.addBipushInsn(ev, state.getMid())
     Utils.addBipushInsn(ev, 0)
     Utils.addBipushInsn(ev, 0)
-    Utils.addBipushInsn(ev, System.identityHashCode(defaultLabel))
+    Utils.addBipushInsn(ev, 0)
     Utils.addBipushInsn(ev, 1)
     ev.visitIntInsn(Opcodes.NEWARRAY, Opcodes.T_INT);
     ev.visitInsn(Opcodes.DUP)
     Utils.addBipushInsn(ev, 0)
 
-    Utils.addBipushInsn(ev, System.identityHashCode(labels[0])); 
+    Utils.addBipushInsn(ev, 1); 
     ev.visitInsn(Opcodes.IASTORE);
     ev.visitMethodInsn(Opcodes.INVOKESTATIC, 
       Config.instance.analysisClass, "TABLESWITCH", "(IIIII[I)V", false);
@@ -1174,7 +1174,7 @@ class MethodInstrumenterTest {
 
     Utils.addBipushInsn(ev, state.getId())
     Utils.addBipushInsn(ev, state.getMid())
-    Utils.addBipushInsn(ev, System.identityHashCode(defaultLabel))
+    Utils.addBipushInsn(ev, 0)
     Utils.addBipushInsn(ev, 1)
     ev.visitIntInsn(Opcodes.NEWARRAY, Opcodes.T_INT)
     ev.visitInsn(Opcodes.DUP)
@@ -1186,7 +1186,7 @@ class MethodInstrumenterTest {
     ev.visitIntInsn(Opcodes.NEWARRAY, Opcodes.T_INT)
     ev.visitInsn(Opcodes.DUP)
     Utils.addBipushInsn(ev, 0)
-    Utils.addBipushInsn(ev, System.identityHashCode(labels[0]))
+    Utils.addBipushInsn(ev, 1)
     ev.visitInsn(Opcodes.IASTORE)
     ev.visitMethodInsn(Opcodes.INVOKESTATIC,
       Config.instance.analysisClass, "LOOKUPSWITCH", "(III[I[I)V", false);
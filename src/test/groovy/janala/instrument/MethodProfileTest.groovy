@@ -0,0 +1,69 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertTrue
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class MethodProfileTest {
+  private MethodProfile profile
+  private String foo = MethodProfile.key("a/B", "foo", "(I)I")
+  private String bar = MethodProfile.key("a/B", "bar", "()V")
+
+  @Before
+  void setup() {
+    profile = new MethodProfile()
+    profile.register(1, foo)
+    profile.register(2, bar)
+  }
+
+  @Test
+  void testConcreteRunsAreCounted() {
+    for (int i = 0; i < 2; i++) {
+      profile.executed(1)
+      profile.executed(2)
+      profile.symbolic(2)
+      profile.endRun()
+    }
+    assertTrue(profile.isCold(foo, 2))
+    assertFalse(profile.isCold(foo, 3))
+    assertFalse(profile.isCold(bar, 1))
+    assertEquals("[a/B.foo(I)I]", profile.coldMethods("a/B", 2))
+    assertEquals("[]", profile.coldMethods("a/C", 2))
+  }
+
+  @Test
+  void testSymbolicRunResets() {
+    profile.executed(1)
+    profile.endRun()
+    assertTrue(profile.isCold(foo, 1))
+    profile.executed(1)
+    profile.symbolic(1)
+    profile.endRun()
+    assertFalse(profile.isCold(foo, 1))
+  }
+
+  @Test
+  void testReachedResets() {
+    profile.executed(1)
+    profile.endRun()
+    profile.reached("foo", "(I)I")
+    profile.endRun()
+    assertFalse(profile.isCold(foo, 1))
+  }
+
+  @Test
+  void testWriteAndLoad() {
+    File file = File.createTempFile("methods", ".catg")
+    file.deleteOnExit()
+    profile.executed(1)
+    profile.endRun()
+    profile.write(file.getPath())
+    assertTrue(MethodProfile.load(file.getPath()).isCold(foo, 1))
+  }
+}
@@ -0,0 +1,126 @@
+package janala.instrument
+
+import static org.junit.Assert.assertArrayEquals
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertTrue
+
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Label
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+
+import janala.logger.ClassNames
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class OfflineInstrumenterTest {
+  static byte[] makeClass(String name) {
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS)
+    cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null)
+    MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "m", "(I)I", null, null)
+    Label l = new Label()
+    mv.visitCode()
+    mv.visitVarInsn(Opcodes.ILOAD, 0)
+    mv.visitJumpInsn(Opcodes.IFGT, l)
+    mv.visitInsn(Opcodes.ICONST_0)
+    mv.visitInsn(Opcodes.IRETURN)
+    mv.visitLabel(l)
+    mv.visitInsn(Opcodes.ICONST_1)
+    mv.visitInsn(Opcodes.IRETURN)
+    mv.visitMaxs(0, 0)
+    mv.visitEnd()
+    cw.visitEnd()
+    return cw.toByteArray()
+  }
+
+  @Test
+  void testInstrument() {
+    byte[] b = makeClass("b/B")
+    byte[] a = makeClass("a/A")
+    byte[] hidden = makeClass("a/A")
+    byte[] text = "text".getBytes()
+    // A class file version that ASM does not know.
+    byte[] unknown = makeClass("c/C")
+    unknown[7] = (byte) 61
+
+    def first = new OfflineInstrumenter.Input("first.jar")
+    first.add("b/B.class", b)
+    first.add("a/A.class", a)
+    first.add("c/C.class", unknown)
+    first.add("README", text)
+    def second = new OfflineInstrumenter.Input("second.jar")
+    second.add("a/A.class", hidden)
+
+    Coverage coverage = new Coverage()
+    def instrumenter = new OfflineInstrumenter(coverage, new ClassNames(), 2)
+    List<ClassMetadata> metadata = instrumenter.instrument([first, second])
+
+    // The cids follow the names, not the order of the entries.
+    assertEquals(0, coverage.lookupCid("a/A"))
+    assertEquals(1, coverage.lookupCid("b/B"))
+    assertEquals(2, metadata.size())
+    assertEquals(0, metadata[0].getCid())
+    assertEquals(1, metadata[1].getCid())
+
+    assertFalse(Arrays.equals(a, first.get("a/A.class")))
+    assertFalse(Arrays.equals(b, first.get("b/B.class")))
+    assertArrayEquals(unknown, first.get("c/C.class"))
+    assertArrayEquals(text, first.get("README"))
+    assertArrayEquals(hidden, second.get("a/A.class"))
+        assertTrue(coverage.toString().contains("a/A.m"))
+  }
+
+  /** A class with a method of 2 * n + 2 instructions, which takes several blocks of ids. */
+  static byte[] makeBigClass(String name, int n) {
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS)
+    cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null)
+    MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "m", "(I)I", null, null)
+    mv.visitCode()
+    for (int i = 0; i < n; i++) {
+      mv.visitVarInsn(Opcodes.ILOAD, 0)
+      mv.visitInsn(Opcodes.POP)
+    }
+    mv.visitVarInsn(Opcodes.ILOAD, 0)
+    mv.visitInsn(Opcodes.IRETURN)
+    mv.visitMaxs(0, 0)
+    mv.visitEnd()
+    cw.visitEnd()
+    return cw.toByteArray()
+  }
+
+  @Test
+  void testIdBound() {
+    // The method id, 2 * 700 + 2 instructions
+    assertEquals(1403, SnoopInstructionTransformer.idBound(makeBigClass("a/A", 700)))
+    assertEquals(0, SnoopInstructionTransformer.idBound("text".getBytes()))
+  }
+
+  private static List<byte[]> instrumentClasses(int nThreads) {
+    def input = new OfflineInstrumenter.Input("in.jar")
+    for (int i = 0; i < 16; i++) {
+      String name = "p/C" + i
+      input.add(name + ".class", i % 2 == 0 ? makeBigClass(name, 700) : makeClass(name))
+    }
+    new OfflineInstrumenter(new Coverage(), new ClassNames(), nThreads).instrument([input])
+    List<byte[]> ret = []
+    for (int i = 0; i < 16; i++) {
+      ret.add(input.get("p/C" + i + ".class"))
+    }
+    return ret
+  }
+
+  @Test
+  void testIdsDoNotDependOnThreads() {
+    List<byte[]> expected = instrumentClasses(1)
+    for (int run = 0; run < 3; run++) {
+      List<byte[]> actual = instrumentClasses(8)
+      for (int i = 0; i < expected.size(); i++) {
+        assertArrayEquals(expected[i], actual[i])
+      }
+    }
+  }
+}
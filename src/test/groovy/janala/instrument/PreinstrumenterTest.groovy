@@ -0,0 +1,88 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertNotNull
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertTrue
+
+import janala.logger.ClassNames
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class PreinstrumenterTest {
+  private File dir
+  private byte[] a
+  private byte[] b
+  private Coverage coverage
+  private Preinstrumenter preinstrumenter
+
+  private static void write(File file, byte[] bytes) {
+    file.getParentFile().mkdirs()
+    file.bytes = bytes
+  }
+
+  @Before
+  void setup() {
+    dir = File.createTempFile("classes", "")
+    dir.delete()
+    a = OfflineInstrumenterTest.makeClass("a/A")
+    b = OfflineInstrumenterTest.makeClass("b/B")
+    write(new File(dir, "b/B.class"), b)
+    write(new File(dir, "a/A.class"), a)
+    coverage = new Coverage()
+    preinstrumenter = new Preinstrumenter(coverage, new ClassNames(), null)
+    assertEquals(2, preinstrumenter.scan([dir]))
+  }
+
+  @Test
+  void testCidsFollowNames() {
+    assertEquals(0, coverage.lookupCid("a/A"))
+    assertEquals(1, coverage.lookupCid("b/B"))
+  }
+
+  @Test
+  void testTake() {
+    SnoopInstructionTransformer.Instrumented r = preinstrumenter.take("b/B", b)
+    assertNotNull(r)
+    assertNull(r.failure)
+    assertEquals(1, r.metadata.getCid())
+    assertFalse(Arrays.equals(b, r.bytes))
+
+    // The methods of the class are only registered when it is merged.
+    assertFalse(coverage.toString().contains("b/B.m"))
+    coverage.merge(r.part)
+    assertTrue(coverage.toString().contains("b/B.m"))
+
+    // A class is taken once.
+    assertNull(preinstrumenter.take("b/B", b))
+    assertNull(preinstrumenter.take("c/C", b))
+  }
+
+  @Test
+  void testOtherBytes() {
+    assertNull(preinstrumenter.take("a/A", b))
+  }
+
+  @Test
+  void testDrop() {
+    preinstrumenter.drop("a/A")
+    assertNull(preinstrumenter.take("a/A", a))
+  }
+
+  @Test
+  void testIdsDoNotDependOnOrder() {
+    Preinstrumenter other = new Preinstrumenter(new Coverage(), new ClassNames(), null)
+    other.scan([dir])
+    byte[] b1 = preinstrumenter.take("b/B", b).bytes
+    byte[] a1 = preinstrumenter.take("a/A", a).bytes
+    byte[] a2 = other.take("a/A", a).bytes
+    byte[] b2 = other.take("b/B", b).bytes
+    assertTrue(Arrays.equals(a1, a2))
+    assertTrue(Arrays.equals(b1, b2))
+  }
+}
@@ -0,0 +1,127 @@
+package janala.instrument
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertTrue
+import static org.mockito.Mockito.mock
+
+import org.objectweb.asm.Label
+import org.objectweb.asm.MethodVisitor
+import org.objectweb.asm.Opcodes
+import org.objectweb.asm.tree.MethodNode
+
+import janala.config.Config
+import janala.logger.ClassNames
+import janala.testing.MethodRecorder
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class ProbePruningAdapterTest {
+  @Before
+  void setup() {
+    Config.instance.analysisClass = "MyAnalysisClass"
+  }
+
+  // static void m(int n) {
+  //   for (int i = 0; i < n; i++) { int j = i * 2; int k = n; }
+  // }
+  private static void loop(MethodVisitor mv) {
+    Label head = new Label()
+    Label exit = new Label()
+    mv.visitCode()
+    mv.visitInsn(Opcodes.ICONST_0)
+    mv.visitVarInsn(Opcodes.ISTORE, 1)
+    mv.visitLabel(head)
+    mv.visitVarInsn(Opcodes.ILOAD, 1)
+    mv.visitVarInsn(Opcodes.ILOAD, 0)
+    mv.visitJumpInsn(Opcodes.IF_ICMPGE, exit)
+    mv.visitVarInsn(Opcodes.ILOAD, 1)
+    mv.visitInsn(Opcodes.ICONST_2)
+    mv.visitInsn(Opcodes.IMUL)
+    mv.visitVarInsn(Opcodes.ISTORE, 2)
+    mv.visitVarInsn(Opcodes.ILOAD, 0)
+    mv.visitVarInsn(Opcodes.ISTORE, 3)
+    mv.visitIincInsn(1, 1)
+    mv.visitJumpInsn(Opcodes.GOTO, head)
+    mv.visitLabel(exit)
+    mv.visitInsn(Opcodes.RETURN)
+    mv.visitMaxs(2, 4)
+    mv.visitEnd()
+  }
+
+  @Test
+  void testConcreteLocals() {
+    MethodNode mn = new MethodNode(Opcodes.ASM5, Opcodes.ACC_STATIC, "m", "(I)V", null, null)
+    loop(mn)
+    BitSet pruned = ProbePruningAdapter.prune("Owner", mn)
+    BitSet expected = new BitSet()
+    [0, 1, 6, 7, 8, 9, 12].each { int i -> expected.set(i) }
+    assertEquals(expected, pruned)
+  }
+
+  @Test
+  void testParameterIsNotConcrete() {
+    MethodNode mn = new MethodNode(Opcodes.ASM5, 0, "m", "(I)V", null, null)
+    loop(mn)
+    // With this in local 0, local 1 is the parameter.
+    assertTrue(ProbePruningAdapter.prune("Owner", mn).isEmpty())
+  }
+
+  @Test
+  void testLocalPassedToMakeSymbolicIsNotConcrete() {
+    // static void main(String[] args) { int i = 1; Main.MakeSymbolic(i); greaterThanZero(i); }
+    MethodNode mn = new MethodNode(Opcodes.ASM5, Opcodes.ACC_STATIC, "main",
+      "([Ljava/lang/String;)V", null, null)
+    mn.visitCode()
+    mn.visitInsn(Opcodes.ICONST_1)
+    mn.visitVarInsn(Opcodes.ISTORE, 1)
+    mn.visitVarInsn(Opcodes.ILOAD, 1)
+    mn.visitMethodInsn(Opcodes.INVOKESTATIC, "janala/Main", "MakeSymbolic", "(I)V", false)
+    mn.visitVarInsn(Opcodes.ILOAD, 1)
+    mn.visitMethodInsn(Opcodes.INVOKESTATIC, "Owner", "greaterThanZero", "(I)V", false)
+    mn.visitInsn(Opcodes.RETURN)
+    mn.visitMaxs(1, 2)
+    mn.visitEnd()
+    assertTrue(ProbePruningAdapter.prune("Owner", mn).isEmpty())
+  }
+
+  @Test
+  void testLocalCopiedToCallIsNotConcrete() {
+    // static void m() { int i = 1; int j = i; f(i, 2); }, with i duplicated on the stack.
+    MethodNode mn = new MethodNode(Opcodes.ASM5, Opcodes.ACC_STATIC, "m", "()V", null, null)
+    mn.visitCode()
+    mn.visitInsn(Opcodes.ICONST_1)
+    mn.visitVarInsn(Opcodes.ISTORE, 0)
+    mn.visitVarInsn(Opcodes.ILOAD, 0)
+    mn.visitInsn(Opcodes.DUP)
+    mn.visitVarInsn(Opcodes.ISTORE, 1)
+    mn.visitInsn(Opcodes.ICONST_2)
+    mn.visitMethodInsn(Opcodes.INVOKESTATIC, "Owner", "f", "(II)V", false)
+    mn.visitInsn(Opcodes.RETURN)
+    mn.visitMaxs(2, 2)
+    mn.visitEnd()
+    assertTrue(ProbePruningAdapter.prune("Owner", mn).isEmpty())
+  }
+
+  @Test
+  void testPrunedInstructionsHaveNoProbes() {
+    MethodRecorder recorder = new MethodRecorder()
+    GlobalStateForInstrumentation state = new GlobalStateForInstrumentation()
+    state.setCid(100)
+    MethodVisitor snoop = new SnoopInstructionMethodAdapter(recorder.getVisitor(), false,
+      mock(Coverage.class), state, ClassNames.getInstance())
+    loop(new ProbePruningAdapter(Opcodes.ACC_STATIC, "m", "(I)V", null, null, "Owner", snoop,
+      recorder.getVisitor()))
+
+    String text = recorder.toString()
+    assertTrue(text.contains("MyAnalysisClass.ILOAD"))
+    assertTrue(text.contains("MyAnalysisClass.ISTORE"))  // Of local 3
+    assertFalse(text.contains("MyAnalysisClass.IINC"))
+    assertFalse(text.contains("MyAnalysisClass.IMUL"))
+    assertTrue(text.contains("IINC 1 1"))
+  }
+}
@@ -0,0 +1,36 @@
+package janala.interpreters
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+
+import org.junit.Test
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class AddressTableTest {
+  @Test
+  void testPutGetRemove() {
+    AddressTable table = new AddressTable(4)
+    Value[] values = new Value[1000]
+    for (int i = 0; i < values.length; i++) {
+      values[i] = new IntValue(i)
+      table.put(i * 31 - 500, values[i])
+    }
+    assertEquals(1000, table.size())
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(values[i], table.get(i * 31 - 500))
+    }
+    assertNull(table.get(7))
+
+    // Removing shifts the collisions back
+    for (int i = 0; i < values.length; i += 2) {
+      table.remove(i * 31 - 500)
+    }
+    assertEquals(500, table.size())
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(i % 2 == 0 ? null : values[i], table.get(i * 31 - 500))
+    }
+    table.put(-500, values[1])
+    assertEquals(values[1], table.get(-500))
+  }
+}
@@ -57,4 +57,21 @@ class ClassDepotTest {
     subIdx = a.getFieldIndex("janala.interpreters.TestSubClass", "subA")
     assertEquals(2, subIdx)
   }
-}
\ No newline at end of file
+
+  @Test
+  void testLayoutFromClassFile() {
+    ClassDepot a = new ClassDepot()
+    // Neither class can be loaded, so the layouts come from the classfiles only
+    a.addClass("no.such.Base", "janala.interpreters.TestClassForDepot", ["b"], ["s"])
+    a.addClass("no.such.Sub", "no.such.Base", ["c", "d"], [])
+
+    int parentFields = a.numFields("janala.interpreters.TestClassForDepot")
+    assertEquals(parentFields + 3, a.numFields("no.such.Sub"))
+    assertEquals(a.getFieldIndex("janala.interpreters.TestClassForDepot", "id"),
+        a.getFieldIndex("no.such.Sub", "id"))
+    assertEquals(parentFields, a.getFieldIndex("no.such.Sub", "b"))
+    assertEquals(parentFields + 2, a.getFieldIndex("no.such.Sub", "d"))
+    assertEquals(a.numStaticFields("janala.interpreters.TestClassForDepot") + 1,
+        a.numStaticFields("no.such.Sub"))
+  }
+}
@@ -1,6 +1,8 @@
 package janala.interpreters
 
 import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertTrue
 
 import org.junit.Test
 
@@ -61,4 +63,68 @@ class FrameTest {
     assertEquals(b, frame.peek3())
     assertEquals(a, frame.peek4())
   }
+
+  @Test
+  void testLocalsGrowUnderStack() {
+    Frame frame = new Frame(0)
+    def a = new IntValue(0)
+    def b = new IntValue(1)
+    frame.push(a)
+    frame.push(b)
+    frame.setLocal2(20, a)
+    assertEquals(a, frame.getLocal2(20))
+    assertEquals(PlaceHolder.instance, frame.getLocal(21))
+    assertEquals(2, frame.getStackSize())
+    assertEquals(b, frame.pop())
+    assertEquals(a, frame.pop())
+  }
+
+  @Test
+  void testFrameStack() {
+    FrameStack stack = new FrameStack()
+    Frame caller = stack.push(0, 0)
+    def a = new IntValue(0)
+    caller.push(a)
+    Frame callee = stack.push(1, 2)
+    callee.addLocal2(new LongValue(1L))
+    callee.push(new IntValue(2))
+    callee.setLocal(5, a)
+    assertEquals(2, stack.size())
+    assertEquals(callee, stack.pop())
+    assertEquals(caller, stack.peek())
+    assertEquals(a, caller.peek())
+
+    // The frame is reused, without its values
+    Frame again = stack.push(0, 1)
+    assertTrue(again.is(callee))
+    assertEquals(0, again.nReturnWords)
+    assertEquals(0, again.getStackSize())
+    assertEquals(PlaceHolder.instance, again.getLocal(0))
+    assertEquals(PlaceHolder.instance, again.getRet())
+  }
+
+  @Test
+  void testUnboxed() {
+    Frame frame = new Frame(0)
+    frame.push(new IntValue(7))
+    frame.pushInt(1 << 20)
+    frame.pushLong(5L)
+    frame.pushDouble(0.5)
+    assertTrue(frame.isDouble(2))
+    assertTrue(frame.isConcreteLong(4))
+    assertTrue(frame.isConcreteInt(5))
+    assertTrue(frame.isConcreteInt(6))
+    assertEquals(0.5, frame.popDouble(), 0.0)
+    assertEquals(new LongValue(5L), frame.pop2())
+    assertEquals(new IntValue(1 << 20), frame.peek())
+    assertEquals(1 << 20, frame.popInt())
+    assertEquals(7, frame.popInt())
+
+    // A symbolic value is not concrete
+    IntValue symbolic = new IntValue(3)
+    symbolic.MAKE_SYMBOLIC(null)
+    frame.push(symbolic)
+    assertFalse(frame.isConcreteInt(1))
+    assertFalse(frame.isConcreteInt(2))
+  }
 }
@@ -25,6 +25,22 @@ class IntValueTest {
         assertEquals(b, i.getSymbol())
     }
 
+    @Test
+    void testSharedValues() {
+        IntValue a = IntValue.valueOf(3)
+        assertTrue(a.is(IntValue.valueOf(1).IADD(IntValue.valueOf(2))))
+        assertFalse(IntValue.valueOf(1 << 20).is(IntValue.valueOf(1 << 20)))
+
+        // A stored value is a copy, which can be made symbolic
+        Frame frame = new Frame(0)
+        frame.setLocal(0, a)
+        IntValue stored = (IntValue) frame.getLocal(0)
+        assertFalse(stored.is(a))
+        stored.MAKE_SYMBOLIC(null)
+        assertNull(a.symbolic)
+        assertTrue(stored.unshared().is(stored))
+    }
+
     @Test
     void testConstructor() {
         IntValue a = new IntValue(1, SymbolicFalseConstraint.instance)
@@ -0,0 +1,99 @@
+package janala.interpreters
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNotSame
+import static org.junit.Assert.assertSame
+import static org.mockito.Mockito.mock
+
+import janala.config.Config
+import janala.instrument.Coverage
+import janala.logger.ClassNames
+import janala.logger.inst.*
+import janala.solvers.History
+import janala.solvers.Solver
+import janala.utils.FileUtil
+
+import org.junit.Before
+import org.junit.Test
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class ThreadDispatcherTest {
+  private ConcolicInterpreter interpreter
+  private ThreadDispatcher dispatcher
+
+  @Before
+  void setup() {
+    Config config = new Config()
+    History history = new History(mock(Solver.class), new FileUtil(), config)
+    interpreter =
+        new ConcolicInterpreter(
+            new ClassNames(mock(ClassDepot.class)), history, mock(Coverage.class), config)
+    dispatcher = new ThreadDispatcher(interpreter)
+  }
+
+  @Test
+  void testFirstThreadUsesInitialFrames() {
+    ThreadFrames first = interpreter.getCurrentThread()
+    assertSame(first, dispatcher.getThread(7))
+    assertSame(first, dispatcher.getThread(7))
+    assertNotSame(first, dispatcher.getThread(8))
+  }
+
+  @Test
+  void testInterleavedThreads() {
+    ThreadFrames t1 = dispatcher.getThread(1)
+    ThreadFrames t2 = dispatcher.getThread(2)
+    Frame f1 = interpreter.getCurrentFrame()
+
+    dispatcher.dispatch(t1, new ICONST_1(0, 0))
+    dispatcher.dispatch(t2, new ICONST_2(0, 0))
+    dispatcher.dispatch(t1, new ICONST_3(1, 0))
+    dispatcher.dispatch(t2, new ICONST_4(1, 0))
+    dispatcher.dispatch(t1, new IADD(2, 0))
+    dispatcher.dispatch(t2, new ISUB(2, 0))
+    dispatcher.finish()
+
+    interpreter.switchThread(t1)
+    assertSame(f1, interpreter.getCurrentFrame())
+    assertEquals(new IntValue(4), interpreter.getCurrentFrame().peek())
+    interpreter.switchThread(t2)
+    assertEquals(new IntValue(-2), interpreter.getCurrentFrame().peek())
+  }
+
+  @Test
+  void testIgnoresInstructionsAfterFinish() {
+    ThreadFrames t1 = dispatcher.getThread(1)
+    dispatcher.dispatch(t1, new ICONST_1(0, 0))
+    dispatcher.finish()
+    dispatcher.dispatch(t1, new ICONST_2(1, 0))
+    dispatcher.dispatch(t1, new ICONST_3(2, 0))
+    assertEquals(1, interpreter.getCurrentFrame().getStackSize())
+  }
+
+  @Test
+  void testNewThread() {
+    ThreadFrames first = dispatcher.newThread()
+    assertSame(interpreter.getCurrentThread(), first)
+    assertNotSame(first, dispatcher.newThread())
+  }
+
+  @Test
+  void testDropsThreadAfterOutermostReturn() {
+    dispatcher.getThread(1)
+    ThreadFrames t2 = dispatcher.getThread(2)
+    dispatcher.dispatch(t2, new ICONST_1(0, 0))
+    dispatcher.dispatch(t2, new ICONST_2(1, 0))
+    dispatcher.dispatch(t2, new IRETURN(2, 0))
+    // The return is visited at once, and the id is free again
+    interpreter.switchThread(t2)
+    assertEquals(1, interpreter.getCurrentFrame().getStackSize())
+    assertNotSame(t2, dispatcher.getThread(2))
+
+    // The thread comes back with its next instruction
+    dispatcher.dispatch(t2, new ICONST_3(3, 0))
+    dispatcher.finish()
+    interpreter.switchThread(t2)
+    assertEquals(2, interpreter.getCurrentFrame().getStackSize())
+  }
+}
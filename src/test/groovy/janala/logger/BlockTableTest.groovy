@@ -0,0 +1,66 @@
+package janala.logger
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+
+import janala.logger.inst.ISTORE
+import janala.logger.inst.IINC
+import janala.logger.inst.ILOAD
+import janala.logger.inst.Instruction
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class BlockTableTest {
+  private StringLogger logger
+  private int id
+
+  @Before
+  void setup() {
+    logger = new StringLogger()
+    id = 5003
+    Instruction[] insns = [new ILOAD(1, 0, 1), null, new ISTORE(2, 0, 2), new IINC(3, 0, 2, 1)] as Instruction[]
+    byte[] kinds = [BlockTable.STATIC, BlockTable.VALUE, BlockTable.STATIC, BlockTable.STATIC] as byte[]
+    BlockTable.define(id, new BlockTable.Block(insns, kinds))
+  }
+
+  @Test
+  void testDefine() {
+    assertEquals(4, BlockTable.get(id).size())
+    assertNull(BlockTable.get(5004))
+    assertNull(BlockTable.get(1 << 24))
+  }
+
+  @Test
+  void testSparseIds() {
+    Instruction[] insns = [new ILOAD(1, 0, 1)] as Instruction[]
+    byte[] kinds = [BlockTable.STATIC] as byte[]
+    BlockTable.define(3000000, new BlockTable.Block(insns, kinds))
+    assertEquals(1, BlockTable.get(3000000).size())
+    assertEquals(4, BlockTable.get(id).size())
+    assertNull(BlockTable.get(2999999))
+  }
+
+  @Test
+  void testBlockWaitsForValue() {
+    logger.BLOCK(id)
+    assertEquals("ILOAD iid=1 mid=0 var=1", logger.getLog())
+    logger.GETVALUE_int(7)
+    assertEquals(
+        "ILOAD iid=1 mid=0 var=1\nGETVALUE_int v=7\nISTORE iid=2 mid=0 var=2\nIINC iid=3 mid=0 var=2 increment=1",
+        logger.getLog())
+    logger.GETVALUE_int(8)
+    assertEquals(5, logger.getLog().split("\n").length)
+  }
+
+  @Test
+  void testOtherProbeLeavesBlock() {
+    logger.BLOCK(id)
+    logger.SPECIAL(0)
+    logger.GETVALUE_int(7)
+    assertEquals("ILOAD iid=1 mid=0 var=1\nSPECIAL i=0\nGETVALUE_int v=7", logger.getLog())
+  }
+}
@@ -0,0 +1,47 @@
+package janala.logger
+
+import static org.junit.Assert.assertEquals
+
+import janala.instrument.Coverage
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class CoverageLoggerTest {
+  @Before
+  void setup() {
+    CoverageLogger.flush(new Coverage())
+  }
+
+  private static Map<Integer, Integer> flush() {
+    Coverage coverage = new Coverage()
+    CoverageLogger.flush(coverage)
+    return coverage.getRunCoverage()
+  }
+
+  @Test
+  void testJumps() {
+    CoverageLogger.IFEQ(0, 3)
+    CoverageLogger.IFEQ(1, 3)
+    CoverageLogger.IF_ICMPLT(1, 2, 5)
+    CoverageLogger.IFNULL("a", 100000)
+    assertEquals([3: 3, 5: 1, 100000: 2], flush())
+    assertEquals([:], flush())
+  }
+
+  @Test
+  void testSwitches() {
+    // The comparisons with 1 and 2 are false, the one with 3 is true
+    CoverageLogger.TABLESWITCH(3, 10, 1, 4)
+    // No match
+    CoverageLogger.LOOKUPSWITCH(7, 20, [1, 5] as int[])
+    assertEquals([10: 2, 11: 2, 12: 1, 20: 2, 21: 2], flush())
+
+    CoverageLogger.TABLESWITCH(0, 10, 1, 2)
+    CoverageLogger.LOOKUPSWITCH(1, 20, [1, 5] as int[])
+    assertEquals([10: 2, 11: 2, 20: 1], flush())
+  }
+}
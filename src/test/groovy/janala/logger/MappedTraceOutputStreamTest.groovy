@@ -0,0 +1,66 @@
+package janala.logger
+
+import static org.junit.Assert.assertArrayEquals
+import static org.junit.Assert.assertEquals
+
+import java.nio.file.Files
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class MappedTraceOutputStreamTest {
+  private static byte[] data(int n) {
+    byte[] b = new byte[n]
+    new Random(n).nextBytes(b)
+    return b
+  }
+
+  @Test
+  void testWrapsRingAndSegments() {
+    File file = File.createTempFile("trace", ".dat")
+    file.deleteOnExit()
+    byte[] expected = data(10000)
+    MappedTraceOutputStream out = new MappedTraceOutputStream(file, 64, 100)
+    int off = 0
+    int step = 1
+    while (off < expected.length) {
+      int n = Math.min(step, expected.length - off)
+      out.write(expected, off, n)
+      off += n
+      step = step % 150 + 7
+    }
+    out.close()
+    assertArrayEquals(expected, Files.readAllBytes(file.toPath()))
+  }
+
+  @Test
+  void testFlushDrains() {
+    File file = File.createTempFile("trace", ".dat")
+    file.deleteOnExit()
+    MappedTraceOutputStream out = new MappedTraceOutputStream(file, 16, 1 << 10)
+    out.write(data(40))
+    out.flush()
+    out.write(7)
+    out.close()
+    assertEquals(41L, file.length())
+  }
+
+  @Test
+  void testEmpty() {
+    File file = File.createTempFile("trace", ".dat")
+    file.deleteOnExit()
+    new MappedTraceOutputStream(file).close()
+    assertEquals(0L, file.length())
+  }
+
+  @Test(expected = IOException.class)
+  void testWriteAfterClose() {
+    File file = File.createTempFile("trace", ".dat")
+    file.deleteOnExit()
+    MappedTraceOutputStream out = new MappedTraceOutputStream(file, 16, 16)
+    out.close()
+    out.write(1)
+  }
+}
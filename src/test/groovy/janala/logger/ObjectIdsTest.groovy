@@ -0,0 +1,64 @@
+package janala.logger
+
+import static org.junit.Assert.assertArrayEquals
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertNotEquals
+import static org.junit.Assert.assertTrue
+
+import org.junit.Test
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class ObjectIdsTest {
+  @Test
+  void testIds() {
+    ObjectIds ids = new ObjectIds(4)
+    assertEquals(0, ids.idOf(null))
+    List<Object> objects = new ArrayList<Object>()
+    Set<Integer> seen = new HashSet<Integer>()
+    for (int i = 0; i < 1000; i++) {
+      Object o = new Object()
+      objects.add(o)
+      assertTrue(seen.add(ids.idOf(o)))
+    }
+    for (int i = 0; i < objects.size(); i++) {
+      assertEquals(i + 1, ids.idOf(objects.get(i)))
+    }
+    // Equal objects are not the same object
+    assertNotEquals(ids.idOf(new String("a")), ids.idOf(new String("a")))
+  }
+
+  @Test
+  void testFreed() {
+    ObjectIds ids = new ObjectIds()
+    ids.keepFreed()
+    Object kept = new Object()
+    int keptId = ids.idOf(kept)
+    int freedId = ids.idOf(new Object())
+    for (int i = 0; i < 100 && !ids.hasFreed(); i++) {
+      System.gc()
+      Thread.sleep(10)
+      ids.idOf(kept) // Removes the collected entries
+    }
+    assertArrayEquals([freedId] as int[], ids.takeFreed())
+    assertEquals(1, ids.size())
+    assertEquals(keptId, ids.idOf(kept))
+  }
+
+  @Test
+  void testFreedNotKept() {
+    ObjectIds ids = new ObjectIds()
+    Object kept = new Object()
+    ids.idOf(kept)
+    ids.idOf(new Object())
+    for (int i = 0; i < 100 && ids.size() > 1; i++) {
+      System.gc()
+      Thread.sleep(10)
+      ids.idOf(kept)
+    }
+    assertEquals(1, ids.size())
+    assertFalse(ids.hasFreed())
+    assertEquals(0, ids.takeFreed().length)
+  }
+}
@@ -0,0 +1,54 @@
+package janala.logger
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertSame
+
+import java.lang.invoke.CallSite
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+
+import org.junit.After
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class ProbeSitesTest {
+  private final Logger saved = DJVM.getInterpreter()
+
+  @After
+  void tearDown() {
+    DJVM.setInterpreter(saved)
+  }
+
+  private static CallSite site(String name, MethodType type) {
+    return ProbeSites.bootstrap(MethodHandles.lookup(), name, type)
+  }
+
+  @Test
+  void testSwitchLogger() {
+    StringLogger first = new StringLogger()
+    DJVM.setInterpreter(first)
+    CallSite site = site("ISTORE", MethodType.fromMethodDescriptorString("(III)V", null))
+    MethodHandle probe = site.dynamicInvoker()
+    probe.invokeWithArguments(1, 2, 3)
+    assertEquals("ISTORE iid=1 mid=2 var=3", first.getLog())
+
+    StringLogger second = new StringLogger()
+    DJVM.setInterpreter(second)
+    probe.invokeWithArguments(4, 5, 6)
+    assertEquals("ISTORE iid=1 mid=2 var=3", first.getLog())
+    assertEquals("ISTORE iid=4 mid=5 var=6", second.getLog())
+
+    DJVM.setInterpreter(null)
+    probe.invokeWithArguments(7, 8, 9)
+    assertEquals("ISTORE iid=4 mid=5 var=6", second.getLog())
+  }
+
+  @Test
+  void testOneSitePerProbe() {
+    MethodType type = MethodType.fromMethodDescriptorString("(I)V", null)
+    assertSame(site("SPECIAL", type), site("SPECIAL", type))
+  }
+}
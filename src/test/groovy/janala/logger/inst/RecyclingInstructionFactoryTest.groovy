@@ -0,0 +1,99 @@
+package janala.logger.inst
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNotSame
+import static org.junit.Assert.assertSame
+import static org.junit.Assert.assertTrue
+
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class RecyclingInstructionFactoryTest {
+  @Test
+  void testTwoSlotsPerType() {
+    RecyclingInstructionFactory factory = new RecyclingInstructionFactory()
+    IF_ICMPEQ a = factory.IF_ICMPEQ(1, 2, 3)
+    IF_ICMPEQ b = factory.IF_ICMPEQ(4, 5, 6)
+    assertNotSame(a, b)
+    assertEquals(1, a.iid)
+    assertEquals(4, b.iid)
+
+    IF_ICMPEQ c = factory.IF_ICMPEQ(7, 8, 9)
+    assertSame(a, c)
+    assertEquals("IF_ICMPEQ iid=7 mid=8 label=9", c.toString())
+    assertEquals(4, b.iid)
+  }
+
+  @Test
+  void testTypesDoNotShareSlots() {
+    RecyclingInstructionFactory factory = new RecyclingInstructionFactory()
+    LDC_int ldc = factory.LDC_int(1, 0, 10)
+    factory.ISTORE(2, 0, 1)
+    factory.ISTORE(3, 0, 1)
+    factory.ISTORE(4, 0, 1)
+    assertEquals(10, ldc.c)
+    assertEquals(1, ldc.iid)
+  }
+
+  @Test
+  void testGetValue() {
+    RecyclingInstructionFactory factory = new RecyclingInstructionFactory()
+    GETVALUE_Object a = factory.GETVALUE_Object(1, "x", true)
+    factory.GETVALUE_Object(2, null, false)
+    GETVALUE_Object c = factory.GETVALUE_Object(3, null, false)
+    assertSame(a, c)
+    assertEquals(3, c.v)
+    assertEquals(null, c.string)
+  }
+
+  private static Object[] defaults(Method m) {
+    Class<?>[] types = m.getParameterTypes()
+    Object[] ret = new Object[types.length]
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == int.class) {
+        ret[i] = Integer.valueOf(0)
+      } else if (types[i] == long.class) {
+        ret[i] = Long.valueOf(0L)
+      } else if (types[i] == float.class) {
+        ret[i] = Float.valueOf(0f)
+      } else if (types[i] == double.class) {
+        ret[i] = Double.valueOf(0d)
+      } else if (types[i] == boolean.class) {
+        ret[i] = Boolean.FALSE
+      } else if (types[i] == short.class) {
+        ret[i] = Short.valueOf((short) 0)
+      } else if (types[i] == byte.class) {
+        ret[i] = Byte.valueOf((byte) 0)
+      } else if (types[i] == char.class) {
+        ret[i] = Character.valueOf((char) 0)
+      }
+    }
+    return ret
+  }
+
+  @Test
+  void testEveryTypeHasItsOwnSlots() {
+    RecyclingInstructionFactory factory = new RecyclingInstructionFactory()
+    Set<Object> handedOut = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>())
+    for (Method m : InstructionFactory.class.getDeclaredMethods()) {
+      if (!Modifier.isPublic(m.getModifiers()) || Modifier.isStatic(m.getModifiers())) {
+        continue
+      }
+      Method recycled = RecyclingInstructionFactory.class.getMethod(m.getName(), m.getParameterTypes())
+      assertEquals(m.getName(), RecyclingInstructionFactory.class, recycled.getDeclaringClass())
+      Object[] args = defaults(m)
+      Object a = recycled.invoke(factory, args)
+      Object b = recycled.invoke(factory, args)
+      assertNotSame(m.getName(), a, b)
+      assertSame(m.getName(), a, recycled.invoke(factory, args))
+      assertTrue(m.getName(), handedOut.add(a))
+      assertTrue(m.getName(), handedOut.add(b))
+    }
+    assertTrue(handedOut.size() > 0)
+  }
+}
@@ -0,0 +1,144 @@
+package janala.logger.inst
+
+import static org.junit.Assert.assertArrayEquals
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertTrue
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class TraceWriterTest {
+  private static List<Instruction> sample() {
+    InstructionFactory f = new InstructionFactory()
+    int iid = (3 << 18) + (2 << 10)
+    return [
+      f.LDC_int(iid, 7, -5),
+      f.LDC_long(iid + 1, 7, Long.MIN_VALUE),
+      f.LDC_double(iid + 2, 7, 0.1D),
+      f.LDC_float(iid + 3, 7, -1.5F),
+      f.LDC_String(iid + 4, 7, "héllo", 42),
+      f.INVOKEVIRTUAL(iid + 5, 7, "java/lang/String", "length", "()I"),
+      f.INVOKESTATIC(iid + 6, 7, "java/lang/String", "valueOf", "(I)Ljava/lang/String;"),
+      f.INVOKEVIRTUAL(iid + 7, 7, "java/lang/String", "length", "()I"),
+      f.LOOKUPSWITCH(iid + 8, 7, 1, [1, -100, 100000] as int[], [2, 3, 4] as int[]),
+      f.INVOKEMETHOD_END(),
+      f.GETVALUE_Object(12345, null, false),
+      f.GETVALUE_char((char) 'x'),
+      f.GETVALUE_short((short) -3),
+      f.GETVALUE_byte((byte) -128),
+      f.GETVALUE_boolean(true),
+      f.SPECIAL(1),
+      f.IF_ICMPEQ(5, 1, 9)
+    ] as List<Instruction>
+  }
+
+  private static void assertSameInstruction(Instruction expected, Instruction actual) {
+    if (expected instanceof LOOKUPSWITCH) {
+      assertArrayEquals(((LOOKUPSWITCH) expected).keys, ((LOOKUPSWITCH) actual).keys)
+      assertArrayEquals(((LOOKUPSWITCH) expected).labels, ((LOOKUPSWITCH) actual).labels)
+      assertEquals(expected.iid, actual.iid)
+    } else {
+      assertEquals(expected.toString(), actual.toString())
+    }
+  }
+
+  @Test
+  void testRoundTrip() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+    TraceWriter writer = new TraceWriter(bytes)
+    for (Instruction insn : sample()) {
+      writer.write(insn)
+    }
+    writer.close()
+
+    TraceReader reader = new TraceReader(new ByteArrayInputStream(bytes.toByteArray()))
+    for (Instruction insn : sample()) {
+      assertSameInstruction(insn, reader.read())
+    }
+    assertNull(reader.read())
+    reader.close()
+  }
+
+  @Test
+  void testStringsAreWrittenOnce() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+    TraceWriter writer = new TraceWriter(bytes)
+    InstructionFactory f = new InstructionFactory()
+    writer.write(f.INVOKEVIRTUAL(1, 0, "some/long/Owner", "method", "()V"))
+    writer.flush()
+    int first = bytes.size()
+    writer.write(f.INVOKEVIRTUAL(2, 0, "some/long/Owner", "method", "()V"))
+    writer.flush()
+    assertTrue(bytes.size() - first < 8)
+  }
+
+  @Test
+  void testNullEndsTrace() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+    TraceWriter writer = new TraceWriter(bytes)
+    InstructionFactory f = new InstructionFactory()
+    writer.write(f.IADD(1, 0))
+    writer.write(null)
+    writer.write(f.ISUB(2, 0))
+    writer.close()
+
+    TraceReader reader = new TraceReader(new ByteArrayInputStream(bytes.toByteArray()))
+    assertEquals("IADD iid=1 mid=0", reader.read().toString())
+    assertNull(reader.read())
+  }
+
+  @Test
+  void testDefinitions() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+    TraceWriter writer = new TraceWriter(bytes)
+    InstructionFactory f = new InstructionFactory()
+    writer.writeThread(12L)
+    writer.writeClass("a.B")
+    writer.writeField(0, "x", false)
+    writer.writeFreed([3, 7] as int[])
+    writer.write(f.GETFIELD(1, 0, 0, 0, "I"))
+    writer.close()
+
+    List<String> defs = []
+    TraceReader reader = new TraceReader(new ByteArrayInputStream(bytes.toByteArray()))
+    reader.setRecordListener(new TraceReader.RecordListener() {
+      void switchThread(long threadId) {
+        defs.add("thread " + threadId)
+      }
+
+      void freeObjects(int[] ids) {
+        defs.add("freed " + Arrays.toString(ids))
+      }
+
+      void defineClass(String className) {
+        defs.add(className)
+      }
+
+      void defineField(int cIdx, String fieldName, boolean isStatic) {
+        defs.add(cIdx + "." + fieldName + (isStatic ? " static" : ""))
+      }
+    })
+    assertTrue(reader.read() instanceof GETFIELD)
+    assertEquals(["thread 12", "a.B", "0.x", "freed [3, 7]"], defs)
+    assertNull(reader.read())
+  }
+
+  @Test
+  void testReadsSerializedTrace() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+    ObjectOutputStream out = new ObjectOutputStream(bytes)
+    for (Instruction insn : sample()) {
+      out.writeObject(insn)
+    }
+    out.close()
+
+    TraceReader reader = new TraceReader(new ByteArrayInputStream(bytes.toByteArray()))
+    for (Instruction insn : sample()) {
+      assertSameInstruction(insn, reader.read())
+    }
+    assertNull(reader.read())
+  }
+}
@@ -0,0 +1,135 @@
+package janala.parallel
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertTrue
+
+import janala.solvers.BranchElement
+import janala.solvers.Element
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class CoordinatorTest {
+  static final ArrayList<WorkItem> NONE = new ArrayList<WorkItem>()
+
+  Frontier frontier
+  Coordinator coordinator
+  int port
+
+  private void start(long leaseMillis) {
+    frontier = new Frontier(100)
+    frontier.add(WorkItem.root())
+    coordinator = new Coordinator(frontier, leaseMillis)
+    port = coordinator.start(0)
+  }
+
+  @After
+  void tearDown() {
+    coordinator.stop()
+  }
+
+  /** The children of an item of a complete binary tree of the given depth. */
+  private static ArrayList<WorkItem> children(WorkItem item, int depth) {
+    ArrayList<WorkItem> ret = new ArrayList<WorkItem>()
+    if (item.getPrefix().size() < depth) {
+      for (boolean b : [true, false]) {
+        ArrayList<Element> prefix = new ArrayList<Element>(item.getPrefix())
+        prefix.add(new BranchElement(b, true, -1, prefix.size()))
+        ret.add(new WorkItem(prefix, []))
+      }
+    }
+    return ret
+  }
+
+  @Test
+  void testSeveralWorkers() {
+    start(10000)
+    List<String> explored = Collections.synchronizedList(new ArrayList<String>())
+    List<Thread> workers = []
+    for (int i = 0; i < 4; i++) {
+      Thread t = Thread.start {
+        CoordinatorClient client = new CoordinatorClient("localhost", port)
+        while (true) {
+          Message reply = client.send(Message.lease())
+          if (reply.getKind() == Message.Kind.DONE) {
+            return
+          }
+          if (reply.getKind() == Message.Kind.WAIT) {
+            Thread.sleep(10)
+            continue
+          }
+          WorkItem item = reply.getItem()
+          explored.add(item.getKey())
+          TreeMap<Integer, Integer> coverage = new TreeMap<Integer, Integer>()
+          coverage.put(item.getPrefix().size(), 1)
+          client.send(Message.report(
+              reply.getLeaseId(), children(item, 3), item.getPrefix(), coverage))
+        }
+      }
+      workers.add(t)
+    }
+    for (Thread t : workers) {
+      t.join()
+    }
+    assertEquals(15, explored.size())
+    assertEquals(15, new HashSet<String>(explored).size())
+    assertEquals(15, coordinator.getRuns())
+    assertEquals(0, coordinator.getDiverged())
+    assertEquals(4, coordinator.getCovered())
+    assertTrue(frontier.isExhausted())
+  }
+
+  @Test
+  void testExpiredLeaseIsReassigned() {
+    start(100)
+    CoordinatorClient dead = new CoordinatorClient("localhost", port)
+    CoordinatorClient alive = new CoordinatorClient("localhost", port)
+    Message first = dead.send(Message.lease())
+    assertEquals(Message.Kind.ITEM, first.getKind())
+    assertEquals(Message.Kind.WAIT, alive.send(Message.lease()).getKind())
+
+    Thread.sleep(300)
+    Message second = alive.send(Message.lease())
+    assertEquals(Message.Kind.ITEM, second.getKind())
+    assertEquals(first.getItem().getKey(), second.getItem().getKey())
+
+    assertEquals(Message.Kind.REJECTED,
+        dead.send(Message.report(first.getLeaseId(), NONE, null, null)).getKind())
+    assertEquals(Message.Kind.ACK,
+        alive.send(Message.report(second.getLeaseId(), NONE, null, null)).getKind())
+    assertEquals(Message.Kind.DONE, alive.send(Message.lease()).getKind())
+  }
+
+  @Test
+  void testHeartbeatKeepsLease() {
+    start(100)
+    CoordinatorClient client = new CoordinatorClient("localhost", port)
+    Message lease = client.send(Message.lease())
+    for (int i = 0; i < 6; i++) {
+      Thread.sleep(50)
+      assertEquals(Message.Kind.ACK, client.send(Message.renew(lease.getLeaseId())).getKind())
+    }
+    assertEquals(Message.Kind.WAIT, client.send(Message.lease()).getKind())
+    assertEquals(Message.Kind.ACK,
+        client.send(Message.report(lease.getLeaseId(), NONE, null, null)).getKind())
+  }
+
+  @Test
+  void testDivergedRun() {
+    start(10000)
+    CoordinatorClient client = new CoordinatorClient("localhost", port)
+    Message lease = client.send(Message.lease())
+    ArrayList<WorkItem> kids = children(lease.getItem(), 1)
+    client.send(Message.report(lease.getLeaseId(), kids, null, null))
+
+    lease = client.send(Message.lease())
+    ArrayList<Element> history = new ArrayList<Element>()
+    BranchElement b = (BranchElement) lease.getItem().getPrefix().get(0)
+    history.add(new BranchElement(!b.getBranch(), false, -1, b.getIid()))
+    client.send(Message.report(lease.getLeaseId(), NONE, history, null))
+    assertEquals(1, coordinator.getDiverged())
+  }
+}
@@ -0,0 +1,95 @@
+package janala.parallel
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertSame
+import static org.junit.Assert.assertTrue
+
+import janala.solvers.BranchElement
+import janala.solvers.Element
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class FrontierTest {
+  private static WorkItem item(boolean... branches) {
+    ArrayList<Element> prefix = new ArrayList<Element>()
+    int iid = 0
+    for (boolean b : branches) {
+      prefix.add(new BranchElement(b, true, -1, iid++))
+    }
+    return new WorkItem(prefix, ["1"])
+  }
+
+  @Test
+  void testTakeAndComplete() {
+    Frontier frontier = new Frontier(10)
+    WorkItem root = WorkItem.root()
+    frontier.add(root)
+    assertSame(root, frontier.take())
+    assertFalse(frontier.isExhausted())
+
+    frontier.complete([item(true), item(false)])
+    assertEquals("0-,", frontier.take().getKey())
+    assertEquals("0+,", frontier.take().getKey())
+    frontier.complete([])
+    frontier.complete([])
+    assertNull(frontier.take())
+    assertTrue(frontier.isExhausted())
+  }
+
+  @Test
+  void testDuplicatePrefix() {
+    Frontier frontier = new Frontier(10)
+    assertTrue(frontier.add(item(true, false)))
+    assertFalse(frontier.add(item(true, false)))
+    frontier.take()
+    frontier.complete([item(true, false)])
+    assertNull(frontier.take())
+  }
+
+  @Test
+  void testMaxItems() {
+    Frontier frontier = new Frontier(1)
+    frontier.add(item(true))
+    frontier.add(item(false))
+    frontier.take()
+    frontier.complete([])
+    assertNull(frontier.take())
+    assertFalse(frontier.isExhausted())
+  }
+
+  @Test
+  void testWaitForItemsInFlight() {
+    final Frontier frontier = new Frontier(10)
+    frontier.add(WorkItem.root())
+    frontier.take()
+    Thread t = new Thread() {
+      @Override
+      void run() {
+        Thread.sleep(50)
+        frontier.complete([item(true)])
+      }
+    }
+    t.start()
+    assertEquals("0+,", frontier.take().getKey())
+    t.join()
+  }
+
+  @Test
+  void testRetry() {
+    Frontier frontier = new Frontier(10)
+    frontier.add(item(true))
+    int nRetries = 0
+    while (frontier.retry(frontier.take())) {
+      assertEquals(0, frontier.getTaken())
+      nRetries++
+    }
+    assertEquals(2, nRetries)
+    assertEquals(1, frontier.getTaken())
+    assertNull(frontier.take())
+    assertTrue(frontier.isExhausted())
+  }
+}
@@ -0,0 +1,68 @@
+package janala.parallel
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertTrue
+
+import janala.solvers.BranchElement
+import janala.solvers.Element
+import janala.solvers.MethodElement
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class MessageTest {
+  private static Message roundTrip(Message message) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+    message.write(new DataOutputStream(bytes))
+    return Message.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+  }
+
+  @Test
+  void testReport() {
+    ArrayList<Element> history = new ArrayList<Element>()
+    BranchElement branch = new BranchElement(true, false, 3, 42)
+    branch.setIsForceTruth(true)
+    history.add(branch)
+    history.add(new MethodElement(true, 7))
+    ArrayList<WorkItem> children = new ArrayList<WorkItem>()
+    children.add(new WorkItem(history, ["1", "abc"]))
+    TreeMap<Integer, Integer> coverage = new TreeMap<Integer, Integer>()
+    coverage.put(5, 3)
+
+    Message m = roundTrip(Message.report(9L, children, history, coverage))
+    assertEquals(Message.Kind.REPORT, m.getKind())
+    assertEquals(9L, m.getLeaseId())
+    assertNull(m.getItem())
+    assertEquals(1, m.getChildren().size())
+    assertEquals(["1", "abc"], m.getChildren().get(0).getInputs())
+    assertEquals(history.toString(), m.getHistory().toString())
+    assertEquals(history.toString(), m.getChildren().get(0).getPrefix().toString())
+    assertEquals(coverage, m.getCoverage())
+  }
+
+  @Test
+  void testItem() {
+    Message m = roundTrip(Message.item(2L, 100L, WorkItem.root()))
+    assertEquals(Message.Kind.ITEM, m.getKind())
+    assertEquals(100L, m.getLeaseMillis())
+    assertTrue(m.getItem().getPrefix().isEmpty())
+    assertNull(m.getChildren())
+    assertNull(m.getHistory())
+    assertNull(m.getCoverage())
+  }
+
+  @Test(expected = IOException.class)
+  void testUnknownKind() {
+    Message.read(new DataInputStream(new ByteArrayInputStream([(byte) 100] as byte[])))
+  }
+
+  @Test(expected = EOFException.class)
+  void testTruncated() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+    Message.lease().write(new DataOutputStream(bytes))
+    byte[] data = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1)
+    Message.read(new DataInputStream(new ByteArrayInputStream(data)))
+  }
+}
@@ -67,6 +67,26 @@ class HistoryTest {
     assertNull(history.removeLastBranch())
   }
 
+  @Test
+  void testPrefixWithNegatedBranch() {
+    history.checkAndSetBranch(true, null, 1)
+    history.beginScope(2)
+    history.checkAndSetBranch(false, null, 3)
+    history.checkAndSetBranch(true, null, 4)
+
+    List<Element> prefix = history.prefixWithNegatedBranch(2)
+    assertEquals(3, prefix.size())
+    BranchElement first = (BranchElement) prefix.get(0)
+    assertTrue(first.getBranch())
+    assertTrue(first.getDone())
+    BranchElement last = (BranchElement) prefix.get(2)
+    assertEquals(3, last.getIid())
+    assertTrue(last.getBranch())
+    assertTrue(last.getDone())
+    // The history itself is not changed
+    assertEquals(false, ((BranchElement) history.getHistory().get(0)).getDone())
+  }
+
   @Test
   void testSetBranch() {
     // Unconditionally set to true branch
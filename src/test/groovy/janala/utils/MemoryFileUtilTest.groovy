@@ -0,0 +1,46 @@
+package janala.utils
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertTrue
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class MemoryFileUtilTest {
+  MemoryFileUtil fileUtil = new MemoryFileUtil()
+
+  @Test
+  void testWriteAndRead() {
+    fileUtil.write("inputs", ["1", "2"])
+    assertTrue(fileUtil.exists("inputs"))
+    assertEquals(["1", "2"], fileUtil.readLines("inputs"))
+  }
+
+  @Test
+  void testMoveFile() {
+    fileUtil.write("inputs", ["1"])
+    fileUtil.write("inputs.bak", ["2"])
+    fileUtil.moveFile("inputs", "inputs.bak")
+    assertFalse(fileUtil.exists("inputs"))
+    assertEquals(["1"], fileUtil.readLines("inputs.bak"))
+
+    fileUtil.moveFile("inputs", "inputs.bak")
+    assertFalse(fileUtil.exists("inputs.bak"))
+  }
+
+  @Test
+  void testTouchAndRemove() {
+    fileUtil.touch("backtrackFlag")
+    assertTrue(fileUtil.exists("backtrackFlag"))
+    fileUtil.remove("backtrackFlag")
+    assertFalse(fileUtil.exists("backtrackFlag"))
+  }
+
+  @Test(expected=FileNotFoundException)
+  void testOpenMissing() {
+    fileUtil.openInput("history")
+  }
+}
@@ -0,0 +1,60 @@
+package janala.utils
+
+import static org.junit.Assert.assertArrayEquals
+import static org.junit.Assert.assertEquals
+
+import org.junit.Test
+
+import groovy.transform.CompileStatic
+
+@CompileStatic
+class TailingInputStreamTest {
+  @Test
+  void testFollowsGrowingFile() {
+    File dir = File.createTempDir()
+    File file = new File(dir, "trace")
+    File done = new File(dir, "trace.aux")
+    Thread writer = Thread.start {
+      Thread.sleep(20)
+      FileOutputStream out = new FileOutputStream(file)
+      for (int i = 0; i < 5; i++) {
+        out.write([i, i] as byte[])
+        out.flush()
+        Thread.sleep(10)
+      }
+      out.close()
+      done.createNewFile()
+    }
+
+    TailingInputStream stream = new TailingInputStream(file, done)
+    byte[] b = new byte[10]
+    int n = 0
+    while (n < b.length) {
+      int k = stream.read(b, n, b.length - n)
+      if (k == -1) {
+        break
+      }
+      n += k
+    }
+    assertArrayEquals([0, 0, 1, 1, 2, 2, 3, 3, 4, 4] as byte[], b)
+    assertEquals(-1, stream.read())
+    stream.close()
+    writer.join()
+    file.delete()
+    done.delete()
+    dir.delete()
+  }
+
+  @Test(expected = IOException.class)
+  void testMissingFile() {
+    File dir = File.createTempDir()
+    File done = new File(dir, "trace.aux")
+    done.createNewFile()
+    try {
+      new TailingInputStream(new File(dir, "trace"), done)
+    } finally {
+      done.delete()
+      dir.delete()
+    }
+  }
+}